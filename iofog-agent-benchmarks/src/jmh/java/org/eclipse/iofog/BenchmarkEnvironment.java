@@ -0,0 +1,96 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog;
+
+import org.eclipse.iofog.message_bus.Message;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * prepares agent static state for benchmarks without agent configuration file
+ * agent logging is switched off, otherwise it would print to stdout and dominate results
+ */
+public final class BenchmarkEnvironment {
+
+	private BenchmarkEnvironment() {
+	}
+
+	/**
+	 * switches logging off, disables Sentry and points agent disk directory to given directory
+	 *
+	 * @param diskDirectory - directory for message archives
+	 */
+	public static void setUp(Path diskDirectory) throws ReflectiveOperationException {
+		Logger logger = Logger.getLogger("org.eclipse.iofog.benchmarks");
+		logger.setUseParentHandlers(false);
+		logger.setLevel(Level.OFF);
+		setStatic(LoggingService.class, "logger", logger);
+		Configuration.setDevMode(true);
+		setStatic(Configuration.class, "diskDirectory", diskDirectory.toString() + File.separator);
+		setStatic(Configuration.class, "gpsCoordinates", "50.4501,30.5234");
+	}
+
+	/**
+	 * builds message with all header fields set and random content of given size
+	 *
+	 * @param contentSize - size of content data in bytes
+	 * @return message
+	 */
+	public static Message newMessage(int contentSize) {
+		Random random = new Random(contentSize);
+		byte[] content = new byte[contentSize];
+		random.nextBytes(content);
+
+		Message message = new Message("publisher-uuid-0123456789abcdef");
+		message.setId("5cJ9zW3nH7qR2xT8vB4kM6pL1sD0fG");
+		message.setTag("benchmark");
+		message.setMessageGroupId("group");
+		message.setSequenceNumber(1);
+		message.setSequenceTotal(1);
+		message.setPriority((byte) 5);
+		message.setTimestamp(System.currentTimeMillis());
+		message.setInfoType("application/octet-stream");
+		message.setInfoFormat("binary");
+		message.setContextData("context".getBytes());
+		message.setContentData(content);
+		return message;
+	}
+
+	/**
+	 * deletes directory with its content
+	 *
+	 * @param directory - directory to delete
+	 */
+	public static void delete(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private static void setStatic(Class<?> type, String name, Object value) throws ReflectiveOperationException {
+		Field field = type.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(null, value);
+	}
+}
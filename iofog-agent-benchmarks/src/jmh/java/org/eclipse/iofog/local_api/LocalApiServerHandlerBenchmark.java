@@ -0,0 +1,93 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.eclipse.iofog.BenchmarkEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+
+/**
+ * {@link LocalApiServerHandler} dispatch of http requests on an embedded channel
+ * handler tasks run on calling thread, so the response is ready when request is written
+ * gps route is used because it needs neither access token nor running modules
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalApiServerHandlerBenchmark {
+
+	private EmbeddedChannel channel;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkEnvironment.setUp(Paths.get(System.getProperty("java.io.tmpdir")));
+		channel = new EmbeddedChannel(new LocalApiServerHandler(ImmediateEventExecutor.INSTANCE));
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public int gpsRequest() {
+		return dispatch(channel, "/v2/gps");
+	}
+
+	/**
+	 * unknown route goes through every route check, channel is closed after not found response
+	 */
+	@Benchmark
+	public int notFoundRequest() {
+		EmbeddedChannel notFoundChannel = new EmbeddedChannel(new LocalApiServerHandler(ImmediateEventExecutor.INSTANCE));
+		try {
+			return dispatch(notFoundChannel, "/v2/not-found");
+		} finally {
+			notFoundChannel.finishAndReleaseAll();
+		}
+	}
+
+	private static int dispatch(EmbeddedChannel channel, String uri) {
+		FullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, uri, Unpooled.EMPTY_BUFFER);
+		request.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+		request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+		channel.writeInbound(request);
+		FullHttpResponse response = channel.readOutbound();
+		try {
+			return response.status().code();
+		} finally {
+			ReferenceCountUtil.release(response);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocket13FrameDecoder;
+import io.netty.handler.codec.http.websocketx.WebSocket13FrameEncoder;
+import io.netty.util.ReferenceCountUtil;
+import org.eclipse.iofog.BenchmarkEnvironment;
+import org.eclipse.iofog.message_bus.Message;
+import org.eclipse.iofog.utils.BytesUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * message websocket framing: agent message frame (opcode, length, message) in websocket frames
+ * server frames are sent unmasked, client frames are masked, like in {@link MessageWebsocketHandler}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WebsocketFrameBenchmark {
+
+	private static final byte OPCODE_MSG = 0xD;
+	private static final int MAX_FRAME_PAYLOAD = 64 * 1024 * 1024;
+
+	@Param({"64", "4096", "65536"})
+	public int contentSize;
+
+	private Message message;
+	private EmbeddedChannel serverEncoder;
+	private EmbeddedChannel serverDecoder;
+	private ByteBuf clientFrame;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkEnvironment.setUp(Paths.get(System.getProperty("java.io.tmpdir")));
+		message = BenchmarkEnvironment.newMessage(contentSize);
+		serverEncoder = new EmbeddedChannel(new WebSocket13FrameEncoder(false));
+		serverDecoder = new EmbeddedChannel(new WebSocket13FrameDecoder(true, false, MAX_FRAME_PAYLOAD));
+
+		EmbeddedChannel clientEncoder = new EmbeddedChannel(new WebSocket13FrameEncoder(true));
+		clientEncoder.writeOutbound(new BinaryWebSocketFrame(encodeMessage(message)));
+		ByteBuf encoded = Unpooled.buffer();
+		ByteBuf part;
+		while ((part = clientEncoder.readOutbound()) != null) {
+			encoded.writeBytes(part);
+			part.release();
+		}
+		clientFrame = encoded;
+		clientEncoder.finishAndReleaseAll();
+	}
+
+	@TearDown
+	public void tearDown() {
+		serverEncoder.finishAndReleaseAll();
+		serverDecoder.finishAndReleaseAll();
+		clientFrame.release();
+	}
+
+	/**
+	 * message sent to receiver: message encoding, framing and websocket frame encoding
+	 */
+	@Benchmark
+	public int encodeServerFrame() {
+		serverEncoder.writeOutbound(new BinaryWebSocketFrame(encodeMessage(message)));
+		int size = 0;
+		ByteBuf part;
+		while ((part = serverEncoder.readOutbound()) != null) {
+			size += part.readableBytes();
+			part.release();
+		}
+		return size;
+	}
+
+	/**
+	 * message received from publisher: websocket frame decoding, unmasking and message decoding
+	 */
+	@Benchmark
+	public Message decodeClientFrame() {
+		serverDecoder.writeInbound(clientFrame.retainedDuplicate());
+		BinaryWebSocketFrame frame = serverDecoder.readInbound();
+		try {
+			ByteBuf content = frame.content();
+			byte[] bytes = new byte[content.readableBytes()];
+			content.getBytes(content.readerIndex(), bytes);
+			int length = BytesUtil.bytesToInteger(BytesUtil.copyOfRange(bytes, 1, 5));
+			return new Message(BytesUtil.copyOfRange(bytes, 5, length + 5));
+		} finally {
+			ReferenceCountUtil.release(frame);
+		}
+	}
+
+	private static ByteBuf encodeMessage(Message message) {
+		byte[] bytes = message.getBytes();
+		ByteBuf buffer = Unpooled.buffer(bytes.length + 5);
+		buffer.writeByte(OPCODE_MSG);
+		buffer.writeBytes(BytesUtil.integerToBytes(bytes.length));
+		buffer.writeBytes(bytes);
+		return buffer;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.BenchmarkEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageArchive} writes and time frame queries on a temporary disk directory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageArchiveBenchmark {
+
+	private static final int QUERY_ARCHIVE_SIZE = 5_000;
+
+	@Param({"256", "4096"})
+	public int contentSize;
+
+	private Path diskDirectory;
+	private MessageArchive writeArchive;
+	private MessageArchive queryArchive;
+	private byte[] bytes;
+	private long firstTimestamp;
+	private long lastTimestamp;
+	private long timestamp;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		diskDirectory = Files.createTempDirectory("iofog-archive-benchmark");
+		BenchmarkEnvironment.setUp(diskDirectory);
+		bytes = BenchmarkEnvironment.newMessage(contentSize).getBytes();
+
+		queryArchive = new MessageArchive("query");
+		firstTimestamp = System.currentTimeMillis();
+		for (int i = 0; i < QUERY_ARCHIVE_SIZE; i++) {
+			Message message = BenchmarkEnvironment.newMessage(contentSize);
+			message.setTimestamp(firstTimestamp + i);
+			queryArchive.save(message.getBytes(), message.getTimestamp());
+		}
+		lastTimestamp = firstTimestamp + QUERY_ARCHIVE_SIZE;
+		queryArchive.close();
+
+		writeArchive = new MessageArchive("write");
+		timestamp = lastTimestamp;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		writeArchive.close();
+		queryArchive.close();
+		BenchmarkEnvironment.delete(diskDirectory);
+	}
+
+	@Benchmark
+	public void save() throws Exception {
+		writeArchive.save(bytes, ++timestamp);
+	}
+
+	@Benchmark
+	public List<Message> messageQueryLastSecond() {
+		return queryArchive.messageQuery(lastTimestamp - 1_000, lastTimestamp);
+	}
+
+	@Benchmark
+	public List<Message> messageQueryAll() {
+		return queryArchive.messageQuery(firstTimestamp, lastTimestamp);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.BenchmarkEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.json.JsonObject;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Message} encoding and decoding, binary format is used by archive and websockets,
+ * json format by REST local api
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageBenchmark {
+
+	@Param({"64", "4096", "65536"})
+	public int contentSize;
+
+	private Message message;
+	private byte[] bytes;
+	private JsonObject json;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkEnvironment.setUp(Paths.get(System.getProperty("java.io.tmpdir")));
+		message = BenchmarkEnvironment.newMessage(contentSize);
+		bytes = message.getBytes();
+		json = message.toJson();
+	}
+
+	@Benchmark
+	public byte[] getBytes() {
+		return message.getBytes();
+	}
+
+	@Benchmark
+	public Message fromBytes() {
+		return new Message(bytes);
+	}
+
+	@Benchmark
+	public JsonObject toJson() {
+		return message.toJson();
+	}
+
+	@Benchmark
+	public Message fromJson() {
+		return new Message(json);
+	}
+}
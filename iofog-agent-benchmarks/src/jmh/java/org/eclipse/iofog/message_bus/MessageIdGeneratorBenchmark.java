@@ -0,0 +1,52 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageIdGenerator#generate(long)}, single threaded and contended
+ * pre-generated ids of {@link MessageIdGenerator#getNextId()} are not measured, they are refilled by background thread
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageIdGeneratorBenchmark {
+
+	private MessageIdGenerator generator;
+
+	@Setup
+	public void setUp() {
+		generator = new MessageIdGenerator();
+	}
+
+	@Benchmark
+	public String generate() {
+		return generator.generate(System.currentTimeMillis());
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String generateContended() {
+		return generator.generate(System.currentTimeMillis());
+	}
+}
@@ -379,6 +379,8 @@ public enum CommandLineAction {
 			"                 -ll <log level>         Set the standard logging levels that\\n"+
 			"                                         can be used to control logging output" +
 			"                 -sf <#seconds>          Set the status update frequency\\n" +
+			"                 -sm <full/compressed    Set the status report mode. Use delta to\\n" +
+			"                     /delta>             send only changed fields\\n" +
 			"                 -cf <#seconds>          Set the get changes frequency\\n" +
 			"                 -df <#seconds>          Set the post diagnostics frequency\\n" +
 			"                 -sd <#seconds>          Set the scan devices frequency\\n" +
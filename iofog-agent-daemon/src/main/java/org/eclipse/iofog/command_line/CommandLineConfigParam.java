@@ -45,6 +45,7 @@ public enum CommandLineConfigParam {
     LOG_FILE_COUNT ("10", "lc","log_file_count", "logFileCount"),
     LOG_LEVEL ("INFO", "ll","log_level", "logLevel"),
     STATUS_FREQUENCY("10", "sf", "status_update_freq", "statusFrequency"),
+    STATUS_REPORT_MODE("full", "sm", "status_report_mode", "statusReportMode"),
     CHANGE_FREQUENCY("20", "cf", "get_changes_freq", "changeFrequency"),
     DEVICE_SCAN_FREQUENCY("60", "sd", "scan_devices_freq", "deviceScanFrequency"),
     WATCHDOG_ENABLED("off", "idc", "isolated_docker_container", "watchdogEnabled"),
@@ -0,0 +1,167 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * runs periodic tasks on shared {@link ScheduledExecutorService}
+ * each task is rescheduled after it finishes, next run delay depends on task outcome:
+ * base interval when idle, shortened interval while work is pending
+ * and exponentially growing interval while controller is unreachable
+ * every delay gets random jitter so that fog nodes don't hit controller at the same moment
+ */
+public class AdaptiveScheduler {
+
+	private static final String MODULE_NAME = "Adaptive Scheduler";
+
+	static final long MIN_INTERVAL_MILLIS = 1000;
+	static final long MAX_BACKOFF_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	static final int MAX_BACKOFF_EXPONENT = 5;
+	static final int PENDING_INTERVAL_DIVIDER = 10;
+	static final double JITTER = 0.1;
+
+	/**
+	 * result of single task run
+	 */
+	public enum Outcome {
+		IDLE,
+		PENDING,
+		UNREACHABLE
+	}
+
+	/**
+	 * handle of scheduled task
+	 */
+	public interface ScheduledTask {
+		/**
+		 * runs task as soon as possible instead of waiting for the next scheduled run
+		 * if task is running at the moment, it is run once more right after it finishes
+		 */
+		void runNow();
+	}
+
+	private final ScheduledExecutorService executor;
+
+	public AdaptiveScheduler(ScheduledExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * schedules task, first run happens after one base interval
+	 *
+	 * @param name           - name of thread while task runs
+	 * @param intervalMillis - supplier of base interval, read before each scheduling
+	 * @param task           - task to run
+	 * @return handle of scheduled task
+	 */
+	public ScheduledTask schedule(String name, LongSupplier intervalMillis, Callable<Outcome> task) {
+		AdaptiveTask adaptiveTask = new AdaptiveTask(name, intervalMillis, task);
+		adaptiveTask.scheduleNext(Outcome.IDLE);
+		return adaptiveTask;
+	}
+
+	/**
+	 * calculates delay before next run
+	 *
+	 * @param baseIntervalMillis - configured interval
+	 * @param outcome            - outcome of last run
+	 * @param failures           - number of consecutive UNREACHABLE outcomes
+	 * @param random             - random value in range [-1, 1] used for jitter
+	 * @return delay in milliseconds
+	 */
+	static long nextDelay(long baseIntervalMillis, Outcome outcome, int failures, double random) {
+		long base = Math.max(MIN_INTERVAL_MILLIS, baseIntervalMillis);
+		long delay;
+		switch (outcome) {
+			case PENDING:
+				delay = Math.max(MIN_INTERVAL_MILLIS, base / PENDING_INTERVAL_DIVIDER);
+				break;
+			case UNREACHABLE:
+				int exponent = Math.min(Math.max(failures, 1), MAX_BACKOFF_EXPONENT);
+				delay = Math.max(base, Math.min(base << exponent, MAX_BACKOFF_INTERVAL_MILLIS));
+				break;
+			default:
+				delay = base;
+				break;
+		}
+		return Math.max(MIN_INTERVAL_MILLIS, (long) (delay * (1 + JITTER * random)));
+	}
+
+	private class AdaptiveTask implements Runnable, ScheduledTask {
+		private final String name;
+		private final LongSupplier intervalMillis;
+		private final Callable<Outcome> task;
+		private int failures;
+		private boolean triggered;
+		private boolean running;
+		private ScheduledFuture<?> next;
+
+		private AdaptiveTask(String name, LongSupplier intervalMillis, Callable<Outcome> task) {
+			this.name = name;
+			this.intervalMillis = intervalMillis;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				running = true;
+			}
+			Thread thread = Thread.currentThread();
+			String poolName = thread.getName();
+			thread.setName(name);
+			Outcome outcome = Outcome.IDLE;
+			try {
+				outcome = task.call();
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, "Error running scheduled task " + name,
+						new AgentSystemException(e.getMessage(), e));
+			} finally {
+				thread.setName(poolName);
+				scheduleNext(outcome == null ? Outcome.IDLE : outcome);
+			}
+		}
+
+		@Override
+		public synchronized void runNow() {
+			triggered = true;
+			if (!running && next != null && next.cancel(false)) {
+				submit(0);
+			}
+		}
+
+		private synchronized void scheduleNext(Outcome outcome) {
+			running = false;
+			failures = outcome == Outcome.UNREACHABLE ? failures + 1 : 0;
+			submit(triggered ? 0 : nextDelay(intervalMillis.getAsLong(), outcome, failures,
+					ThreadLocalRandom.current().nextDouble(-1, 1)));
+		}
+
+		private void submit(long delay) {
+			if (executor.isShutdown()) {
+				return;
+			}
+			triggered = false;
+			next = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+}
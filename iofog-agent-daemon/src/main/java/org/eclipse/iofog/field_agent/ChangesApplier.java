@@ -0,0 +1,153 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * applies config changes reported by IOFog Controller
+ * each change category is a separate step, independent steps run concurrently
+ * and step starts only after steps it depends on are finished
+ * completed steps are remembered for the change set, so if some of the steps fail or don't finish in time
+ * only those steps are applied again when the same change set is received next time
+ */
+public class ChangesApplier {
+
+	private static final String MODULE_NAME = "Changes Applier";
+
+	/**
+	 * action of single change step
+	 */
+	@FunctionalInterface
+	public interface Action {
+		void run() throws Exception;
+	}
+
+	/**
+	 * single change category
+	 */
+	public static class Step {
+		private final String name;
+		private final Action action;
+		private final List<String> dependencies;
+
+		/**
+		 * @param name         - name of change category
+		 * @param action       - applies change
+		 * @param dependencies - names of steps which must be finished before this one starts
+		 */
+		public Step(String name, Action action, String... dependencies) {
+			this.name = name;
+			this.action = action;
+			this.dependencies = Arrays.asList(dependencies);
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	private final ExecutorService executor;
+	private final Set<String> completed = ConcurrentHashMap.newKeySet();
+	private final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+	private volatile String changeSetId;
+
+	public ChangesApplier(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * applies steps of change set, steps already completed for the same change set are skipped
+	 * steps which are still running after timeout keep running and are not started again until they finish
+	 *
+	 * @param changeSetId   - identifier of change set, e.g. time of the last change
+	 * @param steps         - steps to apply, dependencies must precede dependent steps
+	 * @param timeoutMillis - how long to wait for steps to finish
+	 * @return true if all steps of change set are completed
+	 */
+	public synchronized boolean apply(String changeSetId, List<Step> steps, long timeoutMillis) {
+		if (changeSetId == null || !changeSetId.equals(this.changeSetId)) {
+			completed.clear();
+			this.changeSetId = changeSetId;
+		}
+
+		Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+		for (Step step : steps) {
+			if (completed.contains(step.getName())) {
+				continue;
+			}
+			CompletableFuture<Void> future = running.get(step.getName());
+			if (future == null || future.isDone()) {
+				CompletableFuture<?>[] dependencies = step.dependencies.stream()
+						.map(futures::get)
+						.filter(Objects::nonNull)
+						.toArray(size -> new CompletableFuture<?>[size]);
+				String stepChangeSetId = changeSetId;
+				future = CompletableFuture.allOf(dependencies)
+						.handle((result, throwable) -> null)
+						.thenRunAsync(() -> run(step, stepChangeSetId), executor);
+				running.put(step.getName(), future);
+			}
+			futures.put(step.getName(), future);
+		}
+
+		try {
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+					.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			LoggingService.logWarning(MODULE_NAME, "Changes are not applied in time, unfinished steps will be retried");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LoggingService.logError(MODULE_NAME, "Error applying changes", new AgentSystemException(e.getMessage(), e));
+		}
+
+		return steps.stream().map(Step::getName).allMatch(completed::contains);
+	}
+
+	/**
+	 * @return identifier of change set which is being applied or retried, null if there is none
+	 */
+	public String getChangeSetId() {
+		return changeSetId;
+	}
+
+	/**
+	 * forgets completed steps, e.g. after controller changes flags are reset
+	 */
+	public synchronized void reset() {
+		completed.clear();
+		changeSetId = null;
+	}
+
+	private void run(Step step, String stepChangeSetId) {
+		long start = System.currentTimeMillis();
+		try {
+			step.action.run();
+			if (Objects.equals(stepChangeSetId, changeSetId)) {
+				completed.add(step.getName());
+			}
+		} catch (Exception e) {
+			LoggingService.logError(MODULE_NAME, "Unable to apply changes : " + step.getName(),
+					new AgentSystemException(e.getMessage(), e));
+		} finally {
+			StatusReporter.setFieldAgentStatus().setChangeStepDuration(step.getName(), System.currentTimeMillis() - start);
+			running.remove(step.getName());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.utils.Orchestrator;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.ws.rs.NotFoundException;
+
+/**
+ * long-polls IOFog Controller for config changes flags
+ * controller holds the request until some of the flags are raised or wait timeout passes,
+ * so changes are noticed right after they happen instead of on the next changes poll
+ * controllers without watch endpoint answer with 404, in that case channel stays inactive
+ * and changes are picked up by regular polling, watching is tried again after {@link #UNSUPPORTED_RECHECK_MILLIS}
+ */
+public class ControllerChangesWatcher {
+
+	static final String WATCH_COMMAND = "config/changes/watch";
+	static final int WAIT_SECONDS = 60;
+	static final long UNSUPPORTED_RECHECK_MILLIS = 60 * 60 * 1000L;
+
+	private final Orchestrator orchestrator;
+	private volatile boolean active;
+	private volatile long unsupportedUntil;
+
+	public ControllerChangesWatcher(Orchestrator orchestrator) {
+		this.orchestrator = orchestrator;
+	}
+
+	/**
+	 * blocks until controller reports changes or wait timeout passes
+	 * controller answers at once while flags of a change set are raised, so change set which is already
+	 * being applied or retried is not reported again and channel goes inactive until it is reset,
+	 * retries then follow changes polling interval and backoff
+	 *
+	 * @param appliedChangeSetId - lastUpdated of change set which is being applied or retried, null if none
+	 * @return true if controller has pending changes of another change set
+	 * @throws Exception if controller is unreachable or doesn't support watching changes
+	 */
+	public boolean waitForChanges(String appliedChangeSetId) throws Exception {
+		try {
+			JsonObject result = orchestrator.longPoll(WATCH_COMMAND, WAIT_SECONDS);
+			boolean hasChanges = hasChanges(result);
+			boolean applied = hasChanges && appliedChangeSetId != null
+					&& appliedChangeSetId.equals(result.getString("lastUpdated", null));
+			active = !applied;
+			return hasChanges && !applied;
+		} catch (NotFoundException e) {
+			active = false;
+			unsupportedUntil = System.currentTimeMillis() + UNSUPPORTED_RECHECK_MILLIS;
+			throw e;
+		} catch (Exception e) {
+			active = false;
+			throw e;
+		}
+	}
+
+	/**
+	 * marks channel inactive, e.g. when fog node is deprovisioned
+	 * fog node may be provisioned to another controller afterwards, so watching is not considered unsupported anymore
+	 */
+	public void deactivate() {
+		active = false;
+		unsupportedUntil = 0;
+	}
+
+	/**
+	 * @return false if controller answered with 404 recently, so watching is not tried until recheck time
+	 */
+	public boolean isSupported() {
+		return System.currentTimeMillis() >= unsupportedUntil;
+	}
+
+	/**
+	 * @return true if last long-poll succeeded, so changes are delivered without polling
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * @param changes - changes flags received from controller
+	 * @return true if any of the flags is raised
+	 */
+	static boolean hasChanges(JsonObject changes) {
+		return changes != null && changes.values().stream().anyMatch(value -> value == JsonValue.TRUE);
+	}
+}
@@ -22,6 +22,7 @@ import org.eclipse.iofog.diagnostics.strace.StraceDiagnosticManager;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.field_agent.enums.RequestType;
+import org.eclipse.iofog.field_agent.enums.StatusReportMode;
 import org.eclipse.iofog.local_api.LocalApi;
 import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.microservice.*;
@@ -32,6 +33,7 @@ import org.eclipse.iofog.proxy.SshConnection;
 import org.eclipse.iofog.proxy.SshProxyManager;
 import org.eclipse.iofog.pruning.DockerPruningManager;
 import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.status_reporter.StatusSnapshot;
 import org.eclipse.iofog.tracking.Tracker;
 import org.eclipse.iofog.tracking.TrackingEventType;
 import org.eclipse.iofog.tracking.TrackingInfoUtils;
@@ -43,8 +45,10 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 
 import javax.json.*;
 import javax.net.ssl.SSLHandshakeException;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.NotFoundException;
 import java.io.*;
 import java.net.*;
 import java.nio.file.Files;
@@ -81,6 +85,9 @@ import static org.eclipse.iofog.utils.Constants.ControllerStatus.*;
 public class FieldAgent implements IOFogModule {
 
     private final String MODULE_NAME = "Field Agent";
+    private static final int CHANGES_FALLBACK_POLL_MULTIPLIER = 10;
+    private static final int CHANGES_THREADS = 4;
+    private static final long CHANGES_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
     private final String filesPath = SystemUtils.IS_OS_WINDOWS ? SNAP_COMMON + "./etc/iofog-agent/" : SNAP_COMMON + "/etc/iofog-agent/";
 
     private Orchestrator orchestrator;
@@ -92,7 +99,18 @@ public class FieldAgent implements IOFogModule {
     private boolean connected = false;
     private ReentrantLock provisioningLock = new ReentrantLock();
     private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(5);
+    private AdaptiveScheduler adaptiveScheduler;
+    // watch long-poll blocks its thread for up to a minute, so it doesn't share the pool with other controller tasks
+    private final ScheduledExecutorService watchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, Constants.FIELD_AGENT_WATCH_CHANGES);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private AdaptiveScheduler.ScheduledTask changesTask;
+    private ControllerChangesWatcher changesWatcher;
+    private final ChangesApplier changesApplier = new ChangesApplier(Executors.newFixedThreadPool(CHANGES_THREADS));
     private ScheduledFuture<?> futureTask;
+    private final StatusReportTracker statusReportTracker = new StatusReportTracker();
 
     private FieldAgent() {
         lastGetChangesList = 0;
@@ -126,43 +144,44 @@ public class FieldAgent implements IOFogModule {
      */
     private JsonObject getFogStatus() {
     	logDebug("get Fog Status");
+        StatusSnapshot status = StatusReporter.getSnapshot();
         return Json.createObjectBuilder()
-                .add("daemonStatus", StatusReporter.getSupervisorStatus().getDaemonStatus().toString() == null ?
-                        "UNKNOWN" : StatusReporter.getSupervisorStatus().getDaemonStatus().toString())
-                .add("daemonOperatingDuration", StatusReporter.getSupervisorStatus().getOperationDuration())
-                .add("daemonLastStart", StatusReporter.getSupervisorStatus().getDaemonLastStart())
-                .add("memoryUsage", StatusReporter.getResourceConsumptionManagerStatus().getMemoryUsage())
-                .add("diskUsage", StatusReporter.getResourceConsumptionManagerStatus().getDiskUsage())
-                .add("cpuUsage", StatusReporter.getResourceConsumptionManagerStatus().getCpuUsage())
-                .add("memoryViolation", StatusReporter.getResourceConsumptionManagerStatus().isMemoryViolation())
-                .add("diskViolation", StatusReporter.getResourceConsumptionManagerStatus().isDiskViolation())
-                .add("cpuViolation", StatusReporter.getResourceConsumptionManagerStatus().isCpuViolation())
-                .add("systemAvailableDisk", StatusReporter.getResourceConsumptionManagerStatus().getAvailableDisk())
-                .add("systemAvailableMemory", StatusReporter.getResourceConsumptionManagerStatus().getAvailableMemory())
-                .add("systemTotalCpu", StatusReporter.getResourceConsumptionManagerStatus().getTotalCpu())
-                .add("microserviceStatus", StatusReporter.getProcessManagerStatus().getJsonMicroservicesStatus() == null ?
+                .add("daemonStatus", status.getDaemonStatus() == null ?
+                        "UNKNOWN" : status.getDaemonStatus())
+                .add("daemonOperatingDuration", status.getDaemonOperatingDuration())
+                .add("daemonLastStart", status.getDaemonLastStart())
+                .add("memoryUsage", status.getMemoryUsage())
+                .add("diskUsage", status.getDiskUsage())
+                .add("cpuUsage", status.getCpuUsage())
+                .add("memoryViolation", status.isMemoryViolation())
+                .add("diskViolation", status.isDiskViolation())
+                .add("cpuViolation", status.isCpuViolation())
+                .add("systemAvailableDisk", status.getAvailableDisk())
+                .add("systemAvailableMemory", status.getAvailableMemory())
+                .add("systemTotalCpu", status.getTotalCpu())
+                .add("microserviceStatus", status.getMicroservicesStatus() == null ?
                         Json.createObjectBuilder().add("status","UNKNOWN").build().toString() :
-                        StatusReporter.getProcessManagerStatus().getJsonMicroservicesStatus())
-                .add("repositoryCount", StatusReporter.getProcessManagerStatus().getRegistriesCount())
-                .add("repositoryStatus", StatusReporter.getProcessManagerStatus().getJsonRegistriesStatus() == null ?
-                        "UNKNOWN" : StatusReporter.getProcessManagerStatus().getJsonRegistriesStatus())
-                .add("systemTime", StatusReporter.getStatusReporterStatus().getSystemTime())
-                .add("lastStatusTime", StatusReporter.getStatusReporterStatus().getLastUpdate())
+                        status.getMicroservicesStatus())
+                .add("repositoryCount", status.getRegistriesCount())
+                .add("repositoryStatus", status.getRegistriesStatus() == null ?
+                        "UNKNOWN" : status.getRegistriesStatus())
+                .add("systemTime", status.getSystemTime())
+                .add("lastStatusTime", status.getLastStatusTime())
                 .add("ipAddress", IOFogNetworkInterfaceManager.getInstance().getCurrentIpAddress() == null ?
                         "UNKNOWN" : IOFogNetworkInterfaceManager.getInstance().getCurrentIpAddress())
                 .add("ipAddressExternal", Configuration.getIpAddressExternal() == null ?
                         "UNKNOWN" : Configuration.getIpAddressExternal())
-                .add("processedMessages", StatusReporter.getMessageBusStatus().getProcessedMessages())
-                .add("microserviceMessageCounts", StatusReporter.getMessageBusStatus().getJsonPublishedMessagesPerMicroservice() == null ?
-                        "UNKNOWN" : StatusReporter.getMessageBusStatus().getJsonPublishedMessagesPerMicroservice())
-                .add("messageSpeed", StatusReporter.getMessageBusStatus().getAverageSpeed())
-                .add("lastCommandTime", StatusReporter.getFieldAgentStatus().getLastCommandTime())
-                .add("tunnelStatus", StatusReporter.getSshManagerStatus().getJsonProxyStatus() == null ?
-                        "UNKNOWN" : StatusReporter.getSshManagerStatus().getJsonProxyStatus())
+                .add("processedMessages", status.getProcessedMessages())
+                .add("microserviceMessageCounts", status.getMicroserviceMessageCounts() == null ?
+                        "UNKNOWN" : status.getMicroserviceMessageCounts())
+                .add("messageSpeed", status.getMessageSpeed())
+                .add("lastCommandTime", status.getLastCommandTime())
+                .add("tunnelStatus", status.getTunnelStatus() == null ?
+                        "UNKNOWN" : status.getTunnelStatus())
                 .add("version", getVersion() == null ?
                         "UNKNOWN" : getVersion())
-                .add("isReadyToUpgrade", StatusReporter.getFieldAgentStatus().isReadyToUpgrade())
-                .add("isReadyToRollback", StatusReporter.getFieldAgentStatus().isReadyToRollback())
+                .add("isReadyToUpgrade", status.isReadyToUpgrade())
+                .add("isReadyToRollback", status.isReadyToRollback())
                 .build();
     }
 
@@ -202,8 +221,17 @@ public class FieldAgent implements IOFogModule {
             if (!connected)
                 return;
 
-            orchestrator.request("status", RequestType.PUT, null, status);
+            StatusReportMode reportMode = getStatusReportMode();
+            JsonObject report = reportMode.isDelta() ? statusReportTracker.prepareReport(status) : status;
+            JsonObject response = orchestrator.request("status", RequestType.PUT, null, report, reportMode.isCompressed());
+            if (reportMode.isDelta()) {
+                statusReportTracker.acknowledge(status, report, response);
+            }
             onPostStatusSuccess();
+        } catch (BadRequestException e) {
+            statusReportTracker.requestFullSnapshot();
+            logError("Unable to send status, full status will be sent next time",
+                    new AgentSystemException(e.getMessage(), e));
         } catch (CertificateException | SSLHandshakeException | ConnectException e) {
             verificationFailed(e);
             logError("Unable to send status due to broken certificate",
@@ -224,65 +252,85 @@ public class FieldAgent implements IOFogModule {
         logDebug("Finished posting ioFog status");
     }
 
-    private final Runnable postStatus = () -> {
-        while (true) {
-            try {
-                if (microserviceManager.getCurrentMicroservices().size() == StatusReporter.getProcessManagerStatus().getRunningMicroservicesCount()) {
-                    Thread.sleep(Configuration.getStatusFrequency() * 1000);
-                } else {
-                    Thread.sleep(1 * 1000);
-                    ProcessManager.getInstance().updateMicroserviceStatus();
-                }
-                postStatusHelper();
-            } catch (Exception e) {
-                logError("Unable to send status ", new AgentSystemException(e.getMessage(), e));
-            }
+    /**
+     * status report mode set with -sm, controller is expected to accept gzip compressed requests in compressed modes
+     */
+    private static StatusReportMode getStatusReportMode() {
+        return Configuration.getStatusReportMode() == null ? StatusReportMode.FULL : Configuration.getStatusReportMode();
+    }
 
+    /**
+     * outcome of scheduled controller task, depending on controller connection status
+     *
+     * @param pending - task has work to be finished soon
+     * @return {@link AdaptiveScheduler.Outcome}
+     */
+    private AdaptiveScheduler.Outcome getControllerOutcome(boolean pending) {
+        ControllerStatus controllerStatus = StatusReporter.getFieldAgentStatus().getControllerStatus();
+        if (controllerStatus == NOT_CONNECTED || controllerStatus == BROKEN_CERTIFICATE) {
+            return AdaptiveScheduler.Outcome.UNREACHABLE;
         }
-    };
-
-    private final Runnable postDiagnostics = () -> {
-        while (true) {
-        	logDebug("Start posting diagnostic");
-            if (StraceDiagnosticManager.getInstance().getMonitoringMicroservices().size() > 0) {
-                JsonBuilderFactory factory = Json.createBuilderFactory(null);
-                JsonArrayBuilder arrayBuilder = factory.createArrayBuilder();
-
-                for (MicroserviceStraceData microservice : StraceDiagnosticManager.getInstance().getMonitoringMicroservices()) {
-                    arrayBuilder.add(factory.createObjectBuilder()
-                        .add("microserviceUuid", microservice.getMicroserviceUuid())
-                        .add("buffer", microservice.getResultBufferAsString())
-                    );
-                    microservice.getResultBuffer().clear();
-                }
+        return pending ? AdaptiveScheduler.Outcome.PENDING : AdaptiveScheduler.Outcome.IDLE;
+    }
 
-                JsonObject json = factory.createObjectBuilder()
-                    .add("straceData", arrayBuilder).build();
+    private AdaptiveScheduler.Outcome postStatus() {
+        boolean pending = false;
+        try {
+            pending = microserviceManager.getCurrentMicroservices().size() != StatusReporter.getProcessManagerStatus().getRunningMicroservicesCount();
+            if (pending) {
+                ProcessManager.getInstance().updateMicroserviceStatus();
+            }
+            postStatusHelper();
+        } catch (Exception e) {
+            logError("Unable to send status ", new AgentSystemException(e.getMessage(), e));
+        }
+        return getControllerOutcome(pending);
+    }
 
-                try {
-                    orchestrator.request("strace", RequestType.PUT, null, json);
-                } catch (Exception e) {
-                	logError("Unable send strace logs", new AgentSystemException("Unable send strace logs", e));
-                }
+    private AdaptiveScheduler.Outcome postDiagnostics() {
+    	logDebug("Start posting diagnostic");
+        if (StraceDiagnosticManager.getInstance().getMonitoringMicroservices().size() > 0) {
+            JsonBuilderFactory factory = Json.createBuilderFactory(null);
+            JsonArrayBuilder arrayBuilder = factory.createArrayBuilder();
+
+            for (MicroserviceStraceData microservice : StraceDiagnosticManager.getInstance().getMonitoringMicroservices()) {
+                arrayBuilder.add(factory.createObjectBuilder()
+                    .add("microserviceUuid", microservice.getMicroserviceUuid())
+                    .add("buffer", microservice.getResultBufferAsString())
+                );
+                microservice.getResultBuffer().clear();
             }
 
+            JsonObject json = factory.createObjectBuilder()
+                .add("straceData", arrayBuilder).build();
+
             try {
-                Thread.sleep(Configuration.getPostDiagnosticsFreq() * 1000);
-            } catch (InterruptedException e) {
-                logError("Error posting diagnostic", new AgentSystemException(e.getMessage(), e));
+                orchestrator.request("strace", RequestType.PUT, null, json);
+            } catch (Exception e) {
+            	logError("Unable send strace logs", new AgentSystemException("Unable send strace logs", e));
             }
-            logDebug("Finished posting diagnostic");
         }
-    };
 
-    public final void postTracking(JsonObject events) {
+        logDebug("Finished posting diagnostic");
+        return AdaptiveScheduler.Outcome.IDLE;
+    }
+
+    /**
+     * posts tracking events to controller, gzip compressed only if controller accepts compressed status reports
+     *
+     * @param events - tracking events
+     * @return true if controller accepted the events
+     */
+    public final boolean postTracking(JsonObject events) {
     	logDebug("Start posting tracking");
         try {
-            orchestrator.request("tracking", RequestType.POST, null, events);
+            orchestrator.request("tracking", RequestType.POST, null, events, getStatusReportMode().isCompressed());
         } catch (Exception e) {
         	logError("Unable send tracking logs", new AgentSystemException(e.getMessage(), e));
+        	return false;
         }
         logDebug("Finished posting tracking");
+        return true;
     }
 
     /**
@@ -306,203 +354,193 @@ public class FieldAgent implements IOFogModule {
         logDebug("Finished verification Failed of Controller");
     }
 
-    private final Future<Boolean> processChanges(JsonObject changes) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        return executor.submit(() -> {
-            boolean resetChanges = true;
+    /**
+     * applies changes reported by IOFog controller
+     * independent change categories are applied concurrently by {@link ChangesApplier}
+     *
+     * @param changes - changes flags
+     * @return true if all changes are applied
+     */
+    private boolean processChanges(JsonObject changes) {
+        String lastUpdated = changes.getString("lastUpdated", null);
+        List<ChangesApplier.Step> steps = new ArrayList<>();
+
+        if (changes.getBoolean("deleteNode", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("deleteNode", this::deleteNode));
+            return changesApplier.apply(lastUpdated, steps, CHANGES_TIMEOUT_MILLIS);
+        }
+
+        if (changes.getBoolean("reboot", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("reboot", this::reboot));
+        }
+        if (changes.getBoolean("isImageSnapshot", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("isImageSnapshot", this::createImageSnapshot));
+        }
+        if (changes.getBoolean("config", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("config", this::getFogConfig));
+        }
+        if (changes.getBoolean("version", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("version", this::changeVersion, "config"));
+        }
+        if (changes.getBoolean("registries", false) || initialization) {
+            steps.add(new ChangesApplier.Step("registries", () -> {
+                loadRegistries(false);
+                ProcessManager.getInstance().update();
+            }, "config"));
+        }
+        if (changes.getBoolean("prune", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("prune", () -> DockerPruningManager.getInstance().pruneAgent(), "config"));
+        }
+        if (changes.getBoolean("microserviceConfig", false) || changes.getBoolean("microserviceList", false) ||
+                changes.getBoolean("routing", false) || initialization) {
+            steps.add(new ChangesApplier.Step("microservices", () -> processMicroservicesChanges(changes),
+                    "config", "registries"));
+        }
+        if (changes.getBoolean("tunnel", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("tunnel", () -> sshProxyManager.update(getProxyConfig()), "config"));
+        }
+        if (changes.getBoolean("diagnostics", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("diagnostics", this::updateDiagnostics, "config", "microservices"));
+        }
+        if (changes.getBoolean("routerChanged", false) && !initialization) {
+            steps.add(new ChangesApplier.Step("routerChanged", () -> MessageBus.getInstance().update(),
+                    "config", "microservices"));
+        }
+        return changesApplier.apply(lastUpdated, steps, CHANGES_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * applies microservices list, microservices config and routing changes
+     *
+     * @param changes - changes flags
+     * @throws Exception if any of the changes is not applied
+     */
+    private void processMicroservicesChanges(JsonObject changes) throws Exception {
+        boolean microserviceConfig = changes.getBoolean("microserviceConfig", false);
+        boolean routing = changes.getBoolean("routing", false);
+        int defaultFreq = Configuration.getStatusFrequency();
+        Configuration.setStatusFrequency(1);
+        try {
+            List<Microservice> microservices = loadMicroservices(false);
+            ProcessManager.getInstance().prefetchImages();
+            Exception failure = null;
 
-            if (changes.getBoolean("deleteNode",false) && !initialization) {
+            if (microserviceConfig) {
                 try {
-                    deleteNode();
+                    processMicroserviceConfig(microservices);
+                    LocalApi.getInstance().update();
                 } catch (Exception e) {
-                    logError("Unable to delete node", e);
-                    resetChanges = false;
-                }
-            } else {
-                if (changes.getBoolean("reboot",false) && !initialization) {
-                    try {
-                        reboot();
-                    } catch (Exception e) {
-                        logError("Unable to perform reboot", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("isImageSnapshot",false) && !initialization) {
-                    try {
-                        createImageSnapshot();
-                    } catch (Exception e) {
-                        logError("Unable to create snapshot", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("config",false) && !initialization) {
-                    try {
-                        getFogConfig();
-                    } catch (Exception e) {
-                        logError("Unable to get config", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("version",false) && !initialization) {
-                    try {
-                        changeVersion();
-                    } catch (Exception e) {
-                        logError("Unable to change version", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("registries",false) || initialization) {
-                    try {
-                        loadRegistries(false);
-                        ProcessManager.getInstance().update();
-                    } catch (Exception e) {
-                        logError("Unable to update registries", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("prune", false) && !initialization) {
-                    try {
-                        DockerPruningManager.getInstance().pruneAgent();
-                    } catch (Exception e) {
-                        logError("Unable to update registries", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("microserviceConfig",false) || changes.getBoolean("microserviceList",false) ||
-                        changes.getBoolean("routing",false) || initialization) {
-                    boolean microserviceConfig = changes.getBoolean("microserviceConfig");
-                    boolean routing = changes.getBoolean("routing");
-                    int defaultFreq = Configuration.getStatusFrequency();
-                    Configuration.setStatusFrequency(1);
-                    try {
-                        List<Microservice> microservices = loadMicroservices(false);
-
-                        if (microserviceConfig) {
-                            try {
-                                processMicroserviceConfig(microservices);
-                                LocalApi.getInstance().update();
-                            } catch (Exception e) {
-                                logError("Unable to update microservices config", e);
-                                resetChanges = false;
-                            }
-                        }
-
-                        if (routing) {
-                            try {
-                                processRoutes(microservices);
-                                if (!changes.getBoolean("routerChanged",false) || initialization) {
-                                    MessageBus.getInstance().update();
-                                }
-                            } catch (Exception e) {
-                                logError("Unable to update microservices routes", e);
-                                resetChanges = false;
-                            }
-                        }
-
-                        Tracker.getInstance().handleEvent(TrackingEventType.MICROSERVICE,
-                                TrackingInfoUtils.getMicroservicesInfo(loadMicroservicesJsonFile()));
-                    } catch (Exception e) {
-                        logError("Unable to get microservices list", e);
-                        resetChanges = false;
-                    } finally {
-                        Configuration.setStatusFrequency(defaultFreq);
-                    }
+                    logError("Unable to update microservices config", e);
+                    failure = e;
                 }
+            }
 
-                if (changes.getBoolean("tunnel",false) && !initialization) {
-                    try {
-                        sshProxyManager.update(getProxyConfig());
-                    } catch (Exception e) {
-                        logError("Unable to create tunnel", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("diagnostics",false) && !initialization) {
-                    try {
-                        updateDiagnostics();
-                    } catch (Exception e) {
-                        logError("Unable to update diagnostics", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("routerChanged",false) && !initialization) {
-                    try {
+            if (routing) {
+                try {
+                    processRoutes(microservices);
+                    if (!changes.getBoolean("routerChanged", false) || initialization) {
                         MessageBus.getInstance().update();
-                    } catch (Exception e) {
-                        logError("Unable to update router info", e);
-                        resetChanges = false;
                     }
+                } catch (Exception e) {
+                    logError("Unable to update microservices routes", e);
+                    failure = e;
                 }
             }
-            return resetChanges;
-        });
+
+            Tracker.getInstance().handleEvent(TrackingEventType.MICROSERVICE,
+                    TrackingInfoUtils.getMicroservicesInfo(loadMicroservicesJsonFile()));
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            Configuration.setStatusFrequency(defaultFreq);
+        }
     }
 
     /**
      * retrieves IOFog changes list from IOFog controller
      */
-    private final Runnable getChangesList = () -> {
-        while (true) {
-            try {
-                int frequency = Configuration.getChangeFrequency() * 1000;
-                Thread.sleep(frequency);
-                logDebug("Start get IOFog changes list from IOFog controller");
+    private AdaptiveScheduler.Outcome getChangesList() {
+        boolean pending = false;
+        try {
+            logDebug("Start get IOFog changes list from IOFog controller");
 
-                if (notProvisioned() || !isControllerConnected(false)) {
-                    logDebug("Cannot get change list due to controller status not provisioned or controller not connected");
-                    continue;
-                }
+            if (notProvisioned() || !isControllerConnected(false)) {
+                logDebug("Cannot get change list due to controller status not provisioned or controller not connected");
+                return getControllerOutcome(false);
+            }
 
 
-                JsonObject result;
-                try {
-                    result = orchestrator.request("config/changes", RequestType.GET, null, null);
-                } catch (CertificateException | SSLHandshakeException e) {
-                    verificationFailed(e);
-                    logError("Unable to get changes due to broken certificate",
-                    		new AgentSystemException(e.getMessage(), e));
-                    continue;
-                } catch (SocketTimeoutException e) {
-                    IOFogNetworkInterfaceManager.getInstance().updateIOFogNetworkInterface();
-                    continue;
-                } catch (Exception e) {
-                    logError("Unable to get changes ", new AgentSystemException(e.getMessage(), e));
-                    continue;
-                }
+            JsonObject result;
+            try {
+                result = orchestrator.request("config/changes", RequestType.GET, null, null);
+            } catch (CertificateException | SSLHandshakeException e) {
+                verificationFailed(e);
+                logError("Unable to get changes due to broken certificate",
+                		new AgentSystemException(e.getMessage(), e));
+                return AdaptiveScheduler.Outcome.UNREACHABLE;
+            } catch (SocketTimeoutException e) {
+                IOFogNetworkInterfaceManager.getInstance().updateIOFogNetworkInterface();
+                return AdaptiveScheduler.Outcome.UNREACHABLE;
+            } catch (Exception e) {
+                logError("Unable to get changes ", new AgentSystemException(e.getMessage(), e));
+                return getControllerOutcome(false);
+            }
 
 
-                StatusReporter.setFieldAgentStatus().setLastCommandTime(lastGetChangesList);
+            StatusReporter.setFieldAgentStatus().setLastCommandTime(lastGetChangesList);
 
-                String lastUpdated = result.getString("lastUpdated", null);
-                boolean resetChanges;
-                Future<Boolean> changesProcessor = processChanges(result);
+            String lastUpdated = result.getString("lastUpdated", null);
+            boolean resetChanges = processChanges(result);
 
+            if (lastUpdated != null && resetChanges) {
+                logDebug("Resetting config changes flags");
                 try {
-                    resetChanges = changesProcessor.get(30, TimeUnit.SECONDS);
+                    JsonObject req = Json.createObjectBuilder()
+                            .add("lastUpdated", lastUpdated)
+                            .build();
+                    orchestrator.request("config/changes", RequestType.PATCH, null, req);
+                    changesApplier.reset();
                 } catch (Exception e) {
-                    resetChanges = false;
-                    changesProcessor.cancel(true);
+                    logError("Resetting config changes has failed", e);
                 }
+            }
 
-                if (lastUpdated != null && resetChanges) {
-                    logDebug("Resetting config changes flags");
-                    try {
-                        JsonObject req = Json.createObjectBuilder()
-                                .add("lastUpdated", lastUpdated)
-                                .build();
-                        orchestrator.request("config/changes", RequestType.PATCH, null, req);
-                    } catch (Exception e) {
-                        logError("Resetting config changes has failed", e);
-                    }
-                }
+            initialization = initialization && !resetChanges;
+            pending = !resetChanges;
+        } catch (Exception e) {
+        	logError("Error getting changes list ", new AgentSystemException(e.getMessage(), e));
+        }
+        logDebug("Finish get IOFog changes list from IOFog controller");
+        return getControllerOutcome(pending);
+    }
 
-                initialization = initialization && !resetChanges;
-            } catch (Exception e) {
-            	logError("Error getting changes list ", new AgentSystemException(e.getMessage(), e));
+    /**
+     * waits for config changes notification from IOFog controller
+     * and triggers getting changes list as soon as controller reports changes
+     */
+    private AdaptiveScheduler.Outcome watchChanges() {
+        if (notProvisioned() || !isControllerConnected(false)) {
+            changesWatcher.deactivate();
+            return getControllerOutcome(false);
+        }
+        if (!changesWatcher.isSupported()) {
+            return AdaptiveScheduler.Outcome.IDLE;
+        }
+        try {
+            if (changesWatcher.waitForChanges(changesApplier.getChangeSetId()) && changesTask != null) {
+                logDebug("IOFog controller reported config changes");
+                changesTask.runNow();
             }
-            logDebug("Finish get IOFog changes list from IOFog controller");
+        } catch (NotFoundException e) {
+            logDebug("IOFog controller doesn't support watching config changes, falling back to polling");
+            return AdaptiveScheduler.Outcome.IDLE;
+        } catch (Exception e) {
+            logDebug("Unable to watch config changes : " + e.getMessage());
+            return AdaptiveScheduler.Outcome.UNREACHABLE;
         }
-    };
+        return AdaptiveScheduler.Outcome.IDLE;
+    }
 
     /**
      * Deletes current fog node from controller and makes deprovision
@@ -740,6 +778,9 @@ public class FieldAgent implements IOFogModule {
                             .map(containerJsonObjectToMicroserviceFunction())
                             .collect(toList());
                     microserviceManager.setLatestMicroservices(microservices);
+                    LoggingService.retainMicroserviceLoggers(microservices.stream()
+                            .map(Microservice::getMicroserviceUuid)
+                            .collect(Collectors.toSet()));
                     microserviceList.addAll(microservices);
                 }
             } catch (Exception e) {
@@ -770,6 +811,32 @@ public class FieldAgent implements IOFogModule {
         return null;
     }
 
+    /**
+     * reads microservice CPU placement and resource limits, missing or null settings are left unset
+     *
+     * @param resources - resources json of microservice
+     * @return {@link ContainerResources}
+     */
+    private ContainerResources getContainerResources(JsonObject resources) {
+        String cpuSet = resources.containsKey("cpuSet") && !resources.isNull("cpuSet") ? resources.getString("cpuSet") : null;
+        JsonNumber cpuShares = getJsonNumber(resources, "cpuShares");
+        JsonNumber cpuQuota = getJsonNumber(resources, "cpuQuota");
+        JsonNumber cpuPeriod = getJsonNumber(resources, "cpuPeriod");
+        JsonNumber memoryLimit = getJsonNumber(resources, "memoryLimit");
+        JsonNumber numaNode = getJsonNumber(resources, "numaNode");
+        return new ContainerResources(isNullOrEmpty(cpuSet) ? null : cpuSet.trim(),
+                cpuShares != null ? cpuShares.intValue() : null,
+                cpuQuota != null ? cpuQuota.longValue() : null,
+                cpuPeriod != null ? cpuPeriod.longValue() : null,
+                memoryLimit != null ? memoryLimit.longValue() : null,
+                numaNode != null ? numaNode.intValue() : null);
+    }
+
+    private JsonNumber getJsonNumber(JsonObject jsonObject, String key) {
+        JsonValue value = jsonObject.get(key);
+        return value != null && value.getValueType().equals(JsonValue.ValueType.NUMBER) ? (JsonNumber) value : null;
+    }
+
     private Function<JsonObject, Microservice> containerJsonObjectToMicroserviceFunction() {
         return jsonObj -> {
             Microservice microservice = new Microservice(jsonObj.getString("uuid"), jsonObj.getString("imageId"));
@@ -840,6 +907,11 @@ public class FieldAgent implements IOFogModule {
             JsonValue extraHostsValue = jsonObj.get("extraHosts");
             microservice.setExtraHosts(getStringList(extraHostsValue));
 
+            JsonValue resourcesValue = jsonObj.get("resources");
+            if (resourcesValue != null && resourcesValue.getValueType().equals(JsonValue.ValueType.OBJECT)) {
+                microservice.setResources(getContainerResources((JsonObject) resourcesValue));
+            }
+
             try {
                 LoggingService.setupMicroserviceLogger(microservice.getMicroserviceUuid(), microservice.getLogSize());
             } catch (IOException e) {
@@ -882,18 +954,16 @@ public class FieldAgent implements IOFogModule {
     /**
      * pings IOFog controller
      */
-    private final Runnable pingController = () -> {
-        while (true) {
-            try {
-                Thread.sleep(Configuration.getPingControllerFreqSeconds() * 1000);
-                logDebug("Start Ping controller");
-                ping();
-            } catch (Exception e) {
-                logError("Exception pinging controller", new AgentUserException(e.getMessage(), e));
-            }
-            logDebug("Finished Ping controller");
+    private AdaptiveScheduler.Outcome pingController() {
+        try {
+            logDebug("Start Ping controller");
+            ping();
+        } catch (Exception e) {
+            logError("Exception pinging controller", new AgentUserException(e.getMessage(), e));
         }
-    };
+        logDebug("Finished Ping controller");
+        return getControllerOutcome(false);
+    }
 
     /**
      * computes SHA1 checksum
@@ -1404,10 +1474,19 @@ public class FieldAgent implements IOFogModule {
             processRoutes(microservices);
         }
 
-        new Thread(pingController, Constants.FIELD_AGENT_PING_CONTROLLER).start();
-        new Thread(getChangesList, Constants.FIELD_AGENT_GET_CHANGE_LIST).start();
-        new Thread(postStatus, Constants.FIELD_AGENT_POST_STATUS).start();
-        new Thread(postDiagnostics, Constants.FIELD_AGENT_POST_DIAGNOSTIC).start();
+        adaptiveScheduler = new AdaptiveScheduler(scheduler);
+        adaptiveScheduler.schedule(Constants.FIELD_AGENT_PING_CONTROLLER,
+                () -> Configuration.getPingControllerFreqSeconds() * 1000L, this::pingController);
+        changesWatcher = new ControllerChangesWatcher(orchestrator);
+        changesTask = adaptiveScheduler.schedule(Constants.FIELD_AGENT_GET_CHANGE_LIST,
+                () -> Configuration.getChangeFrequency() * 1000L
+                        * (changesWatcher.isActive() ? CHANGES_FALLBACK_POLL_MULTIPLIER : 1), this::getChangesList);
+        new AdaptiveScheduler(watchScheduler).schedule(Constants.FIELD_AGENT_WATCH_CHANGES,
+                () -> changesWatcher.isActive() ? 0 : Configuration.getChangeFrequency() * 1000L, this::watchChanges);
+        adaptiveScheduler.schedule(Constants.FIELD_AGENT_POST_STATUS,
+                () -> Configuration.getStatusFrequency() * 1000L, this::postStatus);
+        adaptiveScheduler.schedule(Constants.FIELD_AGENT_POST_DIAGNOSTIC,
+                () -> Configuration.getPostDiagnosticsFreq() * 1000L, this::postDiagnostics);
         
         StatusReporter.setFieldAgentStatus().setReadyToUpgrade(VersionHandler.isReadyToUpgrade());
         StatusReporter.setFieldAgentStatus().setReadyToRollback(VersionHandler.isReadyToRollback());
@@ -15,6 +15,11 @@ package org.eclipse.iofog.field_agent;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Constants.ControllerStatus;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * represents Field Agent status
  * 
@@ -28,6 +33,11 @@ public class FieldAgentStatus {
 	private boolean controllerVerified;
 	private boolean readyToUpgrade;
 	private boolean readyToRollback;
+	private long controllerRequests;
+	private long controllerConnectionsOpened;
+	private int controllerConnectionsLeased;
+	private int controllerConnectionsAvailable;
+	private final Map<String, Long> changeStepDurations = new ConcurrentHashMap<>();
 
 	public FieldAgentStatus() {
 		controllerStatus = ControllerStatus.NOT_CONNECTED;
@@ -73,4 +83,53 @@ public class FieldAgentStatus {
 		this.readyToRollback = readyToRollback;
 	}
 
+	public long getControllerRequests() {
+		return controllerRequests;
+	}
+
+	public long getControllerConnectionsOpened() {
+		return controllerConnectionsOpened;
+	}
+
+	public int getControllerConnectionsLeased() {
+		return controllerConnectionsLeased;
+	}
+
+	public int getControllerConnectionsAvailable() {
+		return controllerConnectionsAvailable;
+	}
+
+	/**
+	 * share of controller requests served over an already opened connection
+	 *
+	 * @return ratio between 0 and 1
+	 */
+	public float getControllerConnectionReuseRatio() {
+		if (controllerRequests == 0) {
+			return 0;
+		}
+		long reused = Math.max(0, controllerRequests - controllerConnectionsOpened);
+		return (float) reused / controllerRequests;
+	}
+
+	public synchronized void setControllerConnectionStats(long requests, long connectionsOpened, int leased, int available) {
+		this.controllerRequests = requests;
+		this.controllerConnectionsOpened = connectionsOpened;
+		this.controllerConnectionsLeased = leased;
+		this.controllerConnectionsAvailable = available;
+	}
+
+	/**
+	 * duration of the last run of each change step
+	 *
+	 * @return change step name to duration in milliseconds
+	 */
+	public Map<String, Long> getChangeStepDurations() {
+		return Collections.unmodifiableMap(new TreeMap<>(changeStepDurations));
+	}
+
+	public void setChangeStepDuration(String step, long durationMillis) {
+		changeStepDurations.put(step, durationMillis);
+	}
+
 }
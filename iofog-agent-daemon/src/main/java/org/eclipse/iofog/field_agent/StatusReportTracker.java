@@ -0,0 +1,168 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * keeps last status report acknowledged by IOFog controller and builds
+ * reports containing only fields changed since then
+ * fields holding list of entries with id, e.g. microservices status, contain only changed entries
+ * and ids of removed entries are listed under {@link #REMOVED_PROPERTY}, removed fields are sent as null
+ * full snapshot is sent on first report, every FULL_SNAPSHOT_INTERVAL reports
+ * and whenever controller asks for it
+ */
+public class StatusReportTracker {
+
+	public static final String REPORT_TYPE_PROPERTY = "reportType";
+	public static final String REPORT_TYPE_FULL = "full";
+	public static final String REPORT_TYPE_DELTA = "delta";
+	public static final String FULL_STATUS_REQUIRED_PROPERTY = "fullStatusRequired";
+	public static final String REMOVED_PROPERTY = "removed";
+	static final String ENTRY_ID_PROPERTY = "id";
+	static final int FULL_SNAPSHOT_INTERVAL = 30;
+
+	private JsonObject lastAcknowledged;
+	private int deltasSinceFullSnapshot;
+	private boolean fullSnapshotRequested;
+
+	/**
+	 * builds report to be sent
+	 *
+	 * @param status - current full status
+	 * @return full status or status delta marked with {@link #REPORT_TYPE_PROPERTY}
+	 */
+	public synchronized JsonObject prepareReport(JsonObject status) {
+		if (isFullSnapshotRequired()) {
+			return status;
+		}
+
+		JsonObjectBuilder delta = Json.createObjectBuilder();
+		JsonObjectBuilder removed = Json.createObjectBuilder();
+		boolean hasRemoved = false;
+		for (Map.Entry<String, JsonValue> field : status.entrySet()) {
+			JsonValue value = field.getValue();
+			JsonValue lastValue = lastAcknowledged.get(field.getKey());
+			if (Objects.equals(value, lastValue)) {
+				continue;
+			}
+			Map<String, JsonObject> entries = getEntries(value);
+			Map<String, JsonObject> lastEntries = getEntries(lastValue);
+			if (entries == null || lastEntries == null) {
+				delta.add(field.getKey(), value);
+				continue;
+			}
+			JsonArrayBuilder changedEntries = Json.createArrayBuilder();
+			entries.forEach((id, entry) -> {
+				if (!entry.equals(lastEntries.get(id))) {
+					changedEntries.add(entry);
+				}
+			});
+			JsonArray changed = changedEntries.build();
+			if (!changed.isEmpty()) {
+				delta.add(field.getKey(), changed.toString());
+			}
+			lastEntries.keySet().removeAll(entries.keySet());
+			if (!lastEntries.isEmpty()) {
+				JsonArrayBuilder removedIds = Json.createArrayBuilder();
+				lastEntries.keySet().forEach(removedIds::add);
+				removed.add(field.getKey(), removedIds);
+				hasRemoved = true;
+			}
+		}
+		for (String key : lastAcknowledged.keySet()) {
+			if (!status.containsKey(key)) {
+				delta.add(key, JsonValue.NULL);
+			}
+		}
+		if (hasRemoved) {
+			delta.add(REMOVED_PROPERTY, removed);
+		}
+		delta.add(REPORT_TYPE_PROPERTY, REPORT_TYPE_DELTA);
+		return delta.build();
+	}
+
+	/**
+	 * parses field holding json array of entries with id, e.g. microservices status
+	 *
+	 * @param value - field value
+	 * @return entries by id, null if field is not a list of entries with unique ids
+	 */
+	private static Map<String, JsonObject> getEntries(JsonValue value) {
+		if (!(value instanceof JsonString)) {
+			return null;
+		}
+		JsonArray array;
+		try (JsonReader reader = Json.createReader(new StringReader(((JsonString) value).getString()))) {
+			array = reader.readArray();
+		} catch (JsonException | IllegalStateException e) {
+			return null;
+		}
+		Map<String, JsonObject> entries = new LinkedHashMap<>();
+		for (JsonValue entry : array) {
+			if (!(entry instanceof JsonObject) || !(((JsonObject) entry).get(ENTRY_ID_PROPERTY) instanceof JsonString)
+					|| entries.put(((JsonObject) entry).getString(ENTRY_ID_PROPERTY), (JsonObject) entry) != null) {
+				return null;
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * stores fields of report which was successfully received by controller
+	 *
+	 * @param status   - full status report was built from
+	 * @param report   - report sent to controller
+	 * @param response - controller response
+	 */
+	public synchronized void acknowledge(JsonObject status, JsonObject report, JsonObject response) {
+		if (isDelta(report)) {
+			deltasSinceFullSnapshot++;
+		} else {
+			deltasSinceFullSnapshot = 0;
+			fullSnapshotRequested = false;
+		}
+		lastAcknowledged = status;
+
+		if (response != null && response.getBoolean(FULL_STATUS_REQUIRED_PROPERTY, false)) {
+			fullSnapshotRequested = true;
+		}
+	}
+
+	/**
+	 * forces full snapshot on next report
+	 */
+	public synchronized void requestFullSnapshot() {
+		fullSnapshotRequested = true;
+	}
+
+	public static boolean isDelta(JsonObject report) {
+		return REPORT_TYPE_DELTA.equals(report.getString(REPORT_TYPE_PROPERTY, REPORT_TYPE_FULL));
+	}
+
+	private boolean isFullSnapshotRequired() {
+		return lastAcknowledged == null || fullSnapshotRequested || deltasSinceFullSnapshot >= FULL_SNAPSHOT_INTERVAL;
+	}
+}
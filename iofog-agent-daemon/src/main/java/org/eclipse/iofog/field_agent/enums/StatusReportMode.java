@@ -0,0 +1,42 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent.enums;
+
+import java.util.Arrays;
+
+/**
+ * mode of status reports sent to IOFog controller
+ * FULL - whole status snapshot in plain json
+ * COMPRESSED - whole status snapshot, gzip compressed
+ * DELTA - only fields changed since last acknowledged report, gzip compressed
+ */
+public enum StatusReportMode {
+	FULL,
+	COMPRESSED,
+	DELTA;
+
+	public boolean isCompressed() {
+		return this != FULL;
+	}
+
+	public boolean isDelta() {
+		return this == DELTA;
+	}
+
+	public static StatusReportMode getModeByValue(String value) {
+		return Arrays.stream(StatusReportMode.values())
+				.filter(mode -> mode.name().equalsIgnoreCase(value))
+				.findFirst()
+				.orElseThrow(IllegalArgumentException::new);
+	}
+}
@@ -23,7 +23,7 @@ public class ApiHandlerHelpers {
     }
 
     public static String validateContentType(HttpRequest request, String expectedContentType) {
-    	LoggingService.logDebug(MODULE_NAME, "Validate content type in request : " + request);
+    	LoggingService.logDebug(MODULE_NAME, () -> "Validate content type in request : " + request);
         try {
 			final String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE, "");
 			if (TextUtils.isEmpty(contentType) || !(contentType.trim().split(";")[0].equalsIgnoreCase(expectedContentType))) {
@@ -38,7 +38,7 @@ public class ApiHandlerHelpers {
     }
 
     public static boolean validateAccessToken(HttpRequest request) {
-    	LoggingService.logDebug(MODULE_NAME, "Validate access token in request : " + request);
+    	LoggingService.logDebug(MODULE_NAME, () -> "Validate access token in request : " + request);
         final String validAccessToken = fetchAccessToken();
         String accessToken;
 		try {
@@ -28,6 +28,9 @@ import io.netty.util.concurrent.GenericFutureListener;
 
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Histogram;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -47,6 +50,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
 
     private static final String MODULE_NAME = "Local API : LocalApiServerHandler";
+    private static final MetricFamily<Histogram> REQUEST_DURATION = MetricsRegistry.histogram(
+            "iofog_local_api_request_duration_seconds", "Local API request processing time", "route");
 
     private HttpRequest request;
     private ByteArrayOutputStream baos;
@@ -151,7 +156,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().equals("/v2/config/get")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing config/get request");
             Callable<FullHttpResponse> callable = new GetConfigurationHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/config/get", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing config/get request");
             return;
         }
@@ -159,7 +164,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().equals("/v2/messages/next")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing messages/next request");
             Callable<FullHttpResponse> callable = new MessageReceiverHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/messages/next", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing messages/next request");
             return;
         }
@@ -167,7 +172,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().equals("/v2/messages/new")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing messages/new request");
             Callable<FullHttpResponse> callable = new MessageSenderHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/messages/new", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing messages/new request");
             return;
         }
@@ -175,7 +180,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().equals("/v2/messages/query")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing messages/query request");
             Callable<FullHttpResponse> callable = new QueryMessageReceiverHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/messages/query", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing messages/query request");
             return;
         }
@@ -183,7 +188,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/restblue")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing restblue request");
             Callable<FullHttpResponse> callable = new BluetoothApiHandler((FullHttpRequest) request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/restblue", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing restblue request");
             return;
         }
@@ -191,7 +196,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/log")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing log request");
             Callable<FullHttpResponse> callable = new LogApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/log", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing log request");
             return;
         }
@@ -199,7 +204,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/commandline")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing commandline request");
             Callable<FullHttpResponse> callable = new CommandLineApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/commandline", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "finished Processing commandline request");
             return;
         }
@@ -207,7 +212,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().equals("/v2/gps")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing gps request");
             Callable<FullHttpResponse> callable = new GpsApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/gps", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing commandline request");
             return;
         }
@@ -231,7 +236,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/config")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing config request");
             Callable<FullHttpResponse> callable = new ConfigApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/config", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing config request");
             return;
         }
@@ -239,7 +244,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/provision")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing provision request");
             Callable<FullHttpResponse> callable = new ProvisionApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/provision", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing provision request");
             return;
         }
@@ -247,7 +252,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/deprovision")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing deprovision request");
             Callable<FullHttpResponse> callable = new DeprovisionApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/deprovision", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing deprovision request");
             return;
         }
@@ -255,7 +260,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/info")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing info request");
             Callable<FullHttpResponse> callable = new InfoApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/info", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing info request");
             return;
         }
@@ -263,15 +268,23 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         if (request.uri().startsWith("/v2/status")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing status request");
             Callable<FullHttpResponse> callable = new StatusApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/status", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing status request");
             return;
         }
 
+        if (request.uri().startsWith("/v2/metrics")) {
+        	LoggingService.logInfo(MODULE_NAME, "Start Processing metrics request");
+            Callable<FullHttpResponse> callable = new MetricsApiHandler(request, ctx.alloc().buffer(), content);
+            runTask("/v2/metrics", callable, ctx, request);
+            LoggingService.logInfo(MODULE_NAME, "Finished Processing metrics request");
+            return;
+        }
+
         if (request.uri().startsWith("/v2/version")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing version request");
             Callable<FullHttpResponse> callable = new VersionApiHandler(request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
+            runTask("/v2/version", callable, ctx, request);
             LoggingService.logInfo(MODULE_NAME, "Finished Processing version request");
             return;
         }
@@ -315,14 +328,18 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
 
     /**
      * Helper for request thread
+     * records request duration per route, from dispatch until the response is ready
      *
+     * @param route
      * @param callable
      * @param ctx
      * @param req
      */
-    private void runTask(Callable<FullHttpResponse> callable, ChannelHandlerContext ctx, HttpRequest req) {
+    private void runTask(String route, Callable<FullHttpResponse> callable, ChannelHandlerContext ctx, HttpRequest req) {
+        final long start = System.nanoTime();
         final Future<FullHttpResponse> future = executor.submit(callable);
         future.addListener((GenericFutureListener<Future<Object>>) futureListener -> {
+            REQUEST_DURATION.labels(route).observeSince(start);
             if (futureListener.isSuccess()) {
                 sendHttpResponse(ctx, req, (FullHttpResponse) futureListener.get());
             } else {
@@ -20,15 +20,25 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 
 import javax.json.*;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
 
 import static io.netty.handler.codec.http.HttpMethod.POST;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * writes microservice logs
+ * accepts single record {"id", "type", "message"} or batch {"id", "logs": [{"type", "message"}]}
+ * records above microservice log rate limit are dropped, response reports accepted and dropped counts
+ */
 public class LogApiHandler implements Callable<FullHttpResponse> {
 	private static final String MODULE_NAME = "Local API : LogApiHandler";
+	static final int MAX_BATCH_SIZE = 1000;
 
 	private final HttpRequest req;
 	private final ByteBuf outputBuffer;
@@ -58,28 +68,38 @@ public class LogApiHandler implements Callable<FullHttpResponse> {
 		JsonReader reader = Json.createReader(new StringReader(msgString));
 		JsonObject jsonObject = reader.readObject();
 
-		boolean result = false;
-		if (jsonObject.containsKey("message") &&
-				jsonObject.containsKey("type") &&
-				jsonObject.containsKey("id")){
-			String logMessage = jsonObject.getString("message");
-			String logType = jsonObject.getString("type");
-			String microserviceUuid = jsonObject.getString("id");
-			if (logType.equals("info")) {
-				result = LoggingService.microserviceLogInfo(microserviceUuid, logMessage);
-			} else {
-				result = LoggingService.microserviceLogWarning(microserviceUuid, logMessage);
+		if (!jsonObject.containsKey("id") || !(jsonObject.containsKey("logs") || jsonObject.containsKey("message") && jsonObject.containsKey("type"))) {
+			return logParsingError();
+		}
+		String microserviceUuid = jsonObject.getString("id");
+		List<LogRecord> records = new ArrayList<>();
+		if (jsonObject.containsKey("logs")) {
+			JsonArray logs = jsonObject.getJsonArray("logs");
+			if (logs.size() > MAX_BATCH_SIZE) {
+				String errorMsg = "Log batch is too large, max " + MAX_BATCH_SIZE + " records allowed";
+				LoggingService.logError(MODULE_NAME, errorMsg, new AgentUserException(errorMsg));
+				return ApiHandlerHelpers.badRequestResponse(outputBuffer, errorMsg);
 			}
+			for (JsonObject log : logs.getValuesAs(JsonObject.class)) {
+				if (!log.containsKey("message")) {
+					return logParsingError();
+				}
+				records.add(new LogRecord(getLevel(log.getString("type", "info")), log.getString("message")));
+			}
+		} else {
+			records.add(new LogRecord(getLevel(jsonObject.getString("type")), jsonObject.getString("message")));
 		}
-		if (!result) {
-			String errorMsg = "Log message parsing error, " + "Logger initialized null";
-			LoggingService.logError(MODULE_NAME, errorMsg, new AgentUserException(errorMsg));
-			return ApiHandlerHelpers.badRequestResponse(outputBuffer, errorMsg);
+
+		int written = LoggingService.microserviceLog(microserviceUuid, records);
+		if (written < 0) {
+			return logParsingError();
 		}
 
 		JsonBuilderFactory factory = Json.createBuilderFactory(null);
 		JsonObjectBuilder builder = factory.createObjectBuilder();
-		builder.add("status", "okay");
+		builder.add("status", "okay")
+				.add("accepted", written)
+				.add("dropped", records.size() - written);
 
 		String sendMessageResult = builder.build().toString();
 
@@ -87,5 +107,14 @@ public class LogApiHandler implements Callable<FullHttpResponse> {
 		return ApiHandlerHelpers.successResponse(outputBuffer, sendMessageResult);
 	}
 
+	private FullHttpResponse logParsingError() {
+		String errorMsg = "Log message parsing error, " + "Logger initialized null";
+		LoggingService.logError(MODULE_NAME, errorMsg, new AgentUserException(errorMsg));
+		return ApiHandlerHelpers.badRequestResponse(outputBuffer, errorMsg);
+	}
+
+	private static Level getLevel(String logType) {
+		return logType.equals("info") ? Level.INFO : Level.WARNING;
+	}
 
 }
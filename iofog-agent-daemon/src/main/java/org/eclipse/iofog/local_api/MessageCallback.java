@@ -25,6 +25,13 @@ public class MessageCallback {
 	public MessageCallback(String name) {
 		this.name = name;
 	}
+
+	/**
+	 * @return id of the receiver this callback delivers to
+	 */
+	public String getName() {
+		return name;
+	}
 	
 	/**
 	 * Method called from message bus to send real-time messages to the containers
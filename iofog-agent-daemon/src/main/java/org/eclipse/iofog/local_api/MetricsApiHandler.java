@@ -0,0 +1,67 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+
+import java.util.concurrent.Callable;
+
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Handler to expose agent metrics in OpenMetrics text format
+ */
+public class MetricsApiHandler implements Callable<FullHttpResponse> {
+    private static final String MODULE_NAME = "Metrics Api Handler";
+
+    private final HttpRequest req;
+    private final ByteBuf outputBuffer;
+    private final byte[] content;
+
+    public MetricsApiHandler(HttpRequest request, ByteBuf outputBuffer, byte[] content) {
+        this.req = request;
+        this.outputBuffer = outputBuffer;
+        this.content = content;
+    }
+
+    @Override
+    public FullHttpResponse call() throws Exception {
+        LoggingService.logDebug(MODULE_NAME, "Handle metrics Api Handler call");
+        if (!ApiHandlerHelpers.validateMethod(this.req, GET)) {
+            LoggingService.logError(MODULE_NAME, "Request method not allowed",
+                    new AgentSystemException("Request method not allowed"));
+            return ApiHandlerHelpers.methodNotAllowedResponse();
+        }
+
+        if (!ApiHandlerHelpers.validateAccessToken(this.req)) {
+            String errorMsg = "Incorrect access token";
+            outputBuffer.writeBytes(errorMsg.getBytes(UTF_8));
+            LoggingService.logError(MODULE_NAME, errorMsg,
+                    new AgentSystemException(errorMsg));
+            return ApiHandlerHelpers.unauthorizedResponse(outputBuffer, errorMsg);
+        }
+
+        FullHttpResponse res = ApiHandlerHelpers.successResponse(outputBuffer, MetricsRegistry.scrape());
+        res.headers().set(HttpHeaderNames.CONTENT_TYPE, MetricsRegistry.CONTENT_TYPE);
+        LoggingService.logDebug(MODULE_NAME, "Finished metrics Api Handler call");
+        return res;
+    }
+}
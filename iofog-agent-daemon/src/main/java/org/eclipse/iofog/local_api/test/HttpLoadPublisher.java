@@ -0,0 +1,81 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * publishes messages with POST /v2/messages/new, latency is the time until response is read
+ */
+public class HttpLoadPublisher extends LoadPublisher {
+
+	private final URL url;
+
+	public HttpLoadPublisher(URI baseUrl, String publisherId, int rate, int size, LoadTestStats stats) throws IOException {
+		super(publisherId, rate, size, stats);
+		this.url = baseUrl.resolve("/v2/messages/new").toURL();
+	}
+
+	@Override
+	protected void publish(long scheduledNanos) {
+		byte[] body = newMessage(scheduledNanos).toJson().toString().getBytes(UTF_8);
+		try {
+			post(url, body);
+			stats.success(System.nanoTime() - scheduledNanos);
+		} catch (IOException e) {
+			stats.error();
+		}
+	}
+
+	/**
+	 * posts json body and reads the whole response, so the connection is kept alive for the next request
+	 *
+	 * @param url - request url
+	 * @param body - json request body
+	 * @return response body
+	 * @throws IOException if request failed or response is not OK
+	 */
+	static byte[] post(URL url, byte[] body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setFixedLengthStreamingMode(body.length);
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body);
+		}
+		int code = connection.getResponseCode();
+		try (InputStream in = code == HttpURLConnection.HTTP_OK ? connection.getInputStream() : connection.getErrorStream()) {
+			ByteArrayOutputStream response = new ByteArrayOutputStream();
+			if (in != null) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					response.write(buffer, 0, read);
+				}
+			}
+			if (code != HttpURLConnection.HTTP_OK) {
+				throw new IOException("Request to " + url + " failed with status " + code);
+			}
+			return response.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import org.eclipse.iofog.message_bus.Message;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * polls POST /v2/messages/next on its own thread, waits poll interval only when there were no messages
+ */
+public class HttpLoadReceiver implements Runnable {
+
+	private final URL url;
+	private final byte[] body;
+	private final long pollIntervalMillis;
+	private final LoadTestStats stats;
+	private volatile boolean running = true;
+
+	public HttpLoadReceiver(URI baseUrl, String receiverId, long pollIntervalMillis, LoadTestStats stats) throws IOException {
+		this.url = baseUrl.resolve("/v2/messages/next").toURL();
+		this.body = Json.createObjectBuilder().add("id", receiverId).build().toString().getBytes(UTF_8);
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.stats = stats;
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			int count;
+			try {
+				count = poll();
+			} catch (IOException | RuntimeException e) {
+				stats.error();
+				count = 0;
+			}
+			if (count == 0) {
+				try {
+					Thread.sleep(pollIntervalMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private int poll() throws IOException {
+		byte[] response = HttpLoadPublisher.post(url, body);
+		long receivedNanos = System.nanoTime();
+		JsonArray messages;
+		try (JsonReader reader = Json.createReader(new ByteArrayInputStream(response))) {
+			messages = reader.readObject().getJsonArray("messages");
+		}
+		for (JsonObject json : messages.getValuesAs(JsonObject.class)) {
+			LoadPublisher.getScheduledNanos(new Message(json))
+					.ifPresent(scheduledNanos -> stats.success(receivedNanos - scheduledNanos));
+		}
+		return messages.size();
+	}
+}
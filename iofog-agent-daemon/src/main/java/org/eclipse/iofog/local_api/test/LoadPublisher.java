@@ -0,0 +1,105 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import org.eclipse.iofog.message_bus.Message;
+import org.eclipse.iofog.utils.BytesUtil;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * publishes messages at fixed rate on its own thread
+ *
+ * latency is measured from the time a message was scheduled to be sent rather than the time it was actually sent,
+ * so a stalled agent shows up as latency of every message queued behind the stall instead of being hidden
+ * by the publisher slowing down. scheduled time is also carried in context data, so receivers in the same
+ * process can measure end to end latency
+ */
+public abstract class LoadPublisher implements Runnable {
+
+	static final int CONTEXT_DATA_LENGTH = Long.BYTES;
+
+	protected final String publisherId;
+	protected final LoadTestStats stats;
+	private final byte[] content;
+	private final long intervalNanos;
+	private volatile boolean running = true;
+
+	protected LoadPublisher(String publisherId, int rate, int size, LoadTestStats stats) {
+		this.publisherId = publisherId;
+		this.stats = stats;
+		this.content = new byte[size];
+		ThreadLocalRandom.current().nextBytes(content);
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+	}
+
+	/**
+	 * sends one message
+	 *
+	 * @param scheduledNanos - {@link System#nanoTime()} the message was scheduled to be sent at
+	 */
+	protected abstract void publish(long scheduledNanos);
+
+	/**
+	 * releases publisher resources once it is stopped
+	 */
+	protected void close() {
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public void run() {
+		long next = System.nanoTime();
+		try {
+			while (running) {
+				long delay = next - System.nanoTime();
+				if (delay > 0) {
+					LockSupport.parkNanos(delay);
+					continue;
+				}
+				publish(next);
+				next += intervalNanos;
+			}
+		} finally {
+			close();
+		}
+	}
+
+	protected Message newMessage(long scheduledNanos) {
+		Message message = new Message();
+		message.setPublisher(publisherId);
+		message.setInfoType("load/test");
+		message.setInfoFormat("binary");
+		message.setContextData(BytesUtil.longToBytes(scheduledNanos));
+		message.setContentData(content);
+		return message;
+	}
+
+	/**
+	 * @param message - received message
+	 * @return scheduled send time of message published by load test, empty for other messages
+	 */
+	static OptionalLong getScheduledNanos(Message message) {
+		byte[] contextData = message.getContextData();
+		if (contextData == null || contextData.length != CONTEXT_DATA_LENGTH) {
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(BytesUtil.bytesToLong(contextData));
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+import javax.json.Json;
+import javax.json.JsonWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * load generator for local api of a running agent
+ *
+ * drives publishers and receivers over http or websockets at fixed rate and payload size and reports
+ * throughput, latency percentiles and error rate of publishing and of end to end delivery.
+ * publish latency is measured until response or receipt, receive latency from scheduled send time to delivery
+ * run with no arguments to print options, see {@link LoadTestOptions}
+ */
+public class LoadTestMain {
+
+	private static final int PROGRESS_INTERVAL_SECONDS = 5;
+	private static final int DRAIN_SECONDS = 2;
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options;
+		try {
+			options = LoadTestOptions.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(LoadTestOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+		new LoadTestMain(options).run();
+		System.exit(0);
+	}
+
+	private final LoadTestOptions options;
+	private final LoadTestStats publishStats;
+	private final LoadTestStats receiveStats;
+	private final List<LoadPublisher> publishers = new ArrayList<>();
+	private final List<WebsocketLoadReceiver> websocketReceivers = new ArrayList<>();
+	private final List<HttpLoadReceiver> httpReceivers = new ArrayList<>();
+	private final List<Thread> threads = new ArrayList<>();
+
+	public LoadTestMain(LoadTestOptions options) {
+		this.options = options;
+		long windowSeconds = options.getWarmupSeconds() + options.getDurationSeconds() + DRAIN_SECONDS + 60;
+		this.publishStats = new LoadTestStats("publish", windowSeconds);
+		this.receiveStats = new LoadTestStats("receive", windowSeconds);
+	}
+
+	public void run() throws Exception {
+		EventLoopGroup group = new NioEventLoopGroup();
+		try {
+			startReceivers(group);
+			startPublishers(group);
+
+			System.out.println("Warming up for " + options.getWarmupSeconds() + "s");
+			TimeUnit.SECONDS.sleep(options.getWarmupSeconds());
+
+			publishStats.start();
+			receiveStats.start();
+			long start = System.nanoTime();
+			long end = start + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+			while (System.nanoTime() < end) {
+				TimeUnit.NANOSECONDS.sleep(Math.min(end - System.nanoTime(), TimeUnit.SECONDS.toNanos(PROGRESS_INTERVAL_SECONDS)));
+				System.out.println(String.format("%ds published=%d receipts_failed=%d received=%d",
+						TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+						publishStats.getCount(), publishStats.getErrors(), receiveStats.getCount()));
+			}
+			double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+			publishStats.stop();
+			receiveStats.stop();
+
+			stop();
+			report(seconds);
+		} finally {
+			group.shutdownGracefully(0, DRAIN_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	private void startReceivers(EventLoopGroup group) throws Exception {
+		for (int i = 0; i < options.getReceivers(); i++) {
+			String receiverId = options.getReceiverId(i);
+			if (options.isWebsocketReceive()) {
+				websocketReceivers.add(new WebsocketLoadReceiver(group, options, receiverId, receiveStats));
+			} else {
+				HttpLoadReceiver receiver = new HttpLoadReceiver(options.getUrl(), receiverId, options.getPollIntervalMillis(), receiveStats);
+				httpReceivers.add(receiver);
+				startThread(receiver, "Load Receiver " + i);
+			}
+		}
+	}
+
+	private void startPublishers(EventLoopGroup group) throws Exception {
+		for (int i = 0; i < options.getPublishers(); i++) {
+			String publisherId = options.getPublisherId(i);
+			LoadPublisher publisher = options.isWebsocketPublish() ?
+					new WebsocketLoadPublisher(group, options, publisherId, publishStats) :
+					new HttpLoadPublisher(options.getUrl(), publisherId, options.getRate(), options.getSize(), publishStats);
+			publishers.add(publisher);
+		}
+		for (int i = 0; i < publishers.size(); i++) {
+			startThread(publishers.get(i), "Load Publisher " + i);
+		}
+	}
+
+	private void startThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+		threads.add(thread);
+	}
+
+	private void stop() throws InterruptedException {
+		publishers.forEach(LoadPublisher::stop);
+		TimeUnit.SECONDS.sleep(DRAIN_SECONDS);
+		httpReceivers.forEach(HttpLoadReceiver::stop);
+		websocketReceivers.forEach(WebsocketLoadReceiver::close);
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(DRAIN_SECONDS));
+		}
+	}
+
+	private void report(double seconds) throws IOException {
+		System.out.println(String.format("Results of %.1fs, %d publishers at %d/s, %d receivers, %d bytes, publish over %s, receive over %s",
+				seconds, options.getPublishers(), options.getRate(), options.getReceivers(), options.getSize(),
+				options.isWebsocketPublish() ? "ws" : "http", options.isWebsocketReceive() ? "ws" : "http"));
+		System.out.println(publishStats.format(seconds));
+		System.out.println(receiveStats.format(seconds));
+
+		if (options.getReportFile() != null) {
+			try (JsonWriter writer = Json.createWriter(new FileOutputStream(options.getReportFile()))) {
+				writer.writeObject(Json.createObjectBuilder()
+						.add("duration", seconds)
+						.add("publishers", options.getPublishers())
+						.add("receivers", options.getReceivers())
+						.add("rate", options.getRate())
+						.add("size", options.getSize())
+						.add("publishTransport", options.isWebsocketPublish() ? "ws" : "http")
+						.add("receiveTransport", options.isWebsocketReceive() ? "ws" : "http")
+						.add(publishStats.getName(), publishStats.toJson(seconds))
+						.add(receiveStats.getName(), receiveStats.toJson(seconds))
+						.build());
+			}
+			System.out.println("Report written to " + options.getReportFile());
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * command line options of {@link LoadTestMain}, given as --name=value
+ *
+ * publisher and receiver ids must be microservices with routes between them configured on controller,
+ * otherwise agent rejects published messages or never delivers them
+ */
+public class LoadTestOptions {
+
+	static final String USAGE = "Usage: LoadTestMain --publisher-ids=<id,...> --receiver-ids=<id,...> [options]\n" +
+			"  --url=<url>                 local api url, default http://127.0.0.1:54321\n" +
+			"  --publishers=<n>            publisher connections, default one per publisher id\n" +
+			"  --receivers=<n>             receiver connections, default one per receiver id\n" +
+			"  --rate=<n>                  messages per second per publisher, default 10\n" +
+			"  --size=<bytes>              content size of each message, default 1024\n" +
+			"  --duration=<seconds>        measured duration, default 60\n" +
+			"  --warmup=<seconds>          not measured duration before the run, default 5\n" +
+			"  --publish-transport=ws|http default ws\n" +
+			"  --receive-transport=ws|http default ws\n" +
+			"  --poll-interval=<millis>    http receive poll interval when no messages, default 100\n" +
+			"  --report=<file>             write results as json to file";
+
+	private URI url = URI.create("http://127.0.0.1:54321");
+	private List<String> publisherIds = new ArrayList<>();
+	private List<String> receiverIds = new ArrayList<>();
+	private int publishers;
+	private int receivers;
+	private int rate = 10;
+	private int size = 1024;
+	private int durationSeconds = 60;
+	private int warmupSeconds = 5;
+	private String publishTransport = "ws";
+	private String receiveTransport = "ws";
+	private int pollIntervalMillis = 100;
+	private String reportFile;
+
+	/**
+	 * parses command line options
+	 *
+	 * @param args - command line arguments
+	 * @return options
+	 * @throws IllegalArgumentException if argument is unknown or invalid
+	 */
+	public static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Invalid argument " + arg);
+			}
+			String name = arg.substring(2, separator);
+			String value = arg.substring(separator + 1);
+			switch (name) {
+				case "url":
+					options.url = URI.create(value);
+					break;
+				case "publisher-ids":
+					options.publisherIds = splitIds(value);
+					break;
+				case "receiver-ids":
+					options.receiverIds = splitIds(value);
+					break;
+				case "publishers":
+					options.publishers = parsePositive(name, value);
+					break;
+				case "receivers":
+					options.receivers = parsePositive(name, value);
+					break;
+				case "rate":
+					options.rate = parsePositive(name, value);
+					break;
+				case "size":
+					options.size = parsePositive(name, value);
+					break;
+				case "duration":
+					options.durationSeconds = parsePositive(name, value);
+					break;
+				case "warmup":
+					options.warmupSeconds = Integer.parseInt(value);
+					break;
+				case "publish-transport":
+					options.publishTransport = parseTransport(name, value);
+					break;
+				case "receive-transport":
+					options.receiveTransport = parseTransport(name, value);
+					break;
+				case "poll-interval":
+					options.pollIntervalMillis = parsePositive(name, value);
+					break;
+				case "report":
+					options.reportFile = value;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + name);
+			}
+		}
+		if (options.publisherIds.isEmpty()) {
+			throw new IllegalArgumentException("Missing option publisher-ids");
+		}
+		if (options.receiverIds.isEmpty()) {
+			throw new IllegalArgumentException("Missing option receiver-ids");
+		}
+		if (options.publishers == 0) {
+			options.publishers = options.publisherIds.size();
+		}
+		if (options.receivers == 0) {
+			options.receivers = options.receiverIds.size();
+		}
+		return options;
+	}
+
+	private static List<String> splitIds(String value) {
+		List<String> ids = new ArrayList<>();
+		Arrays.stream(value.split(",")).map(String::trim).filter(id -> !id.isEmpty()).forEach(ids::add);
+		return ids;
+	}
+
+	private static int parsePositive(String name, String value) {
+		int result = Integer.parseInt(value);
+		if (result <= 0) {
+			throw new IllegalArgumentException("Option " + name + " must be positive");
+		}
+		return result;
+	}
+
+	private static String parseTransport(String name, String value) {
+		if (!"ws".equals(value) && !"http".equals(value)) {
+			throw new IllegalArgumentException("Option " + name + " must be ws or http");
+		}
+		return value;
+	}
+
+	public URI getUrl() {
+		return url;
+	}
+
+	/**
+	 * @param path - request path
+	 * @return websocket url of local api for given path
+	 */
+	public URI getWebsocketUrl(String path) {
+		String scheme = "https".equalsIgnoreCase(url.getScheme()) ? "wss" : "ws";
+		return URI.create(scheme + "://" + url.getHost() + ":" + getPort() + path);
+	}
+
+	public int getPort() {
+		if (url.getPort() != -1) {
+			return url.getPort();
+		}
+		return "https".equalsIgnoreCase(url.getScheme()) ? 443 : 80;
+	}
+
+	/**
+	 * ids are assigned round robin when there are more connections than ids
+	 *
+	 * @param index - publisher connection index
+	 * @return publisher id
+	 */
+	public String getPublisherId(int index) {
+		return publisherIds.get(index % publisherIds.size());
+	}
+
+	public String getReceiverId(int index) {
+		return receiverIds.get(index % receiverIds.size());
+	}
+
+	public int getPublishers() {
+		return publishers;
+	}
+
+	public int getReceivers() {
+		return receivers;
+	}
+
+	public int getRate() {
+		return rate;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	public boolean isWebsocketPublish() {
+		return "ws".equals(publishTransport);
+	}
+
+	public boolean isWebsocketReceive() {
+		return "ws".equals(receiveTransport);
+	}
+
+	public int getPollIntervalMillis() {
+		return pollIntervalMillis;
+	}
+
+	public String getReportFile() {
+		return reportFile;
+	}
+}
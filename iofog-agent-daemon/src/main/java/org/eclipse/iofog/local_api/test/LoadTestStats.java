@@ -0,0 +1,102 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import org.eclipse.iofog.utils.metrics.LatencyHistogram;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * results of one kind of load test operation, only recorded between {@link #start()} and {@link #stop()}
+ * so warmup and drain do not skew throughput and latency
+ */
+public class LoadTestStats {
+
+	private final String name;
+	private final LatencyHistogram latency;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private volatile boolean recording;
+
+	/**
+	 * @param name - operation name
+	 * @param windowSeconds - latency window, must cover the whole measured run
+	 */
+	public LoadTestStats(String name, long windowSeconds) {
+		this.name = name;
+		this.latency = new LatencyHistogram(windowSeconds);
+	}
+
+	public void start() {
+		recording = true;
+	}
+
+	public void stop() {
+		recording = false;
+	}
+
+	public void success(long latencyNanos) {
+		if (recording) {
+			count.increment();
+			latency.recordNanos(latencyNanos);
+		}
+	}
+
+	public void error() {
+		if (recording) {
+			errors.increment();
+		}
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	/**
+	 * @param seconds - measured duration
+	 * @return one line summary
+	 */
+	public String format(double seconds) {
+		long total = getCount() + getErrors();
+		return String.format("%-8s count=%d throughput=%.1f/s errors=%d (%.2f%%) p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+				name, getCount(), getCount() / seconds, getErrors(), total == 0 ? 0.0 : 100.0 * getErrors() / total,
+				latency.getValueAtQuantile(0.5) / 1000.0, latency.getValueAtQuantile(0.99) / 1000.0,
+				latency.getValueAtQuantile(0.999) / 1000.0, latency.getMax() / 1000.0);
+	}
+
+	/**
+	 * @param seconds - measured duration
+	 * @return results, latencies are in microseconds
+	 */
+	public JsonObject toJson(double seconds) {
+		return Json.createObjectBuilder()
+				.add("count", getCount())
+				.add("errors", getErrors())
+				.add("throughput", getCount() / seconds)
+				.add("p50", latency.getValueAtQuantile(0.5))
+				.add("p99", latency.getValueAtQuantile(0.99))
+				.add("p999", latency.getValueAtQuantile(0.999))
+				.add("max", latency.getMax())
+				.build();
+	}
+
+	public String getName() {
+		return name;
+	}
+}
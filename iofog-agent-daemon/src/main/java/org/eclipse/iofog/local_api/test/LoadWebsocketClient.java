@@ -0,0 +1,161 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+
+import java.net.URI;
+import java.util.function.BiConsumer;
+
+/**
+ * real-time message websocket connection used by load test publishers and receivers
+ * binary frames are passed to the frame listener on the event loop, close listener is called once connection is lost
+ */
+public class LoadWebsocketClient extends SimpleChannelInboundHandler<Object> {
+
+	private static final int MAX_CONTENT_LENGTH = 64 * 1024 * 1024;
+
+	private final WebSocketClientHandshaker handshaker;
+	private final BiConsumer<Channel, ByteBuf> frameListener;
+	private final Runnable closeListener;
+	private ChannelPromise handshakeFuture;
+	private Channel channel;
+
+	private LoadWebsocketClient(URI uri, BiConsumer<Channel, ByteBuf> frameListener, Runnable closeListener) {
+		this.handshaker = WebSocketClientHandshakerFactory.newHandshaker(
+				uri, WebSocketVersion.V13, null, false, new DefaultHttpHeaders(), MAX_CONTENT_LENGTH);
+		this.frameListener = frameListener;
+		this.closeListener = closeListener;
+	}
+
+	/**
+	 * opens websocket and waits for handshake to complete
+	 *
+	 * @param group - event loop group shared by all connections
+	 * @param uri - websocket url
+	 * @param port - local api port
+	 * @param frameListener - called with channel and content of each binary frame
+	 * @param closeListener - called when connection is closed
+	 * @return connected client
+	 * @throws Exception if connection or handshake failed
+	 */
+	public static LoadWebsocketClient connect(EventLoopGroup group, URI uri, int port,
+											  BiConsumer<Channel, ByteBuf> frameListener, Runnable closeListener) throws Exception {
+		final SslContext sslCtx = "wss".equalsIgnoreCase(uri.getScheme()) ?
+				SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build() : null;
+		final LoadWebsocketClient client = new LoadWebsocketClient(uri, frameListener, closeListener);
+
+		Bootstrap b = new Bootstrap();
+		b.group(group)
+				.channel(NioSocketChannel.class)
+				.handler(new ChannelInitializer<SocketChannel>() {
+					@Override
+					protected void initChannel(SocketChannel ch) {
+						ChannelPipeline p = ch.pipeline();
+						if (sslCtx != null) {
+							p.addLast(sslCtx.newHandler(ch.alloc(), uri.getHost(), port));
+						}
+						p.addLast(new HttpClientCodec(), new HttpObjectAggregator(MAX_CONTENT_LENGTH), client);
+					}
+				});
+
+		client.channel = b.connect(uri.getHost(), port).sync().channel();
+		client.handshakeFuture.sync();
+		return client;
+	}
+
+	/**
+	 * writes binary frame and flushes it
+	 *
+	 * @param content - frame content, released once written
+	 * @return write future
+	 */
+	public ChannelFuture send(ByteBuf content) {
+		return channel.writeAndFlush(new BinaryWebSocketFrame(content));
+	}
+
+	public Channel getChannel() {
+		return channel;
+	}
+
+	public void close() {
+		if (channel.isActive()) {
+			channel.writeAndFlush(new CloseWebSocketFrame());
+		}
+		channel.close().awaitUninterruptibly();
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) {
+		handshakeFuture = ctx.newPromise();
+	}
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) {
+		handshaker.handshake(ctx.channel());
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		if (!handshakeFuture.isDone()) {
+			handshakeFuture.setFailure(new IllegalStateException("Connection closed before handshake"));
+		}
+		closeListener.run();
+	}
+
+	@Override
+	public void channelRead0(ChannelHandlerContext ctx, Object msg) {
+		if (!handshaker.isHandshakeComplete()) {
+			handshaker.finishHandshake(ctx.channel(), (FullHttpResponse) msg);
+			handshakeFuture.setSuccess();
+			return;
+		}
+
+		if (msg instanceof BinaryWebSocketFrame) {
+			frameListener.accept(ctx.channel(), ((BinaryWebSocketFrame) msg).content());
+		} else if (msg instanceof CloseWebSocketFrame) {
+			ctx.close();
+		}
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		if (!handshakeFuture.isDone()) {
+			handshakeFuture.setFailure(cause);
+		}
+		ctx.close();
+	}
+}
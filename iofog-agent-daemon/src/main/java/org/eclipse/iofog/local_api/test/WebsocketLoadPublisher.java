@@ -0,0 +1,75 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * publishes messages over real-time message websocket, latency is the time until receipt is received
+ * agent sends receipts in the order messages were published, so receipts are matched to a queue of scheduled times
+ */
+public class WebsocketLoadPublisher extends LoadPublisher {
+
+	private static final byte OPCODE_MSG = 0xD;
+	private static final byte OPCODE_RECEIPT = 0xE;
+
+	private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+	private final LoadWebsocketClient client;
+
+	public WebsocketLoadPublisher(EventLoopGroup group, LoadTestOptions options, String publisherId, LoadTestStats stats) throws Exception {
+		super(publisherId, options.getRate(), options.getSize(), stats);
+		this.client = LoadWebsocketClient.connect(group, options.getWebsocketUrl("/v2/message/socket/id/" + publisherId),
+				options.getPort(), this::onFrame, this::onClose);
+	}
+
+	@Override
+	protected void publish(long scheduledNanos) {
+		Channel channel = client.getChannel();
+		if (!channel.isActive()) {
+			stats.error();
+			return;
+		}
+		byte[] bytes = newMessage(scheduledNanos).getBytes();
+		ByteBuf buffer = channel.alloc().buffer(bytes.length + 5);
+		buffer.writeByte(OPCODE_MSG);
+		buffer.writeInt(bytes.length);
+		buffer.writeBytes(bytes);
+		pending.add(scheduledNanos);
+		client.send(buffer);
+	}
+
+	@Override
+	protected void close() {
+		client.close();
+	}
+
+	private void onFrame(Channel channel, ByteBuf content) {
+		if (content.isReadable() && content.getByte(content.readerIndex()) == OPCODE_RECEIPT) {
+			Long scheduledNanos = pending.poll();
+			if (scheduledNanos != null) {
+				stats.success(System.nanoTime() - scheduledNanos);
+			}
+		}
+	}
+
+	private void onClose() {
+		while (pending.poll() != null) {
+			stats.error();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import org.eclipse.iofog.message_bus.Message;
+
+/**
+ * receives real-time messages over websocket and acknowledges each of them
+ * agent keeps one websocket per receiver id, so there should be no more receivers than receiver ids
+ */
+public class WebsocketLoadReceiver {
+
+	private static final byte OPCODE_ACK = 0xB;
+	private static final byte OPCODE_MSG = 0xD;
+
+	private final LoadTestStats stats;
+	private final LoadWebsocketClient client;
+
+	public WebsocketLoadReceiver(EventLoopGroup group, LoadTestOptions options, String receiverId, LoadTestStats stats) throws Exception {
+		this.stats = stats;
+		this.client = LoadWebsocketClient.connect(group, options.getWebsocketUrl("/v2/message/socket/id/" + receiverId),
+				options.getPort(), this::onFrame, () -> {});
+	}
+
+	public void close() {
+		client.close();
+	}
+
+	private void onFrame(Channel channel, ByteBuf content) {
+		if (content.readableBytes() < 5 || content.getByte(content.readerIndex()) != OPCODE_MSG) {
+			return;
+		}
+		int length = content.getInt(content.readerIndex() + 1);
+		byte[] bytes = new byte[Math.min(length, content.readableBytes() - 5)];
+		content.getBytes(content.readerIndex() + 5, bytes);
+		try {
+			LoadPublisher.getScheduledNanos(new Message(bytes))
+					.ifPresent(scheduledNanos -> stats.success(System.nanoTime() - scheduledNanos));
+		} catch (RuntimeException e) {
+			stats.error();
+		}
+		client.send(channel.alloc().buffer(1).writeByte(OPCODE_ACK));
+	}
+}
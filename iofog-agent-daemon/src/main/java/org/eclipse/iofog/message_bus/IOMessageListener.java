@@ -50,6 +50,7 @@ public class IOMessageListener implements MessageListener {
 			jsonReader.close();
 
 			Message message = new Message(json);
+			MessageLatencies.recordDelivery(message.getPublisher(), callback.getName(), textMessage.getJMSTimestamp());
 			callback.sendRealtimeMessage(message);
 		} catch (Exception exp) {
 			LoggingService.logError(MODULE_NAME, "Error acknowledging message",
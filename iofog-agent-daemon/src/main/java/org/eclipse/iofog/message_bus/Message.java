@@ -415,6 +415,17 @@ public class Message {
 	public void setPriority(byte priority) {
 		this.priority = priority;
 	}
+
+	/**
+	 * priority used for delivery, higher is delivered first
+	 * 0 means priority is not set and maps to {@link javax.jms.Message#DEFAULT_PRIORITY}, values over 9 are treated as 9
+	 *
+	 * @return JMS priority from 0 to 9
+	 */
+	public int getDeliveryPriority() {
+		int value = priority & 0xFF;
+		return value == 0 ? javax.jms.Message.DEFAULT_PRIORITY : Math.min(value, 9);
+	}
 	public long getTimestamp() {
 		return timestamp;
 	}
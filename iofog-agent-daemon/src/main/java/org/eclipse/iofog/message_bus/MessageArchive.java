@@ -36,7 +36,7 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 public class MessageArchive implements AutoCloseable{
 	private static final String MODULE_NAME = "MessageArchive";
 
-	private static final byte HEADER_SIZE = 33;
+	static final byte HEADER_SIZE = 33;
 	private static final short MAXIMUM_MESSAGE_PER_FILE = 1000;
 	private static final int MAXIMUM_ARCHIVE_SIZE_MB = 1;
 
@@ -155,7 +155,7 @@ public class MessageArchive implements AutoCloseable{
 	 * @param header - header of the {@link Message}
 	 * @return int
 	 */
-	private int getDataSize(byte[] header) {
+	static int getDataSize(byte[] header) {
 		int size;
 		size = header[2];
 		size += BytesUtil.bytesToShort(BytesUtil.copyOfRange(header, 3, 5));
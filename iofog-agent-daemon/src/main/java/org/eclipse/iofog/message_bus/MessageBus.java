@@ -32,8 +32,11 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
 import javax.json.JsonObject;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,6 +55,9 @@ import static org.eclipse.iofog.utils.Constants.ModulesStatus.STOPPED;
 public class MessageBus implements IOFogModule {
 	
 	final static String MODULE_NAME = "Message Bus";
+	private static final long SPOOL_REPLAY_INTERVAL_MILLIS = 100;
+	// caps replay to 10000 messages per second per publisher, so live traffic of other publishers is not starved
+	private static final int SPOOL_REPLAY_BATCH = 1000;
 
 	private MessageBusServer messageBusServer;
 	private Map<String, Route> routes;
@@ -64,6 +70,7 @@ public class MessageBus implements IOFogModule {
 	private String routerHost;
 	private int routerPort;
 	private ReentrantLock messageBusLock = new ReentrantLock();
+	private Orchestrator orchestrator;
 
 	private long lastSpeedTime, lastSpeedMessageCount;
 
@@ -161,95 +168,102 @@ public class MessageBus implements IOFogModule {
 		}
 	};
 
-	private void updatePublishersAndReceivers() throws Exception {
-		Map<String, Route> newRoutes = microserviceManager.getRoutes();
-		List<String> newPublishers = new ArrayList<>();
-		List<String> newReceivers = new ArrayList<>();
-
-		for (Map.Entry<String, Route> entry: newRoutes.entrySet()) {
-			if (entry.getValue() == null || entry.getValue().getReceivers() == null) {
-				continue;
-			}
-
-			newPublishers.add(entry.getKey());
-			for (String receiver: entry.getValue().getReceivers()) {
-				newReceivers.add(receiver);
-			}
-		}
-
-		Set<String> keys = publishers.keySet();
-		for (String key: keys) {
-			if (!newPublishers.contains(key)) {
-				publishers.get(key).close();
-				messageBusServer.removeProducer(key);
-				publishers.remove(key);
-			} else {
-				MessagePublisher publisher = publishers.get(key);
-				Route route = newRoutes.get(key);
-				Route currentRoute = publisher.getRoute();
-				if (!currentRoute.equals(route)) {
-					messageBusServer.removeProducer(key);
-					publisher.updateRoute(route, messageBusServer.getProducer(key, route.getReceivers()));
+	/**
+	 * sends messages spooled while router was unreachable once it is reachable again
+	 *
+	 */
+	private final Runnable replaySpools = () -> {
+		while (true) {
+			try {
+				Thread.sleep(SPOOL_REPLAY_INTERVAL_MILLIS);
+				if (messageBusServer == null || !messageBusServer.isConnected()) {
+					continue;
+				}
+				for (MessageSpool spool : MessageSpool.getSpools()) {
+					MessagePublisher publisher = spool.getPendingCount() > 0 ? publishers.get(spool.getName()) : null;
+					if (publisher != null) {
+						int sent = publisher.replay(SPOOL_REPLAY_BATCH);
+						if (sent > 0) {
+							logDebug(String.format("Replayed %d spooled messages of %s", sent, spool.getName()));
+						}
+					}
 				}
+			} catch (InterruptedException e) {
+				return;
+			} catch (Exception exp) {
+				logError(MODULE_NAME, new AgentSystemException("unable to replay spooled messages", exp));
 			}
 		}
+	};
 
-		for (String newPublisher: newPublishers) {
-			if (publishers.containsKey(newPublisher)) {
-				continue;
+	/**
+	 * applies difference between running and new routes, publishers and receivers which are not changed keep working
+	 */
+	private void updatePublishersAndReceivers() throws Exception {
+		Map<String, Route> newRoutes = microserviceManager.getRoutes();
+		List<Microservice> latestMicroservices = microserviceManager.getLatestMicroservices();
+		Set<String> latestMicroserviceUuids = new HashSet<>();
+		List<String> consumers = new ArrayList<>();
+		for (Microservice microservice: latestMicroservices) {
+			latestMicroserviceUuids.add(microservice.getMicroserviceUuid());
+			if (microservice.isConsumer()) {
+				consumers.add(microservice.getMicroserviceUuid());
 			}
-			Route route = newRoutes.get(newPublisher);
-			MessagePublisher messagePublisher = new MessagePublisher(newPublisher, route, messageBusServer.getProducer(newPublisher, route.getReceivers()));
-			publishers.put(newPublisher, messagePublisher);
 		}
 
-		Set<String> recs = receivers.keySet();
-		for (String rec: recs) {
-			if (newReceivers.contains(rec)) {
-				continue;
-			}
-			receivers.get(rec).close();
-			messageBusServer.removeConsumer(rec);
-			publishers.remove(rec);
-		}
+		Map<String, Route> currentRoutes = new HashMap<>();
+		publishers.forEach((id, publisher) -> currentRoutes.put(id, publisher.getRoute()));
+		RouteDiff diff = new RouteDiff(currentRoutes, receivers.keySet(), newRoutes, consumers);
+		logDebug("Routes difference : " + diff);
 
-		for (String newReceiver: newReceivers) {
-			if (receivers.containsKey(newReceiver)) {
-				continue;
+		for (String id: diff.getRemovedPublishers()) {
+			MessagePublisher publisher = publishers.remove(id);
+			if (publisher != null) {
+				publisher.close();
 			}
-			MessageReceiver messageReceiver = new MessageReceiver(newReceiver, messageBusServer.getConsumer(newReceiver));
-			receivers.put(newReceiver, messageReceiver);
+			messageBusServer.removeProducer(id);
 		}
 
-		routes = newRoutes;
-
-		List<Microservice> latestMicroservices = microserviceManager.getLatestMicroservices();
-		Map<String, Long> publishedMessagesPerMicroservice = StatusReporter.getMessageBusStatus().getPublishedMessagesPerMicroservice();
-		publishedMessagesPerMicroservice.keySet().removeIf(key -> !microserviceManager.microserviceExists(latestMicroservices, key));
+		for (String id: diff.getChangedPublishers()) {
+			Route route = newRoutes.get(id);
+			messageBusServer.removeProducer(id);
+			List<MessageProducer> producers = messageBusServer.getProducer(id, route.getReceivers());
+			publishers.get(id).updateRoute(route, messageBusServer.getProducerSession(id), producers);
+		}
 
-		for (Microservice microservice: latestMicroservices) {
-			if (!publishedMessagesPerMicroservice.keySet().contains(microservice.getMicroserviceUuid())) {
-				publishedMessagesPerMicroservice.put(microservice.getMicroserviceUuid(), 0L);
-			}
+		for (String id: diff.getAddedPublishers()) {
+			Route route = newRoutes.get(id);
+			List<MessageProducer> producers = messageBusServer.getProducer(id, route.getReceivers());
+			publishers.put(id, new MessagePublisher(id, route, messageBusServer.getProducerSession(id), producers,
+					messageBusServer::isConnected));
+		}
 
-			if (!microservice.isConsumer()) {
-				continue;
+		for (String id: diff.getRemovedReceivers()) {
+			MessageReceiver receiver = receivers.remove(id);
+			if (receiver != null) {
+				receiver.close();
 			}
+			messageBusServer.removeConsumer(id);
+		}
 
-			String id = microservice.getMicroserviceUuid();
+		Map<String, ChannelHandlerContext> messageSocketMap = WebSocketMap.getMessageWebsocketMap();
+		for (String id: diff.getAddedReceivers()) {
 			MessageConsumer consumer = messageBusServer.getConsumer(id);
-			if (consumer != null) {
-				MessageReceiver messageReceiver = new MessageReceiver(id, consumer);
-				receivers.put(id, messageReceiver);
-
-				Map<String, ChannelHandlerContext> messageSocketMap = WebSocketMap.getMessageWebsocketMap();
-				if (messageSocketMap.containsKey(id)) {
-					messageReceiver.enableRealTimeReceiving();
-				}
-			} else {
+			if (consumer == null) {
 				throw new Exception("Unable to create consumer " + id);
 			}
+			MessageReceiver messageReceiver = new MessageReceiver(id, consumer);
+			receivers.put(id, messageReceiver);
+			if (messageSocketMap.containsKey(id)) {
+				messageReceiver.enableRealTimeReceiving();
+			}
 		}
+
+		routes = newRoutes;
+
+		StatusReporter.setMessageBusStatus().retainPublishedMessagesPerMicroservice(latestMicroserviceUuids);
+		MessageLatencies.retain(latestMicroserviceUuids);
+		MessageSpool.retain(latestMicroserviceUuids);
 	}
 
 	/**
@@ -293,10 +307,15 @@ public class MessageBus implements IOFogModule {
 	 */
 	public void instanceConfigUpdated() {
 		// TODO: Set router address if changed
+		if (orchestrator != null) {
+			orchestrator.update();
+		}
 	}
 
 	private void getRouterAddress() throws Exception {
-		Orchestrator orchestrator = new Orchestrator();
+		if (orchestrator == null) {
+			orchestrator = new Orchestrator();
+		}
 		JsonObject configs = orchestrator.request("config", RequestType.GET, null, null);
 		routerHost = configs.getString("routerHost");
 		routerPort = configs.getJsonNumber("routerPort").intValue();
@@ -357,6 +376,7 @@ public class MessageBus implements IOFogModule {
 		messageBusServer = new MessageBusServer();
 
 		new Thread(startServer).start();
+		new Thread(replaySpools, Constants.MESSAGE_BUS_REPLAY_SPOOLS).start();
 	}
 	
 	/**
@@ -458,7 +478,9 @@ public class MessageBus implements IOFogModule {
 					messageBusServer.setConnected(false);
 					Thread.sleep(2000);
 					publishers.forEach((key, publisher) -> publisher.close());
+					publishers.clear();
 					receivers.forEach((key, receiver) -> receiver.close());
+					receivers.clear();
 					messageBusServer.stopServer();
 				} catch (Exception e) {}
 
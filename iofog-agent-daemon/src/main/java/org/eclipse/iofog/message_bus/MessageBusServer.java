@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ActiveMQ server
@@ -32,22 +33,19 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MessageBusServer {
 
     public static final Object messageBusSessionLock = new Object();
-    public static final Object consumerLock = new Object();
-    public static final Object producerLock = new Object();
     private static final String MODULE_NAME = "Message Bus Server";
+    static final int CONNECTIONS_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
 
-    private Connection connection;
-    private static Session session;
+    private final List<Connection> connections = new ArrayList<>();
+    private final AtomicInteger nextConnection = new AtomicInteger();
 
     private Map<String, MessageConsumer> consumers = new ConcurrentHashMap<>();
     private Map<String, List<MessageProducer>> producers = new ConcurrentHashMap<>();
+    private final Map<String, Session> consumerSessions = new ConcurrentHashMap<>();
+    private final Map<String, Session> producerSessions = new ConcurrentHashMap<>();
 
     private boolean isConnected = false;
 
-	static TextMessage createMessage(String text) throws Exception {
-		return session.createTextMessage(text);
-	}
-
     /**
      * Sets {@link ExceptionListener}
      *
@@ -55,40 +53,73 @@ public class MessageBusServer {
      * @throws Exception
      */
     void setExceptionListener(ExceptionListener exceptionListener) throws Exception {
-        if (connection != null) {
+        for (Connection connection : connections) {
             connection.setExceptionListener(exceptionListener);
         }
     }
 
     /**
      * starts ActiveMQ server
+     * opens {@link #CONNECTIONS_COUNT} connections to router, so sessions do not share a single socket
      *
      * @throws Exception
      */
     void startServer(String routerHost, int routerPort) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Starting server");
         JmsConnectionFactory connectionFactory = new JmsConnectionFactory(String.format("amqp://%s:%d", routerHost, routerPort));
-        connection = connectionFactory.createConnection();
+        synchronized (connections) {
+            closeConnections();
+            for (int i = 0; i < CONNECTIONS_COUNT; i++) {
+                connections.add(connectionFactory.createConnection());
+            }
+        }
         LoggingService.logDebug(MODULE_NAME, "Finished starting server");
     }
 
     /**
-     * creates IOFog {@link javax.jms.Message} producers
-     * and {@link Session}
+     * starts connections to router
+     * sessions are created per publisher and receiver, as JMS session may be used by one thread at a time
+     * and a shared session would serialize all publishers, receivers and their message listeners
      *
      * @throws Exception
      */
     void initialize() throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Starting initialization");
-        synchronized (messageBusSessionLock) {
-            session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
-            connection.start();
+        synchronized (connections) {
+            for (Connection connection : connections) {
+                connection.start();
+            }
         }
         LoggingService.logDebug(MODULE_NAME, "Finished initialization");
     }
 
     /**
-     * creates a new {@link MessageConsumer} for receiver {@link Microservice}
+     * creates a new {@link Session} on the next connection
+     */
+    private Session createSession() throws Exception {
+        Connection connection;
+        synchronized (connections) {
+            if (connections.isEmpty()) {
+                throw new IllegalStateException("Not connected to router");
+            }
+            connection = connections.get(Math.floorMod(nextConnection.getAndIncrement(), connections.size()));
+        }
+        return connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+    }
+
+    private void closeSession(Session session) {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close();
+        } catch (Exception e) {
+            LoggingService.logWarning(MODULE_NAME, "Unable to close session");
+        }
+    }
+
+    /**
+     * creates a new {@link MessageConsumer} for receiver {@link Microservice} on its own {@link Session}
      *
      * @param name - ID of {@link Microservice}
      * @throws Exception
@@ -96,10 +127,15 @@ public class MessageBusServer {
     void createConsumer(String name) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Starting create consumer");
 
-        synchronized (consumerLock) {
+        Session session = createSession();
+        try {
             Destination messageQueue = session.createQueue(name);
             MessageConsumer consumer = session.createConsumer(messageQueue);
+            closeSession(consumerSessions.put(name, session));
             consumers.put(name, consumer);
+        } catch (Exception e) {
+            closeSession(session);
+            throw e;
         }
 
         LoggingService.logDebug(MODULE_NAME, "Finished create consumer");
@@ -126,25 +162,24 @@ public class MessageBusServer {
     }
 
     /**
-     * removes {@link MessageConsumer} when a receiver {@link Microservice} has been removed
+     * removes {@link MessageConsumer} and its {@link Session} when a receiver {@link Microservice} has been removed
      *
      * @param name - ID of {@link Microservice}
      */
     void removeConsumer(String name) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Start remove consumer");
 
-        synchronized (consumerLock) {
-            if (consumers != null && consumers.containsKey(name)) {
-                MessageConsumer consumer = consumers.remove(name);
-                consumer.close();
-            }
+        MessageConsumer consumer = consumers.remove(name);
+        if (consumer != null) {
+            consumer.close();
         }
+        closeSession(consumerSessions.remove(name));
 
         LoggingService.logDebug(MODULE_NAME, "Finished remove consumer");
     }
 
     /**
-     * creates a new {@link MessageProducer} for publisher {@link Microservice}
+     * creates new {@link MessageProducer}s for publisher {@link Microservice} on its own {@link Session}
      *
      * @param name - ID of {@link Microservice}
      * @throws Exception
@@ -152,15 +187,20 @@ public class MessageBusServer {
     void createProducer(String name, List<String> receivers) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Start create Producer");
 
-        synchronized (producerLock) {
-            if (receivers != null && receivers.size() > 0) {
+        if (receivers != null && receivers.size() > 0) {
+            Session session = createSession();
+            try {
                 List<MessageProducer> messageProducers = new ArrayList<>();
                 for (String receiver: receivers) {
                     Destination messageQueue = session.createQueue(receiver);
                     MessageProducer producer = session.createProducer(messageQueue);
                     messageProducers.add(producer);
                 }
+                closeSession(producerSessions.put(name, session));
                 producers.put(name, messageProducers);
+            } catch (Exception e) {
+                closeSession(session);
+                throw e;
             }
         }
 
@@ -190,25 +230,35 @@ public class MessageBusServer {
     }
 
     /**
-     * removes {@link MessageConsumer} when a receiver {@link Microservice} has been removed
+     * returns {@link Session} producers of a publisher {@link Microservice} belong to,
+     * publisher creates its messages with it
+     *
+     * @param publisher - ID of {@link Microservice}
+     * @return {@link Session} or null if publisher has no producers
+     */
+    Session getProducerSession(String publisher) {
+        return producerSessions.get(publisher);
+    }
+
+    /**
+     * removes {@link MessageProducer}s and their {@link Session} when a publisher {@link Microservice} has been removed
      *
      * @param name - ID of {@link Microservice}
      */
     void removeProducer(String name) {
         LoggingService.logDebug(MODULE_NAME, "Start remove Producer");
 
-		synchronized (producerLock) {
-			if (producers != null && producers.containsKey(name)) {
-				List<MessageProducer> messageProducers = producers.remove(name);
-				messageProducers.forEach(producer -> {
-				    try {
-				        producer.close();
-                    } catch (Exception e) {
-                        LoggingService.logWarning(MODULE_NAME, "Unable to close producer");
-                    }
-                });
-			}
-		}
+        List<MessageProducer> messageProducers = producers.remove(name);
+        if (messageProducers != null) {
+            messageProducers.forEach(producer -> {
+                try {
+                    producer.close();
+                } catch (Exception e) {
+                    LoggingService.logWarning(MODULE_NAME, "Unable to close producer");
+                }
+            });
+        }
+        closeSession(producerSessions.remove(name));
 
         LoggingService.logDebug(MODULE_NAME, "Finish remove Producer");
     }
@@ -245,17 +295,34 @@ public class MessageBusServer {
             producers.clear();
         }
 
-        if (session != null) {
-            session.close();
-        }
+        consumerSessions.values().forEach(this::closeSession);
+        consumerSessions.clear();
+        producerSessions.values().forEach(this::closeSession);
+        producerSessions.clear();
 
-        if (connection != null) {
-            connection.close();
+        synchronized (connections) {
+            closeConnections();
         }
 
         LoggingService.logDebug(MODULE_NAME, "stopped server");
     }
 
+    /**
+     * closes every connection to router, a failing one does not keep others open
+     * caller holds lock of {@link #connections}
+     */
+    private void closeConnections() {
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (Exception e) {
+                LoggingService.logError(MODULE_NAME, "Error closing connection",
+                        new AgentSystemException(e.getMessage(), e));
+            }
+        }
+        connections.clear();
+    }
+
     public boolean isConnected() {
         synchronized (messageBusSessionLock) {
             return isConnected;
@@ -12,8 +12,13 @@
  */
 package org.eclipse.iofog.message_bus;
 
+import org.eclipse.iofog.utils.RateMeter;
+
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
@@ -21,40 +26,116 @@ import javax.json.JsonObjectBuilder;
 
 /**
  * represents Message Bus status
+ * counters are updated concurrently by publishing threads without locking
  * 
  * @author saeid
  *
  */
 public class MessageBusStatus {
-	private long processedMessages;
-	private final Map<String, Long> publishedMessagesPerMicroservice;
-	private float averageSpeed;
+	private static final String UNKNOWN_PUBLISHER = "";
+
+	private final LongAdder processedMessages;
+	private final LongAdder processedBytes;
+	private final RateMeter messageRate;
+	private final RateMeter byteRate;
+	private final Map<String, PublisherCounters> publishers;
+	private volatile float averageSpeed;
 	
 	public MessageBusStatus() {
-		publishedMessagesPerMicroservice = new HashMap<>();
-		processedMessages = 0;
+		publishers = new ConcurrentHashMap<>();
+		processedMessages = new LongAdder();
+		processedBytes = new LongAdder();
+		messageRate = new RateMeter();
+		byteRate = new RateMeter();
 		averageSpeed = 0;
 	}
+
+	/**
+	 * message counters of single publisher
+	 */
+	public static class PublisherCounters {
+		private final LongAdder messages = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final RateMeter messageRate = new RateMeter();
+
+		private void increase(long size) {
+			messages.increment();
+			bytes.add(size);
+			messageRate.mark(1);
+		}
+
+		public long getMessages() {
+			return messages.sum();
+		}
+
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		public double getMessageRate(int seconds) {
+			return messageRate.getRate(seconds);
+		}
+	}
 	
 	public long getProcessedMessages() {
-		return processedMessages;
+		return processedMessages.sum();
+	}
+
+	public long getProcessedBytes() {
+		return processedBytes.sum();
+	}
+
+	/**
+	 * @param seconds - window size, one of {@link RateMeter} windows
+	 * @return messages per second published through message bus
+	 */
+	public double getMessageRate(int seconds) {
+		return messageRate.getRate(seconds);
+	}
+
+	/**
+	 * @param seconds - window size, one of {@link RateMeter} windows
+	 * @return bytes per second published through message bus
+	 */
+	public double getByteRate(int seconds) {
+		return byteRate.getRate(seconds);
 	}
 
 	public Long getPublishedMessagesPerMicroservice(String microservice) {
-		return publishedMessagesPerMicroservice.get(microservice);
+		PublisherCounters counters = publishers.get(key(microservice));
+		return counters == null ? null : counters.getMessages();
 	}
 
+	/**
+	 * @return snapshot of published messages count per microservice
+	 */
 	public Map<String, Long> getPublishedMessagesPerMicroservice() {
-		return publishedMessagesPerMicroservice;
+		Map<String, Long> result = new HashMap<>();
+		publishers.forEach((key, counters) -> result.put(microservice(key), counters.getMessages()));
+		return result;
+	}
+
+	public PublisherCounters getPublisherCounters(String microservice) {
+		return publishers.get(key(microservice));
 	}
 
 	public MessageBusStatus increasePublishedMessagesPerMicroservice(String microservice) {
-		this.processedMessages++;
+		return increasePublishedMessagesPerMicroservice(microservice, 0);
+	}
 
-		Long n = this.publishedMessagesPerMicroservice.get(microservice);
-		if (n == null)
-			n = 0L;
-		this.publishedMessagesPerMicroservice.put(microservice, n + 1);
+	/**
+	 * counts published message
+	 *
+	 * @param microservice - publisher id
+	 * @param size         - message size in bytes
+	 * @return this
+	 */
+	public MessageBusStatus increasePublishedMessagesPerMicroservice(String microservice, long size) {
+		processedMessages.increment();
+		processedBytes.add(size);
+		messageRate.mark(1);
+		byteRate.mark(size);
+		publishers.computeIfAbsent(key(microservice), k -> new PublisherCounters()).increase(size);
 		return this;
 	}
 
@@ -68,13 +149,22 @@ public class MessageBusStatus {
 	}
 	
 	public void removePublishedMessagesPerMicroservice(String microservice) {
-		if (publishedMessagesPerMicroservice.containsKey(microservice))
-			publishedMessagesPerMicroservice.remove(microservice);
+		publishers.remove(key(microservice));
+	}
+
+	/**
+	 * keeps counters of given microservices only, starting with zero counters for new ones
+	 *
+	 * @param microservices - ids of existing microservices
+	 */
+	public void retainPublishedMessagesPerMicroservice(Collection<String> microservices) {
+		publishers.keySet().removeIf(key -> !microservices.contains(microservice(key)));
+		microservices.forEach(microservice -> publishers.computeIfAbsent(key(microservice), k -> new PublisherCounters()));
 	}
 	
 	public String getJsonPublishedMessagesPerMicroservice() {
 		JsonArrayBuilder arrayBuilder = Json.createArrayBuilder();
-		publishedMessagesPerMicroservice.forEach((key, value) -> {
+		getPublishedMessagesPerMicroservice().forEach((key, value) -> {
 			JsonObjectBuilder objectBuilder = Json.createObjectBuilder()
 					.add("id", key)
 					.add("messagecount", value);
@@ -84,4 +174,12 @@ public class MessageBusStatus {
 		return arrayBuilder.build().toString();
 	}
 
+	private static String key(String microservice) {
+		return microservice == null ? UNKNOWN_PUBLISHER : microservice;
+	}
+
+	private static String microservice(String key) {
+		return UNKNOWN_PUBLISHER.equals(key) ? null : key;
+	}
+
 }
@@ -14,6 +14,7 @@ package org.eclipse.iofog.message_bus;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
@@ -37,23 +38,39 @@ public class MessageBusUtil {
 	 */
 	public void publishMessage(Message message) {
 		LoggingService.logDebug(MODULE_NAME, "Start publish message");
+		long publishNanos = System.nanoTime();
 		long timestamp = System.currentTimeMillis();
-		StatusReporter.setMessageBusStatus().increasePublishedMessagesPerMicroservice(message.getPublisher());
+		StatusReporter.getMessageBusStatus().increasePublishedMessagesPerMicroservice(message.getPublisher(), getPayloadSize(message));
 		message.setId(messageBus.getNextId());
 		message.setTimestamp(timestamp);
 		
 		MessagePublisher publisher = messageBus.getPublisher(message.getPublisher());
 		if (publisher != null) {
 			try {
-				publisher.publish(message);
+				publisher.publish(message, publishNanos);
 			} catch (Exception e) {
 				LoggingService.logError(MODULE_NAME, "Unable to send message : Message Publisher (" + publisher.getName()+ ")",
 						new AgentSystemException(e.getMessage(), e));
 			}
+		} else if (isRouted(message.getPublisher())) {
+			// publishers are recreated once router is reachable again, they send spooled messages first
+			MessageSpool.forPublisher(message.getPublisher()).append(message.getBytes());
 		}
 		LoggingService.logDebug(MODULE_NAME, "Finishing publish message");
 	}
 	
+	private boolean isRouted(String publisher) {
+		Map<String, Route> routes = messageBus.getRoutes();
+		Route route = routes == null || publisher == null ? null : routes.get(publisher);
+		return route != null && route.getReceivers() != null && !route.getReceivers().isEmpty();
+	}
+
+	private static long getPayloadSize(Message message) {
+		byte[] contentData = message.getContentData();
+		byte[] contextData = message.getContextData();
+		return (contentData == null ? 0 : contentData.length) + (contextData == null ? 0 : contextData.length);
+	}
+
 	/**
 	 * gets list of {@link Message} for receiver
 	 * 
@@ -0,0 +1,79 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.utils.metrics.LatencyHistogram;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * per-route latencies of messages passing through the message bus
+ * publish to archive and publish to router are measured in-process from {@link MessageBusUtil#publishMessage(Message)},
+ * router to receiver is measured from the JMS timestamp the producer sets when sending
+ */
+final class MessageLatencies {
+
+	private static final MetricFamily<LatencyHistogram> ARCHIVE = MetricsRegistry.latency(
+			"iofog_message_archive_latency_seconds", "Time from publishing a message until it is archived",
+			"publisher");
+	private static final MetricFamily<LatencyHistogram> SEND = MetricsRegistry.latency(
+			"iofog_message_send_latency_seconds", "Time from publishing a message until it is sent to the router",
+			"publisher");
+	private static final MetricFamily<LatencyHistogram> DELIVERY = MetricsRegistry.latency(
+			"iofog_message_delivery_latency_seconds", "Time from sending a message to the router until it is delivered to the receiver",
+			"publisher", "receiver");
+
+	private MessageLatencies() {
+	}
+
+	static LatencyHistogram archive(String publisher) {
+		return ARCHIVE.labels(label(publisher));
+	}
+
+	static LatencyHistogram send(String publisher) {
+		return SEND.labels(label(publisher));
+	}
+
+	/**
+	 * records router to receiver latency of a received message
+	 *
+	 * @param publisher - publisher of the message
+	 * @param receiver  - receiver the message is delivered to
+	 * @param sentAt    - JMS timestamp of the message, 0 if producer did not set it
+	 */
+	static void recordDelivery(String publisher, String receiver, long sentAt) {
+		if (sentAt <= 0) {
+			return;
+		}
+		DELIVERY.labels(label(publisher), label(receiver))
+				.recordMicros(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis() - sentAt));
+	}
+
+	/**
+	 * drops latencies of routes whose publisher or receiver is gone
+	 *
+	 * @param microservices - uuids of microservices still present on the message bus
+	 */
+	static void retain(Collection<String> microservices) {
+		ARCHIVE.removeIf(labels -> !microservices.contains(labels.get(0)));
+		SEND.removeIf(labels -> !microservices.contains(labels.get(0)));
+		DELIVERY.removeIf(labels -> !microservices.contains(labels.get(0)) || !microservices.contains(labels.get(1)));
+	}
+
+	private static String label(String microservice) {
+		return microservice == null ? "" : microservice;
+	}
+}
@@ -16,9 +16,11 @@ import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
 import org.eclipse.iofog.microservice.Route;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.LatencyHistogram;
 
 import javax.jms.*;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 import static org.eclipse.iofog.message_bus.MessageBus.MODULE_NAME;
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -32,14 +34,31 @@ import static org.eclipse.iofog.utils.logging.LoggingService.logError;
 public class MessagePublisher implements AutoCloseable{
 	private final MessageArchive archive;
 	private final String name;
+	private final LatencyHistogram archiveLatency;
+	private final LatencyHistogram sendLatency;
+	private final MessageSpool spool;
+	private final BooleanSupplier routerConnected;
+	private Session session;
 	private List<MessageProducer> producers;
 	private Route route;
 
-	public MessagePublisher(String name, Route route, List<MessageProducer> producers) {
+	/**
+	 * @param session   - {@link Session} producers belong to, messages are created with it
+	 * @param producers - {@link MessageProducer} per receiver of the route
+	 * @param routerConnected - tells if router connection is up, messages are spooled while it is down
+	 */
+	public MessagePublisher(String name, Route route, Session session, List<MessageProducer> producers,
+							BooleanSupplier routerConnected) {
 		this.archive = new MessageArchive(name);
 		this.route = route;
 		this.name = name;
+		this.session = session;
 		this.producers = producers;
+		this.archiveLatency = MessageLatencies.archive(name);
+		this.sendLatency = MessageLatencies.send(name);
+		this.spool = MessageSpool.forPublisher(name);
+		this.routerConnected = routerConnected;
+		this.spool.load();
 	}
 	
 	public String getName() {
@@ -52,32 +71,106 @@ public class MessagePublisher implements AutoCloseable{
 	 * @param message - {@link Message} to be published
 	 * @throws Exception
 	 */
-	synchronized void publish(Message message) throws Exception {
-		LoggingService.logDebug(MODULE_NAME, "Start publish message :" + this.name );
+	void publish(Message message) throws Exception {
+		publish(message, System.nanoTime());
+	}
+
+	/**
+	 * publishes a {@link Message} and records its archive and send latencies
+	 *
+	 * @param message      - {@link Message} to be published
+	 * @param publishNanos - {@link System#nanoTime()} when the message was published
+	 * @throws Exception
+	 */
+	synchronized void publish(Message message, long publishNanos) throws Exception {
+		LoggingService.logDebug(MODULE_NAME, () -> "Start publish message :" + this.name);
 		byte[] bytes = message.getBytes();
 
 		try {
 			archive.save(bytes, message.getTimestamp());
+			archiveLatency.recordNanos(System.nanoTime() - publishNanos);
 		} catch (Exception e) {
 			logError(MODULE_NAME, "Message Publisher (" + this.name + ")unable to archive message",
 					new AgentSystemException(e.getMessage(), e));
 		}
 
+		if (producers != null && !producers.isEmpty()) {
+			if (!routerConnected.getAsBoolean() || !spool.isEmpty()) {
+				spool.append(bytes);
+			} else if (send(message)) {
+				sendLatency.recordNanos(System.nanoTime() - publishNanos);
+			} else if (!routerConnected.getAsBoolean()) {
+				spool.append(bytes);
+			}
+		}
+		LoggingService.logDebug(MODULE_NAME, () -> "Finished publish message : " + this.name);
+	}
+
+	/**
+	 * sends one message created with publisher {@link Session} to every receiver of the route
+	 *
+	 * @return false if message was not sent to any receiver
+	 */
+	private boolean send(Message message) {
+		TextMessage msg;
+		try {
+			msg = session.createTextMessage(message.toJson().toString());
+		} catch (Exception e) {
+			logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to create message",
+					new AgentSystemException(e.getMessage(), e));
+			return false;
+		}
+		int priority = message.getDeliveryPriority();
+		boolean sent = false;
 		for (MessageProducer producer: producers) {
 			try {
-				TextMessage msg = MessageBusServer.createMessage(message.toJson().toString());
-				producer.send(msg, DeliveryMode.NON_PERSISTENT, javax.jms.Message.DEFAULT_PRIORITY, javax.jms.Message.DEFAULT_TIME_TO_LIVE);
+				producer.send(msg, DeliveryMode.NON_PERSISTENT, priority, javax.jms.Message.DEFAULT_TIME_TO_LIVE);
+				sent = true;
 			} catch (Exception e) {
 				logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to send message",
 						new AgentSystemException(e.getMessage(), e));
 			}
 		}
-		LoggingService.logDebug(MODULE_NAME, "Finished publish message : " + this.name);
+		return sent;
+	}
+
+	/**
+	 * sends messages spooled while router was unreachable, in the order they were published
+	 * new messages are spooled too until spool is empty, so they are not sent ahead of older ones
+	 * spool files are read without holding publisher lock, so publishing is blocked only while a message is sent
+	 * message router rejects while it is reachable is retried on next replay and dropped by spool after a few attempts
+	 *
+	 * @param max - maximum number of messages to send
+	 * @return number of messages sent
+	 */
+	int replay(int max) {
+		int sent = 0;
+		while (sent < max && routerConnected.getAsBoolean()) {
+			Message message = spool.peek();
+			if (message == null) {
+				break;
+			}
+			boolean delivered;
+			synchronized (this) {
+				if (producers == null || producers.isEmpty()) {
+					break;
+				}
+				delivered = send(message);
+			}
+			if (delivered) {
+				spool.remove();
+				sent++;
+			} else if (!routerConnected.getAsBoolean() || !spool.fail()) {
+				break;
+			}
+		}
+		return sent;
 	}
 
-	synchronized void updateRoute(Route route, List<MessageProducer> producers) {
+	synchronized void updateRoute(Route route, Session session, List<MessageProducer> producers) {
 		LoggingService.logDebug(MODULE_NAME, "Updating route");
 		this.route = route;
+		this.session = session;
 		this.producers = producers;
 	}
 
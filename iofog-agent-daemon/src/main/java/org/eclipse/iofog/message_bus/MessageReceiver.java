@@ -24,6 +24,7 @@ import javax.json.JsonObject;
 import javax.json.JsonReader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -36,6 +37,7 @@ import static org.eclipse.iofog.utils.logging.LoggingService.logError;
  */
 public class MessageReceiver implements AutoCloseable{
 	private static final String MODULE_NAME = "MessageReceiver";
+	private static final Comparator<Message> BY_PRIORITY = Comparator.comparingInt(Message::getDeliveryPriority).reversed();
 
 	private final String name;
 
@@ -50,6 +52,7 @@ public class MessageReceiver implements AutoCloseable{
 
 	/**
 	 * receivers list of {@link Message} sent to this {@link Microservice}
+	 * higher priority messages come first, messages of same priority keep the order they were received in
 	 * 
 	 * @return list of {@link Message}
 	 * @throws Exception
@@ -64,6 +67,7 @@ public class MessageReceiver implements AutoCloseable{
 				result.add(message);
 				message = getMessage();
 			}
+			result.sort(BY_PRIORITY);
 		}
 		LoggingService.logDebug(MODULE_NAME, String.format("Finished getting message \"%s\"", name));
 		return result;
@@ -89,6 +93,7 @@ public class MessageReceiver implements AutoCloseable{
 			jsonReader.close();
 
 			result = new Message(json);
+			MessageLatencies.recordDelivery(result.getPublisher(), name, msg.getJMSTimestamp());
 		}
 		return result;
 	}
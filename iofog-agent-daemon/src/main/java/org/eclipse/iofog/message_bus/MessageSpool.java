@@ -0,0 +1,377 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.Constants;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Counter;
+import org.eclipse.iofog.utils.metrics.Gauge;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * disk-backed FIFO of messages of a publisher that could not be sent to the router
+ * messages are appended while router is unreachable and replayed in order once it is back, see {@link MessagePublisher#replay(int)}
+ *
+ * files use the same index and data format as {@link MessageArchive}. a file is deleted once all its messages are sent,
+ * if agent stops in the middle of a file, messages of that file are sent again after restart.
+ * when spool grows over {@link #MAXIMUM_SPOOL_SIZE} its oldest file is dropped,
+ * a message the router keeps rejecting is dropped after {@link #MAXIMUM_SEND_ATTEMPTS} so it does not block the ones behind it
+ */
+final class MessageSpool {
+	private static final String MODULE_NAME = "MessageSpool";
+
+	private static final int ENTRY_SIZE = MessageArchive.HEADER_SIZE + Long.BYTES;
+	private static final int MAXIMUM_FILE_SIZE = Constants.MiB;
+	static final long MAXIMUM_SPOOL_SIZE = 64L * Constants.MiB;
+	static final int MAXIMUM_SEND_ATTEMPTS = 5;
+
+	private static final Map<String, MessageSpool> SPOOLS = new ConcurrentHashMap<>();
+	private static final MetricFamily<Gauge> DEPTH = MetricsRegistry.gauge("iofog_message_spool_depth",
+			"Messages waiting in outbound spool until router is reachable", "publisher");
+	private static final MetricFamily<Gauge> SIZE = MetricsRegistry.gauge("iofog_message_spool_size_bytes",
+			"Disk space used by outbound spool", "publisher");
+	private static final MetricFamily<Counter> DROPPED = MetricsRegistry.counter("iofog_message_spool_dropped_messages",
+			"Spooled messages dropped because spool size limit was reached or router kept rejecting them", "publisher");
+
+	private final String name;
+	private final Counter dropped;
+	private final Deque<File> files = new ArrayDeque<>();
+	private String directory;
+	private boolean loaded;
+	private long lastFileNumber;
+
+	private File writeFile;
+	private RandomAccessFile writeIndex;
+	private RandomAccessFile writeData;
+
+	private RandomAccessFile readIndex;
+	private RandomAccessFile readData;
+	private Message head;
+	private int headAttempts;
+
+	private volatile long pending;
+	private volatile long size;
+
+	private MessageSpool(String name) {
+		this.name = name;
+		this.dropped = DROPPED.labels(name);
+		DEPTH.labels(name).bind(() -> pending);
+		SIZE.labels(name).bind(() -> size);
+	}
+
+	/**
+	 * returns spool of a publisher, spool files left by previous run are picked up on first use
+	 *
+	 * @param publisher - ID of publisher {@link org.eclipse.iofog.microservice.Microservice}
+	 * @return spool
+	 */
+	static MessageSpool forPublisher(String publisher) {
+		MessageSpool spool = SPOOLS.get(publisher);
+		return spool != null ? spool : SPOOLS.computeIfAbsent(publisher, MessageSpool::new);
+	}
+
+	static Collection<MessageSpool> getSpools() {
+		return SPOOLS.values();
+	}
+
+	/**
+	 * discards spools of publishers which are gone
+	 *
+	 * @param publishers - uuids of microservices still present on the message bus
+	 */
+	static void retain(Collection<String> publishers) {
+		SPOOLS.values().removeIf(spool -> {
+			if (publishers.contains(spool.name)) {
+				return false;
+			}
+			spool.discard();
+			DEPTH.remove(spool.name);
+			SIZE.remove(spool.name);
+			DROPPED.remove(spool.name);
+			return true;
+		});
+	}
+
+	String getName() {
+		return name;
+	}
+
+	synchronized long getPendingCount() {
+		load();
+		return pending;
+	}
+
+	long getSize() {
+		return size;
+	}
+
+	synchronized boolean isEmpty() {
+		load();
+		return pending == 0;
+	}
+
+	/**
+	 * appends message to the end of spool
+	 *
+	 * @param message - {@link Message#getBytes()} of the message
+	 */
+	synchronized void append(byte[] message) {
+		load();
+		try {
+			if (writeFile == null || writeData.length() + message.length > MAXIMUM_FILE_SIZE) {
+				openWriteFile();
+			}
+			while (size + message.length + ENTRY_SIZE > MAXIMUM_SPOOL_SIZE && files.size() > 1) {
+				dropOldestFile();
+			}
+			long dataPos = writeData.length();
+			writeIndex.seek(writeIndex.length());
+			writeIndex.write(message, 0, MessageArchive.HEADER_SIZE);
+			writeIndex.writeLong(dataPos);
+			writeData.seek(dataPos);
+			writeData.write(message, MessageArchive.HEADER_SIZE, message.length - MessageArchive.HEADER_SIZE);
+			pending++;
+			size += message.length + Long.BYTES;
+		} catch (IOException e) {
+			dropped.inc();
+			LoggingService.logError(MODULE_NAME, "Unable to spool message of " + name,
+					new AgentSystemException(e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * @return oldest message without removing it, null if spool is empty
+	 */
+	synchronized Message peek() {
+		load();
+		while (head == null && pending > 0) {
+			try {
+				head = readNext();
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, "Invalid spool file of " + name + ", dropping it",
+						new AgentSystemException(e.getMessage(), e));
+				dropOldestFile();
+			}
+		}
+		return head;
+	}
+
+	/**
+	 * removes oldest message once it is sent, deletes spool files when all messages are sent
+	 */
+	synchronized void remove() {
+		if (head == null) {
+			return;
+		}
+		head = null;
+		headAttempts = 0;
+		pending--;
+		if (pending <= 0) {
+			discard();
+		}
+	}
+
+	/**
+	 * counts failed send of oldest message, drops it once it failed {@link #MAXIMUM_SEND_ATTEMPTS} times
+	 *
+	 * @return true if message was dropped
+	 */
+	synchronized boolean fail() {
+		if (head == null || ++headAttempts < MAXIMUM_SEND_ATTEMPTS) {
+			return false;
+		}
+		LoggingService.logWarning(MODULE_NAME, String.format("Spooled message %s of %s was rejected %d times, dropping it",
+				head.getId(), name, headAttempts));
+		remove();
+		dropped.inc();
+		return true;
+	}
+
+	/**
+	 * reads next message of the oldest file, moves on to the next file once it is read to the end
+	 */
+	private Message readNext() throws IOException {
+		File file = files.peekFirst();
+		if (readIndex == null) {
+			readIndex = new RandomAccessFile(file, "r");
+			readData = new RandomAccessFile(dataFile(file), "r");
+		}
+		if (readIndex.getFilePointer() + ENTRY_SIZE > readIndex.length()) {
+			if (file.equals(writeFile)) {
+				throw new IOException("Spool index is shorter than expected");
+			}
+			closeReader();
+			deleteFile(files.pollFirst());
+			return null;
+		}
+		byte[] header = new byte[MessageArchive.HEADER_SIZE];
+		readIndex.readFully(header);
+		long dataPos = readIndex.readLong();
+		int dataSize = MessageArchive.getDataSize(header);
+		if (dataSize < 0 || dataPos + dataSize > readData.length()) {
+			throw new IOException("Spool data file is shorter than its index");
+		}
+		byte[] data = new byte[dataSize];
+		readData.seek(dataPos);
+		readData.readFully(data);
+		return new Message(header, data);
+	}
+
+	private void dropOldestFile() {
+		File file = files.pollFirst();
+		if (file == null) {
+			pending = 0;
+			return;
+		}
+		long remaining = file.length() / ENTRY_SIZE;
+		if (readIndex != null) {
+			try {
+				remaining = (readIndex.length() - readIndex.getFilePointer()) / ENTRY_SIZE + (head != null ? 1 : 0);
+			} catch (IOException e) {
+				LoggingService.logWarning(MODULE_NAME, "Unable to read spool position of " + name);
+			}
+			closeReader();
+		}
+		if (file.equals(writeFile)) {
+			closeWriter();
+		}
+		head = null;
+		headAttempts = 0;
+		pending = Math.max(0, pending - remaining);
+		dropped.inc(remaining);
+		deleteFile(file);
+		LoggingService.logWarning(MODULE_NAME, String.format("Spool of %s is full, dropped %d oldest messages", name, remaining));
+	}
+
+	private void openWriteFile() throws IOException {
+		closeWriter();
+		lastFileNumber = Math.max(lastFileNumber + 1, System.currentTimeMillis());
+		File directoryFile = new File(directory);
+		if (!directoryFile.exists()) {
+			directoryFile.mkdirs();
+		}
+		writeFile = new File(directory + name + "_" + lastFileNumber + ".idx");
+		writeIndex = new RandomAccessFile(writeFile, "rw");
+		writeData = new RandomAccessFile(dataFile(writeFile), "rw");
+		files.addLast(writeFile);
+	}
+
+	/**
+	 * picks up spool files left by previous run, so they are replayed as soon as publisher is created
+	 */
+	synchronized void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		directory = Configuration.getDiskDirectory() + "messages/spool/";
+		File[] existing = new File(directory).listFiles((dir, fileName) -> fileName.startsWith(name + "_") && fileName.endsWith(".idx"));
+		if (existing == null) {
+			return;
+		}
+		List<File> sorted = new ArrayList<>();
+		for (File file : existing) {
+			try {
+				lastFileNumber = Math.max(lastFileNumber, getFileNumber(file));
+				sorted.add(file);
+			} catch (NumberFormatException e) {
+				LoggingService.logWarning(MODULE_NAME, "Skipping unknown spool file " + file.getName());
+			}
+		}
+		sorted.sort(Comparator.comparingLong(this::getFileNumber));
+		for (File file : sorted) {
+			files.addLast(file);
+			pending += file.length() / ENTRY_SIZE;
+			size += file.length() + dataFile(file).length();
+		}
+		if (pending > 0) {
+			LoggingService.logInfo(MODULE_NAME, String.format("%d spooled messages of %s found", pending, name));
+		}
+	}
+
+	private long getFileNumber(File file) {
+		String fileName = file.getName();
+		return Long.parseLong(fileName.substring(name.length() + 1, fileName.indexOf(".")));
+	}
+
+	private static File dataFile(File indexFile) {
+		String path = indexFile.getPath();
+		return new File(path.substring(0, path.length() - ".idx".length()) + ".iomsg");
+	}
+
+	private void deleteFile(File file) {
+		if (file == null) {
+			return;
+		}
+		size = Math.max(0, size - file.length() - dataFile(file).length());
+		if (!file.delete() || !dataFile(file).delete()) {
+			LoggingService.logWarning(MODULE_NAME, "Unable to delete spool file " + file.getName());
+		}
+	}
+
+	private void closeReader() {
+		close(readIndex);
+		close(readData);
+		readIndex = null;
+		readData = null;
+	}
+
+	private void closeWriter() {
+		close(writeIndex);
+		close(writeData);
+		writeIndex = null;
+		writeData = null;
+		writeFile = null;
+	}
+
+	private void close(RandomAccessFile file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			file.close();
+		} catch (IOException e) {
+			LoggingService.logWarning(MODULE_NAME, "Unable to close spool file of " + name);
+		}
+	}
+
+	/**
+	 * deletes all spooled messages
+	 */
+	private synchronized void discard() {
+		closeReader();
+		closeWriter();
+		while (!files.isEmpty()) {
+			deleteFile(files.pollFirst());
+		}
+		head = null;
+		headAttempts = 0;
+		pending = 0;
+		size = 0;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.microservice.Route;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * difference between routes message bus is running with and new routes
+ * computed with hash lookups in time linear to number of routes and receivers,
+ * so message bus touches only publishers and receivers which are added, removed or changed
+ */
+final class RouteDiff {
+	private final Set<String> addedPublishers = new HashSet<>();
+	private final Set<String> changedPublishers = new HashSet<>();
+	private final Set<String> removedPublishers = new HashSet<>();
+	private final Set<String> addedReceivers = new HashSet<>();
+	private final Set<String> removedReceivers = new HashSet<>();
+
+	/**
+	 * @param currentRoutes    - routes of running publishers by publisher id
+	 * @param currentReceivers - ids of running receivers
+	 * @param newRoutes        - new routes by publisher id, routes without receivers are ignored
+	 * @param consumers        - ids of microservices which receive messages regardless of routes
+	 */
+	RouteDiff(Map<String, Route> currentRoutes, Set<String> currentReceivers,
+			  Map<String, Route> newRoutes, Collection<String> consumers) {
+		Set<String> newReceivers = new HashSet<>(consumers);
+		for (Map.Entry<String, Route> entry : newRoutes.entrySet()) {
+			Route route = entry.getValue();
+			if (route == null || route.getReceivers() == null) {
+				continue;
+			}
+			Route currentRoute = currentRoutes.get(entry.getKey());
+			if (currentRoute == null) {
+				addedPublishers.add(entry.getKey());
+			} else if (!currentRoute.equals(route)) {
+				changedPublishers.add(entry.getKey());
+			}
+			newReceivers.addAll(route.getReceivers());
+		}
+
+		for (String publisher : currentRoutes.keySet()) {
+			Route route = newRoutes.get(publisher);
+			if (route == null || route.getReceivers() == null) {
+				removedPublishers.add(publisher);
+			}
+		}
+
+		for (String receiver : newReceivers) {
+			if (!currentReceivers.contains(receiver)) {
+				addedReceivers.add(receiver);
+			}
+		}
+		for (String receiver : currentReceivers) {
+			if (!newReceivers.contains(receiver)) {
+				removedReceivers.add(receiver);
+			}
+		}
+	}
+
+	Set<String> getAddedPublishers() {
+		return Collections.unmodifiableSet(addedPublishers);
+	}
+
+	Set<String> getChangedPublishers() {
+		return Collections.unmodifiableSet(changedPublishers);
+	}
+
+	Set<String> getRemovedPublishers() {
+		return Collections.unmodifiableSet(removedPublishers);
+	}
+
+	Set<String> getAddedReceivers() {
+		return Collections.unmodifiableSet(addedReceivers);
+	}
+
+	Set<String> getRemovedReceivers() {
+		return Collections.unmodifiableSet(removedReceivers);
+	}
+
+	boolean isEmpty() {
+		return addedPublishers.isEmpty() && changedPublishers.isEmpty() && removedPublishers.isEmpty()
+				&& addedReceivers.isEmpty() && removedReceivers.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "{" + "addedPublishers=" + addedPublishers + ", changedPublishers=" + changedPublishers +
+				", removedPublishers=" + removedPublishers + ", addedReceivers=" + addedReceivers +
+				", removedReceivers=" + removedReceivers + '}';
+	}
+}
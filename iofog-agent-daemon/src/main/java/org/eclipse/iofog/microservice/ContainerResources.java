@@ -0,0 +1,91 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import java.util.Objects;
+
+/**
+ * represents Microservices CPU placement and resource limits
+ * every setting is optional, unset settings are left to docker defaults, so container may use all cores and memory
+ */
+public class ContainerResources {
+	private final String cpuSet;
+	private final Integer cpuShares;
+	private final Long cpuQuota;
+	private final Long cpuPeriod;
+	private final Long memoryLimit;
+	private final Integer numaNode;
+
+	/**
+	 * @param cpuSet      - cpus container may run on, e.g. "0-3" or "1,3"
+	 * @param cpuShares   - relative cpu weight
+	 * @param cpuQuota    - cpu time in microseconds container may use per cpu period
+	 * @param cpuPeriod   - cpu period in microseconds
+	 * @param memoryLimit - memory limit in bytes
+	 * @param numaNode    - NUMA node container memory is allocated on, it also limits cpus to the node if cpu set is not given
+	 */
+	public ContainerResources(String cpuSet, Integer cpuShares, Long cpuQuota, Long cpuPeriod, Long memoryLimit, Integer numaNode) {
+		this.cpuSet = cpuSet;
+		this.cpuShares = cpuShares;
+		this.cpuQuota = cpuQuota;
+		this.cpuPeriod = cpuPeriod;
+		this.memoryLimit = memoryLimit;
+		this.numaNode = numaNode;
+	}
+
+	public String getCpuSet() {
+		return cpuSet;
+	}
+
+	public Integer getCpuShares() {
+		return cpuShares;
+	}
+
+	public Long getCpuQuota() {
+		return cpuQuota;
+	}
+
+	public Long getCpuPeriod() {
+		return cpuPeriod;
+	}
+
+	public Long getMemoryLimit() {
+		return memoryLimit;
+	}
+
+	public Integer getNumaNode() {
+		return numaNode;
+	}
+
+	@Override
+	public String toString() {
+		return "{" + "cpuSet='" + cpuSet + '\'' + ", cpuShares='" + cpuShares + '\'' + ", cpuQuota='" + cpuQuota + '\'' +
+				", cpuPeriod='" + cpuPeriod + '\'' + ", memoryLimit='" + memoryLimit + '\'' + ", numaNode='" + numaNode + '\'' + '}';
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		ContainerResources o = (ContainerResources) other;
+		return Objects.equals(cpuSet, o.cpuSet) && Objects.equals(cpuShares, o.cpuShares) &&
+				Objects.equals(cpuQuota, o.cpuQuota) && Objects.equals(cpuPeriod, o.cpuPeriod) &&
+				Objects.equals(memoryLimit, o.memoryLimit) && Objects.equals(numaNode, o.numaNode);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(cpuSet, cpuShares, cpuQuota, cpuPeriod, memoryLimit, numaNode);
+	}
+}
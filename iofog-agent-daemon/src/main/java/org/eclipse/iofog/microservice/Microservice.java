@@ -39,6 +39,7 @@ public class Microservice {
     private List<String> args;
     private List<String> extraHosts;
     private boolean isConsumer;
+    private ContainerResources resources;
 
     private boolean delete;
     private boolean deleteWithCleanup;
@@ -197,4 +198,12 @@ public class Microservice {
     public void setExtraHosts(List<String> extraHosts) {
         this.extraHosts = extraHosts;
     }
+
+    public ContainerResources getResources() {
+        return resources;
+    }
+
+    public void setResources(ContainerResources resources) {
+        this.resources = resources;
+    }
 }
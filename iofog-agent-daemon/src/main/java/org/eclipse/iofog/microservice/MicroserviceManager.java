@@ -18,17 +18,14 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 
 /**
  * microservice common repository
+ * readers get the latest {@link MicroserviceSnapshot} without locking, writers replace it under class lock
  * thread-safe except Microservice, collections are unmodifiable
  *
  * @author saeid
  */
 public class MicroserviceManager {
 
-	private List<Microservice> latestMicroservices = new ArrayList<>();
-	private List<Microservice> currentMicroservices = new ArrayList<>();
-	private Map<String, Route> routes = new HashMap<>();
-	private Map<String, String> configs = new HashMap<>();
-	private List<Registry> registries = new ArrayList<>();
+	private volatile MicroserviceSnapshot snapshot = MicroserviceSnapshot.EMPTY;
 	private static final String MODULE_NAME = "MicroserviceManager";
 
 	private MicroserviceManager() {
@@ -42,84 +39,69 @@ public class MicroserviceManager {
 		return SingletonHolder.em;
 	}
 
+	/**
+	 * @return latest snapshot, its version increases on every change
+	 */
+	public MicroserviceSnapshot getSnapshot() {
+		return snapshot;
+	}
+
 	public List<Microservice> getLatestMicroservices() {
-		LoggingService.logDebug(MODULE_NAME ,"get list of latest microservices ");
-		synchronized (MicroserviceManager.class) {
-			return Collections.unmodifiableList(latestMicroservices);
-		}
+		return snapshot.getLatestMicroservices();
 	}
 
 	public List<Microservice> getCurrentMicroservices() {
-		LoggingService.logDebug(MODULE_NAME ,"get list of current microservices ");
-		synchronized (MicroserviceManager.class) {
-			return Collections.unmodifiableList(currentMicroservices);
-		}
+		return snapshot.getCurrentMicroservices();
 	}
 
 	public Map<String, Route> getRoutes() {
-		LoggingService.logDebug(MODULE_NAME ,"get map of routes ");
-		synchronized (MicroserviceManager.class) {
-			return Collections.unmodifiableMap(routes);
-		}
+		return snapshot.getRoutes();
 	}
 
 	public Map<String, String> getConfigs() {
-		LoggingService.logDebug(MODULE_NAME ,"get map of configs ");
-		synchronized (MicroserviceManager.class) {
-			return Collections.unmodifiableMap(configs);
-		}
+		return snapshot.getConfigs();
 	}
 
 	public List<Registry> getRegistries() {
-		LoggingService.logDebug(MODULE_NAME ,"get list of registry ");
-		synchronized (MicroserviceManager.class) {
-			return Collections.unmodifiableList(registries);
-		}
+		return snapshot.getRegistries();
 	}
 
 	public Registry getRegistry(int id) {
-		LoggingService.logDebug(MODULE_NAME ,"get registry ");
-		synchronized (MicroserviceManager.class) {
-			for (Registry registry : registries) {
-				if (registry.getId() == id)
-					return registry;
-			}
-			return null;
-		}
+		return snapshot.getRegistry(id);
 	}
 
 	public void setLatestMicroservices(List<Microservice> latestMicroservices) {
 		LoggingService.logDebug(MODULE_NAME ,"set latest Microservices ");
 		synchronized (MicroserviceManager.class) {
-			this.latestMicroservices = new ArrayList<>(latestMicroservices);
+			snapshot = snapshot.withLatestMicroservices(latestMicroservices);
 		}
 	}
 
 	public void setCurrentMicroservices(List<Microservice> currentMicroservices) {
 		LoggingService.logDebug(MODULE_NAME ,"set Current Microservices ");
 		synchronized (MicroserviceManager.class) {
-			this.currentMicroservices = new ArrayList<>(currentMicroservices);
+			snapshot = snapshot.withCurrentMicroservices(currentMicroservices);
 		}
 	}
 
 	public void setConfigs(Map<String, String> configs) {
 		LoggingService.logDebug(MODULE_NAME ,"set Configs ");
 		synchronized (MicroserviceManager.class) {
-			this.configs = new HashMap<>(configs);
+			snapshot = snapshot.withConfigs(configs);
 		}
 	}
 
 	public void setRoutes(Map<String, Route> routes) {
 		LoggingService.logDebug(MODULE_NAME ,"set Routes ");
 		synchronized (MicroserviceManager.class) {
-			this.routes = new HashMap<>(routes);
+			snapshot = snapshot.withRoutes(routes);
 		}
 	}
 
 	public void setRegistries(List<Registry> registries) {
 		LoggingService.logDebug(MODULE_NAME ,"set Registries ");
 		synchronized (MicroserviceManager.class) {
-			this.registries = new ArrayList<>(registries);
+			snapshot = snapshot.withRegistries(registries);
 		}
 	}
 
@@ -127,35 +109,25 @@ public class MicroserviceManager {
 	 * not thread safe for Microservice obj properties
 	 */
 	public Optional<Microservice> findLatestMicroserviceByUuid(String microserviceUuid) {
-		LoggingService.logDebug(MODULE_NAME ,"find Latest Microservice By Uuid ");
-		synchronized (MicroserviceManager.class) {
-			return findMicroserviceByUuid(latestMicroservices, microserviceUuid);
-		}
+		return snapshot.findLatestMicroserviceByUuid(microserviceUuid);
 	}
 
 	public boolean microserviceExists(List<Microservice> microservices, String microserviceUuid) {
-		LoggingService.logDebug(MODULE_NAME ,"find microservice Exists");
-		return findMicroserviceByUuid(microservices, microserviceUuid).isPresent();
-	}
-
-	/***
-	 * not thread safe for Microservice obj properties
-	 */
-	private Optional<Microservice> findMicroserviceByUuid(List<Microservice> microservices, String microserviceUuid) {
-		LoggingService.logDebug(MODULE_NAME ,"find Microservice By Uuid : " + microserviceUuid);
+		MicroserviceSnapshot current = snapshot;
+		if (microservices == current.getLatestMicroservices()) {
+			return current.findLatestMicroserviceByUuid(microserviceUuid).isPresent();
+		}
+		if (microservices == current.getCurrentMicroservices()) {
+			return current.findCurrentMicroserviceByUuid(microserviceUuid).isPresent();
+		}
 		return microservices.stream()
-				.filter(microservice -> microservice.getMicroserviceUuid().equals(microserviceUuid))
-				.findAny();
+				.anyMatch(microservice -> microservice.getMicroserviceUuid().equals(microserviceUuid));
 	}
 
 	public void clear() {
 		LoggingService.logDebug(MODULE_NAME ,"Start microservice clear");
 		synchronized (MicroserviceManager.class) {
-			latestMicroservices.clear();
-			currentMicroservices.clear();
-			routes.clear();
-			configs.clear();
-			registries.clear();
+			snapshot = snapshot.cleared();
 		}
 		LoggingService.logDebug(MODULE_NAME ,"Finished microservice clear");
 	}
@@ -0,0 +1,149 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import java.util.*;
+
+/**
+ * immutable view of microservices, routes, configs and registries indexed by microservice uuid and registry id
+ * every change to {@link MicroserviceManager} creates a new snapshot with increased version, unchanged parts are shared
+ * with previous snapshot. consumers may keep the version they processed and skip work while it is unchanged
+ * not thread safe for Microservice obj properties
+ */
+public final class MicroserviceSnapshot {
+
+	static final MicroserviceSnapshot EMPTY = new MicroserviceSnapshot(0,
+			Collections.emptyList(), Collections.emptyMap(),
+			Collections.emptyList(), Collections.emptyMap(),
+			Collections.emptyMap(), Collections.emptyMap(),
+			Collections.emptyList(), Collections.emptyMap());
+
+	private final long version;
+	private final List<Microservice> latestMicroservices;
+	private final Map<String, Microservice> latestMicroservicesByUuid;
+	private final List<Microservice> currentMicroservices;
+	private final Map<String, Microservice> currentMicroservicesByUuid;
+	private final Map<String, Route> routes;
+	private final Map<String, String> configs;
+	private final List<Registry> registries;
+	private final Map<Integer, Registry> registriesById;
+
+	private MicroserviceSnapshot(long version,
+								 List<Microservice> latestMicroservices, Map<String, Microservice> latestMicroservicesByUuid,
+								 List<Microservice> currentMicroservices, Map<String, Microservice> currentMicroservicesByUuid,
+								 Map<String, Route> routes, Map<String, String> configs,
+								 List<Registry> registries, Map<Integer, Registry> registriesById) {
+		this.version = version;
+		this.latestMicroservices = latestMicroservices;
+		this.latestMicroservicesByUuid = latestMicroservicesByUuid;
+		this.currentMicroservices = currentMicroservices;
+		this.currentMicroservicesByUuid = currentMicroservicesByUuid;
+		this.routes = routes;
+		this.configs = configs;
+		this.registries = registries;
+		this.registriesById = registriesById;
+	}
+
+	MicroserviceSnapshot withLatestMicroservices(List<Microservice> microservices) {
+		List<Microservice> list = copyOf(microservices);
+		return new MicroserviceSnapshot(version + 1, list, indexByUuid(list), currentMicroservices, currentMicroservicesByUuid,
+				routes, configs, registries, registriesById);
+	}
+
+	MicroserviceSnapshot withCurrentMicroservices(List<Microservice> microservices) {
+		List<Microservice> list = copyOf(microservices);
+		return new MicroserviceSnapshot(version + 1, latestMicroservices, latestMicroservicesByUuid, list, indexByUuid(list),
+				routes, configs, registries, registriesById);
+	}
+
+	MicroserviceSnapshot withRoutes(Map<String, Route> routes) {
+		return new MicroserviceSnapshot(version + 1, latestMicroservices, latestMicroservicesByUuid,
+				currentMicroservices, currentMicroservicesByUuid,
+				Collections.unmodifiableMap(new HashMap<>(routes)), configs, registries, registriesById);
+	}
+
+	MicroserviceSnapshot withConfigs(Map<String, String> configs) {
+		return new MicroserviceSnapshot(version + 1, latestMicroservices, latestMicroservicesByUuid,
+				currentMicroservices, currentMicroservicesByUuid,
+				routes, Collections.unmodifiableMap(new HashMap<>(configs)), registries, registriesById);
+	}
+
+	MicroserviceSnapshot withRegistries(List<Registry> registries) {
+		List<Registry> list = copyOf(registries);
+		Map<Integer, Registry> byId = new HashMap<>();
+		for (Registry registry : list) {
+			byId.putIfAbsent(registry.getId(), registry);
+		}
+		return new MicroserviceSnapshot(version + 1, latestMicroservices, latestMicroservicesByUuid,
+				currentMicroservices, currentMicroservicesByUuid,
+				routes, configs, list, Collections.unmodifiableMap(byId));
+	}
+
+	MicroserviceSnapshot cleared() {
+		return new MicroserviceSnapshot(version + 1,
+				EMPTY.latestMicroservices, EMPTY.latestMicroservicesByUuid,
+				EMPTY.currentMicroservices, EMPTY.currentMicroservicesByUuid,
+				EMPTY.routes, EMPTY.configs, EMPTY.registries, EMPTY.registriesById);
+	}
+
+	private static <T> List<T> copyOf(List<T> list) {
+		return Collections.unmodifiableList(new ArrayList<>(list));
+	}
+
+	/**
+	 * first microservice wins if uuid is duplicated, same as search of the list would return
+	 */
+	private static Map<String, Microservice> indexByUuid(List<Microservice> microservices) {
+		Map<String, Microservice> byUuid = new HashMap<>();
+		for (Microservice microservice : microservices) {
+			byUuid.putIfAbsent(microservice.getMicroserviceUuid(), microservice);
+		}
+		return Collections.unmodifiableMap(byUuid);
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public List<Microservice> getLatestMicroservices() {
+		return latestMicroservices;
+	}
+
+	public List<Microservice> getCurrentMicroservices() {
+		return currentMicroservices;
+	}
+
+	public Map<String, Route> getRoutes() {
+		return routes;
+	}
+
+	public Map<String, String> getConfigs() {
+		return configs;
+	}
+
+	public List<Registry> getRegistries() {
+		return registries;
+	}
+
+	public Registry getRegistry(int id) {
+		return registriesById.get(id);
+	}
+
+	public Optional<Microservice> findLatestMicroserviceByUuid(String microserviceUuid) {
+		return Optional.ofNullable(latestMicroservicesByUuid.get(microserviceUuid));
+	}
+
+	public Optional<Microservice> findCurrentMicroserviceByUuid(String microserviceUuid) {
+		return Optional.ofNullable(currentMicroservicesByUuid.get(microserviceUuid));
+	}
+}
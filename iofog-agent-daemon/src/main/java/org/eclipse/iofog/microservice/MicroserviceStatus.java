@@ -36,6 +36,7 @@ public class MicroserviceStatus {
 	private long memoryUsage;
 	private String containerId;
 	private float percentage;
+	private float restartRate;
 
 	public MicroserviceStatus() {
 		this.status = MicroserviceState.UNKNOWN;
@@ -100,6 +101,17 @@ public class MicroserviceStatus {
 		this.percentage = percentage;
 	}
 
+	/**
+	 * @return container restarts per minute within last 5 minutes, see {@link org.eclipse.iofog.process_manager.RestartStuckChecker}
+	 */
+	public float getRestartRate() {
+		return restartRate;
+	}
+
+	public void setRestartRate(float restartRate) {
+		this.restartRate = restartRate;
+	}
+
 	/**
 	 * set in {@link MicroserviceStatus} cpu usage and memory usage of given {@link Container}
 	 *
@@ -0,0 +1,73 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.process_manager;
+
+import com.github.dockerjava.api.model.Container;
+import org.eclipse.iofog.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * containers of one Docker listing indexed by microservice uuid
+ * all steps of a {@link ProcessManager} reconciliation pass share one listing instead of listing and inspecting containers each
+ */
+final class ContainerListing {
+	private static final String RUNNING = "running";
+
+	private final DockerUtil docker;
+	private final List<Container> containers;
+	private final List<Container> runningContainers = new ArrayList<>();
+	private Map<String, Container> containersByMicroserviceUuid;
+
+	ContainerListing(DockerUtil docker, List<Container> containers) {
+		this.docker = docker;
+		this.containers = Collections.unmodifiableList(new ArrayList<>(containers));
+		for (Container container : this.containers) {
+			if (RUNNING.equalsIgnoreCase(container.getState())) {
+				runningContainers.add(container);
+			}
+		}
+	}
+
+	/**
+	 * @return containers in running state, same as {@link DockerUtil#getRunningContainers()} without inspecting each
+	 */
+	List<Container> getRunningContainers() {
+		return Collections.unmodifiableList(runningContainers);
+	}
+
+	int getRunningIofogContainersCount() {
+		return (int) runningContainers.stream()
+				.filter(container -> docker.getContainerName(container).startsWith(Constants.IOFOG_DOCKER_CONTAINER_NAME_PREFIX))
+				.count();
+	}
+
+	/**
+	 * @param microserviceUuid - id of {@link org.eclipse.iofog.microservice.Microservice}
+	 * @return container of the microservice, same as {@link DockerUtil#getContainer(String)}
+	 */
+	Optional<Container> getContainer(String microserviceUuid) {
+		if (containersByMicroserviceUuid == null) {
+			containersByMicroserviceUuid = new HashMap<>();
+			for (Container container : containers) {
+				containersByMicroserviceUuid.putIfAbsent(docker.getContainerMicroserviceUuid(container), container);
+			}
+		}
+		return Optional.ofNullable(containersByMicroserviceUuid.get(microserviceUuid));
+	}
+}
@@ -39,6 +39,11 @@ public class ContainerManager {
 	private final MicroserviceManager microserviceManager;
 
 	private static final String MODULE_NAME = "Container Manager";
+	private static final String NEXT_CONTAINER_SUFFIX = "_next";
+	private static final String PREVIOUS_CONTAINER_SUFFIX = "_previous";
+	private static final long START_TIMEOUT_MILLIS = 60_000;
+	private static final long STATUS_CHECK_INTERVAL_MILLIS = 500;
+	private static final int RUNNING_CHECKS = 3;
 
 	public ContainerManager() {
 		microserviceManager = MicroserviceManager.getInstance();
@@ -70,7 +75,9 @@ public class ContainerManager {
 	}
 
 	/**
-	 * removes an existing {@link Container} and creates a new one
+	 * replaces an existing {@link Container} with a new one, keeping the old one running while the image is pulled
+	 * new container is created under a temporary name, then old one is stopped and the containers swap names.
+	 * if new container does not reach running state, it is removed and old container is restored
 	 *
 	 * @param withCleanUp if true then removes old image and volumes
 	 * @throws Exception exception
@@ -78,12 +85,141 @@ public class ContainerManager {
 	private void updateContainer(Microservice microservice, boolean withCleanUp) throws Exception {
 		LoggingService.logDebug(MODULE_NAME, "Start update container");
 		microservice.setUpdating(true);
-		removeContainerByMicroserviceUuid(microservice.getMicroserviceUuid(), withCleanUp);
-		createContainer(microservice);
-		microservice.setUpdating(false);
+		try {
+			Optional<Container> containerOptional = docker.getContainer(microservice.getMicroserviceUuid());
+			if (containerOptional.isPresent()) {
+				replaceContainer(microservice, containerOptional.get(), withCleanUp);
+			} else {
+				createContainer(microservice);
+			}
+		} finally {
+			microservice.setUpdating(false);
+		}
 		LoggingService.logDebug(MODULE_NAME, "Finished update container");
 	}
 
+	private void replaceContainer(Microservice microservice, Container oldContainer, boolean withCleanUp) throws Exception {
+		String microserviceUuid = microservice.getMicroserviceUuid();
+		String containerName = DockerUtil.getIoFogContainerName(microserviceUuid);
+		pullImage(microservice);
+
+		removeLeftoverContainer(microserviceUuid + NEXT_CONTAINER_SUFFIX);
+		removeLeftoverContainer(microserviceUuid + PREVIOUS_CONTAINER_SUFFIX);
+		setMicroserviceStatus(microserviceUuid, MicroserviceState.STARTING);
+		String hostName = IOFogNetworkInterfaceManager.getInstance().getCurrentIpAddress();
+		String newContainerId = docker.createContainer(microservice, hostName, containerName + NEXT_CONTAINER_SUFFIX);
+		LoggingService.logInfo(MODULE_NAME, String.format("replacement container for \"%s\" is created", microservice.getImageName()));
+
+		boolean isRunning;
+		try {
+			synchronized (deleteLock) {
+				docker.stopContainer(oldContainer.getId());
+				docker.renameContainer(oldContainer.getId(), containerName + PREVIOUS_CONTAINER_SUFFIX);
+				docker.renameContainer(newContainerId, containerName);
+			}
+			microservice.setContainerId(newContainerId);
+			startContainer(microservice);
+			isRunning = waitForRunning(newContainerId);
+		} catch (Exception e) {
+			rollbackContainer(microservice, oldContainer, newContainerId);
+			throw e;
+		}
+
+		if (!isRunning) {
+			rollbackContainer(microservice, oldContainer, newContainerId);
+			throw new AgentSystemException(String.format("Container \"%s\" did not start, previous container is restored",
+					microservice.getImageName()));
+		}
+
+		if (withCleanUp && isSameImage(oldContainer, microserviceUuid)) {
+			docker.removeContainer(oldContainer.getId(), true);
+		} else {
+			removeContainer(oldContainer.getId(), oldContainer.getImageId(), withCleanUp);
+		}
+		microservice.setRebuild(false);
+		StatusReporter.setProcessManagerStatus().setMicroservicesStatePercentage(microserviceUuid, Constants.PERCENTAGE_COMPLETION);
+		setMicroserviceStatus(microserviceUuid, MicroserviceState.RUNNING);
+	}
+
+	/**
+	 * waits until container is running for {@link #RUNNING_CHECKS} checks in a row
+	 *
+	 * @param containerId id of the {@link Container}
+	 * @return false if container exited or did not start in time
+	 */
+	private boolean waitForRunning(String containerId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+		int runningChecks = 0;
+		while (System.currentTimeMillis() < deadline) {
+			String status = docker.getContainerStatus(containerId).orElse("unknown");
+			if ("running".equals(status)) {
+				if (++runningChecks >= RUNNING_CHECKS) {
+					return true;
+				}
+			} else if ("exited".equals(status) || "dead".equals(status)) {
+				return false;
+			} else {
+				runningChecks = 0;
+			}
+			Thread.sleep(STATUS_CHECK_INTERVAL_MILLIS);
+		}
+		return false;
+	}
+
+	/**
+	 * removes new container and starts old one under its original name
+	 * if new container can't be removed, it is renamed back to its replacement name to free the original one,
+	 * so old container is restored anyway and new one is removed as leftover by next update
+	 */
+	private void rollbackContainer(Microservice microservice, Container oldContainer, String newContainerId) throws Exception {
+		LoggingService.logWarning(MODULE_NAME, String.format("Container \"%s\" did not start, restoring previous container",
+				microservice.getImageName()));
+		synchronized (deleteLock) {
+			try {
+				docker.stopContainer(newContainerId);
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, String.format("Error stopping container \"%s\"", newContainerId),
+						new AgentSystemException(e.getMessage(), e));
+			}
+			try {
+				removeContainer(newContainerId, null, false);
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, String.format("Error removing container \"%s\"", newContainerId),
+						new AgentSystemException(e.getMessage(), e));
+				try {
+					docker.renameContainer(newContainerId,
+							DockerUtil.getIoFogContainerName(microservice.getMicroserviceUuid()) + NEXT_CONTAINER_SUFFIX);
+				} catch (Exception renameException) {
+					LoggingService.logError(MODULE_NAME, String.format("Error renaming container \"%s\"", newContainerId),
+							new AgentSystemException(renameException.getMessage(), renameException));
+				}
+			}
+			if (!docker.getContainer(microservice.getMicroserviceUuid()).isPresent()) {
+				docker.renameContainer(oldContainer.getId(), DockerUtil.getIoFogContainerName(microservice.getMicroserviceUuid()));
+			}
+		}
+		microservice.setContainerId(oldContainer.getId());
+		startContainer(microservice);
+		setMicroserviceStatus(microservice.getMicroserviceUuid(), MicroserviceState.RUNNING);
+	}
+
+	/**
+	 * removes container left by an update that was interrupted, e.g. by agent restart
+	 */
+	private void removeLeftoverContainer(String name) throws AgentSystemException {
+		Optional<Container> containerOptional = docker.getContainer(name);
+		if (containerOptional.isPresent()) {
+			docker.stopContainer(containerOptional.get().getId());
+			removeContainer(containerOptional.get().getId(), null, false);
+		}
+	}
+
+	private boolean isSameImage(Container oldContainer, String microserviceUuid) {
+		Optional<Container> containerOptional = docker.getContainer(microserviceUuid);
+		return containerOptional.isPresent() && oldContainer.getImageId() != null
+				&& oldContainer.getImageId().equals(containerOptional.get().getImageId());
+	}
+
 	private void createContainer(Microservice microservice) throws Exception {
 		createContainer(microservice, true);
 	}
@@ -93,7 +229,9 @@ public class ContainerManager {
 		Registry registry = getRegistry(microservice);
 		if (!registry.getUrl().equals("from_cache") && pullImage){
 			try {
-				docker.pullImage(microservice.getImageName(), microservice.getMicroserviceUuid(), registry);
+				if (!ImagePullScheduler.getInstance().awaitPrefetch(microservice.getImageName())) {
+					docker.pullImage(microservice.getImageName(), microservice.getMicroserviceUuid(), registry);
+				}
 			} catch (Exception e) {
 				LoggingService.logError(MODULE_NAME, "unable to pull \"" + microservice.getImageName() + "\" from registry. trying local cache",
 						new AgentSystemException(e.getMessage(), e));
@@ -118,6 +256,30 @@ public class ContainerManager {
 		setMicroserviceStatus(microservice.getMicroserviceUuid(), MicroserviceState.RUNNING);
 	}
 
+	/**
+	 * pulls image of microservice unless it was prefetched, falls back to local cache if registry is not reachable
+	 *
+	 * @throws NotFoundException if image can be neither pulled nor found in local cache
+	 */
+	private void pullImage(Microservice microservice) throws Exception {
+		setMicroserviceStatus(microservice.getMicroserviceUuid(), MicroserviceState.PULLING);
+		Registry registry = getRegistry(microservice);
+		if (!registry.getUrl().equals("from_cache")) {
+			try {
+				if (!ImagePullScheduler.getInstance().awaitPrefetch(microservice.getImageName())) {
+					docker.pullImage(microservice.getImageName(), microservice.getMicroserviceUuid(), registry);
+				}
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, "unable to pull \"" + microservice.getImageName() + "\" from registry. trying local cache",
+						new AgentSystemException(e.getMessage(), e));
+				if (!docker.findLocalImage(microservice.getImageName())) {
+					throw new NotFoundException("Image not found in local cache");
+				}
+				LoggingService.logInfo(MODULE_NAME, "using \"" + microservice.getImageName() + "\" from local cache");
+			}
+		}
+	}
+
 	/**
 	 * starts a {@link Container} and sets appropriate status
 	 */
@@ -175,6 +337,7 @@ public class ContainerManager {
 				setMicroserviceStatus(microserviceUuid, MicroserviceState.DELETING);
 				removeContainer(container.getId(), container.getImageId(), withCleanUp);
 			}
+			RestartStuckChecker.remove(microserviceUuid);
 		}
 		LoggingService.logInfo(MODULE_NAME, "Finished remove container with microserviceuuid : " + microserviceUuid);
 	}
@@ -32,18 +32,27 @@ import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Counter;
+import org.eclipse.iofog.utils.metrics.Histogram;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang.StringUtils.EMPTY;
@@ -58,8 +67,15 @@ import static org.eclipse.iofog.utils.logging.LoggingService.logError;
 public class DockerUtil {
     private final static String MODULE_NAME = "Docker Util";
 
+    private static final MetricFamily<Histogram> API_DURATION = MetricsRegistry.histogram(
+            "iofog_docker_api_duration_seconds", "Docker API call time", "operation");
+    private static final MetricFamily<Counter> API_ERRORS = MetricsRegistry.counter(
+            "iofog_docker_api_errors", "Failed Docker API calls", "operation");
+    private static final String NUMA_NODE_CPU_LIST = "/sys/devices/system/node/node%d/cpulist";
+    private static final Map<Integer, Optional<String>> numaNodeCpus = new ConcurrentHashMap<>();
     private static DockerUtil instance;
     private DockerClient dockerClient;
+    private final AtomicLong containerEventsCount = new AtomicLong();
 
     private DockerUtil() {
         initDockerClient();
@@ -119,9 +135,13 @@ public class DockerUtil {
      */
     private void addDockerEventHandler() {
     	LoggingService.logDebug(MODULE_NAME , "Starting docker events handler");
+        containerEventsCount.incrementAndGet();
         dockerClient.eventsCmd().exec(new EventsResultCallback() {
             @Override
             public void onNext(Event item) {
+                if (item.getType() == EventType.CONTAINER) {
+                    containerEventsCount.incrementAndGet();
+                }
                 switch (item.getType()) {
                     case CONTAINER:
                     case IMAGE:
@@ -133,6 +153,16 @@ public class DockerUtil {
         LoggingService.logDebug(MODULE_NAME, "docker events handler is started");
     }
 
+    /**
+     * returns number of container events received from Docker, changes whenever any container changes
+     * counter is also increased when events handler is restarted, as events may have been missed in between
+     *
+     * @return number of container events
+     */
+    public long getContainerEventsCount() {
+        return containerEventsCount.get();
+    }
+
     /**
      * generates Docker authConfig
      * based on Docker Remote API document
@@ -158,7 +188,7 @@ public class DockerUtil {
      */
     public String getDockerBridgeName() {
     	LoggingService.logDebug(MODULE_NAME , "get docker bridge name");
-        List<Network> networks = dockerClient.listNetworksCmd().exec();
+        List<Network> networks = exec("list_networks", dockerClient.listNetworksCmd());
 
         Network dockerBridge = networks
                 .stream()
@@ -186,7 +216,7 @@ public class DockerUtil {
 //		if (totalMemory - jvmMemory < requiredMemory)
 //			throw new Exception("Not enough memory to start the container");
     	LoggingService.logDebug(MODULE_NAME , "start Container");
-        dockerClient.startContainerCmd(microservice.getContainerId()).exec();
+        exec("start_container", dockerClient.startContainerCmd(microservice.getContainerId()));
     }
 
     /**
@@ -197,10 +227,21 @@ public class DockerUtil {
     public void stopContainer(String id) throws NotFoundException, NotModifiedException {
     	LoggingService.logDebug(MODULE_NAME , "stop Container");
         if (isContainerRunning(id)) {
-            dockerClient.stopContainerCmd(id).exec();
+            exec("stop_container", dockerClient.stopContainerCmd(id));
         }
     }
 
+    /**
+     * renames a {@link Container}
+     *
+     * @param id   - id of {@link Container}
+     * @param name - new name
+     */
+    public void renameContainer(String id, String name) throws NotFoundException, NotModifiedException {
+    	LoggingService.logDebug(MODULE_NAME , "rename Container");
+        exec("rename_container", dockerClient.renameContainerCmd(id).withName(name));
+    }
+
     /**
      * removes a {@link Container}
      *
@@ -209,7 +250,7 @@ public class DockerUtil {
      */
     public void removeContainer(String id, Boolean withRemoveVolumes) throws NotFoundException, NotModifiedException {
     	LoggingService.logDebug(MODULE_NAME , "remove Container");
-    	dockerClient.removeContainerCmd(id).withForce(true).withRemoveVolumes(withRemoveVolumes).exec();
+    	exec("remove_container", dockerClient.removeContainerCmd(id).withForce(true).withRemoveVolumes(withRemoveVolumes));
     }
 
     /**
@@ -222,7 +263,7 @@ public class DockerUtil {
 	public String getContainerIpAddress(String id) throws  AgentSystemException {
     	LoggingService.logDebug(MODULE_NAME , "get Container IpAddress");
         try {
-            InspectContainerResponse inspect = dockerClient.inspectContainerCmd(id).exec();
+            InspectContainerResponse inspect = exec("inspect_container", dockerClient.inspectContainerCmd(id));
             LoggingService.logDebug(MODULE_NAME , "Finished get Container IpAddress");
             return inspect.getNetworkSettings().getIpAddress();
         } catch (NotModifiedException exp) {
@@ -311,7 +352,7 @@ public class DockerUtil {
      */
     public MicroserviceStatus getMicroserviceStatus(String containerId, String microServiceUuid) {
     	LoggingService.logDebug(MODULE_NAME , "get microservice status");
-        InspectContainerResponse inspectInfo = dockerClient.inspectContainerCmd(containerId).exec();
+        InspectContainerResponse inspectInfo = exec("inspect_container", dockerClient.inspectContainerCmd(containerId));
         ContainerState containerState = inspectInfo.getState();
         MicroserviceStatus result = new MicroserviceStatus();
         if (containerState != null) {
@@ -325,6 +366,7 @@ public class DockerUtil {
                 : microserviceState);
 
             result.setContainerId(containerId);
+            result.setRestartRate(RestartStuckChecker.getRestartRate(microServiceUuid));
             result.setUsage(containerId);
         }
         LoggingService.logDebug(MODULE_NAME , "Finished get microservice status");
@@ -362,7 +404,7 @@ public class DockerUtil {
     	LoggingService.logDebug(MODULE_NAME ,"get Running list of Containers");
         return getContainers().stream()
             .filter(container -> {
-                InspectContainerResponse inspectInfo = dockerClient.inspectContainerCmd(container.getId()).exec();
+                InspectContainerResponse inspectInfo = exec("inspect_container", dockerClient.inspectContainerCmd(container.getId()));
                 ContainerState containerState = inspectInfo.getState();
                 return containerToMicroserviceState(containerState) == MicroserviceState.RUNNING;
             })
@@ -398,7 +440,7 @@ public class DockerUtil {
      */
     public long getContainerStartedAt(String id) {
     	LoggingService.logDebug(MODULE_NAME ,"Get Container Started At");
-        InspectContainerResponse inspectInfo = dockerClient.inspectContainerCmd(id).exec();
+        InspectContainerResponse inspectInfo = exec("inspect_container", dockerClient.inspectContainerCmd(id));
         String startedAt = inspectInfo.getState().getStartedAt();
         LoggingService.logDebug(MODULE_NAME ,"Finished get Container Started At");
         return startedAt != null ? DateTimeFormatter.ISO_INSTANT.parse(startedAt, Instant::from).toEpochMilli() : Instant.now().toEpochMilli();
@@ -413,8 +455,85 @@ public class DockerUtil {
      */
     public boolean areMicroserviceAndContainerEqual(String containerId, Microservice microservice) {
     	LoggingService.logDebug(MODULE_NAME ,"Are Microservice And Container Equal");
-        InspectContainerResponse inspectInfo = dockerClient.inspectContainerCmd(containerId).exec();
-        return isPortMappingEqual(inspectInfo, microservice) && isNetworkModeEqual(inspectInfo, microservice);
+        InspectContainerResponse inspectInfo = exec("inspect_container", dockerClient.inspectContainerCmd(containerId));
+        return isPortMappingEqual(inspectInfo, microservice) && isNetworkModeEqual(inspectInfo, microservice)
+            && isResourcesEqual(inspectInfo, microservice);
+    }
+
+    /**
+     * compares if container CPU placement and resource limits are the ones microservice would be created with
+     * unset values are reported by docker as empty or zero, so they are compared as unset
+     *
+     * @param inspectInfo  result of docker inspect command
+     * @param microservice microservice
+     * @return boolean true if resources are the same
+     */
+    private boolean isResourcesEqual(InspectContainerResponse inspectInfo, Microservice microservice) {
+        HostConfig expected = HostConfig.newHostConfig();
+        setResources(expected, microservice.getResources());
+        HostConfig actual = inspectInfo.getHostConfig() != null ? inspectInfo.getHostConfig() : HostConfig.newHostConfig();
+
+        boolean areEqual = Objects.equals(emptyToNull(expected.getCpusetCpus()), emptyToNull(actual.getCpusetCpus()))
+            && Objects.equals(emptyToNull(expected.getCpusetMems()), emptyToNull(actual.getCpusetMems()))
+            && Objects.equals(zeroToNull(expected.getCpuShares()), zeroToNull(actual.getCpuShares()))
+            && Objects.equals(zeroToNull(expected.getCpuQuota()), zeroToNull(actual.getCpuQuota()))
+            && Objects.equals(zeroToNull(expected.getCpuPeriod()), zeroToNull(actual.getCpuPeriod()))
+            && Objects.equals(zeroToNull(expected.getMemory()), zeroToNull(actual.getMemory()));
+        LoggingService.logDebug(MODULE_NAME ,"is Resources Equal: " + areEqual);
+
+        return areEqual;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Number zeroToNull(Number value) {
+        return value == null || value.longValue() == 0 ? null : value.longValue();
+    }
+
+    /**
+     * sets microservice CPU placement and resource limits, unset values are left to docker defaults
+     * if NUMA node is given, memory is allocated on that node and cpus are limited to the node unless cpu set is given
+     *
+     * @param hostConfig host config of container to be created
+     * @param resources  microservice resources, may be null
+     */
+    private void setResources(HostConfig hostConfig, ContainerResources resources) {
+        if (resources == null) {
+            return;
+        }
+        String cpuSet = resources.getCpuSet();
+        if (resources.getNumaNode() != null) {
+            Optional<String> nodeCpus = getNumaNodeCpus(resources.getNumaNode());
+            if (nodeCpus.isPresent()) {
+                hostConfig.withCpusetMems(String.valueOf(resources.getNumaNode()));
+                cpuSet = cpuSet != null ? cpuSet : nodeCpus.get();
+            }
+        }
+        hostConfig.withCpusetCpus(cpuSet)
+            .withCpuShares(resources.getCpuShares())
+            .withCpuQuota(resources.getCpuQuota())
+            .withCpuPeriod(resources.getCpuPeriod())
+            .withMemory(resources.getMemoryLimit());
+    }
+
+    /**
+     * reads cpus of NUMA node once, node topology does not change while agent runs
+     *
+     * @param node NUMA node
+     * @return cpu list of the node, empty if host has no such node
+     */
+    private Optional<String> getNumaNodeCpus(int node) {
+        return numaNodeCpus.computeIfAbsent(node, key -> {
+            try {
+                String cpus = new String(Files.readAllBytes(Paths.get(String.format(NUMA_NODE_CPU_LIST, key))), StandardCharsets.UTF_8).trim();
+                return cpus.isEmpty() ? Optional.empty() : Optional.of(cpus);
+            } catch (IOException | RuntimeException e) {
+                LoggingService.logWarning(MODULE_NAME, "NUMA node " + key + " is not found, microservice placement on it is ignored");
+                return Optional.empty();
+            }
+        });
     }
 
     /**
@@ -477,7 +596,7 @@ public class DockerUtil {
         Optional<String> result = Optional.empty();
         try {
         	LoggingService.logDebug(MODULE_NAME ,"Start get Container status");
-            InspectContainerResponse inspectInfo = dockerClient.inspectContainerCmd(containerId).exec();
+            InspectContainerResponse inspectInfo = exec("inspect_container", dockerClient.inspectContainerCmd(containerId));
             ContainerState status = inspectInfo.getState();
             result = Optional.ofNullable(status.getStatus());
         } catch (Exception exp) {
@@ -500,12 +619,12 @@ public class DockerUtil {
      */
     public List<Container> getContainers() {
     	LoggingService.logDebug(MODULE_NAME ,"get list of container running");
-        return dockerClient.listContainersCmd().withShowAll(true).exec();
+        return exec("list_containers", dockerClient.listContainersCmd().withShowAll(true));
     }
 
     public void removeImageById(String imageId) throws NotFoundException, NotModifiedException {
     	LoggingService.logDebug(MODULE_NAME ,"removing image by id");
-        dockerClient.removeImageCmd(imageId).withForce(true).exec();
+        exec("remove_image", dockerClient.removeImageCmd(imageId).withForce(true));
         LoggingService.logDebug(MODULE_NAME, String.format("image \"%s\" removed", imageId));
     }
 
@@ -517,6 +636,18 @@ public class DockerUtil {
      */
     @SuppressWarnings("resource")
     public void pullImage(String imageName, String microserviceUuid, Registry registry) throws AgentSystemException {
+        pullImageWithProgress(imageName, registry,
+            percentage -> StatusReporter.setProcessManagerStatus().setMicroservicesStatePercentage(microserviceUuid, percentage));
+    }
+
+    /**
+     * pulls {@link Image} from {@link Registry}
+     *
+     * @param imageName - imageName of {@link Microservice}
+     * @param registry  - {@link Registry} where image is placed
+     * @param progress  - called with pull percentage on every progress update
+     */
+    public void pullImageWithProgress(String imageName, Registry registry, Consumer<Float> progress) throws AgentSystemException {
         LoggingService.logInfo(MODULE_NAME, String.format("pull image name \"%s\" ", imageName));
         Map<String, ItemStatus> statuses = new HashMap();
         String tag = null, image;
@@ -546,12 +677,20 @@ public class DockerUtil {
                 public void onNext(PullResponseItem item) {
                     update(item, statuses);
                     double average = calculatePullPercentage(statuses);
-                    StatusReporter.setProcessManagerStatus().setMicroservicesStatePercentage(microserviceUuid, (float)average);
+                    progress.accept((float) average);
                     super.onNext(item);
                 }
             };
-            resultCallback = req.exec(resultCallback);
-            resultCallback.awaitCompletion();
+            long start = System.nanoTime();
+            try {
+                resultCallback = req.exec(resultCallback);
+                resultCallback.awaitCompletion();
+            } catch (Exception e) {
+                API_ERRORS.labels("pull_image").inc();
+                throw e;
+            } finally {
+                API_DURATION.labels("pull_image").observeSince(start);
+            }
 
         } catch (NotFoundException e) {
             LoggingService.logError(MODULE_NAME, "", new AgentSystemException("Image not found", e));
@@ -576,7 +715,7 @@ public class DockerUtil {
     public boolean findLocalImage(String imageName) {
         InspectImageCmd cmd = dockerClient.inspectImageCmd(imageName);
         try {
-            InspectImageResponse res = cmd.exec();
+            InspectImageResponse res = exec("inspect_image", cmd);
             return true;
         } catch (NotFoundException e) {
             return false;
@@ -591,6 +730,18 @@ public class DockerUtil {
      * @return id of created {@link Container}
      */
     public String createContainer(Microservice microservice, String host) throws NotFoundException, NotModifiedException {
+        return createContainer(microservice, host, getIoFogContainerName(microservice.getMicroserviceUuid()));
+    }
+
+    /**
+     * creates {@link Container} with given name, used to create replacement container while the old one still exists
+     *
+     * @param microservice - {@link Microservice}
+     * @param host         - host ip address
+     * @param name         - container name
+     * @return id of created {@link Container}
+     */
+    public String createContainer(Microservice microservice, String host, String name) throws NotFoundException, NotModifiedException {
     	LoggingService.logInfo(MODULE_NAME ,String.format("Creating container \"%s\" ", microservice.getImageName()));
     	RestartPolicy restartPolicy = RestartPolicy.noRestart();
 
@@ -661,13 +812,13 @@ public class DockerUtil {
         HostConfig hostConfig = HostConfig.newHostConfig();
         hostConfig.withPortBindings(portBindings);
         hostConfig.withLogConfig(containerLog);
-        hostConfig.withCpusetCpus("0");
         hostConfig.withRestartPolicy(restartPolicy);
+        setResources(hostConfig, microservice.getResources());
 
         CreateContainerCmd cmd = dockerClient.createContainerCmd(microservice.getImageName())
             .withExposedPorts(exposedPorts.toArray(new ExposedPort[0]))
             .withEnv(envVars)
-            .withName(Constants.IOFOG_DOCKER_CONTAINER_NAME_PREFIX + microservice.getMicroserviceUuid())
+            .withName(name)
             .withLabels(labels);
 
         if (volumes.size() > 0) {
@@ -696,17 +847,36 @@ public class DockerUtil {
             cmd = cmd.withCmd(microservice.getArgs());
         }
         cmd = cmd.withHostConfig(hostConfig);
-        CreateContainerResponse resp = cmd.exec();
+        CreateContainerResponse resp = exec("create_container", cmd);
         LoggingService.logInfo(MODULE_NAME ,String.format("Container created \"%s\" ", microservice.getImageName()));
         return resp.getId();
     }
 
+    /**
+     * executes docker command and records its duration and failure
+     *
+     * @param operation - operation name used as metric label
+     * @param cmd       - docker command
+     * @return command result
+     */
+    private static <T> T exec(String operation, SyncDockerCmd<T> cmd) {
+        long start = System.nanoTime();
+        try {
+            return cmd.exec();
+        } catch (RuntimeException e) {
+            API_ERRORS.labels(operation).inc();
+            throw e;
+        } finally {
+            API_DURATION.labels(operation).observeSince(start);
+        }
+    }
+
     /**
      * docker prune a {@link Image}
      */
     public PruneResponse dockerPrune() throws NotModifiedException {
         LoggingService.logInfo(MODULE_NAME , "docker image prune");
-        return dockerClient.pruneCmd(PruneType.IMAGES).withDangling(false).exec();
+        return exec("prune", dockerClient.pruneCmd(PruneType.IMAGES).withDangling(false));
     }
     /**
      * Updates the item status of docker pull Layer
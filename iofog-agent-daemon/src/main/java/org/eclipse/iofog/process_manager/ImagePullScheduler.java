@@ -0,0 +1,168 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.process_manager;
+
+import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.microservice.MicroserviceManager;
+import org.eclipse.iofog.microservice.Registry;
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * pulls images of latest microservices in background as soon as microservices list is received,
+ * so container tasks find images already local instead of pulling them one by one on the task thread
+ *
+ * pulls are coalesced per image, so microservices sharing an image wait on a single pull and all of them get its progress.
+ * at most {@link #MAX_CONCURRENT_PULLS} images are pulled at a time to leave uplink bandwidth for the rest of agent,
+ * layers shared by images pulled at the same time are downloaded once by docker itself
+ */
+public class ImagePullScheduler {
+
+	private static final String MODULE_NAME = "Image Pull Scheduler";
+	static final int MAX_CONCURRENT_PULLS = 2;
+	private static final String THREAD_NAME = "PMIP";
+	private static final long PREFETCH_WAIT_TIMEOUT_MINUTES = 10;
+
+	private final ThreadPoolExecutor executor;
+	private final Map<String, Pull> pulls = new ConcurrentHashMap<>();
+	private static volatile ImagePullScheduler instance;
+
+	private ImagePullScheduler() {
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(MAX_CONCURRENT_PULLS, MAX_CONCURRENT_PULLS, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, THREAD_NAME + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	public static ImagePullScheduler getInstance() {
+		if (instance == null) {
+			synchronized (ImagePullScheduler.class) {
+				if (instance == null)
+					instance = new ImagePullScheduler();
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * image pull shared by all microservices using the image
+	 */
+	private static class Pull {
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private final Set<String> microserviceUuids = new CopyOnWriteArraySet<>();
+	}
+
+	/**
+	 * schedules pull of images which are not in local cache yet
+	 * each call starts a new change set: pulls completed for previous change sets are dropped,
+	 * so they are never taken for images of a later change set or rebuild
+	 * images of microservices being rebuilt are pulled again, as their tag may point to a new image
+	 *
+	 * @param microservices - latest microservices
+	 */
+	public void prefetch(List<Microservice> microservices) {
+		DockerUtil docker = DockerUtil.getInstance();
+		MicroserviceManager microserviceManager = MicroserviceManager.getInstance();
+		pulls.values().removeIf(pull -> pull.future.isDone());
+		Set<String> scheduledImageNames = new HashSet<>();
+		for (Microservice microservice : microservices) {
+			String imageName = microservice.getImageName();
+			if (microservice.isDelete() || imageName == null) {
+				continue;
+			}
+			Registry registry = microserviceManager.getRegistry(microservice.getRegistryId());
+			if (registry == null || registry.getUrl().equals("from_cache")) {
+				continue;
+			}
+			Pull pull = pulls.get(imageName);
+			if (pull != null && (scheduledImageNames.contains(imageName) || !microservice.isRebuild())) {
+				pull.microserviceUuids.add(microservice.getMicroserviceUuid());
+				continue;
+			}
+			try {
+				if (!microservice.isRebuild() && docker.findLocalImage(imageName)) {
+					continue;
+				}
+			} catch (Exception e) {
+				LoggingService.logWarning(MODULE_NAME, String.format("unable to check local image \"%s\": %s", imageName, e.getMessage()));
+				continue;
+			}
+			schedule(imageName, microservice.getMicroserviceUuid(), registry);
+			scheduledImageNames.add(imageName);
+		}
+	}
+
+	private void schedule(String imageName, String microserviceUuid, Registry registry) {
+		Pull pull = new Pull();
+		pull.microserviceUuids.add(microserviceUuid);
+		pulls.put(imageName, pull);
+		LoggingService.logInfo(MODULE_NAME, String.format("prefetching image \"%s\"", imageName));
+		executor.execute(() -> {
+			try {
+				DockerUtil.getInstance().pullImageWithProgress(imageName, registry, percentage -> pull.microserviceUuids.forEach(
+						uuid -> StatusReporter.setProcessManagerStatus().setMicroservicesStatePercentage(uuid, percentage)));
+				LoggingService.logInfo(MODULE_NAME, String.format("image \"%s\" is prefetched", imageName));
+				pull.future.complete(null);
+			} catch (Exception e) {
+				LoggingService.logWarning(MODULE_NAME, String.format("unable to prefetch image \"%s\": %s", imageName, e.getMessage()));
+				pulls.remove(imageName, pull);
+				pull.future.completeExceptionally(e);
+			}
+		});
+	}
+
+	/**
+	 * waits for background pull of image, if there is one
+	 * pull is kept until next change set, so every microservice sharing the image gets its result
+	 *
+	 * @param imageName - image name
+	 * @return true if image was pulled in background, false if it was not scheduled, pull failed or did not finish in time
+	 */
+	public boolean awaitPrefetch(String imageName) throws InterruptedException {
+		return awaitPrefetch(imageName, PREFETCH_WAIT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+	}
+
+	boolean awaitPrefetch(String imageName, long timeout, TimeUnit unit) throws InterruptedException {
+		Pull pull = imageName != null ? pulls.get(imageName) : null;
+		if (pull == null) {
+			return false;
+		}
+		try {
+			pull.future.get(timeout, unit);
+			return true;
+		} catch (ExecutionException e) {
+			return false;
+		} catch (TimeoutException e) {
+			LoggingService.logWarning(MODULE_NAME, String.format("prefetch of image \"%s\" did not finish in time, pulling it directly", imageName));
+			return false;
+		}
+	}
+}
@@ -26,6 +26,9 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Constants.ModulesStatus;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Counter;
+import org.eclipse.iofog.utils.metrics.Histogram;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -45,11 +48,21 @@ import static org.eclipse.iofog.utils.Constants.PROCESS_MANAGER;
 public class ProcessManager implements IOFogModule {
 
 	private static final String MODULE_NAME = "Process Manager";
+	// full pass is done at least this often even if nothing changed, so microservices status and usage stay fresh
+	private static final long MAXIMUM_RECONCILIATION_INTERVAL_MILLIS = 60 * 1000;
+	private static final Histogram RECONCILIATION_DURATION = MetricsRegistry.histogram(
+			"iofog_process_manager_reconciliation_duration_seconds", "Time of one containers reconciliation pass").labels();
+	private static final Counter RECONCILIATIONS_SKIPPED = MetricsRegistry.counter(
+			"iofog_process_manager_reconciliations_skipped", "Containers monitor ticks skipped because nothing changed").labels();
 	private MicroserviceManager microserviceManager;
 	private final Queue<ContainerTask> tasks = new LinkedList<>();
 
 	private DockerUtil docker;
 	private ContainerManager containerManager;
+	private List<Microservice> currentMicroservicesSource;
+	private long reconciledSnapshotVersion = -1;
+	private long reconciledContainerEventsCount = -1;
+	private long lastReconciliationTime;
 	private static ProcessManager instance;
 
 	private ProcessManager() {
@@ -92,6 +105,14 @@ public class ProcessManager implements IOFogModule {
 		updateRegistriesStatus();
 	}
 
+	/**
+	 * starts background pull of images of latest {@link Microservice}s
+	 * Field Agent calls this method as soon as microservices list is received, before container tasks are added
+	 */
+	public void prefetchImages() {
+		ImagePullScheduler.getInstance().prefetch(MicroserviceManager.getInstance().getLatestMicroservices());
+	}
+
 	/**
 	 * monitor containers
 	 * removes {@link Container}  if does not exists in list of {@link Microservice}
@@ -106,19 +127,63 @@ public class ProcessManager implements IOFogModule {
 				logError("Error while sleeping thread", 
 						new AgentSystemException(e.getMessage(), e));
 			}
-			logDebug("Start Monitoring containers");
+			reconcile();
+		}
+	};
 
-			try {
-				handleLatestMicroservices();
-				deleteRemainingMicroservices();
-				updateRunningMicroservicesCount();
-			} catch (Exception ex) {
-				logError("Error monitoring container", new AgentSystemException(ex.getMessage(), ex));
+	/**
+	 * compares latest microservices with containers of one Docker listing and adds tasks for the difference
+	 * skipped when neither microservices nor containers changed since last pass
+	 */
+	void reconcile() {
+		long snapshotVersion = microserviceManager.getSnapshot().getVersion();
+		long containerEventsCount = docker.getContainerEventsCount();
+		if (snapshotVersion == reconciledSnapshotVersion && containerEventsCount == reconciledContainerEventsCount
+				&& System.currentTimeMillis() - lastReconciliationTime < MAXIMUM_RECONCILIATION_INTERVAL_MILLIS) {
+			RECONCILIATIONS_SKIPPED.inc();
+			return;
+		}
+		logDebug("Start Monitoring containers");
+		long start = System.nanoTime();
+		boolean reconciled = false;
+		try {
+			ContainerListing containers = listContainers();
+			handleLatestMicroservices(containers);
+			deleteRemainingMicroservices(containers);
+			updateRunningMicroservicesCount(containers);
+			reconciled = true;
+		} catch (Exception ex) {
+			logError("Error monitoring container", new AgentSystemException(ex.getMessage(), ex));
+		}
+		updateCurrentMicroservices();
+		// microservices being updated or waiting for tasks are checked again on next tick
+		// version listed before the pass is recorded, so microservices received during the pass are reconciled on next tick,
+		// version bump of updateCurrentMicroservices costs one extra pass
+		if (reconciled && isSettled()) {
+			reconciledSnapshotVersion = snapshotVersion;
+			reconciledContainerEventsCount = containerEventsCount;
+		} else {
+			reconciledSnapshotVersion = -1;
+		}
+		lastReconciliationTime = System.currentTimeMillis();
+		RECONCILIATION_DURATION.observeSince(start);
+		logDebug("Finished Monitoring containers");
+	}
+
+	private boolean isSettled() {
+		synchronized (tasks) {
+			if (!tasks.isEmpty()) {
+				return false;
 			}
-			updateCurrentMicroservices();
-			logDebug("Finished Monitoring containers");
 		}
-	};
+		return microserviceManager.getLatestMicroservices().stream().noneMatch(Microservice::isUpdating);
+	}
+
+	private ContainerListing listContainers() {
+		synchronized (deleteLock) {
+			return new ContainerListing(docker, docker.getContainers());
+		}
+	}
 
 	public void updateMicroserviceStatus() {
 		microserviceManager.getCurrentMicroservices().stream()
@@ -174,12 +239,12 @@ public class ProcessManager implements IOFogModule {
 		logDebug("Finished update microservices");
 	}
 
-	private void handleLatestMicroservices() {
+	private void handleLatestMicroservices(ContainerListing containers) {
 		logDebug("Start handle latest microservices");
 		microserviceManager.getLatestMicroservices().stream()
 			.filter(microservice -> !microservice.isUpdating())
 			.forEach(microservice -> {
-				Optional<Container> containerOptional = docker.getContainer(microservice.getMicroserviceUuid());
+				Optional<Container> containerOptional = containers.getContainer(microservice.getMicroserviceUuid());
 
 				if (!containerOptional.isPresent() && !microservice.isDelete()) {
 					StatusReporter.setProcessManagerStatus().setMicroservicesState(microservice.getMicroserviceUuid(), MicroserviceState.QUEUED);
@@ -198,6 +263,10 @@ public class ProcessManager implements IOFogModule {
 	}
 
 	public void deleteRemainingMicroservices() {
+		deleteRemainingMicroservices(listContainers());
+	}
+
+	private void deleteRemainingMicroservices(ContainerListing containers) {
 		LoggingService.logDebug(MODULE_NAME ,"Start delete Remaining Microservices");
 		Set<String> latestMicroserviceUuids = microserviceManager.getLatestMicroservices().stream()
 			.map(Microservice::getMicroserviceUuid)
@@ -205,10 +274,7 @@ public class ProcessManager implements IOFogModule {
 		Set<String> currentMicroserviceUuids = microserviceManager.getCurrentMicroservices().stream()
 			.map(Microservice::getMicroserviceUuid)
 			.collect(Collectors.toSet());
-		List<Container> runningContainers;
-		synchronized (deleteLock) {
-			runningContainers = docker.getRunningContainers();
-		}
+		List<Container> runningContainers = containers.getRunningContainers();
 
 		Set<String> runningMicroserviceUuids = runningContainers
 				.stream()
@@ -348,19 +414,22 @@ public class ProcessManager implements IOFogModule {
 		unknownContainerNames.forEach(name -> addTask(new ContainerTask(REMOVE, name)));
 	}
 
-	private void updateRunningMicroservicesCount() {
+	private void updateRunningMicroservicesCount(ContainerListing containers) {
 		logDebug("Update running microservice count  :  ");
-		synchronized (deleteLock) {
-			StatusReporter.setProcessManagerStatus().setRunningMicroservicesCount(docker.getRunningIofogContainers().size());
-		}
+		StatusReporter.setProcessManagerStatus().setRunningMicroservicesCount(containers.getRunningIofogContainersCount());
 	}
 
 	private void updateCurrentMicroservices() {
 		logDebug("Start update current Microservices");
-		List<Microservice> currentMicroservices = microserviceManager.getLatestMicroservices().stream()
-			.filter(microservice -> !microservice.isDelete())
-			.collect(Collectors.toList());
-		microserviceManager.setCurrentMicroservices(currentMicroservices);
+		List<Microservice> latestMicroservices = microserviceManager.getLatestMicroservices();
+		// latest list is replaced on every change, so the same list means current microservices are up to date
+		if (latestMicroservices != currentMicroservicesSource) {
+			List<Microservice> currentMicroservices = latestMicroservices.stream()
+				.filter(microservice -> !microservice.isDelete())
+				.collect(Collectors.toList());
+			microserviceManager.setCurrentMicroservices(currentMicroservices);
+			currentMicroservicesSource = latestMicroservices;
+		}
 		logDebug("Finished update current Microservices");
 	}
 	private boolean shouldContainerBeUpdated(Microservice microservice, Container container, MicroserviceStatus status) {
@@ -368,7 +437,10 @@ public class ProcessManager implements IOFogModule {
 		boolean isNotRunning = !MicroserviceState.RUNNING.equals(status.getStatus());
 		boolean areNotEqual = !docker.areMicroserviceAndContainerEqual(container.getId(), microservice);
 		boolean isRebuild = microservice.isRebuild();
-		boolean isUpdated = isNotRunning || areNotEqual || isRebuild;
+		// unchanged container stuck in restart is recreated with backoff, not on every check
+		boolean isBackingOff = MicroserviceState.STUCK_IN_RESTART.equals(status.getStatus()) && !areNotEqual && !isRebuild
+				&& !RestartStuckChecker.tryRecreate(microservice.getMicroserviceUuid());
+		boolean isUpdated = (isNotRunning && !isBackingOff) || areNotEqual || isRebuild;
 		logDebug("Finished should Container Be Updated : " + isUpdated);
 		return isUpdated;
 	}
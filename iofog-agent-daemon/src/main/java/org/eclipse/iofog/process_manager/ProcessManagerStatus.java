@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * represents Process Manager status
@@ -36,7 +37,7 @@ public class ProcessManagerStatus {
 
     public ProcessManagerStatus() {
         microservicesStatus = new HashMap<>();
-        registriesStatus = new HashMap<>();
+        registriesStatus = new ConcurrentHashMap<>();
         runningMicroservicesCount = 0;
     }
 
@@ -51,7 +52,11 @@ public class ProcessManagerStatus {
         NumberFormat nf = NumberFormat.getInstance(Locale.US);
         nf.setMaximumFractionDigits(2);
 
-        microservicesStatus.forEach((key, status) -> {
+        Map<String, MicroserviceStatus> microservicesStatusCopy;
+        synchronized (microservicesStatus) {
+            microservicesStatusCopy = new HashMap<>(microservicesStatus);
+        }
+        microservicesStatusCopy.forEach((key, status) -> {
             JsonObjectBuilder objectBuilder = Json.createObjectBuilder()
                 .add("id", key != null ? key : "UNKNOWN")
                 .add("status", status != null ?
@@ -117,10 +122,8 @@ public class ProcessManagerStatus {
 
     public MicroserviceStatus getMicroserviceStatus(String microserviceUuid) {
         synchronized (microservicesStatus) {
-            if (!this.microservicesStatus.containsKey(microserviceUuid))
-                this.microservicesStatus.put(microserviceUuid, new MicroserviceStatus());
+            return microservicesStatus.computeIfAbsent(microserviceUuid, uuid -> new MicroserviceStatus());
         }
-        return microservicesStatus.get(microserviceUuid);
     }
 
     public void removeNotRunningMicroserviceStatus() {
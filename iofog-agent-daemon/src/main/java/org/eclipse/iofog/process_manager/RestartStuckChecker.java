@@ -13,28 +13,121 @@
 
 package org.eclipse.iofog.process_manager;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * tracks restarts of microservice containers in fixed-size sliding windows
+ * container restarting {@link #ABNORMAL_NUMBER_OF_RESTARTS} times within {@link #INTERVAL_IN_MINUTES} is stuck in restart,
+ * it is recreated with growing backoff instead of on every check
+ *
  * @author elukashick
  */
 public class RestartStuckChecker {
 
-	private static final Map<String, List<LocalDateTime>> restarts = new HashMap<>();
+	private static final Map<String, RestartWindow> restarts = new ConcurrentHashMap<>();
 	private static final long INTERVAL_IN_MINUTES = 5;
+	private static final long INTERVAL_IN_MILLIS = TimeUnit.MINUTES.toMillis(INTERVAL_IN_MINUTES);
 	private static final int ABNORMAL_NUMBER_OF_RESTARTS = 10;
+	// restarts kept per container, enough to compute rate beyond the stuck threshold
+	private static final int WINDOW_SIZE = 32;
+	private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final long MAXIMUM_BACKOFF_MILLIS = INTERVAL_IN_MILLIS;
+
+	/**
+	 * records restart of microservice container
+	 *
+	 * @param microserviceUuid - id of microservice
+	 * @return true if container restarted abnormal number of times within the interval
+	 */
+	public static boolean isStuck(String microserviceUuid) {
+		return isStuck(microserviceUuid, System.currentTimeMillis());
+	}
+
+	static boolean isStuck(String microserviceUuid, long now) {
+		return restarts.computeIfAbsent(microserviceUuid, k -> new RestartWindow()).record(now) >= ABNORMAL_NUMBER_OF_RESTARTS;
+	}
+
+	/**
+	 * @param microserviceUuid - id of microservice
+	 * @return restarts per minute within the interval
+	 */
+	public static float getRestartRate(String microserviceUuid) {
+		return getRestartRate(microserviceUuid, System.currentTimeMillis());
+	}
+
+	static float getRestartRate(String microserviceUuid, long now) {
+		RestartWindow window = restarts.get(microserviceUuid);
+		return window == null ? 0 : (float) window.count(now) / INTERVAL_IN_MINUTES;
+	}
+
+	/**
+	 * checks whether container stuck in restart may be recreated now, backoff doubles after every allowed recreation
+	 * until container is not stuck anymore
+	 *
+	 * @param microserviceUuid - id of microservice
+	 * @return false while container is stuck in restart and its backoff is not over
+	 */
+	public static boolean tryRecreate(String microserviceUuid) {
+		return tryRecreate(microserviceUuid, System.currentTimeMillis());
+	}
+
+	static boolean tryRecreate(String microserviceUuid, long now) {
+		RestartWindow window = restarts.get(microserviceUuid);
+		return window == null || window.tryRecreate(now);
+	}
+
+	/**
+	 * forgets restarts of removed microservice container
+	 *
+	 * @param microserviceUuid - id of microservice
+	 */
+	public static void remove(String microserviceUuid) {
+		if (microserviceUuid != null) {
+			restarts.remove(microserviceUuid);
+		}
+	}
+
+	/**
+	 * ring buffer of last restart times of one container
+	 */
+	private static final class RestartWindow {
+		private final long[] times = new long[WINDOW_SIZE];
+		private int next;
+		private int size;
+		private long backoffMillis;
+		private long backoffUntil;
 
-	public static boolean isStuck(String containerId) {
-		List<LocalDateTime> datesOfRestart = restarts.computeIfAbsent(containerId, k -> new ArrayList<>());
-		LocalDateTime now = LocalDateTime.now();
+		synchronized int record(long now) {
+			times[next] = now;
+			next = (next + 1) % WINDOW_SIZE;
+			size = Math.min(size + 1, WINDOW_SIZE);
+			return count(now);
+		}
 
-		datesOfRestart.removeIf(dateOfRestart -> dateOfRestart.isBefore(now.minusMinutes(INTERVAL_IN_MINUTES)));
-		datesOfRestart.add(now);
+		synchronized int count(long now) {
+			int count = 0;
+			for (int i = 1; i <= size; i++) {
+				if (now - times[(next - i + WINDOW_SIZE) % WINDOW_SIZE] > INTERVAL_IN_MILLIS) {
+					break;
+				}
+				count++;
+			}
+			return count;
+		}
 
-		return datesOfRestart.size() >= ABNORMAL_NUMBER_OF_RESTARTS;
+		synchronized boolean tryRecreate(long now) {
+			if (count(now) < ABNORMAL_NUMBER_OF_RESTARTS) {
+				backoffMillis = 0;
+				return true;
+			}
+			if (now < backoffUntil) {
+				return false;
+			}
+			backoffMillis = backoffMillis == 0 ? INITIAL_BACKOFF_MILLIS : Math.min(backoffMillis * 2, MAXIMUM_BACKOFF_MILLIS);
+			backoffUntil = now + backoffMillis;
+			return true;
+		}
 	}
 }
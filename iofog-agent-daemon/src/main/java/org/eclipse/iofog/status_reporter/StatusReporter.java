@@ -22,8 +22,13 @@ import org.eclipse.iofog.resource_consumption_manager.ResourceConsumptionManager
 import org.eclipse.iofog.resource_manager.ResourceManagerStatus;
 import org.eclipse.iofog.supervisor.SupervisorStatus;
 import org.eclipse.iofog.utils.Constants;
+import org.eclipse.iofog.utils.RateMeter;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Gauge;
+import org.eclipse.iofog.utils.metrics.JvmMetrics;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
@@ -50,6 +55,9 @@ public final class StatusReporter {
 	private static final MessageBusStatus messageBusStatus = new MessageBusStatus();
 	private static final SshProxyManagerStatus sshManagerStatus = new SshProxyManagerStatus();
 
+	static final long SNAPSHOT_MAX_AGE_MILLIS = 1000;
+	private static volatile StatusSnapshot snapshot;
+
 	private final static String MODULE_NAME = "Status Reporter";
 
 	/**
@@ -69,6 +77,28 @@ public final class StatusReporter {
 	private StatusReporter() {
 	}
 
+	/**
+	 * returns snapshot of module statuses
+	 * snapshot is reused while it is not older than {@link #SNAPSHOT_MAX_AGE_MILLIS}, so status changes
+	 * show up in snapshots at most that late. snapshot is not tied to status updates, as modules change
+	 * their status after set*Status() returns or through get*Status() without notifying reporter
+	 *
+	 * @return status snapshot
+	 */
+	public static StatusSnapshot getSnapshot() {
+		long now = System.currentTimeMillis();
+		StatusSnapshot current = snapshot;
+		if (current == null || now - current.getTakenAt() > SNAPSHOT_MAX_AGE_MILLIS) {
+			current = new StatusSnapshot(now);
+			snapshot = current;
+		}
+		return current;
+	}
+
+	private static void onStatusUpdate() {
+		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+	}
+
 	/**
 	 * returns report for "status" command-line parameter
 	 *
@@ -78,19 +108,21 @@ public final class StatusReporter {
 		LoggingService.logInfo(MODULE_NAME, "Getting Status Report");
 		StringBuilder result = new StringBuilder();
 
+		StatusSnapshot status = getSnapshot();
+
 		Calendar cal = Calendar.getInstance();
-		cal.setTimeInMillis(statusReporterStatus.getSystemTime());
+		cal.setTimeInMillis(status.getSystemTime());
 		SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy hh:mm a");
 
-		float diskUsage = resourceConsumptionManagerStatus.getDiskUsage();
+		float diskUsage = status.getDiskUsage();
    
-		double availableDisk = resourceConsumptionManagerStatus.getAvailableDisk() / 1024. / 1024.;
-		double availableMemory = resourceConsumptionManagerStatus.getAvailableMemory() / 1024. / 1024.;
-		float totalCpu = resourceConsumptionManagerStatus.getTotalCpu();
+		double availableDisk = status.getAvailableDisk() / 1024. / 1024.;
+		double availableMemory = status.getAvailableMemory() / 1024. / 1024.;
+		float totalCpu = status.getTotalCpu();
      
 		String connectionStatus = "";
 
-		switch (fieldAgentStatus.getControllerStatus()) {
+		switch (status.getControllerStatus()) {
 			case NOT_PROVISIONED:
 				connectionStatus = "not provisioned";
 				break;
@@ -105,16 +137,24 @@ public final class StatusReporter {
 				break;
 		}
 
-		result.append("ioFog daemon                : ").append(supervisorStatus.getDaemonStatus().name());
-		result.append("\\nMemory Usage                : about ").append(String.format("%.2f MiB", resourceConsumptionManagerStatus.getMemoryUsage()));
+		result.append("ioFog daemon                : ").append(status.getDaemonStatus());
+		result.append("\\nMemory Usage                : about ").append(String.format("%.2f MiB", status.getMemoryUsage()));
 		if (diskUsage < 1)
 			result.append("\\nDisk Usage                  : about ").append(String.format("%.2f MiB", diskUsage * 1024));
 		else
 			result.append("\\nDisk Usage                  : about ").append(String.format("%.2f GiB", diskUsage));
-		result.append("\\nCPU Usage                   : about ").append(String.format("%.2f %%", resourceConsumptionManagerStatus.getCpuUsage()));
-		result.append("\\nRunning Microservices       : ").append(processManagerStatus.getRunningMicroservicesCount());
+		result.append("\\nCPU Usage                   : about ").append(String.format("%.2f %%", status.getCpuUsage()));
+		result.append("\\nRunning Microservices       : ").append(status.getRunningMicroservicesCount());
 		result.append("\\nConnection to Controller    : ").append(connectionStatus);
-		result.append(String.format(Locale.US, "\\nMessages Processed          : about %,d", messageBusStatus.getProcessedMessages()));
+		result.append(String.format(Locale.US, "\\nController Connection Reuse : %.2f %%", status.getControllerConnectionReuseRatio() * 100.0f));
+		result.append(String.format(Locale.US, "\\nMessages Processed          : about %,d", status.getProcessedMessages()));
+		result.append(String.format(Locale.US, "\\nMessage Rate (1s/1m/5m)     : %.2f / %.2f / %.2f msg/s",
+				status.getMessageRateOneSecond(),
+				status.getMessageRateOneMinute(),
+				status.getMessageRateFiveMinutes()));
+		result.append(String.format(Locale.US, "\\nMessage Data Rate (1m)      : %.2f KiB/s, total about %.2f MiB",
+				status.getByteRateOneMinute() / 1024.,
+				status.getProcessedBytes() / 1024. / 1024.));
 		result.append("\\nSystem Time                 : ").append(dateFormat.format(cal.getTime()));
 
 		result.append("\\nSystem Available Disk       : ").append(String.format("%.2f MB (%.2f %%)", availableDisk, ((availableDisk * Constants.MiB) / getTotalDisk()) * 100.0f));
@@ -127,49 +167,49 @@ public final class StatusReporter {
 
 	public static SupervisorStatus setSupervisorStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Supervisor Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return supervisorStatus;
 	}
 
 	public static ResourceConsumptionManagerStatus setResourceConsumptionManagerStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set ResourceConsumption Manager Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return resourceConsumptionManagerStatus;
 	}
 
 	public static ResourceManagerStatus setResourceManagerStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Resource Manager Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return resourceManagerStatus;
 	}
 
 	public static MessageBusStatus setMessageBusStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Message Bus Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return messageBusStatus;
 	}
 
 	public static FieldAgentStatus setFieldAgentStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Field Agent Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return fieldAgentStatus;
 	}
 
 	public static StatusReporterStatus setStatusReporterStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Status Reporter Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return statusReporterStatus;
 	}
 
 	public static ProcessManagerStatus setProcessManagerStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Process Manager Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return processManagerStatus;
 	}
 
 	public static SshProxyManagerStatus setSshProxyManagerStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set SshProxy Manager Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return sshManagerStatus;
 	}
 
@@ -179,7 +219,7 @@ public final class StatusReporter {
 
 	public static LocalApiStatus setLocalApiStatus() {
 		LoggingService.logDebug(MODULE_NAME, "set Local Api Status");
-		statusReporterStatus.setLastUpdate(System.currentTimeMillis());
+		onStatusUpdate();
 		return localApiStatus;
 	}
 
@@ -222,9 +262,36 @@ public final class StatusReporter {
 		LoggingService.logInfo(MODULE_NAME, "Starting Status Reporter");
 		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 		scheduler.scheduleAtFixedRate(setStatusReporterSystemTime, Configuration.getSetSystemTimeFreqSeconds(), Configuration.getSetSystemTimeFreqSeconds(), TimeUnit.SECONDS);
+		registerMetrics();
 		LoggingService.logInfo(MODULE_NAME, "Started Status Reporter");
 	}
 
+	/**
+	 * binds module statuses to metrics exposed by the local API
+	 */
+	static void registerMetrics() {
+		MetricFamily<Gauge> messageRate = MetricsRegistry.gauge("iofog_message_bus_message_rate",
+				"Messages processed by the message bus per second", "window");
+		MetricFamily<Gauge> byteRate = MetricsRegistry.gauge("iofog_message_bus_byte_rate",
+				"Message bytes processed by the message bus per second", "window");
+		int[] windows = {RateMeter.ONE_SECOND, RateMeter.ONE_MINUTE, RateMeter.FIVE_MINUTES};
+		for (int window : windows) {
+			messageRate.labels(window + "s").bind(() -> messageBusStatus.getMessageRate(window));
+			byteRate.labels(window + "s").bind(() -> messageBusStatus.getByteRate(window));
+		}
+		MetricsRegistry.functionCounter("iofog_message_bus_processed_messages", "Messages processed by the message bus")
+				.labels().bind(messageBusStatus::getProcessedMessages);
+		MetricsRegistry.functionCounter("iofog_message_bus_processed_bytes", "Message bytes processed by the message bus")
+				.labels().bind(messageBusStatus::getProcessedBytes);
+		MetricsRegistry.gauge("iofog_message_archive_size_bytes", "Disk space used by message archives")
+				.labels().bind(() -> resourceConsumptionManagerStatus.getDiskUsage() * 1_000_000_000d);
+		MetricFamily<Gauge> websockets = MetricsRegistry.gauge("iofog_local_api_open_websockets",
+				"Open local API websockets", "type");
+		websockets.labels("control").bind(localApiStatus::getOpenConfigSocketsCount);
+		websockets.labels("message").bind(localApiStatus::getOpenMessageSocketsCount);
+		JvmMetrics.register();
+	}
+
     private static float getTotalDisk() {
         File root = new File("/");
         return root.getTotalSpace();
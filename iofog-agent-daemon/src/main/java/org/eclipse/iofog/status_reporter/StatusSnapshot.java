@@ -0,0 +1,251 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.status_reporter;
+
+import org.eclipse.iofog.field_agent.FieldAgentStatus;
+import org.eclipse.iofog.message_bus.MessageBusStatus;
+import org.eclipse.iofog.process_manager.ProcessManagerStatus;
+import org.eclipse.iofog.resource_consumption_manager.ResourceConsumptionManagerStatus;
+import org.eclipse.iofog.supervisor.SupervisorStatus;
+import org.eclipse.iofog.utils.Constants.ControllerStatus;
+import org.eclipse.iofog.utils.RateMeter;
+
+/**
+ * immutable view of module statuses taken at once
+ * readers get consistent values without locking modules, every value is read from module status exactly once
+ * snapshot is reused by readers until it is older than {@link StatusReporter#SNAPSHOT_MAX_AGE_MILLIS},
+ * see {@link StatusReporter#getSnapshot()}
+ */
+public final class StatusSnapshot {
+	private final long takenAt;
+
+	private final String daemonStatus;
+	private final long daemonOperatingDuration;
+	private final long daemonLastStart;
+
+	private final float memoryUsage;
+	private final float diskUsage;
+	private final float cpuUsage;
+	private final boolean memoryViolation;
+	private final boolean diskViolation;
+	private final boolean cpuViolation;
+	private final long availableDisk;
+	private final long availableMemory;
+	private final float totalCpu;
+
+	private final int runningMicroservicesCount;
+	private final String microservicesStatus;
+	private final int registriesCount;
+	private final String registriesStatus;
+
+	private final long systemTime;
+	private final long lastStatusTime;
+
+	private final long processedMessages;
+	private final long processedBytes;
+	private final String microserviceMessageCounts;
+	private final float messageSpeed;
+	private final double messageRateOneSecond;
+	private final double messageRateOneMinute;
+	private final double messageRateFiveMinutes;
+	private final double byteRateOneMinute;
+
+	private final ControllerStatus controllerStatus;
+	private final float controllerConnectionReuseRatio;
+	private final long lastCommandTime;
+	private final boolean readyToUpgrade;
+	private final boolean readyToRollback;
+
+	private final String tunnelStatus;
+
+	StatusSnapshot(long takenAt) {
+		this.takenAt = takenAt;
+
+		SupervisorStatus supervisorStatus = StatusReporter.getSupervisorStatus();
+		this.daemonStatus = supervisorStatus.getDaemonStatus() == null ? null : supervisorStatus.getDaemonStatus().toString();
+		this.daemonOperatingDuration = supervisorStatus.getOperationDuration();
+		this.daemonLastStart = supervisorStatus.getDaemonLastStart();
+
+		ResourceConsumptionManagerStatus resourceStatus = StatusReporter.getResourceConsumptionManagerStatus();
+		this.memoryUsage = resourceStatus.getMemoryUsage();
+		this.diskUsage = resourceStatus.getDiskUsage();
+		this.cpuUsage = resourceStatus.getCpuUsage();
+		this.memoryViolation = resourceStatus.isMemoryViolation();
+		this.diskViolation = resourceStatus.isDiskViolation();
+		this.cpuViolation = resourceStatus.isCpuViolation();
+		this.availableDisk = resourceStatus.getAvailableDisk();
+		this.availableMemory = resourceStatus.getAvailableMemory();
+		this.totalCpu = resourceStatus.getTotalCpu();
+
+		ProcessManagerStatus processManagerStatus = StatusReporter.getProcessManagerStatus();
+		this.runningMicroservicesCount = processManagerStatus.getRunningMicroservicesCount();
+		this.microservicesStatus = processManagerStatus.getJsonMicroservicesStatus();
+		this.registriesCount = processManagerStatus.getRegistriesCount();
+		this.registriesStatus = processManagerStatus.getJsonRegistriesStatus();
+
+		StatusReporterStatus statusReporterStatus = StatusReporter.getStatusReporterStatus();
+		this.systemTime = statusReporterStatus.getSystemTime();
+		this.lastStatusTime = statusReporterStatus.getLastUpdate();
+
+		MessageBusStatus messageBusStatus = StatusReporter.getMessageBusStatus();
+		this.processedMessages = messageBusStatus.getProcessedMessages();
+		this.processedBytes = messageBusStatus.getProcessedBytes();
+		this.microserviceMessageCounts = messageBusStatus.getJsonPublishedMessagesPerMicroservice();
+		this.messageSpeed = messageBusStatus.getAverageSpeed();
+		this.messageRateOneSecond = messageBusStatus.getMessageRate(RateMeter.ONE_SECOND);
+		this.messageRateOneMinute = messageBusStatus.getMessageRate(RateMeter.ONE_MINUTE);
+		this.messageRateFiveMinutes = messageBusStatus.getMessageRate(RateMeter.FIVE_MINUTES);
+		this.byteRateOneMinute = messageBusStatus.getByteRate(RateMeter.ONE_MINUTE);
+
+		FieldAgentStatus fieldAgentStatus = StatusReporter.getFieldAgentStatus();
+		this.controllerStatus = fieldAgentStatus.getControllerStatus();
+		this.controllerConnectionReuseRatio = fieldAgentStatus.getControllerConnectionReuseRatio();
+		this.lastCommandTime = fieldAgentStatus.getLastCommandTime();
+		this.readyToUpgrade = fieldAgentStatus.isReadyToUpgrade();
+		this.readyToRollback = fieldAgentStatus.isReadyToRollback();
+
+		this.tunnelStatus = StatusReporter.getSshManagerStatus().getJsonProxyStatus();
+	}
+
+	public long getTakenAt() {
+		return takenAt;
+	}
+
+	public String getDaemonStatus() {
+		return daemonStatus;
+	}
+
+	public long getDaemonOperatingDuration() {
+		return daemonOperatingDuration;
+	}
+
+	public long getDaemonLastStart() {
+		return daemonLastStart;
+	}
+
+	public float getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	public float getDiskUsage() {
+		return diskUsage;
+	}
+
+	public float getCpuUsage() {
+		return cpuUsage;
+	}
+
+	public boolean isMemoryViolation() {
+		return memoryViolation;
+	}
+
+	public boolean isDiskViolation() {
+		return diskViolation;
+	}
+
+	public boolean isCpuViolation() {
+		return cpuViolation;
+	}
+
+	public long getAvailableDisk() {
+		return availableDisk;
+	}
+
+	public long getAvailableMemory() {
+		return availableMemory;
+	}
+
+	public float getTotalCpu() {
+		return totalCpu;
+	}
+
+	public int getRunningMicroservicesCount() {
+		return runningMicroservicesCount;
+	}
+
+	public String getMicroservicesStatus() {
+		return microservicesStatus;
+	}
+
+	public int getRegistriesCount() {
+		return registriesCount;
+	}
+
+	public String getRegistriesStatus() {
+		return registriesStatus;
+	}
+
+	public long getSystemTime() {
+		return systemTime;
+	}
+
+	public long getLastStatusTime() {
+		return lastStatusTime;
+	}
+
+	public long getProcessedMessages() {
+		return processedMessages;
+	}
+
+	public long getProcessedBytes() {
+		return processedBytes;
+	}
+
+	public String getMicroserviceMessageCounts() {
+		return microserviceMessageCounts;
+	}
+
+	public float getMessageSpeed() {
+		return messageSpeed;
+	}
+
+	public double getMessageRateOneSecond() {
+		return messageRateOneSecond;
+	}
+
+	public double getMessageRateOneMinute() {
+		return messageRateOneMinute;
+	}
+
+	public double getMessageRateFiveMinutes() {
+		return messageRateFiveMinutes;
+	}
+
+	public double getByteRateOneMinute() {
+		return byteRateOneMinute;
+	}
+
+	public ControllerStatus getControllerStatus() {
+		return controllerStatus;
+	}
+
+	public float getControllerConnectionReuseRatio() {
+		return controllerConnectionReuseRatio;
+	}
+
+	public long getLastCommandTime() {
+		return lastCommandTime;
+	}
+
+	public boolean isReadyToUpgrade() {
+		return readyToUpgrade;
+	}
+
+	public boolean isReadyToRollback() {
+		return readyToRollback;
+	}
+
+	public String getTunnelStatus() {
+		return tunnelStatus;
+	}
+}
@@ -1,17 +1,21 @@
 package org.eclipse.iofog.tracking;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
 import org.eclipse.iofog.IOFogModule;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.field_agent.FieldAgent;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 
 import static org.eclipse.iofog.utils.Constants.TRACKING_UUID_PATH;
 
@@ -23,6 +27,8 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public class Tracker implements IOFogModule {
     private final String MODULE_NAME = "Tracker";
@@ -37,9 +43,18 @@ public class Tracker implements IOFogModule {
         return instance;
     }
 
+    private static final String ANALYTICS_URL = "https://analytics.iofog.org/post";
+    private static final long SEND_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+    private static final long RETRY_MIN_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_MAX_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final double RETRY_JITTER = 0.2;
+
     private String uuid;
     private Timer loggerTimer = null;
     private Timer senderTimer = null;
+    private HttpClient httpClient = null;
+    private int sendFailures = 0;
     private TrackingEventsStorage eventsStorage = new TrackingEventsStorage();
     @Override
     public void start() throws Exception {
@@ -52,10 +67,16 @@ public class Tracker implements IOFogModule {
                 timeLoggerTask.getTimeTrackingTimeoutMin() * 60 * 1000);
 
         senderTimer = new Timer();
-        SenderTask senderTask = new SenderTask();
-        senderTimer.schedule(senderTask,
-                senderTask.getSendTimeoutMin() * 60 * 1000,
-                senderTask.getSendTimeoutMin() * 60 * 1000);
+        scheduleSender(SEND_INTERVAL_MILLIS);
+
+        MetricsRegistry.gauge("iofog_tracking_events_pending", "Tracking events waiting to be sent")
+                .labels().bind(eventsStorage::getPendingCount);
+        MetricsRegistry.functionCounter("iofog_tracking_events_dropped", "Tracking events dropped because spool was full")
+                .labels().bind(eventsStorage::getDroppedCount);
+    }
+
+    private void scheduleSender(long delayMillis) {
+        senderTimer.schedule(new SenderTask(), delayMillis);
     }
 
     @Override
@@ -189,56 +210,71 @@ public class Tracker implements IOFogModule {
         }
     }
 
+    /**
+     * sends stored events in size limited batches
+     * when a batch fails, it is kept and sending is retried with exponential backoff
+     */
     private class SenderTask extends TimerTask {
-        private final int sendTimeoutMin = 5;
-        HttpClient httpClient = HttpClients.createDefault();
-
-        public int getSendTimeoutMin() {
-            return sendTimeoutMin;
-        }
-
-        @Override
-        public boolean cancel() {
-            return super.cancel();
-        }
-
-        @Override
-        public long scheduledExecutionTime() {
-            return super.scheduledExecutionTime();
-        }
 
         @Override
         public void run() {
         	Thread.currentThread().setName(Constants.TRACKER_SENDER_TASK);
-            List<TrackingEvent> events = eventsStorage.popAllEvents();
-            JsonArrayBuilder jsonArrayBuilder = Json.createArrayBuilder();
-
-            events
-                    .forEach(el -> {
-                        jsonArrayBuilder.add(el.toJsonObject());
-                    });
+            long delay = SEND_INTERVAL_MILLIS;
+            try {
+                TrackingEventsStorage.Batch batch;
+                while ((batch = eventsStorage.nextBatch(MAX_BATCH_BYTES)) != null) {
+                    if (!send(batch)) {
+                        eventsStorage.retry(batch);
+                        sendFailures++;
+                        delay = getRetryDelay(sendFailures);
+                        LoggingService.logWarning(MODULE_NAME, "Unable to send tracking events, retrying in " + delay / 1000 + " s");
+                        break;
+                    }
+                    eventsStorage.ack(batch);
+                    sendFailures = 0;
+                }
+            } catch (Exception e) {
+                logError("Error in sender task", new AgentSystemException(e.getMessage(), e));
+            } finally {
+                scheduleSender(delay);
+            }
+        }
 
+        private boolean send(TrackingEventsStorage.Batch batch) {
+            JsonArrayBuilder jsonArrayBuilder = Json.createArrayBuilder();
+            batch.getEvents().forEach(jsonArrayBuilder::add);
             JsonObject eventsListObject = Json.createObjectBuilder()
                     .add("events", jsonArrayBuilder.build())
                     .build();
 
-            HttpPost postMethod = null;
             if (StatusReporter.getFieldAgentStatus().getControllerStatus().equals(Constants.ControllerStatus.OK)) {
                 //send to controller
-                FieldAgent.getInstance().postTracking(eventsListObject);
-            } else {
-                //send directly
-                StringEntity requestEntity = new StringEntity(eventsListObject.toString(), ContentType.APPLICATION_JSON);
-                postMethod = new HttpPost("https://analytics.iofog.org/post");
-                postMethod.setEntity(requestEntity);
-
-                try {
-                    HttpResponse response = httpClient.execute(postMethod);
-                } catch (IOException e) {
-                    logError("Error in sender task",
-                    		new AgentSystemException(e.getMessage(), e));
+                return FieldAgent.getInstance().postTracking(eventsListObject);
+            }
+
+            //send directly
+            HttpEntity requestEntity = new GzipCompressingEntity(
+                    new StringEntity(eventsListObject.toString(), ContentType.APPLICATION_JSON));
+            HttpPost postMethod = new HttpPost(ANALYTICS_URL);
+            postMethod.setEntity(requestEntity);
+            try {
+                if (httpClient == null) {
+                    httpClient = HttpClients.createDefault();
                 }
+                HttpResponse response = httpClient.execute(postMethod);
+                EntityUtils.consumeQuietly(response.getEntity());
+                return response.getStatusLine().getStatusCode() / 100 == 2;
+            } catch (IOException e) {
+                logError("Error in sender task",
+                        new AgentSystemException(e.getMessage(), e));
+                return false;
             }
         }
     }
+
+    static long getRetryDelay(int failures) {
+        long delay = RETRY_MIN_DELAY_MILLIS << Math.min(failures - 1, 16);
+        delay = Math.min(delay, RETRY_MAX_DELAY_MILLIS);
+        return delay - (long) (delay * RETRY_JITTER * ThreadLocalRandom.current().nextDouble());
+    }
 }
@@ -1,20 +1,248 @@
 package org.eclipse.iofog.tracking;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
 
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Bounded store of tracking events waiting to be sent.
+ * Keeps up to {@link #MEMORY_LIMIT} events in memory, when it is full the events are spilled
+ * to a gzipped spool file, so heap stays flat while controller is unreachable.
+ * Spool is limited to {@link #SPOOL_LIMIT_BYTES}, the oldest spool files are dropped when it is full.
+ * Spool directory is resolved from {@link Configuration#getDiskDirectory()} on first use.
+ */
 public class TrackingEventsStorage {
+    private static final String MODULE_NAME = "Tracking Events Storage";
+
+    static final int MEMORY_LIMIT = 1000;
+    static final long SPOOL_LIMIT_BYTES = 8 * 1024 * 1024;
+    private static final String SPOOL_FILE_EXTENSION = ".events.gz";
+
+    private final Deque<TrackingEvent> events = new ArrayDeque<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final long spoolLimitBytes;
+    private File spoolDirectory;
+    private long spoolSequence = -1;
+
+    public TrackingEventsStorage() {
+        this(null, SPOOL_LIMIT_BYTES);
+    }
 
-    private List<TrackingEvent> events = new ArrayList<>();
+    TrackingEventsStorage(File spoolDirectory, long spoolLimitBytes) {
+        this.spoolDirectory = spoolDirectory;
+        this.spoolLimitBytes = spoolLimitBytes;
+    }
 
     protected synchronized void pushEvent(TrackingEvent event) {
-        events.add(event);
+        events.addLast(event);
+        if (events.size() >= MEMORY_LIMIT) {
+            List<JsonObject> spilled = new ArrayList<>(events.size());
+            events.forEach(it -> spilled.add(it.toJsonObject()));
+            events.clear();
+            spill(spilled);
+        }
+    }
+
+    /**
+     * takes next batch of events to send, oldest events first
+     * memory batches are limited by serialized size, spool batches hold one spool file
+     *
+     * @param maxBytes - maximum serialized size of memory batch, at least one event is always taken
+     * @return batch or null if there are no events
+     */
+    synchronized Batch nextBatch(int maxBytes) {
+        File[] spoolFiles = listSpoolFiles();
+        if (spoolFiles.length > 0) {
+            File oldest = spoolFiles[0];
+            try {
+                return new Batch(readSpoolFile(oldest), oldest);
+            } catch (IOException e) {
+                LoggingService.logError(MODULE_NAME, "Unable to read tracking spool file, dropping it",
+                        new AgentSystemException(e.getMessage(), e));
+                droppedCount.addAndGet(getSpoolFileCount(oldest));
+                oldest.delete();
+                return nextBatch(maxBytes);
+            }
+        }
+
+        List<JsonObject> batch = new ArrayList<>();
+        int size = 0;
+        while (!events.isEmpty()) {
+            JsonObject event = events.peekFirst().toJsonObject();
+            size += event.toString().length();
+            if (!batch.isEmpty() && size > maxBytes) {
+                break;
+            }
+            batch.add(event);
+            events.removeFirst();
+        }
+        return batch.isEmpty() ? null : new Batch(batch, null);
+    }
+
+    /**
+     * removes batch once it is sent
+     *
+     * @param batch - sent batch
+     */
+    synchronized void ack(Batch batch) {
+        if (batch.file != null) {
+            batch.file.delete();
+        }
+    }
+
+    /**
+     * keeps batch that failed to be sent, memory batches are spilled so they are retried first
+     *
+     * @param batch - batch failed to be sent
+     */
+    synchronized void retry(Batch batch) {
+        if (batch.file == null) {
+            spill(batch.events);
+        }
+    }
+
+    /**
+     * @return number of events dropped because spool was full or unreadable
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of events waiting to be sent, in memory and in spool
+     */
+    public synchronized long getPendingCount() {
+        long count = events.size();
+        for (File file : listSpoolFiles()) {
+            count += getSpoolFileCount(file);
+        }
+        return count;
+    }
+
+    private void spill(List<JsonObject> batch) {
+        File directory = getSpoolDirectory();
+        if (!directory.exists() && !directory.mkdirs()) {
+            droppedCount.addAndGet(batch.size());
+            LoggingService.logWarning(MODULE_NAME, "Unable to create tracking spool directory, " + batch.size() + " events dropped");
+            return;
+        }
+        File file = new File(directory, nextSpoolSequence() + "_" + batch.size() + SPOOL_FILE_EXTENSION);
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file)), UTF_8)) {
+            for (JsonObject event : batch) {
+                writer.write(event.toString());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            file.delete();
+            droppedCount.addAndGet(batch.size());
+            LoggingService.logError(MODULE_NAME, "Unable to spill tracking events, " + batch.size() + " events dropped",
+                    new AgentSystemException(e.getMessage(), e));
+            return;
+        }
+        trimSpool();
+    }
+
+    private void trimSpool() {
+        File[] spoolFiles = listSpoolFiles();
+        long total = 0;
+        for (File file : spoolFiles) {
+            total += file.length();
+        }
+        for (int i = 0; i < spoolFiles.length - 1 && total > spoolLimitBytes; i++) {
+            total -= spoolFiles[i].length();
+            long count = getSpoolFileCount(spoolFiles[i]);
+            if (spoolFiles[i].delete()) {
+                droppedCount.addAndGet(count);
+                LoggingService.logWarning(MODULE_NAME, "Tracking spool is full, " + count + " oldest events dropped");
+            }
+        }
+    }
+
+    private List<JsonObject> readSpoolFile(File file) throws IOException {
+        List<JsonObject> batch = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try (JsonReader jsonReader = Json.createReader(new StringReader(line))) {
+                    batch.add(jsonReader.readObject());
+                } catch (RuntimeException e) {
+                    throw new IOException("Corrupted tracking event in " + file.getName(), e);
+                }
+            }
+        }
+        return batch;
     }
 
-    protected synchronized List<TrackingEvent> popAllEvents() {
-        List<TrackingEvent> res = new ArrayList<>(events);
-        events.clear();
-        return res;
+    private File[] listSpoolFiles() {
+        File[] files = getSpoolDirectory().listFiles((dir, name) -> name.endsWith(SPOOL_FILE_EXTENSION));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files, Comparator.comparingLong(TrackingEventsStorage::getSpoolFileSequence));
+        return files;
+    }
+
+    private long nextSpoolSequence() {
+        if (spoolSequence < 0) {
+            spoolSequence = 0;
+            for (File file : listSpoolFiles()) {
+                spoolSequence = Math.max(spoolSequence, getSpoolFileSequence(file));
+            }
+        }
+        return ++spoolSequence;
+    }
+
+    private File getSpoolDirectory() {
+        if (spoolDirectory == null) {
+            spoolDirectory = new File(Configuration.getDiskDirectory() + "tracking/");
+        }
+        return spoolDirectory;
+    }
+
+    private static long getSpoolFileSequence(File file) {
+        return parseSpoolFileName(file, 0);
+    }
+
+    private static long getSpoolFileCount(File file) {
+        return parseSpoolFileName(file, 1);
+    }
+
+    private static long parseSpoolFileName(File file, int part) {
+        try {
+            return Long.parseLong(file.getName().replace(SPOOL_FILE_EXTENSION, "").split("_")[part]);
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * events taken to be sent together
+     */
+    static class Batch {
+        private final List<JsonObject> events;
+        private final File file;
+
+        private Batch(List<JsonObject> events, File file) {
+            this.events = events;
+            this.file = file;
+        }
+
+        List<JsonObject> getEvents() {
+            return events;
+        }
     }
 }
@@ -16,22 +16,41 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.*;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.HttpMultipartMode;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.field_agent.FieldAgent;
 import org.eclipse.iofog.field_agent.enums.RequestType;
 import org.eclipse.iofog.network.IOFogNetworkInterfaceManager;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.Histogram;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
 import org.eclipse.iofog.utils.trustmanager.X509TrustManagerImpl;
 
 import javax.json.Json;
@@ -54,24 +73,49 @@ import java.security.SecureRandom;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.eclipse.iofog.utils.logging.LoggingService.*;
 
 /**
  * provides methods for IOFog controller
  *
+ * All instances share one pooled, keep-alive {@link CloseableHttpClient}. It is
+ * rebuilt only when the connection mode or the controller certificate changes.
+ *
  * @author saeid
  */
 public class Orchestrator {
     private static final int CONNECTION_TIMEOUT = 5000;
+    private static final int MAX_CONNECTIONS_TOTAL = 8;
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 8;
+    private static final int VALIDATE_AFTER_INACTIVITY = 2000;
+    private static final long MAX_IDLE_TIME_SECONDS = 60;
     private String controllerUrl;
     private String iofogUuid;
     private String iofogAccessToken;
     private Certificate controllerCert;
     private CloseableHttpClient client;
 
+    private static final Object clientLock = new Object();
+    private static CloseableHttpClient sharedClient;
+    private static PoolingHttpClientConnectionManager sharedConnectionManager;
+    private static boolean sharedClientSecure;
+    private static Certificate sharedClientCert;
+    private static final Map<CloseableHttpClient, Integer> inFlightRequests = new IdentityHashMap<>();
+    private static final Set<CloseableHttpClient> retiredClients = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final LongAdder requestsCount = new LongAdder();
+    private static final LongAdder connectionsOpened = new LongAdder();
+    private static final MetricFamily<Histogram> REQUEST_DURATION = MetricsRegistry.histogram(
+            "iofog_controller_request_duration_seconds", "Controller request time", "method", "command");
+
     private static final String MODULE_NAME = "Orchestrator";
 
     public Orchestrator() {
@@ -129,33 +173,161 @@ public class Orchestrator {
                 .build();
     }
 
+    private RequestConfig getRequestConfig(int socketTimeout) throws Exception {
+        RequestConfig config = getRequestConfig();
+        return socketTimeout > 0 ? RequestConfig.copy(config).setSocketTimeout(socketTimeout).build() : config;
+    }
+
     /**
-     * initialize {@link TrustManager}
+     * initialize {@link TrustManager} and the shared pooled http client
+     * builds a new client only if connection mode or controller certificate
+     * differs from the ones the current shared client was built with
      *
      * @throws Exception
      */
     private void initialize(boolean secure) throws AgentSystemException {
     	logDebug(MODULE_NAME, "Start initialize TrustManager");
-        if (secure) {
-            TrustManager[] trustManager = new TrustManager[]{new X509TrustManagerImpl(controllerCert)};
-            SSLContext sslContext;
-			try {
-				sslContext = SSLContext.getInstance("TLS");
-				sslContext.init(null, trustManager, new SecureRandom());
-				SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(sslContext);
-	            client = HttpClients.custom().setSSLSocketFactory(sslsf).build();
-			} catch (NoSuchAlgorithmException e) {
-				throw new AgentSystemException(e.getMessage(), e );		
-			} catch (KeyManagementException e) {
-				throw new AgentSystemException(e.getMessage(), e );
-			}
-            
-        } else {
-            client = HttpClients.createDefault();
+        synchronized (clientLock) {
+            if (sharedClient != null && sharedClientSecure == secure && Objects.equals(sharedClientCert, controllerCert)) {
+                client = sharedClient;
+                logDebug(MODULE_NAME, "Reusing pooled http client");
+                return;
+            }
+
+            RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory());
+            if (secure) {
+                TrustManager[] trustManager = new TrustManager[]{new X509TrustManagerImpl(controllerCert)};
+                SSLContext sslContext;
+                try {
+                    sslContext = SSLContext.getInstance("TLS");
+                    sslContext.init(null, trustManager, new SecureRandom());
+                    SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(sslContext);
+                    registryBuilder.register("https", sslsf);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new AgentSystemException(e.getMessage(), e );
+                } catch (KeyManagementException e) {
+                    throw new AgentSystemException(e.getMessage(), e );
+                }
+            }
+
+            PoolingHttpClientConnectionManager connectionManager = createConnectionManager(registryBuilder.build());
+            HttpClientBuilder clientBuilder = HttpClients.custom();
+            clientBuilder.setConnectionManager(connectionManager);
+            clientBuilder.setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE);
+            clientBuilder.evictIdleConnections(MAX_IDLE_TIME_SECONDS, TimeUnit.SECONDS);
+            CloseableHttpClient newClient = clientBuilder.build();
+
+            retireSharedClient();
+            sharedClient = newClient;
+            sharedConnectionManager = connectionManager;
+            sharedClientSecure = secure;
+            sharedClientCert = controllerCert;
+            client = newClient;
         }
         logDebug(MODULE_NAME, "Finished initialize TrustManager");
     }
 
+    private PoolingHttpClientConnectionManager createConnectionManager(Registry<ConnectionSocketFactory> registry) {
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory =
+                (HttpRoute route, ConnectionConfig config) -> {
+                    connectionsOpened.increment();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                };
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry, connectionFactory);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+        return connectionManager;
+    }
+
+    /**
+     * retires previously shared client
+     * closing a client shuts down its whole connection pool, including connections of requests
+     * still in flight (e.g. changes long-poll), so it is closed only once its last request finishes
+     */
+    private static void retireSharedClient() {
+        if (sharedClient == null) {
+            return;
+        }
+        if (inFlightRequests.containsKey(sharedClient)) {
+            retiredClients.add(sharedClient);
+        } else {
+            closeClient(sharedClient);
+        }
+        sharedClient = null;
+        sharedConnectionManager = null;
+    }
+
+    private static void closeClient(CloseableHttpClient httpClient) {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logWarning(MODULE_NAME, "Unable to close previous http client : " + e.getMessage());
+        }
+    }
+
+    /**
+     * initializes shared client and marks request in flight on it, so it is not closed
+     * if another thread replaces it before request finishes
+     *
+     * @param secure - connection mode
+     * @return client to execute request with, must be passed to {@link #releaseClient(CloseableHttpClient)}
+     */
+    private CloseableHttpClient acquireClient(boolean secure) throws AgentSystemException {
+        synchronized (clientLock) {
+            initialize(secure);
+            inFlightRequests.merge(client, 1, Integer::sum);
+            return client;
+        }
+    }
+
+    /**
+     * marks request on client finished, closes client if it was retired and this was its last request
+     *
+     * @param httpClient - client returned by {@link #acquireClient(boolean)}
+     */
+    private static void releaseClient(CloseableHttpClient httpClient) {
+        synchronized (clientLock) {
+            if (inFlightRequests.merge(httpClient, -1, Integer::sum) > 0) {
+                return;
+            }
+            inFlightRequests.remove(httpClient);
+            if (retiredClients.remove(httpClient)) {
+                closeClient(httpClient);
+            }
+        }
+    }
+
+    /**
+     * forgets shared client without closing it, next request builds a new one
+     */
+    static void resetSharedClient() {
+        synchronized (clientLock) {
+            sharedClient = null;
+            sharedConnectionManager = null;
+            sharedClientCert = null;
+            inFlightRequests.clear();
+            retiredClients.clear();
+        }
+    }
+
+    /**
+     * updates controller connection reuse statistics of {@link org.eclipse.iofog.field_agent.FieldAgentStatus}
+     */
+    private void onRequestExecuted() {
+        requestsCount.increment();
+        int leased = 0, available = 0;
+        PoolingHttpClientConnectionManager connectionManager = sharedConnectionManager;
+        if (connectionManager != null) {
+            PoolStats stats = connectionManager.getTotalStats();
+            leased = stats.getLeased();
+            available = stats.getAvailable();
+        }
+        StatusReporter.setFieldAgentStatus().setControllerConnectionStats(requestsCount.sum(), connectionsOpened.sum(),
+                leased, available);
+    }
+
     /**
      * converts {@link InputStream} to {@link Certificate}
      *
@@ -199,29 +371,33 @@ public class Orchestrator {
         JsonObject result = null;
 
         try  {
-        	initialize(secure);
             RequestConfig config = getRequestConfig();
             HttpGet get = new HttpGet(surl);
             get.setConfig(config);
-        	CloseableHttpResponse response = client.execute(get);
-
-            if (response !=null && response.getStatusLine().getStatusCode() != 200) {
-                if (response.getStatusLine().getStatusCode() == 404) {
-                	logError(MODULE_NAME, "unable to connect to IOFog Controller endpoint",
-                			new AgentUserException("unable to connect to IOFog Controller endpoint", null));
-                    throw new AgentUserException("unable to connect to IOFog Controller endpoint" ,
-                    		new UnknownHostException());
-                } else {
-                	logError(MODULE_NAME, "unable to connect to IOFog Controller endpoint",
-                			new AgentUserException("unable to connect to IOFog Controller endpoint", null));
-                    throw new AgentUserException("unable to connect to IOFog Controller endpoint" , null);
+            CloseableHttpClient requestClient = acquireClient(secure);
+            try (CloseableHttpResponse response = requestClient.execute(get)) {
+                onRequestExecuted();
+
+                if (response !=null && response.getStatusLine().getStatusCode() != 200) {
+                    if (response.getStatusLine().getStatusCode() == 404) {
+                    	logError(MODULE_NAME, "unable to connect to IOFog Controller endpoint",
+                    			new AgentUserException("unable to connect to IOFog Controller endpoint", null));
+                        throw new AgentUserException("unable to connect to IOFog Controller endpoint" ,
+                        		new UnknownHostException());
+                    } else {
+                    	logError(MODULE_NAME, "unable to connect to IOFog Controller endpoint",
+                    			new AgentUserException("unable to connect to IOFog Controller endpoint", null));
+                        throw new AgentUserException("unable to connect to IOFog Controller endpoint" , null);
+                    }
                 }
-            }
 
-            Reader in = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), "UTF-8"));
-            JsonReader jsonReader = Json.createReader(in);
-            result = jsonReader.readObject();
-            
+                Reader in = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), "UTF-8"));
+                JsonReader jsonReader = Json.createReader(in);
+                result = jsonReader.readObject();
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                releaseClient(requestClient);
+            }
 
         } catch (UnsupportedEncodingException e) {
         	logError(MODULE_NAME, "unable to connect to IOFog Controller endpoint",
@@ -258,10 +434,55 @@ public class Orchestrator {
     }
 
     public JsonObject request(String command, RequestType requestType, Map<String, Object> queryParams, JsonObject json) throws Exception {
+        return request(command, requestType, queryParams, json, false);
+    }
+
+    /**
+     * calls IOFog Controller endpoint
+     *
+     * @param command     - endpoint to be called
+     * @param requestType - http method
+     * @param queryParams - path parameters
+     * @param json        - request body
+     * @param compress    - send body gzip compressed
+     * @return result in Json format
+     * @throws Exception
+     */
+    public JsonObject request(String command, RequestType requestType, Map<String, Object> queryParams, JsonObject json,
+                              boolean compress) throws Exception {
     	if (json == null) {
             json = Json.createObjectBuilder().build();
         }
-        return getJsonObject(queryParams, requestType, new StringEntity(json.toString(), ContentType.APPLICATION_JSON), createUri(command));
+        HttpEntity entity = new StringEntity(json.toString(), ContentType.APPLICATION_JSON);
+        if (compress) {
+            entity = new GzipCompressingEntity(entity);
+        }
+        long start = System.nanoTime();
+        try {
+            return getJsonObject(queryParams, requestType, entity, createUri(command));
+        } finally {
+            REQUEST_DURATION.labels(requestType.name(), command).observeSince(start);
+        }
+    }
+
+    /**
+     * long-polls IOFog Controller endpoint
+     * controller holds the request until it has something to report or wait timeout passes
+     *
+     * @param command     - endpoint to be called
+     * @param waitSeconds - how long controller may hold the request
+     * @return result in Json format, empty if controller had nothing to report
+     * @throws Exception
+     */
+    public JsonObject longPoll(String command, int waitSeconds) throws Exception {
+        StringBuilder uri = createUri(command).append("?timeout=").append(waitSeconds);
+        int socketTimeout = (int) TimeUnit.SECONDS.toMillis(waitSeconds) + CONNECTION_TIMEOUT;
+        long start = System.nanoTime();
+        try {
+            return getJsonObject(null, RequestType.GET, null, uri, socketTimeout);
+        } finally {
+            REQUEST_DURATION.labels(RequestType.GET.name(), command).observeSince(start);
+        }
     }
 
     private StringBuilder createUri(String command) {
@@ -273,6 +494,11 @@ public class Orchestrator {
 
 
     private JsonObject getJsonObject(Map<String, Object> queryParams, RequestType requestType, HttpEntity httpEntity, StringBuilder uri) throws Exception {
+        return getJsonObject(queryParams, requestType, httpEntity, uri, 0);
+    }
+
+    private JsonObject getJsonObject(Map<String, Object> queryParams, RequestType requestType, HttpEntity httpEntity,
+                                     StringBuilder uri, int socketTimeout) throws Exception {
         // disable certificates for secure mode
     	logDebug(MODULE_NAME, "Start get JsonObject");
         boolean secure = true;
@@ -289,10 +515,9 @@ public class Orchestrator {
             queryParams.forEach((key, value) -> uri.append("/").append(key)
                     .append("/").append(value));
 
-        initialize(secure);
         HttpRequestBase req;
 
-        RequestConfig config = getRequestConfig();
+        RequestConfig config = getRequestConfig(socketTimeout);
 
         switch (requestType) {
             case GET:
@@ -329,7 +554,9 @@ public class Orchestrator {
         req.addHeader("Request-Id", requestId.toString());
         logDebug("Orchestrator", String.format("(%s) %s %s", requestId, requestType.name(), uri.toString()));
 
-        try (CloseableHttpResponse response = client.execute(req)) {
+        CloseableHttpClient requestClient = acquireClient(secure);
+        try (CloseableHttpResponse response = requestClient.execute(req)) {
+            onRequestExecuted();
             String errorMessage = "";
             if (response.getEntity() != null) {
                 BufferedReader in = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), "UTF-8"));
@@ -337,6 +564,7 @@ public class Orchestrator {
 
                 result = jsonReader.readObject();
                 errorMessage = result.getString("message", "");
+                EntityUtils.consume(response.getEntity());
             }
 
 
@@ -360,6 +588,8 @@ public class Orchestrator {
         } catch (UnsupportedEncodingException exp) {
             logError(MODULE_NAME, "Error while executing the request", new AgentUserException(exp.getMessage(), exp));
             throw new AgentUserException(exp.getMessage(), exp);
+        } finally {
+            releaseClient(requestClient);
         }
         logDebug(MODULE_NAME, "Finish get JsonObject");
         return result;
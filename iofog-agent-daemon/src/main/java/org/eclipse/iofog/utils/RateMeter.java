@@ -0,0 +1,86 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * lock-free sliding window rate meter
+ * keeps per-second counts in a ring of buckets, each bucket holds the second it belongs to
+ * together with its count in a single long, so concurrent updates never lose counts
+ * rates are calculated over complete seconds, the current second is not counted
+ */
+public class RateMeter {
+
+	public static final int ONE_SECOND = 1;
+	public static final int ONE_MINUTE = 60;
+	public static final int FIVE_MINUTES = 300;
+
+	private static final int BUCKETS = FIVE_MINUTES + 1;
+	private static final int COUNT_BITS = 40;
+	private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+	private static final long SECOND_MASK = (1L << (Long.SIZE - COUNT_BITS)) - 1;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongSupplier clock;
+
+	public RateMeter() {
+		this(System::currentTimeMillis);
+	}
+
+	RateMeter(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * counts events happened now
+	 *
+	 * @param count - number of events
+	 */
+	public void mark(long count) {
+		long second = currentSecond();
+		int index = (int) (second % BUCKETS);
+		long stamp = second & SECOND_MASK;
+		while (true) {
+			long bucket = buckets.get(index);
+			long updated = (bucket >>> COUNT_BITS) == stamp ? bucket + count : (stamp << COUNT_BITS) | count;
+			if (buckets.compareAndSet(index, bucket, updated)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param seconds - window size in seconds, up to {@link #FIVE_MINUTES}
+	 * @return average number of events per second over last complete seconds
+	 */
+	public double getRate(int seconds) {
+		if (seconds < 1 || seconds > FIVE_MINUTES) {
+			throw new IllegalArgumentException("Rate window must be between 1 and " + FIVE_MINUTES + " seconds");
+		}
+		long now = currentSecond();
+		long total = 0;
+		for (long second = now - seconds; second < now; second++) {
+			long bucket = buckets.get((int) (second % BUCKETS));
+			if ((bucket >>> COUNT_BITS) == (second & SECOND_MASK)) {
+				total += bucket & COUNT_MASK;
+			}
+		}
+		return (double) total / seconds;
+	}
+
+	private long currentSecond() {
+		return clock.getAsLong() / 1000;
+	}
+}
@@ -19,6 +19,7 @@ import org.eclipse.iofog.command_line.CommandLineConfigParam;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.field_agent.FieldAgent;
+import org.eclipse.iofog.field_agent.enums.StatusReportMode;
 import org.eclipse.iofog.gps.GpsMode;
 import org.eclipse.iofog.gps.GpsWebHandler;
 import org.eclipse.iofog.message_bus.MessageBus;
@@ -97,6 +98,7 @@ public final class Configuration {
     private static int logFileCount;
     private static String logLevel;
     private static int statusFrequency;
+    private static StatusReportMode statusReportMode;
     private static int changeFrequency;
     private static int deviceScanFrequency;
     private static int postDiagnosticsFreq;
@@ -598,6 +600,16 @@ public final class Configuration {
                         setNode(STATUS_FREQUENCY, value, configFile, configElement);
                         setStatusFrequency(Integer.parseInt(value));
                         break;
+                    case STATUS_REPORT_MODE:
+                        LoggingService.logInfo(MODULE_NAME, "Setting status report mode");
+                        try {
+                            setStatusReportMode(StatusReportMode.getModeByValue(value));
+                        } catch (IllegalArgumentException e) {
+                            messageMap.put(option, "Option -" + option + " has invalid value: " + value);
+                            break;
+                        }
+                        setNode(STATUS_REPORT_MODE, value.toLowerCase(), configFile, configElement);
+                        break;
                     case CHANGE_FREQUENCY:
                         LoggingService.logInfo(MODULE_NAME, "Setting change frequency");
                         try {
@@ -980,6 +992,7 @@ public final class Configuration {
         setChangeFrequency(Integer.parseInt(getNode(CHANGE_FREQUENCY, configFile)));
         setDeviceScanFrequency(Integer.parseInt(getNode(DEVICE_SCAN_FREQUENCY, configFile)));
         setStatusFrequency(Integer.parseInt(getNode(STATUS_FREQUENCY, configFile)));
+        setStatusReportMode(StatusReportMode.getModeByValue(getNode(STATUS_REPORT_MODE, configFile)));
         setPostDiagnosticsFreq(Integer.parseInt(getNode(POST_DIAGNOSTICS_FREQ, configFile)));
         setWatchdogEnabled(!getNode(WATCHDOG_ENABLED, configFile).equals("off"));
         configureFogType(getNode(FOG_TYPE, configFile));
@@ -1243,6 +1256,8 @@ public final class Configuration {
         result.append(buildReportLine(getConfigParamMessage(LOG_LEVEL), format("%s", logLevel)));
         // status update frequency
         result.append(buildReportLine(getConfigParamMessage(STATUS_FREQUENCY), format("%d", statusFrequency)));
+        // status report mode
+        result.append(buildReportLine(getConfigParamMessage(STATUS_REPORT_MODE), statusReportMode.name().toLowerCase()));
         // status update frequency
         result.append(buildReportLine(getConfigParamMessage(CHANGE_FREQUENCY), format("%d", changeFrequency))); 
         // scan devices frequency
@@ -1432,4 +1447,12 @@ public final class Configuration {
         Configuration.readyToUpgradeScanFrequency = readyToUpgradeScanFrequency;
     }
 
-}
\ No newline at end of file
+    public static StatusReportMode getStatusReportMode() {
+        return statusReportMode;
+    }
+
+    public static void setStatusReportMode(StatusReportMode statusReportMode) {
+        Configuration.statusReportMode = statusReportMode;
+    }
+
+}
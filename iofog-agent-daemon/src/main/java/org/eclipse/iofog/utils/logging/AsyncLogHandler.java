@@ -0,0 +1,138 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * hands log records over to a background writer thread which passes them to delegate handler,
+ * so logging thread never waits for disk
+ * records are kept in a bounded ring buffer, when buffer is full new records are dropped and counted,
+ * number of dropped records is logged as soon as writer catches up
+ */
+public class AsyncLogHandler extends Handler {
+
+	private static final String MODULE_NAME = "LoggingService";
+	private static final String WRITER_THREAD_NAME = "Async Log Writer";
+	static final int DEFAULT_CAPACITY = 8192;
+	private static final int BATCH_SIZE = 256;
+	private static final long POLL_TIMEOUT_MILLIS = 200;
+	private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+	private final Handler delegate;
+	private final BlockingQueue<LogRecord> buffer;
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong droppedTotal = new AtomicLong();
+	private final Thread writer;
+	private volatile boolean closed;
+
+	public AsyncLogHandler(Handler delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+
+	AsyncLogHandler(Handler delegate, int capacity) {
+		this.delegate = delegate;
+		this.buffer = new ArrayBlockingQueue<>(capacity);
+		this.writer = new Thread(this::write, WRITER_THREAD_NAME);
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+		if (closed || !isLoggable(record)) {
+			return;
+		}
+		if (!buffer.offer(record)) {
+			dropped.incrementAndGet();
+			droppedTotal.incrementAndGet();
+		}
+	}
+
+	/**
+	 * flushes delegate handler, records still waiting in buffer are written by writer thread
+	 */
+	@Override
+	public void flush() {
+		delegate.flush();
+	}
+
+	/**
+	 * stops accepting records, waits for writer thread to write buffered records and closes delegate handler
+	 */
+	@Override
+	public void close() throws SecurityException {
+		closed = true;
+		try {
+			writer.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		delegate.close();
+	}
+
+	/**
+	 * @return number of records dropped because buffer was full
+	 */
+	public long getDroppedCount() {
+		return droppedTotal.get();
+	}
+
+	private void write() {
+		List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+		while (!closed || !buffer.isEmpty()) {
+			try {
+				LogRecord record = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (record == null) {
+					continue;
+				}
+				batch.add(record);
+				buffer.drainTo(batch, BATCH_SIZE - 1);
+				reportDropped();
+				batch.forEach(delegate::publish);
+				batch.clear();
+				if (buffer.isEmpty()) {
+					delegate.flush();
+				}
+			} catch (InterruptedException e) {
+				if (closed) {
+					break;
+				}
+			} catch (RuntimeException e) {
+				batch.clear();
+				reportError("Unable to write log records", e, ErrorManager.WRITE_FAILURE);
+			}
+		}
+		reportDropped();
+		delegate.flush();
+	}
+
+	private void reportDropped() {
+		long count = dropped.getAndSet(0);
+		if (count > 0) {
+			LogRecord record = new LogRecord(Level.WARNING, count + " log records dropped, log buffer is full");
+			record.setSourceClassName(WRITER_THREAD_NAME);
+			record.setSourceMethodName(MODULE_NAME);
+			delegate.publish(record);
+		}
+	}
+}
@@ -42,7 +42,7 @@ public class LogFormatter extends Formatter {
 		final DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
 		JsonBuilderFactory factory = Json.createBuilderFactory(null);
 		JsonObjectBuilder jsonObjectBuilder = factory.createObjectBuilder();
-		jsonObjectBuilder.add("timestamp", df.format(System.currentTimeMillis()));
+		jsonObjectBuilder.add("timestamp", df.format(record.getMillis()));
 		jsonObjectBuilder.add("level", record.getLevel().toString());
 		jsonObjectBuilder.add("agent_id", Configuration.getIofogUuid());
 		jsonObjectBuilder.add("pid", fogNetworkInterfaceManager.getPid() != 0 ? fogNetworkInterfaceManager.getPid() : fogNetworkInterfaceManager.getFogPid());
@@ -27,9 +27,12 @@ import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.attribute.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 import static org.eclipse.iofog.utils.CmdProperties.getVersion;
@@ -44,10 +47,11 @@ public final class LoggingService {
 
     private static final String MODULE_NAME = "LoggingService";
 
-    private static Logger logger = null;
-    private static final Map<String, Logger> microserviceLogger = new HashMap<>();
+    private static volatile Logger logger = null;
+    private static Thread shutdownHook;
+    private static final Map<String, MicroserviceLog> microserviceLogs = new ConcurrentHashMap<>();
 
-    private static List<String> sentryExceptionCache = new ArrayList<>();
+    private static final SentryExceptionCache sentryExceptionCache = new SentryExceptionCache(Constants.SENTRY_CACHE_PATH);
 
     private LoggingService() {
 
@@ -67,6 +71,18 @@ public final class LoggingService {
         }
     }
 
+    /**
+     * logs Level.INFO message, message is built only if Level.INFO is enabled
+     *
+     * @param moduleName  - name of module
+     * @param msgSupplier - message supplier
+     */
+    public static void logInfo(String moduleName, Supplier<String> msgSupplier) {
+        if (isLoggable(Level.INFO)) {
+            logInfo(moduleName, msgSupplier.get());
+        }
+    }
+
     /**
      * logs Level.WARNING message
      *
@@ -102,6 +118,33 @@ public final class LoggingService {
             logger.logp(Level.FINE,  Thread.currentThread().getName(), moduleName, msg);
         }
     }
+    /**
+     * logs Level.FINE message, message is built only if Level.FINE is enabled
+     * use it on hot paths where message needs concatenation or formatting
+     *
+     * @param moduleName  - name of module
+     * @param msgSupplier - message supplier
+     */
+    public static void logDebug(String moduleName, Supplier<String> msgSupplier) {
+        if (isDebugEnabled()) {
+            logDebug(moduleName, msgSupplier.get());
+        }
+    }
+
+    /**
+     * checks if Level.FINE messages are logged
+     *
+     * @return true if debug messages are logged
+     */
+    public static boolean isDebugEnabled() {
+        return isLoggable(Level.FINE);
+    }
+
+    private static boolean isLoggable(Level level) {
+        Logger currentLogger = logger;
+        return Configuration.debugging || currentLogger == null || currentLogger.isLoggable(level);
+    }
+
     /**
      * logs Level.Error message
      *
@@ -110,7 +153,7 @@ public final class LoggingService {
      * @param e          - exception
      */
     public static void logError(String moduleName, String msg, Throwable e) {
-        if (newSentryException(e) && !Configuration.isDevMode()) {
+        if (!Configuration.isDevMode() && sentryExceptionCache.shouldCapture(e)) {
             Sentry.getContext().addExtra("version", getVersion());
             Sentry.getStoredClient().getContext().setUser(new User(System.getProperty("user.name"), System.getProperty("user.name"), "", ""));
             Sentry.capture(e);
@@ -123,49 +166,6 @@ public final class LoggingService {
         }
     }
 
-    private static boolean newSentryException(Throwable exc) {
-        StackTraceElement[] stackTraceElements = exc.getStackTrace();
-        if (stackTraceElements != null && stackTraceElements.length > 0) {
-            // default, looking for trace element from our code
-            StackTraceElement iofogElement = stackTraceElements[0];
-            for (StackTraceElement stackTraceElement : stackTraceElements) {
-                if (stackTraceElement.getClassName().contains("org.eclipse.iofog")) {
-                    iofogElement = stackTraceElement;
-                    break;
-                }
-            }
-
-            // building exception line format
-            String newException = iofogElement.getFileName() + "|" + iofogElement.getClassName()
-                    + "|" + iofogElement.getMethodName() + "|" + iofogElement.getLineNumber();
-            for (String existingException : sentryExceptionCache) {
-                if (existingException.equalsIgnoreCase(newException)) {
-                    return false;
-                }
-            }
-
-            // new exception
-            JsonArrayBuilder builder = Json.createArrayBuilder();
-            for (String existingException : sentryExceptionCache) {
-                builder.add(existingException);
-            }
-            builder.add(newException);
-
-            sentryExceptionCache.add(newException);
-
-            try(JsonWriter writer = Json.createWriter(new FileOutputStream(Constants.SENTRY_CACHE_PATH))) {
-                writer.writeArray(builder.build());
-                return true;
-            } catch (Exception e) {
-                logError(MODULE_NAME, "Exception while saving sentry-cache.json file", e);
-                return false;
-            }
-
-        }
-
-        return false;
-    }
-
     /**
      * sets up logging
      *
@@ -182,8 +182,10 @@ public final class LoggingService {
         final String logFilePattern = logDirectory.getPath() + "/iofog-agent.%g.log";
 
         if (logger != null) {
-            for (Handler f : logger.getHandlers())
+            for (Handler f : logger.getHandlers()) {
                 f.close();
+                logger.removeHandler(f);
+            }
         }
 
         if (maxFileSize < Constants.MiB) {
@@ -207,9 +209,10 @@ public final class LoggingService {
 
         int intLimit = (int) limit;
 
-        Handler logFileHandler = new FileHandler(logFilePattern, intLimit, logFileCount);
+        Handler fileHandler = new FileHandler(logFilePattern, intLimit, logFileCount);
 
-        logFileHandler.setFormatter(new LogFormatter());
+        fileHandler.setFormatter(new LogFormatter());
+        Handler logFileHandler = new AsyncLogHandler(fileHandler);
 
         logger = Logger.getLogger("org.eclipse.iofog");
         logger.addHandler(logFileHandler);
@@ -220,32 +223,43 @@ public final class LoggingService {
 
         logger.info("main, Logging Service, logger started.");
 
-        loadSentryCache();
-    }
-    
-    private static void loadSentryCache() {
-        File f = new File(Constants.SENTRY_CACHE_PATH);
-        if (!f.exists()) {
-            return;
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(LoggingService::closeHandlers, "Logging Service Shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
         }
 
-        try(JsonReader reader = Json.createReader(new FileInputStream(Constants.SENTRY_CACHE_PATH))) {
-            JsonArray array = reader.readArray();
-            for (JsonValue jsonValue : array) {
-                JsonString jsonString = (JsonString) jsonValue;
-                sentryExceptionCache.add(jsonString.getString());
+        sentryExceptionCache.load();
+    }
+
+    /**
+     * closes handlers of agent logger, so that buffered log records are written before exit
+     */
+    private static void closeHandlers() {
+        Logger currentLogger = logger;
+        if (currentLogger != null) {
+            for (Handler handler : currentLogger.getHandlers()) {
+                handler.close();
             }
-        } catch (Exception e) {
-            logError(MODULE_NAME, "Exception while loading sentry-cache.json file", e);
         }
     }
-
+    
     /**
      * sets up microservice logging
+     * logger is kept if log size is not changed, otherwise previous log is closed first,
+     * so new file handler gets the same log files instead of ones with another suffix
      *
      * @throws IOException
      */
     public static void setupMicroserviceLogger(String microserviceUuid, long logSize) throws IOException {
+        MicroserviceLog previous = microserviceLogs.get(microserviceUuid);
+        if (previous != null) {
+            if (previous.getLogSize() == logSize) {
+                return;
+            }
+            microserviceLogs.remove(microserviceUuid, previous);
+            previous.close();
+        }
+
         int maxFileSize = (int) (logSize * 1_000_000);
         int logFileCount = Math.round(logSize);
         final File logDirectory = new File(Configuration.getLogDiskDirectory());
@@ -275,49 +289,62 @@ public final class LoggingService {
 
 
         final String logFilePattern = logDirectory.getPath() + "/" + microserviceUuid + ".%g.log";
-        Logger logger = microserviceLogger.get(microserviceUuid);
-
-        if (logger != null) {
-            for (Handler f : logger.getHandlers())
-                f.close();
-        }
 
         if (logFileCount == 0) {
             logFileCount = 1;
         }
 
-        Handler logFileHandler = new FileHandler(logFilePattern, maxFileSize / logFileCount, logFileCount);
+        Handler fileHandler = new FileHandler(logFilePattern, maxFileSize / logFileCount, logFileCount);
 
-        logFileHandler.setFormatter(new LogFormatter());
+        fileHandler.setFormatter(new LogFormatter());
+        AsyncLogHandler logFileHandler = new AsyncLogHandler(fileHandler);
 
-        logger = Logger.getLogger(microserviceUuid);
+        Logger logger = Logger.getLogger(microserviceUuid);
         logger.addHandler(logFileHandler);
 
         logger.setUseParentHandlers(false);
 
-        microserviceLogger.put(microserviceUuid, logger);
+        microserviceLogs.put(microserviceUuid, new MicroserviceLog(microserviceUuid, logSize, logger, logFileHandler));
     }
 
-    public static boolean microserviceLogInfo(String microserviceUuid, String msg) {
-        Logger logger = microserviceLogger.get(microserviceUuid);
-        if (logger == null) {
-            logNullLogger();
-            return false;
-        }
+    /**
+     * closes loggers of microservices which are gone and removes their metrics
+     *
+     * @param microserviceUuids - uuids of latest microservices
+     */
+    public static void retainMicroserviceLoggers(Collection<String> microserviceUuids) {
+        microserviceLogs.entrySet().removeIf(entry -> {
+            if (microserviceUuids.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().remove();
+            return true;
+        });
+    }
 
-        logger.info(msg);
-        return true;
+    public static boolean microserviceLogInfo(String microserviceUuid, String msg) {
+        return microserviceLog(microserviceUuid, Collections.singletonList(new LogRecord(Level.INFO, msg))) >= 0;
     }
 
     public static boolean microserviceLogWarning(String microserviceUuid, String msg) {
-        Logger logger = microserviceLogger.get(microserviceUuid);
-        if (logger == null) {
+        return microserviceLog(microserviceUuid, Collections.singletonList(new LogRecord(Level.WARNING, msg))) >= 0;
+    }
+
+    /**
+     * writes batch of microservice log records
+     * records above microservice log rate limit are dropped and counted
+     *
+     * @param microserviceUuid - microservice uuid
+     * @param records - log records in the order to be written
+     * @return number of written records or -1 if logger of microservice is not set up
+     */
+    public static int microserviceLog(String microserviceUuid, List<LogRecord> records) {
+        MicroserviceLog log = microserviceLogs.get(microserviceUuid);
+        if (log == null) {
             logNullLogger();
-            return false;
+            return -1;
         }
-
-        logger.warning(msg);
-        return true;
+        return log.log(records);
     }
 
     private static void logNullLogger() {
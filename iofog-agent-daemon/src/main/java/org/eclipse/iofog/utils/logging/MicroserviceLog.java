@@ -0,0 +1,110 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import org.eclipse.iofog.utils.metrics.Counter;
+import org.eclipse.iofog.utils.metrics.MetricFamily;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * log of single microservice
+ * records are written by {@link AsyncLogHandler}, so local api threads never wait for disk
+ * number of records is limited by token bucket, records above the limit are dropped and counted
+ */
+final class MicroserviceLog {
+
+	static final double RATE_LIMIT_PER_SECOND = 500;
+	static final double RATE_LIMIT_BURST = 2000;
+
+	private static final MetricFamily<Counter> WRITTEN = MetricsRegistry.counter("iofog_microservice_log_records",
+			"Log records written for microservice", "microservice");
+	private static final MetricFamily<Counter> DROPPED = MetricsRegistry.counter("iofog_microservice_log_records_dropped",
+			"Log records of microservice dropped by rate limit", "microservice");
+
+	private final String microserviceUuid;
+	private final long logSize;
+	private final Logger logger;
+	private final AsyncLogHandler handler;
+	private final LongSupplier clock;
+	private final Counter written;
+	private final Counter dropped;
+	private double tokens = RATE_LIMIT_BURST;
+	private long refilledAt;
+
+	MicroserviceLog(String microserviceUuid, long logSize, Logger logger, AsyncLogHandler handler) {
+		this(microserviceUuid, logSize, logger, handler, System::nanoTime);
+	}
+
+	MicroserviceLog(String microserviceUuid, long logSize, Logger logger, AsyncLogHandler handler, LongSupplier clock) {
+		this.microserviceUuid = microserviceUuid;
+		this.logSize = logSize;
+		this.logger = logger;
+		this.handler = handler;
+		this.clock = clock;
+		this.written = WRITTEN.labels(microserviceUuid);
+		this.dropped = DROPPED.labels(microserviceUuid);
+		this.refilledAt = clock.getAsLong();
+	}
+
+	/**
+	 * writes records in the given order, records above the rate limit are dropped
+	 *
+	 * @param records - log records
+	 * @return number of written records
+	 */
+	int log(List<LogRecord> records) {
+		int permitted = acquire(records.size());
+		for (int i = 0; i < permitted; i++) {
+			logger.log(records.get(i));
+		}
+		written.inc(permitted);
+		dropped.inc(records.size() - permitted);
+		return permitted;
+	}
+
+	long getLogSize() {
+		return logSize;
+	}
+
+	/**
+	 * detaches handler from logger and writes buffered records
+	 */
+	void close() {
+		logger.removeHandler(handler);
+		handler.close();
+	}
+
+	/**
+	 * closes log of microservice which is gone and removes its metrics
+	 */
+	void remove() {
+		close();
+		WRITTEN.remove(microserviceUuid);
+		DROPPED.remove(microserviceUuid);
+	}
+
+	private synchronized int acquire(int count) {
+		long now = clock.getAsLong();
+		tokens = Math.min(RATE_LIMIT_BURST, tokens + (now - refilledAt) / 1_000_000_000.0 * RATE_LIMIT_PER_SECOND);
+		refilledAt = now;
+		int permitted = (int) Math.min(count, Math.floor(tokens));
+		tokens -= permitted;
+		return permitted;
+	}
+}
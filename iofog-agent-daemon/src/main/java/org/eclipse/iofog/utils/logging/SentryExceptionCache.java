@@ -0,0 +1,205 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * signatures of exceptions already sent to Sentry
+ * signatures are kept in a bounded hash set, the oldest signatures are evicted when it is full
+ * number of captures is limited per minute, so error storms don't flood Sentry
+ * new signatures are persisted by background thread, so logging thread never waits for disk
+ */
+final class SentryExceptionCache {
+
+	private static final String MODULE_NAME = "LoggingService";
+
+	static final int MAX_SIGNATURES = 10_000;
+	static final int MAX_CAPTURES_PER_MINUTE = 20;
+	private static final long PERSIST_DELAY_MILLIS = 5_000;
+
+	private final String path;
+	private final LongSupplier clock;
+	private final Set<String> signatures = Collections.newSetFromMap(new BoundedMap());
+	private final AtomicBoolean persistScheduled = new AtomicBoolean();
+	private ScheduledExecutorService persister;
+	private long windowStart;
+	private int capturesInWindow;
+
+	SentryExceptionCache(String path) {
+		this(path, System::currentTimeMillis);
+	}
+
+	SentryExceptionCache(String path, LongSupplier clock) {
+		this.path = path;
+		this.clock = clock;
+	}
+
+	/**
+	 * checks whether exception should be sent to Sentry
+	 * exception is sent if its signature is new and capture rate limit is not exceeded,
+	 * rate limited exceptions are not remembered, so they are sent once error storm is over
+	 *
+	 * @param exc - exception
+	 * @return true if exception should be sent
+	 */
+	boolean shouldCapture(Throwable exc) {
+		String signature = getSignature(exc);
+		if (signature == null) {
+			return false;
+		}
+		synchronized (this) {
+			if (signatures.contains(signature) || !acquireCapture()) {
+				return false;
+			}
+			signatures.add(signature);
+		}
+		schedulePersist();
+		return true;
+	}
+
+	/**
+	 * loads signatures persisted before
+	 */
+	synchronized void load() {
+		File file = new File(path);
+		if (!file.exists()) {
+			return;
+		}
+
+		try (JsonReader reader = Json.createReader(new FileInputStream(file))) {
+			JsonArray array = reader.readArray();
+			for (JsonValue jsonValue : array) {
+				signatures.add(((JsonString) jsonValue).getString().toLowerCase(Locale.ROOT));
+			}
+		} catch (Exception e) {
+			LoggingService.logWarning(MODULE_NAME, "Exception while loading sentry-cache.json file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * writes signatures to file, replacing it atomically
+	 * failures are logged as warnings, logging them as errors would report them to Sentry again
+	 */
+	void persist() {
+		persistScheduled.set(false);
+		List<String> snapshot;
+		synchronized (this) {
+			snapshot = new ArrayList<>(signatures);
+		}
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+		snapshot.forEach(builder::add);
+
+		File file = new File(path);
+		File tmpFile = new File(path + ".tmp");
+		try {
+			try (JsonWriter writer = Json.createWriter(new FileOutputStream(tmpFile))) {
+				writer.writeArray(builder.build());
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			tmpFile.delete();
+			LoggingService.logWarning(MODULE_NAME, "Exception while saving sentry-cache.json file: " + e.getMessage());
+		}
+	}
+
+	private boolean acquireCapture() {
+		long now = clock.getAsLong();
+		if (now - windowStart >= TimeUnit.MINUTES.toMillis(1)) {
+			windowStart = now;
+			capturesInWindow = 0;
+		}
+		if (capturesInWindow >= MAX_CAPTURES_PER_MINUTE) {
+			return false;
+		}
+		capturesInWindow++;
+		return true;
+	}
+
+	private void schedulePersist() {
+		if (persistScheduled.compareAndSet(false, true)) {
+			getPersister().schedule(this::persist, PERSIST_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private synchronized ScheduledExecutorService getPersister() {
+		if (persister == null) {
+			persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Sentry Cache Writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return persister;
+	}
+
+	/**
+	 * builds exception signature from first stack trace element of our code
+	 *
+	 * @param exc - exception
+	 * @return signature or null if exception has no stack trace
+	 */
+	static String getSignature(Throwable exc) {
+		StackTraceElement[] stackTraceElements = exc.getStackTrace();
+		if (stackTraceElements == null || stackTraceElements.length == 0) {
+			return null;
+		}
+		// default, looking for trace element from our code
+		StackTraceElement iofogElement = stackTraceElements[0];
+		for (StackTraceElement stackTraceElement : stackTraceElements) {
+			if (stackTraceElement.getClassName().contains("org.eclipse.iofog")) {
+				iofogElement = stackTraceElement;
+				break;
+			}
+		}
+
+		// building exception line format, signatures are compared ignoring case
+		return (iofogElement.getFileName() + "|" + iofogElement.getClassName()
+				+ "|" + iofogElement.getMethodName() + "|" + iofogElement.getLineNumber()).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * drops oldest signatures once {@link #MAX_SIGNATURES} is reached
+	 */
+	private static final class BoundedMap extends LinkedHashMap<String, Boolean> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > MAX_SIGNATURES;
+		}
+	}
+}
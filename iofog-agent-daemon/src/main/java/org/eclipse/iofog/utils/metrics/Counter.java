@@ -0,0 +1,43 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * monotonically increasing counter
+ */
+public class Counter implements Metric {
+
+	private final LongAdder value = new LongAdder();
+
+	public void inc() {
+		value.increment();
+	}
+
+	public void inc(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("Counter can not be decreased");
+		}
+		value.add(amount);
+	}
+
+	public long get() {
+		return value.sum();
+	}
+
+	@Override
+	public void write(StringBuilder out, String name, String labels) {
+		MetricsRegistry.appendSample(out, name, labels, get());
+	}
+}
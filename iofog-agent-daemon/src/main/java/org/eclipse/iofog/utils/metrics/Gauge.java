@@ -0,0 +1,46 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * metric whose value is either set directly or read from a bound source at scrape time
+ */
+public class Gauge implements Metric {
+
+	private volatile DoubleSupplier source = () -> 0;
+
+	public void set(double value) {
+		source = () -> value;
+	}
+
+	/**
+	 * binds gauge to a source read on every scrape
+	 * source must be cheap and must not block
+	 *
+	 * @param source - value source
+	 */
+	public void bind(DoubleSupplier source) {
+		this.source = source;
+	}
+
+	public double get() {
+		return source.getAsDouble();
+	}
+
+	@Override
+	public void write(StringBuilder out, String name, String labels) {
+		MetricsRegistry.appendSample(out, name, labels, get());
+	}
+}
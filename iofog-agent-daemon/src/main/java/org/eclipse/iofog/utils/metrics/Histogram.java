@@ -0,0 +1,113 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * duration histogram with fixed bucket bounds
+ * observations only increment one striped counter, cumulative bucket counts are built at scrape time
+ */
+public class Histogram implements Metric {
+
+	/**
+	 * default bucket bounds in seconds, suitable for request latencies
+	 */
+	public static final double[] DEFAULT_BUCKETS = {
+			0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+	};
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final double[] bounds;
+	private final long[] boundsNanos;
+	private final LongAdder[] counts;
+	private final LongAdder sumNanos = new LongAdder();
+
+	public Histogram() {
+		this(DEFAULT_BUCKETS);
+	}
+
+	/**
+	 * @param bounds - bucket upper bounds in seconds, ascending
+	 */
+	public Histogram(double[] bounds) {
+		for (int i = 1; i < bounds.length; i++) {
+			if (bounds[i] <= bounds[i - 1]) {
+				throw new IllegalArgumentException("Histogram bucket bounds must be ascending");
+			}
+		}
+		this.bounds = bounds.clone();
+		this.boundsNanos = new long[bounds.length];
+		for (int i = 0; i < bounds.length; i++) {
+			boundsNanos[i] = (long) (bounds[i] * NANOS_PER_SECOND);
+		}
+		this.counts = new LongAdder[bounds.length + 1];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * records an observation
+	 *
+	 * @param nanos - observed duration in nanoseconds
+	 */
+	public void observeNanos(long nanos) {
+		int index = Arrays.binarySearch(boundsNanos, nanos);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		counts[index].increment();
+		sumNanos.add(nanos);
+	}
+
+	/**
+	 * records time passed since given {@link System#nanoTime()} value
+	 *
+	 * @param startNanos - start of the measured operation
+	 */
+	public void observeSince(long startNanos) {
+		observeNanos(System.nanoTime() - startNanos);
+	}
+
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : counts) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * @return sum of all observations in seconds
+	 */
+	public double getSum() {
+		return sumNanos.sum() / NANOS_PER_SECOND;
+	}
+
+	@Override
+	public void write(StringBuilder out, String name, String labels) {
+		String separator = labels.isEmpty() ? "" : ",";
+		long cumulative = 0;
+		for (int i = 0; i < counts.length; i++) {
+			cumulative += counts[i].sum();
+			String le = i < bounds.length ? Double.toString(bounds[i]) : "+Inf";
+			MetricsRegistry.appendSample(out, name + "_bucket", labels + separator + "le=\"" + le + "\"", cumulative);
+		}
+		MetricsRegistry.appendSample(out, name + "_count", labels, cumulative);
+		MetricsRegistry.appendSample(out, name + "_sum", labels, getSum());
+	}
+}
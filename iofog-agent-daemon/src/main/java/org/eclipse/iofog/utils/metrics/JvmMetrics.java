@@ -0,0 +1,54 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * JVM memory, thread and garbage collection metrics, read from platform MXBeans at scrape time
+ */
+public final class JvmMetrics {
+
+	private JvmMetrics() {
+	}
+
+	public static void register() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		MetricFamily<Gauge> used = MetricsRegistry.gauge("iofog_jvm_memory_used_bytes",
+				"Used JVM memory", "area");
+		used.labels("heap").bind(() -> memory.getHeapMemoryUsage().getUsed());
+		used.labels("nonheap").bind(() -> memory.getNonHeapMemoryUsage().getUsed());
+		MetricFamily<Gauge> committed = MetricsRegistry.gauge("iofog_jvm_memory_committed_bytes",
+				"Committed JVM memory", "area");
+		committed.labels("heap").bind(() -> memory.getHeapMemoryUsage().getCommitted());
+		committed.labels("nonheap").bind(() -> memory.getNonHeapMemoryUsage().getCommitted());
+		MetricsRegistry.gauge("iofog_jvm_memory_max_bytes", "Maximum JVM heap memory, -1 if undefined", "area")
+				.labels("heap").bind(() -> memory.getHeapMemoryUsage().getMax());
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		MetricsRegistry.gauge("iofog_jvm_threads", "Live JVM threads")
+				.labels().bind(threads::getThreadCount);
+
+		MetricFamily<Gauge> collections = MetricsRegistry.functionCounter("iofog_jvm_gc_collections",
+				"Garbage collections run", "gc");
+		MetricFamily<Gauge> collectionSeconds = MetricsRegistry.functionCounter("iofog_jvm_gc_collection_seconds",
+				"Time spent in garbage collection", "gc");
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections.labels(gc.getName()).bind(gc::getCollectionCount);
+			collectionSeconds.labels(gc.getName()).bind(() -> gc.getCollectionTime() / 1000.0);
+		}
+	}
+}
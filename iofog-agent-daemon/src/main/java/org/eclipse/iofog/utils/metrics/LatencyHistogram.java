@@ -0,0 +1,190 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * latency histogram with log-linear buckets in the style of HdrHistogram
+ * every power of two of microseconds is split into {@link #SUB_BUCKETS} linear buckets, so percentiles
+ * are accurate to about 3% over the whole range from one microsecond to more than an hour
+ *
+ * percentiles are calculated over a sliding window of one to two window lengths, so a regression
+ * shows up within minutes regardless of agent uptime; count and sum are kept since start
+ */
+public class LatencyHistogram implements Metric {
+
+	public static final double[] DEFAULT_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+	public static final long DEFAULT_WINDOW_SECONDS = 60;
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 32;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) << SUB_BUCKET_BITS;
+	private static final double MICROS_PER_SECOND = TimeUnit.SECONDS.toMicros(1);
+
+	private final long windowNanos;
+	private final LongSupplier clock;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumMicros = new LongAdder();
+
+	private volatile Window current;
+	private volatile Window previous;
+
+	public LatencyHistogram() {
+		this(DEFAULT_WINDOW_SECONDS);
+	}
+
+	public LatencyHistogram(long windowSeconds) {
+		this(windowSeconds, System::nanoTime);
+	}
+
+	LatencyHistogram(long windowSeconds, LongSupplier clock) {
+		this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+		this.clock = clock;
+		this.current = new Window(clock.getAsLong());
+		this.previous = new Window(current.start - windowNanos);
+	}
+
+	/**
+	 * records an observation
+	 *
+	 * @param micros - observed latency in microseconds, negative values caused by clock skew are counted as zero
+	 */
+	public void recordMicros(long micros) {
+		long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+		rotate();
+		current.record(value);
+		count.increment();
+		sumMicros.add(value);
+	}
+
+	public void recordNanos(long nanos) {
+		recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return sum of all observations in seconds
+	 */
+	public double getSum() {
+		return sumMicros.sum() / MICROS_PER_SECOND;
+	}
+
+	/**
+	 * @param quantile - quantile between 0 and 1
+	 * @return latency in microseconds at given quantile within the window, 0 if nothing was recorded
+	 */
+	public long getValueAtQuantile(double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1");
+		}
+		rotate();
+		Window recent = current;
+		Window older = previous;
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = recent.counts.get(i) + older.counts.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long max = Math.max(recent.max.get(), older.max.get());
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestEquivalentValue(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return highest latency in microseconds within the window
+	 */
+	public long getMax() {
+		rotate();
+		return Math.max(current.max.get(), previous.max.get());
+	}
+
+	private void rotate() {
+		long now = clock.getAsLong();
+		if (now - current.start < windowNanos) {
+			return;
+		}
+		synchronized (this) {
+			Window last = current;
+			if (now - last.start < windowNanos) {
+				return;
+			}
+			previous = now - last.start < 2 * windowNanos ? last : new Window(now - windowNanos);
+			current = new Window(now);
+		}
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long subBucket = SUB_BUCKETS + (index & (SUB_BUCKETS - 1));
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	@Override
+	public void write(StringBuilder out, String name, String labels) {
+		String separator = labels.isEmpty() ? "" : ",";
+		for (double quantile : DEFAULT_QUANTILES) {
+			MetricsRegistry.appendSample(out, name, labels + separator + "quantile=\"" + quantile + "\"",
+					getValueAtQuantile(quantile) / MICROS_PER_SECOND);
+		}
+		MetricsRegistry.appendSample(out, name + "_count", labels, getCount());
+		MetricsRegistry.appendSample(out, name + "_sum", labels, getSum());
+	}
+
+	private static class Window {
+		private final long start;
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+		private final AtomicLong max = new AtomicLong();
+
+		private Window(long start) {
+			this.start = start;
+		}
+
+		private void record(long value) {
+			counts.incrementAndGet(bucketIndex(value));
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+}
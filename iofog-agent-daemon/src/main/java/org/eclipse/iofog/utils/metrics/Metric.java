@@ -0,0 +1,28 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+/**
+ * single metric of a {@link MetricFamily}, one per combination of label values
+ */
+public interface Metric {
+
+	/**
+	 * appends metric samples in OpenMetrics text format
+	 *
+	 * @param out    - output buffer
+	 * @param name   - sample name
+	 * @param labels - rendered labels without braces, empty if metric has no labels
+	 */
+	void write(StringBuilder out, String name, String labels);
+}
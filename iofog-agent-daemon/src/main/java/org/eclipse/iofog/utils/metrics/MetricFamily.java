@@ -0,0 +1,110 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * named group of metrics of the same type that differ only in label values
+ */
+public class MetricFamily<T extends Metric> {
+
+	private static final String MODULE_NAME = "Metrics";
+
+	private final String name;
+	private final String help;
+	private final String type;
+	private final String[] labelNames;
+	private final Supplier<T> factory;
+	private final Map<List<String>, T> children = new ConcurrentHashMap<>();
+
+	MetricFamily(String name, String help, String type, String[] labelNames, Supplier<T> factory) {
+		this.name = name;
+		this.help = help;
+		this.type = type;
+		this.labelNames = labelNames.clone();
+		this.factory = factory;
+	}
+
+	String getType() {
+		return type;
+	}
+
+	/**
+	 * returns metric for given label values, creates it on first use
+	 * callers on hot paths should keep the returned metric instead of looking it up every time
+	 *
+	 * @param labelValues - values in the order of label names given on registration
+	 * @return metric
+	 */
+	public T labels(String... labelValues) {
+		if (labelValues.length != labelNames.length) {
+			throw new IllegalArgumentException(String.format("Metric %s expects %d label values, got %d",
+					name, labelNames.length, labelValues.length));
+		}
+		List<String> key = Arrays.asList(labelValues);
+		T metric = children.get(key);
+		return metric != null ? metric : children.computeIfAbsent(key, k -> factory.get());
+	}
+
+	/**
+	 * removes metric for given label values, e.g. when the labelled object is gone
+	 *
+	 * @param labelValues - values in the order of label names given on registration
+	 */
+	public void remove(String... labelValues) {
+		children.remove(Arrays.asList(labelValues));
+	}
+
+	/**
+	 * removes metrics whose label values match the filter
+	 *
+	 * @param filter - label values filter, values are in the order of label names
+	 */
+	public void removeIf(Predicate<List<String>> filter) {
+		children.keySet().removeIf(filter);
+	}
+
+	void write(StringBuilder out) {
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+		out.append("# HELP ").append(name).append(' ').append(escape(help)).append('\n');
+		String sampleName = "counter".equals(type) ? name + "_total" : name;
+		children.forEach((labelValues, metric) -> {
+			StringBuilder labels = new StringBuilder();
+			for (int i = 0; i < labelNames.length; i++) {
+				if (i > 0) {
+					labels.append(',');
+				}
+				labels.append(labelNames[i]).append("=\"").append(escape(labelValues.get(i))).append('"');
+			}
+			StringBuilder samples = new StringBuilder();
+			try {
+				metric.write(samples, sampleName, labels.toString());
+				out.append(samples);
+			} catch (Exception e) {
+				LoggingService.logDebug(MODULE_NAME, () -> "Unable to read metric " + name + ": " + e.getMessage());
+			}
+		});
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
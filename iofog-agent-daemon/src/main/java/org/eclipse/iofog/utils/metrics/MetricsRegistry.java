@@ -0,0 +1,153 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * in-process registry of agent metrics
+ * metrics are updated in place by the modules and rendered in OpenMetrics text format
+ * only when scraped through the local API
+ */
+public final class MetricsRegistry {
+
+	public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	private static final Map<String, MetricFamily<?>> families = new ConcurrentSkipListMap<>();
+
+	private MetricsRegistry() {
+	}
+
+	/**
+	 * registers counter family or returns already registered one
+	 *
+	 * @param name       - metric name without "_total" suffix
+	 * @param help       - metric description
+	 * @param labelNames - label names
+	 * @return counter family
+	 */
+	public static MetricFamily<Counter> counter(String name, String help, String... labelNames) {
+		return register(name, help, "counter", labelNames, Counter::new);
+	}
+
+	/**
+	 * registers gauge family or returns already registered one
+	 *
+	 * @param name       - metric name
+	 * @param help       - metric description
+	 * @param labelNames - label names
+	 * @return gauge family
+	 */
+	public static MetricFamily<Gauge> gauge(String name, String help, String... labelNames) {
+		return register(name, help, "gauge", labelNames, Gauge::new);
+	}
+
+	/**
+	 * registers counter family whose values are read from bound sources, for totals that are
+	 * already counted elsewhere
+	 *
+	 * @param name       - metric name without "_total" suffix
+	 * @param help       - metric description
+	 * @param labelNames - label names
+	 * @return family of gauges rendered as counters
+	 */
+	public static MetricFamily<Gauge> functionCounter(String name, String help, String... labelNames) {
+		return register(name, help, "counter", labelNames, Gauge::new);
+	}
+
+	/**
+	 * registers duration histogram family with {@link Histogram#DEFAULT_BUCKETS} or returns already registered one
+	 *
+	 * @param name       - metric name
+	 * @param help       - metric description
+	 * @param labelNames - label names
+	 * @return histogram family
+	 */
+	public static MetricFamily<Histogram> histogram(String name, String help, String... labelNames) {
+		return histogram(name, help, Histogram.DEFAULT_BUCKETS, labelNames);
+	}
+
+	/**
+	 * registers duration histogram family or returns already registered one
+	 *
+	 * @param name       - metric name
+	 * @param help       - metric description
+	 * @param buckets    - bucket upper bounds in seconds
+	 * @param labelNames - label names
+	 * @return histogram family
+	 */
+	public static MetricFamily<Histogram> histogram(String name, String help, double[] buckets, String... labelNames) {
+		return register(name, help, "histogram", labelNames, () -> new Histogram(buckets));
+	}
+
+	/**
+	 * registers latency summary family backed by {@link LatencyHistogram} or returns already registered one
+	 *
+	 * @param name       - metric name
+	 * @param help       - metric description
+	 * @param labelNames - label names
+	 * @return latency histogram family
+	 */
+	public static MetricFamily<LatencyHistogram> latency(String name, String help, String... labelNames) {
+		return register(name, help, "summary", labelNames, LatencyHistogram::new);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Metric> MetricFamily<T> register(String name, String help, String type,
+															   String[] labelNames, Supplier<T> factory) {
+		MetricFamily<?> family = families.computeIfAbsent(name, k -> new MetricFamily<>(name, help, type, labelNames, factory));
+		if (!family.getType().equals(type)) {
+			throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.getType());
+		}
+		return (MetricFamily<T>) family;
+	}
+
+	/**
+	 * renders all registered metrics
+	 *
+	 * @return metrics in OpenMetrics text format
+	 */
+	public static String scrape() {
+		StringBuilder out = new StringBuilder(4096);
+		families.values().forEach(family -> family.write(out));
+		out.append("# EOF\n");
+		return out.toString();
+	}
+
+	static void clear() {
+		families.clear();
+	}
+
+	static void appendSample(StringBuilder out, String name, String labels, double value) {
+		out.append(name);
+		if (!labels.isEmpty()) {
+			out.append('{').append(labels).append('}');
+		}
+		out.append(' ').append(formatValue(value)).append('\n');
+	}
+
+	private static String formatValue(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		if (Double.isInfinite(value)) {
+			return value > 0 ? "+Inf" : "-Inf";
+		}
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+}
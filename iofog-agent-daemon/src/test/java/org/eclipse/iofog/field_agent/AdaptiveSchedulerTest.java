@@ -0,0 +1,181 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({AdaptiveScheduler.class, LoggingService.class})
+public class AdaptiveSchedulerTest {
+    private ScheduledExecutorService executor;
+    private AdaptiveScheduler adaptiveScheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(LoggingService.class);
+        executor = mock(ScheduledExecutorService.class);
+        adaptiveScheduler = new AdaptiveScheduler(executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        adaptiveScheduler = null;
+    }
+
+    /**
+     * Test idle outcome keeps base interval
+     */
+    @Test
+    public void testNextDelayWhenIdle() {
+        assertEquals(10000, AdaptiveScheduler.nextDelay(10000, AdaptiveScheduler.Outcome.IDLE, 0, 0));
+    }
+
+    /**
+     * Test pending outcome shortens interval but not below minimum
+     */
+    @Test
+    public void testNextDelayWhenPending() {
+        assertEquals(2000, AdaptiveScheduler.nextDelay(20000, AdaptiveScheduler.Outcome.PENDING, 0, 0));
+        assertEquals(AdaptiveScheduler.MIN_INTERVAL_MILLIS,
+                AdaptiveScheduler.nextDelay(5000, AdaptiveScheduler.Outcome.PENDING, 0, 0));
+    }
+
+    /**
+     * Test unreachable outcome backs off exponentially up to maximum
+     */
+    @Test
+    public void testNextDelayWhenUnreachable() {
+        assertEquals(20000, AdaptiveScheduler.nextDelay(10000, AdaptiveScheduler.Outcome.UNREACHABLE, 1, 0));
+        assertEquals(40000, AdaptiveScheduler.nextDelay(10000, AdaptiveScheduler.Outcome.UNREACHABLE, 2, 0));
+        assertEquals(AdaptiveScheduler.MAX_BACKOFF_INTERVAL_MILLIS,
+                AdaptiveScheduler.nextDelay(60000, AdaptiveScheduler.Outcome.UNREACHABLE, 100, 0));
+    }
+
+    /**
+     * Test jitter stays in configured range
+     */
+    @Test
+    public void testNextDelayJitter() {
+        assertEquals(11000, AdaptiveScheduler.nextDelay(10000, AdaptiveScheduler.Outcome.IDLE, 0, 1));
+        assertEquals(9000, AdaptiveScheduler.nextDelay(10000, AdaptiveScheduler.Outcome.IDLE, 0, -1));
+    }
+
+    /**
+     * Test task is rescheduled after run even if it throws exception
+     */
+    @Test
+    public void testTaskIsRescheduledAfterException() throws Exception {
+        adaptiveScheduler.schedule("test", () -> 10000L, () -> {
+            throw new Exception("failure");
+        });
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(executor).schedule(taskCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        taskCaptor.getValue().run();
+        Mockito.verify(executor, Mockito.times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Test task is not rescheduled when executor is shut down
+     */
+    @Test
+    public void testTaskIsNotScheduledWhenExecutorIsShutdown() {
+        Mockito.when(executor.isShutdown()).thenReturn(true);
+        adaptiveScheduler.schedule("test", () -> 10000L, () -> AdaptiveScheduler.Outcome.IDLE);
+        Mockito.verify(executor, Mockito.never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    /**
+     * Test runNow cancels scheduled run and runs task immediately
+     */
+    @Test
+    public void testRunNowCancelsScheduledRun() {
+        ScheduledFuture future = mock(ScheduledFuture.class);
+        Mockito.when(future.cancel(false)).thenReturn(true);
+        Mockito.doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        AdaptiveScheduler.ScheduledTask task = adaptiveScheduler.schedule("test", () -> 10000L,
+                () -> AdaptiveScheduler.Outcome.IDLE);
+        task.runNow();
+        Mockito.verify(future).cancel(false);
+        Mockito.verify(executor).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Test runNow while task is running makes task run again right after it finishes
+     */
+    @Test
+    public void testRunNowWhileTaskIsRunning() {
+        ScheduledFuture future = mock(ScheduledFuture.class);
+        Mockito.when(future.cancel(false)).thenReturn(true);
+        Mockito.doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        AdaptiveScheduler.ScheduledTask[] task = new AdaptiveScheduler.ScheduledTask[1];
+        task[0] = adaptiveScheduler.schedule("test", () -> 10000L, () -> {
+            task[0].runNow();
+            task[0].runNow();
+            return AdaptiveScheduler.Outcome.IDLE;
+        });
+        Mockito.verify(executor, Mockito.never()).schedule(any(Runnable.class), eq(0L), any(TimeUnit.class));
+        ((Runnable) task[0]).run();
+        Mockito.verify(future, Mockito.never()).cancel(Mockito.anyBoolean());
+        Mockito.verify(executor, Mockito.times(1)).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Test runNow while task is running on real executor doesn't start overlapping run or second schedule chain
+     */
+    @Test
+    public void testRunNowWhileTaskIsRunningDoesNotOverlap() throws Exception {
+        ScheduledExecutorService realExecutor = Executors.newScheduledThreadPool(2);
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            AtomicInteger concurrent = new AtomicInteger();
+            AtomicInteger maxConcurrent = new AtomicInteger();
+            AdaptiveScheduler.ScheduledTask[] task = new AdaptiveScheduler.ScheduledTask[1];
+            task[0] = new AdaptiveScheduler(realExecutor).schedule("test", () -> 10000L, () -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                if (runs.incrementAndGet() == 1) {
+                    task[0].runNow();
+                    Thread.sleep(100);
+                }
+                concurrent.decrementAndGet();
+                return AdaptiveScheduler.Outcome.IDLE;
+            });
+            task[0].runNow();
+            Thread.sleep(500);
+            assertEquals(2, runs.get());
+            assertEquals(1, maxConcurrent.get());
+        } finally {
+            realExecutor.shutdownNow();
+        }
+    }
+}
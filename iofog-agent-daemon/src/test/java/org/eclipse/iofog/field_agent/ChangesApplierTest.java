@@ -0,0 +1,160 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({StatusReporter.class, LoggingService.class})
+public class ChangesApplierTest {
+    private ExecutorService executor;
+    private ChangesApplier changesApplier;
+    private FieldAgentStatus fieldAgentStatus;
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(StatusReporter.class);
+        mockStatic(LoggingService.class);
+        fieldAgentStatus = new FieldAgentStatus();
+        Mockito.when(StatusReporter.setFieldAgentStatus()).thenReturn(fieldAgentStatus);
+        executor = Executors.newFixedThreadPool(4);
+        changesApplier = new ChangesApplier(executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test independent steps run concurrently
+     */
+    @Test
+    public void testIndependentStepsRunConcurrently() {
+        CountDownLatch latch = new CountDownLatch(2);
+        ChangesApplier.Action action = () -> {
+            latch.countDown();
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        };
+        assertTrue(changesApplier.apply("1", Arrays.asList(
+                new ChangesApplier.Step("registries", action),
+                new ChangesApplier.Step("tunnel", action)), 10000));
+    }
+
+    /**
+     * Test dependent step starts after its dependencies are finished, even if they failed
+     */
+    @Test
+    public void testDependentStepRunsAfterDependencies() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        assertFalse(changesApplier.apply("1", Arrays.asList(
+                new ChangesApplier.Step("config", () -> {
+                    Thread.sleep(100);
+                    order.add("config");
+                }),
+                new ChangesApplier.Step("registries", () -> {
+                    order.add("registries");
+                    throw new Exception("registry is unavailable");
+                }, "config"),
+                new ChangesApplier.Step("microservices", () -> order.add("microservices"), "config", "registries")),
+                10000));
+        assertEquals(Arrays.asList("config", "registries", "microservices"), order);
+    }
+
+    /**
+     * Test only failed steps are applied again for the same change set
+     */
+    @Test
+    public void testOnlyFailedStepsAreRetried() {
+        AtomicInteger configRuns = new AtomicInteger();
+        AtomicInteger registriesRuns = new AtomicInteger();
+        List<ChangesApplier.Step> steps = Arrays.asList(
+                new ChangesApplier.Step("config", configRuns::incrementAndGet),
+                new ChangesApplier.Step("registries", () -> {
+                    if (registriesRuns.incrementAndGet() == 1) {
+                        throw new Exception("registry is unavailable");
+                    }
+                }));
+        assertFalse(changesApplier.apply("1", steps, 10000));
+        assertTrue(changesApplier.apply("1", steps, 10000));
+        assertEquals(1, configRuns.get());
+        assertEquals(2, registriesRuns.get());
+    }
+
+    /**
+     * Test all steps are applied again for new change set and after reset
+     */
+    @Test
+    public void testStepsAreAppliedAgainForNewChangeSet() {
+        AtomicInteger runs = new AtomicInteger();
+        List<ChangesApplier.Step> steps = Collections.singletonList(new ChangesApplier.Step("config", runs::incrementAndGet));
+        assertTrue(changesApplier.apply("1", steps, 10000));
+        assertTrue(changesApplier.apply("2", steps, 10000));
+        assertEquals("2", changesApplier.getChangeSetId());
+        changesApplier.reset();
+        assertNull(changesApplier.getChangeSetId());
+        assertTrue(changesApplier.apply("2", steps, 10000));
+        assertEquals(3, runs.get());
+    }
+
+    /**
+     * Test step which doesn't finish in time is not started again while still running
+     */
+    @Test
+    public void testSlowStepIsNotStartedTwice() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        List<ChangesApplier.Step> steps = Collections.singletonList(new ChangesApplier.Step("registries", () -> {
+            runs.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+        }));
+        assertFalse(changesApplier.apply("1", steps, 100));
+        assertFalse(changesApplier.apply("1", steps, 100));
+        release.countDown();
+        assertTrue(changesApplier.apply("1", steps, 10000));
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Test duration of each step is exposed in field agent status
+     */
+    @Test
+    public void testStepDurationsAreReported() {
+        assertTrue(changesApplier.apply("1", Arrays.asList(
+                new ChangesApplier.Step("config", () -> Thread.sleep(50)),
+                new ChangesApplier.Step("tunnel", () -> {})), 10000));
+        assertTrue(fieldAgentStatus.getChangeStepDurations().get("config") >= 50);
+        assertTrue(fieldAgentStatus.getChangeStepDurations().containsKey("tunnel"));
+    }
+}
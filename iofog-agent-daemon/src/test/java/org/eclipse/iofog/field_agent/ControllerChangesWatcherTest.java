@@ -0,0 +1,190 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.iofog.network.IOFogNetworkInterfaceManager;
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.Orchestrator;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.json.Json;
+import javax.ws.rs.NotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * runs {@link ControllerChangesWatcher} against local stub controller
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Configuration.class, LoggingService.class, IOFogNetworkInterfaceManager.class, StatusReporter.class})
+@PowerMockIgnore({"javax.net.ssl.*", "javax.management.*", "com.sun.net.httpserver.*"})
+public class ControllerChangesWatcherTest {
+    private static final String WATCH_PATH = "/api/v2/agent/" + ControllerChangesWatcher.WATCH_COMMAND;
+
+    private HttpServer controller;
+    private AtomicReference<String> changes;
+    private AtomicReference<String> query;
+    private volatile int status;
+    private ControllerChangesWatcher changesWatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(Configuration.class);
+        mockStatic(LoggingService.class);
+        mockStatic(IOFogNetworkInterfaceManager.class);
+        mockStatic(StatusReporter.class);
+        IOFogNetworkInterfaceManager networkInterfaceManager = mock(IOFogNetworkInterfaceManager.class);
+        Mockito.when(IOFogNetworkInterfaceManager.getInstance()).thenReturn(networkInterfaceManager);
+        Mockito.when(StatusReporter.setFieldAgentStatus()).thenReturn(mock(FieldAgentStatus.class));
+
+        status = 200;
+        changes = new AtomicReference<>();
+        query = new AtomicReference<>();
+        controller = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        controller.createContext(WATCH_PATH, this::handleWatch);
+        controller.start();
+
+        Mockito.when(Configuration.getControllerUrl())
+                .thenReturn("http://127.0.0.1:" + controller.getAddress().getPort() + "/api/v2/");
+        Mockito.when(Configuration.isSecureMode()).thenReturn(true);
+        Mockito.when(Configuration.getAccessToken()).thenReturn("token");
+        changesWatcher = new ControllerChangesWatcher(new Orchestrator());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        controller.stop(0);
+    }
+
+    /**
+     * stub controller: answers with changes flags if there are any, otherwise with 204 as on wait timeout
+     */
+    private void handleWatch(HttpExchange exchange) throws IOException {
+        query.set(exchange.getRequestURI().getQuery());
+        String body = changes.get();
+        if (body == null) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    /**
+     * Test raised change flag is reported and channel becomes active
+     */
+    @Test
+    public void testWaitForChangesWhenControllerReportsChanges() throws Exception {
+        changes.set(Json.createObjectBuilder()
+                .add("config", false)
+                .add("microserviceConfig", true)
+                .add("lastUpdated", "2020-01-01T00:00:00.000Z")
+                .build().toString());
+        assertFalse(changesWatcher.isActive());
+        assertTrue(changesWatcher.waitForChanges(null));
+        assertTrue(changesWatcher.isActive());
+        assertEquals("timeout=" + ControllerChangesWatcher.WAIT_SECONDS, query.get());
+    }
+
+    /**
+     * Test wait timeout without changes keeps channel active
+     */
+    @Test
+    public void testWaitForChangesWhenWaitTimesOut() throws Exception {
+        assertFalse(changesWatcher.waitForChanges(null));
+        assertTrue(changesWatcher.isActive());
+    }
+
+    /**
+     * Test controller without watch endpoint leaves channel inactive
+     */
+    @Test
+    public void testWaitForChangesWhenControllerDoesNotSupportWatching() throws Exception {
+        status = 404;
+        changes.set(Json.createObjectBuilder().add("name", "NotFoundError").add("message", "Not found").build().toString());
+        try {
+            changesWatcher.waitForChanges(null);
+            fail("NotFoundException expected");
+        } catch (NotFoundException e) {
+            assertFalse(changesWatcher.isActive());
+            assertFalse(changesWatcher.isSupported());
+        }
+        changesWatcher.deactivate();
+        assertTrue(changesWatcher.isSupported());
+    }
+
+    /**
+     * Test change set which is already being applied is not reported again and channel goes inactive
+     */
+    @Test
+    public void testWaitForChangesIgnoresAppliedChangeSet() throws Exception {
+        String lastUpdated = "2020-01-01T00:00:00.000Z";
+        changes.set(Json.createObjectBuilder()
+                .add("microserviceConfig", true)
+                .add("lastUpdated", lastUpdated)
+                .build().toString());
+        assertFalse(changesWatcher.waitForChanges(lastUpdated));
+        assertFalse(changesWatcher.isActive());
+        assertTrue(changesWatcher.waitForChanges("2019-12-31T00:00:00.000Z"));
+        assertTrue(changesWatcher.isActive());
+    }
+
+    /**
+     * Test unreachable controller deactivates channel
+     */
+    @Test
+    public void testWaitForChangesWhenControllerIsUnreachable() throws Exception {
+        assertFalse(changesWatcher.waitForChanges(null));
+        controller.stop(0);
+        try {
+            changesWatcher.waitForChanges(null);
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertFalse(changesWatcher.isActive());
+        }
+    }
+
+    /**
+     * Test only raised flags count as changes
+     */
+    @Test
+    public void testHasChanges() {
+        assertFalse(ControllerChangesWatcher.hasChanges(null));
+        assertFalse(ControllerChangesWatcher.hasChanges(Json.createObjectBuilder().add("config", false)
+                .add("lastUpdated", "2020-01-01T00:00:00.000Z").build()));
+        assertTrue(ControllerChangesWatcher.hasChanges(Json.createObjectBuilder().add("routing", true).build()));
+    }
+}
@@ -80,4 +80,32 @@ public class FieldAgentStatusTest {
                 controllerVerified, fieldAgentStatus.isControllerVerified());
     }
 
-}
\ No newline at end of file
+    /**
+     * Test controller connection reuse statistics
+     */
+    @Test
+    public void testControllerConnectionStats() {
+        assertEquals("Default reuse ratio", 0f, fieldAgentStatus.getControllerConnectionReuseRatio(), 0f);
+        fieldAgentStatus.setControllerConnectionStats(10, 2, 1, 1);
+        assertEquals(10, fieldAgentStatus.getControllerRequests());
+        assertEquals(2, fieldAgentStatus.getControllerConnectionsOpened());
+        assertEquals(1, fieldAgentStatus.getControllerConnectionsLeased());
+        assertEquals(1, fieldAgentStatus.getControllerConnectionsAvailable());
+        assertEquals("Reuse ratio after update", 0.8f, fieldAgentStatus.getControllerConnectionReuseRatio(), 0.001f);
+    }
+
+    /**
+     * Test change step durations
+     */
+    @Test
+    public void testChangeStepDurations() {
+        assertTrue(fieldAgentStatus.getChangeStepDurations().isEmpty());
+        fieldAgentStatus.setChangeStepDuration("registries", 120);
+        fieldAgentStatus.setChangeStepDuration("config", 5);
+        fieldAgentStatus.setChangeStepDuration("registries", 80);
+        assertEquals(2, fieldAgentStatus.getChangeStepDurations().size());
+        assertEquals(Long.valueOf(80), fieldAgentStatus.getChangeStepDurations().get("registries"));
+        assertEquals("config", fieldAgentStatus.getChangeStepDurations().keySet().iterator().next());
+    }
+
+}
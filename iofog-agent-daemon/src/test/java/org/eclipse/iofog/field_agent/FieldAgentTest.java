@@ -17,6 +17,7 @@ import org.eclipse.iofog.command_line.util.CommandShellResultSet;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.field_agent.enums.RequestType;
+import org.eclipse.iofog.field_agent.enums.StatusReportMode;
 import org.eclipse.iofog.local_api.LocalApi;
 import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.message_bus.MessageBusStatus;
@@ -84,7 +85,8 @@ import static org.powermock.api.mockito.PowerMockito.*;
 @PrepareForTest({FieldAgent.class, LoggingService.class, FieldAgentStatus.class, MicroserviceManager.class,
         Orchestrator.class, URL.class, HttpURLConnection.class, Configuration.class, StatusReporter.class,
         SshProxyManager.class, ProcessManager.class, MessageBus.class, LocalApi.class, Thread.class, BufferedReader.class,
-        InputStreamReader.class, ResourceManagerStatus.class, IOFogNetworkInterfaceManager.class, VersionHandler.class, CommandShellExecutor.class})
+        InputStreamReader.class, ResourceManagerStatus.class, IOFogNetworkInterfaceManager.class, VersionHandler.class, CommandShellExecutor.class,
+        AdaptiveScheduler.class})
 public class FieldAgentTest {
     private FieldAgent fieldAgent;
     private String MODULE_NAME;
@@ -100,7 +102,7 @@ public class FieldAgentTest {
     private ProcessManager processManager;
     private MessageBus messageBus;
     private LocalApi localApi;
-    private Thread thread;
+    private AdaptiveScheduler adaptiveScheduler;
     private BufferedReader bufferedReader;
     private InputStreamReader inputStreamReader;
     private ResourceManagerStatus resourceManagerStatus;
@@ -205,11 +207,10 @@ public class FieldAgentTest {
     }
 
     public void initiateMockStart() {
-        thread = PowerMockito.mock(Thread.class);
+        adaptiveScheduler = PowerMockito.mock(AdaptiveScheduler.class);
         try {
-            whenNew(Thread.class).withParameterTypes(Runnable.class,String.class).withArguments(Mockito.any(Runnable.class),
-                    Mockito.anyString()).thenReturn(thread);
-            PowerMockito.doNothing().when(thread).start();
+            whenNew(AdaptiveScheduler.class).withParameterTypes(ScheduledExecutorService.class)
+                    .withArguments(Mockito.any(ScheduledExecutorService.class)).thenReturn(adaptiveScheduler);
             fieldAgent.start();
         } catch (Exception e) {
             fail("this should not happen");
@@ -249,13 +250,24 @@ public class FieldAgentTest {
     public void testPostTrackingWithValidJsonObject() {
         try {
             initiateMockStart();
-            fieldAgent.postTracking(jsonObject);
-            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(jsonObject));
+            assertTrue(fieldAgent.postTracking(jsonObject));
+            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(jsonObject), eq(false));
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
 
+    /**
+     * Test postTracking is gzip compressed when status reports are compressed
+     */
+    @Test ( timeout = 5000L )
+    public void testPostTrackingIsCompressedInCompressedStatusReportMode() throws Exception {
+        initiateMockStart();
+        PowerMockito.when(Configuration.getStatusReportMode()).thenReturn(StatusReportMode.COMPRESSED);
+        assertTrue(fieldAgent.postTracking(jsonObject));
+        Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(jsonObject), eq(true));
+    }
+
     /**
      * Test postTracking with null jsonObject
      */
@@ -263,9 +275,9 @@ public class FieldAgentTest {
     public void postTrackingLogsErrorWhenRequestFails() {
         try {
             initiateMockStart();
-            when(orchestrator.request(any(), any(), any(), any())).thenThrow(PowerMockito.mock(Exception.class));
-            fieldAgent.postTracking(null);
-            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(null));
+            when(orchestrator.request(any(), any(), any(), any(), anyBoolean())).thenThrow(PowerMockito.mock(Exception.class));
+            assertFalse(fieldAgent.postTracking(null));
+            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(null), eq(false));
             PowerMockito.verifyStatic(LoggingService.class, Mockito.atLeastOnce());
             LoggingService.logError(eq(MODULE_NAME), eq("Unable send tracking logs"), any());
         } catch (Exception e) {
@@ -1597,6 +1609,7 @@ public class FieldAgentTest {
         when(StatusReporter.getMessageBusStatus()).thenReturn(messageBusStatus);
         when(StatusReporter.getSshManagerStatus()).thenReturn(sshProxyManagerStatus);
         when(StatusReporter.getResourceConsumptionManagerStatus()).thenReturn(resourceConsumptionManagerStatus);
+        when(StatusReporter.getSnapshot()).thenCallRealMethod();
         when(IOFogNetworkInterfaceManager.getInstance()).thenReturn(ioFogNetworkInterfaceManager);
         when(ioFogNetworkInterfaceManager.getCurrentIpAddress()).thenReturn("ip");
         when(supervisorStatus.getDaemonStatus()).thenReturn(Constants.ModulesStatus.RUNNING);
@@ -0,0 +1,190 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({StatusReportTracker.class})
+public class StatusReportTrackerTest {
+    private StatusReportTracker statusReportTracker;
+    private JsonObject status;
+    private JsonObject updatedStatus;
+
+    @Before
+    public void setUp() throws Exception {
+        statusReportTracker = new StatusReportTracker();
+        status = Json.createObjectBuilder()
+                .add("cpuUsage", 10)
+                .add("microserviceStatus", "[]")
+                .build();
+        updatedStatus = Json.createObjectBuilder()
+                .add("cpuUsage", 20)
+                .add("microserviceStatus", "[]")
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        statusReportTracker = null;
+    }
+
+    /**
+     * Test first report is full snapshot
+     */
+    @Test
+    public void testFirstReportIsFullSnapshot() {
+        JsonObject report = statusReportTracker.prepareReport(status);
+        assertEquals(status, report);
+        assertFalse(StatusReportTracker.isDelta(report));
+    }
+
+    /**
+     * Test report contains only changed fields after acknowledge
+     */
+    @Test
+    public void testReportContainsOnlyChangedFields() {
+        JsonObject report = statusReportTracker.prepareReport(status);
+        statusReportTracker.acknowledge(status, report, null);
+        report = statusReportTracker.prepareReport(updatedStatus);
+        assertTrue(StatusReportTracker.isDelta(report));
+        assertEquals(20, report.getInt("cpuUsage"));
+        assertFalse(report.containsKey("microserviceStatus"));
+    }
+
+    /**
+     * Test only changed microservice entries are sent and removed ones are listed
+     */
+    @Test
+    public void testReportContainsOnlyChangedMicroservices() {
+        JsonObject first = Json.createObjectBuilder()
+                .add("microserviceStatus", microservices(
+                        microservice("uuid1", "0.5"), microservice("uuid2", "1.0"), microservice("uuid3", "2.0")))
+                .build();
+        JsonObject second = Json.createObjectBuilder()
+                .add("microserviceStatus", microservices(
+                        microservice("uuid2", "1.0"), microservice("uuid1", "0.7"), microservice("uuid4", "0.1")))
+                .build();
+        statusReportTracker.acknowledge(first, statusReportTracker.prepareReport(first), null);
+        JsonObject report = statusReportTracker.prepareReport(second);
+        assertTrue(StatusReportTracker.isDelta(report));
+        JsonArray changed = Json.createReader(new StringReader(report.getString("microserviceStatus"))).readArray();
+        assertEquals(2, changed.size());
+        assertEquals("uuid1", changed.getJsonObject(0).getString("id"));
+        assertEquals("0.7", changed.getJsonObject(0).getString("cpuUsage"));
+        assertEquals("uuid4", changed.getJsonObject(1).getString("id"));
+        JsonArray removed = report.getJsonObject(StatusReportTracker.REMOVED_PROPERTY).getJsonArray("microserviceStatus");
+        assertEquals(1, removed.size());
+        assertEquals("uuid3", removed.getString(0));
+    }
+
+    /**
+     * Test reordered microservice entries are not sent again
+     */
+    @Test
+    public void testReorderedMicroservicesAreNotSent() {
+        JsonObject first = Json.createObjectBuilder()
+                .add("microserviceStatus", microservices(microservice("uuid1", "0.5"), microservice("uuid2", "1.0")))
+                .build();
+        JsonObject second = Json.createObjectBuilder()
+                .add("microserviceStatus", microservices(microservice("uuid2", "1.0"), microservice("uuid1", "0.5")))
+                .build();
+        statusReportTracker.acknowledge(first, statusReportTracker.prepareReport(first), null);
+        JsonObject report = statusReportTracker.prepareReport(second);
+        assertFalse(report.containsKey("microserviceStatus"));
+        assertFalse(report.containsKey(StatusReportTracker.REMOVED_PROPERTY));
+    }
+
+    /**
+     * Test removed fields are sent as null
+     */
+    @Test
+    public void testRemovedFieldsAreSentAsNull() {
+        statusReportTracker.acknowledge(status, statusReportTracker.prepareReport(status), null);
+        JsonObject report = statusReportTracker.prepareReport(Json.createObjectBuilder().add("cpuUsage", 10).build());
+        assertFalse(report.containsKey("cpuUsage"));
+        assertTrue(report.isNull("microserviceStatus"));
+    }
+
+    private static JsonObject microservice(String id, String cpuUsage) {
+        return Json.createObjectBuilder().add("id", id).add("status", "RUNNING").add("cpuUsage", cpuUsage).build();
+    }
+
+    private static String microservices(JsonObject... microservices) {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (JsonObject microservice : microservices) {
+            builder.add(microservice);
+        }
+        return builder.build().toString();
+    }
+
+    /**
+     * Test not acknowledged fields are sent again
+     */
+    @Test
+    public void testNotAcknowledgedChangesAreResent() {
+        statusReportTracker.acknowledge(status, statusReportTracker.prepareReport(status), null);
+        statusReportTracker.prepareReport(updatedStatus);
+        JsonObject report = statusReportTracker.prepareReport(updatedStatus);
+        assertEquals(20, report.getInt("cpuUsage"));
+    }
+
+    /**
+     * Test full snapshot is sent when controller requests it
+     */
+    @Test
+    public void testFullSnapshotOnControllerRequest() {
+        JsonObject response = Json.createObjectBuilder()
+                .add(StatusReportTracker.FULL_STATUS_REQUIRED_PROPERTY, true)
+                .build();
+        statusReportTracker.acknowledge(status, statusReportTracker.prepareReport(status), response);
+        assertEquals(updatedStatus, statusReportTracker.prepareReport(updatedStatus));
+    }
+
+    /**
+     * Test full snapshot is sent after requestFullSnapshot
+     */
+    @Test
+    public void testRequestFullSnapshot() {
+        statusReportTracker.acknowledge(status, statusReportTracker.prepareReport(status), null);
+        statusReportTracker.requestFullSnapshot();
+        assertEquals(updatedStatus, statusReportTracker.prepareReport(updatedStatus));
+    }
+
+    /**
+     * Test full snapshot is sent periodically
+     */
+    @Test
+    public void testPeriodicFullSnapshot() {
+        statusReportTracker.acknowledge(status, statusReportTracker.prepareReport(status), null);
+        for (int i = 0; i < StatusReportTracker.FULL_SNAPSHOT_INTERVAL; i++) {
+            JsonObject report = statusReportTracker.prepareReport(updatedStatus);
+            assertTrue(StatusReportTracker.isDelta(report));
+            statusReportTracker.acknowledge(updatedStatus, report, null);
+        }
+        assertFalse(StatusReportTracker.isDelta(statusReportTracker.prepareReport(updatedStatus)));
+    }
+}
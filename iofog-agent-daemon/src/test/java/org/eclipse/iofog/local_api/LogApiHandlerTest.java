@@ -30,8 +30,10 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import javax.json.*;
 
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.logging.Level;
 
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpMethod.POST;
@@ -90,8 +92,8 @@ public class LogApiHandlerTest {
         PowerMockito.when(jsonObjectBuilder.build()).thenReturn(jsonObject);
         PowerMockito.when(jsonObjectBuilder.add(Mockito.anyString(), Mockito.anyString())).thenReturn(jsonObjectBuilder);
         PowerMockito.when(jsonObject.toString()).thenReturn(result);
-        PowerMockito.when(LoggingService.microserviceLogInfo(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
-        PowerMockito.when(LoggingService.microserviceLogWarning(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
+        PowerMockito.when(jsonObjectBuilder.add(Mockito.anyString(), Mockito.anyInt())).thenReturn(jsonObjectBuilder);
+        PowerMockito.when(LoggingService.microserviceLog(Mockito.anyString(), Mockito.anyList())).thenReturn(1);
     }
 
     @After
@@ -193,7 +195,8 @@ public class LogApiHandlerTest {
             PowerMockito.verifyStatic(ApiHandlerHelpers.class);
             ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(result));
             PowerMockito.verifyStatic(LoggingService.class);
-            LoggingService.microserviceLogInfo(Mockito.eq("id"), Mockito.eq("message"));
+            LoggingService.microserviceLog(Mockito.eq("id"), Mockito.argThat(records -> records.size() == 1 &&
+                    records.get(0).getLevel() == Level.INFO && records.get(0).getMessage().equals("message")));
         } catch (Exception e) {
             fail("This should not happen");
         }
@@ -222,9 +225,40 @@ public class LogApiHandlerTest {
             PowerMockito.verifyStatic(ApiHandlerHelpers.class);
             ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(result));
             PowerMockito.verifyStatic(LoggingService.class);
-            LoggingService.microserviceLogWarning(Mockito.eq("id"), Mockito.eq("message"));
+            LoggingService.microserviceLog(Mockito.eq("id"), Mockito.argThat(records -> records.size() == 1 &&
+                    records.get(0).getLevel() == Level.WARNING && records.get(0).getMessage().equals("message")));
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test call when content has batch of logs
+     */
+    @Test
+    public void testCallWhenRequestContainLogsBatch() {
+        try {
+            JsonObject log = PowerMockito.mock(JsonObject.class);
+            JsonArray logs = PowerMockito.mock(JsonArray.class);
+            PowerMockito.when(log.containsKey(Mockito.eq("message"))).thenReturn(true);
+            PowerMockito.when(log.getString(Mockito.eq("type"), Mockito.eq("info"))).thenReturn("info");
+            PowerMockito.when(log.getString(Mockito.eq("message"))).thenReturn("message");
+            PowerMockito.when(logs.size()).thenReturn(2);
+            PowerMockito.when(logs.getValuesAs(JsonObject.class)).thenReturn(Arrays.asList(log, log));
+            PowerMockito.when(jsonObject.containsKey(Mockito.eq("id"))).thenReturn(true);
+            PowerMockito.when(jsonObject.containsKey(Mockito.eq("logs"))).thenReturn(true);
+            PowerMockito.when(jsonObject.getString(Mockito.eq("id"))).thenReturn("id");
+            PowerMockito.when(jsonObject.getJsonArray(Mockito.eq("logs"))).thenReturn(logs);
+            PowerMockito.when(LoggingService.microserviceLog(Mockito.anyString(), Mockito.anyList())).thenReturn(1);
+            defaultResponse = new DefaultFullHttpResponse(HTTP_1_1, OK, byteBuf);
+            PowerMockito.when(ApiHandlerHelpers.successResponse(Mockito.any(), Mockito.anyString())).thenReturn(defaultResponse);
+            assertEquals(defaultResponse, logApiHandler.call());
+            PowerMockito.verifyStatic(LoggingService.class);
+            LoggingService.microserviceLog(Mockito.eq("id"), Mockito.argThat(records -> records.size() == 2));
+            Mockito.verify(jsonObjectBuilder).add(Mockito.eq("accepted"), Mockito.eq(1));
+            Mockito.verify(jsonObjectBuilder).add(Mockito.eq("dropped"), Mockito.eq(1));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+}
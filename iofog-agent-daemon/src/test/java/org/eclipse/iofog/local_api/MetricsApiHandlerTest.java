@@ -0,0 +1,96 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.*;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MetricsApiHandler.class, HttpRequest.class, ByteBuf.class, ApiHandlerHelpers.class, LoggingService.class,
+        MetricsRegistry.class})
+public class MetricsApiHandlerTest {
+    private MetricsApiHandler metricsApiHandler;
+    private HttpRequest httpRequest;
+    private ByteBuf byteBuf;
+    private DefaultFullHttpResponse defaultResponse;
+    private String metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        PowerMockito.mockStatic(ApiHandlerHelpers.class);
+        PowerMockito.mockStatic(LoggingService.class);
+        PowerMockito.mockStatic(MetricsRegistry.class);
+        httpRequest = PowerMockito.mock(HttpRequest.class);
+        byteBuf = PowerMockito.mock(ByteBuf.class);
+        metrics = "test_value 1\n# EOF\n";
+        metricsApiHandler = new MetricsApiHandler(httpRequest, byteBuf, new byte[0]);
+        PowerMockito.when(ApiHandlerHelpers.validateMethod(Mockito.eq(httpRequest), Mockito.eq(GET))).thenReturn(true);
+        PowerMockito.when(ApiHandlerHelpers.validateAccessToken(Mockito.any())).thenReturn(true);
+        PowerMockito.when(MetricsRegistry.scrape()).thenReturn(metrics);
+    }
+
+    /**
+     * Test call when httpMethod is not valid
+     */
+    @Test
+    public void testCallWhenMethodTypeIsInvalid() throws Exception {
+        defaultResponse = new DefaultFullHttpResponse(HTTP_1_1, METHOD_NOT_ALLOWED);
+        PowerMockito.when(ApiHandlerHelpers.validateMethod(Mockito.eq(httpRequest), Mockito.eq(GET))).thenReturn(false);
+        PowerMockito.when(ApiHandlerHelpers.methodNotAllowedResponse()).thenReturn(defaultResponse);
+        assertEquals(defaultResponse, metricsApiHandler.call());
+        verifyStatic(MetricsRegistry.class, Mockito.never());
+        MetricsRegistry.scrape();
+    }
+
+    /**
+     * Test call when access token is not valid
+     */
+    @Test
+    public void testCallWhenAccessTokenIsInvalid() throws Exception {
+        String errorMsg = "Incorrect access token";
+        defaultResponse = new DefaultFullHttpResponse(HTTP_1_1, UNAUTHORIZED, byteBuf);
+        PowerMockito.when(ApiHandlerHelpers.validateAccessToken(Mockito.any())).thenReturn(false);
+        PowerMockito.when(ApiHandlerHelpers.unauthorizedResponse(Mockito.eq(byteBuf), Mockito.eq(errorMsg))).thenReturn(defaultResponse);
+        assertEquals(defaultResponse, metricsApiHandler.call());
+        verifyStatic(MetricsRegistry.class, Mockito.never());
+        MetricsRegistry.scrape();
+    }
+
+    /**
+     * Test call returns scraped metrics with OpenMetrics content type
+     */
+    @Test
+    public void testCallWhenMethodAndAccessTokenAreValid() throws Exception {
+        defaultResponse = new DefaultFullHttpResponse(HTTP_1_1, OK, byteBuf);
+        PowerMockito.when(ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(metrics))).thenReturn(defaultResponse);
+        assertEquals(defaultResponse, metricsApiHandler.call());
+        assertEquals(MetricsRegistry.CONTENT_TYPE, defaultResponse.headers().get(HttpHeaderNames.CONTENT_TYPE));
+        verifyStatic(ApiHandlerHelpers.class);
+        ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(metrics));
+    }
+}
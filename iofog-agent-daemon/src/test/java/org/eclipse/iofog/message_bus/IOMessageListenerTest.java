@@ -24,6 +24,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import javax.jms.JMSException;
 import javax.jms.TextMessage;
+import javax.json.JsonObject;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -54,7 +55,7 @@ public class IOMessageListenerTest {
         ioMessageListener = spy(new IOMessageListener(messageCallback));
         doNothing().when(textMessage).acknowledge();
         PowerMockito.when(textMessage.getText()).thenReturn("{}");
-        PowerMockito.whenNew(Message.class).withArguments(anyString()).thenReturn(message);
+        PowerMockito.whenNew(Message.class).withParameterTypes(JsonObject.class).withArguments(any(JsonObject.class)).thenReturn(message);
         PowerMockito.doNothing().when(messageCallback).sendRealtimeMessage(any(Message.class));
     }
 
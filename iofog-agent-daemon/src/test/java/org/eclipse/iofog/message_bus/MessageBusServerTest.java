@@ -117,7 +117,7 @@ public class MessageBusServerTest {
         try {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
-            Mockito.verify(connection, Mockito.atLeastOnce()).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            Mockito.verify(connection, never()).createSession(anyBoolean(), anyInt());
             Mockito.verify(connection, Mockito.atLeastOnce()).start();
             PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
             LoggingService.logDebug(MODULE_NAME, "Starting initialization");
@@ -139,7 +139,7 @@ public class MessageBusServerTest {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
             messageBusServer.stopServer();
-            Mockito.verify(session, Mockito.atLeastOnce()).close();
+            Mockito.verify(session, never()).close();
             Mockito.verify(connection, Mockito.atLeastOnce()).close();
             PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
             LoggingService.logDebug(MODULE_NAME, "stopping server started");
@@ -150,6 +150,37 @@ public class MessageBusServerTest {
         }
     }
 
+    /**
+     * Test connections of previous start are closed on restart
+     */
+    @Test
+    public void testStartServerClosesPreviousConnections() throws Exception {
+        messageBusServer.startServer("localhost", 5672);
+        Mockito.verify(connection, never()).close();
+        messageBusServer.startServer("localhost", 5672);
+        Mockito.verify(connection, times(MessageBusServer.CONNECTIONS_COUNT)).close();
+    }
+
+    /**
+     * Test every connection is closed and removed even if closing one fails
+     */
+    @Test
+    public void testStopServerClosesAllConnectionsWhenCloseFails() throws Exception {
+        Connection failing = mock(Connection.class);
+        PowerMockito.doThrow(new JMSException("close failed")).when(failing).close();
+        PowerMockito.when(connectionFactory.createConnection()).thenReturn(failing, connection);
+        messageBusServer.startServer("localhost", 5672);
+        messageBusServer.stopServer();
+        Mockito.verify(failing).close();
+        Mockito.verify(connection, times(MessageBusServer.CONNECTIONS_COUNT - 1)).close();
+        try {
+            messageBusServer.createConsumer("consumer");
+            fail("Connections should be removed");
+        } catch (javax.jms.IllegalStateException e) {
+            // expected
+        }
+    }
+
     /**
      * Test stop server when consumers and producers present
      */
@@ -289,17 +320,32 @@ public class MessageBusServerTest {
     }
 
     /**
-     * Test create message is equal to mock session
+     * Test every consumer and publisher get their own session, which is closed when they are removed
      */
     @Test
-    public void getSession() {
+    public void testSessionPerConsumerAndPublisher() {
         try {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
-            assertEquals(textMessage, MessageBusServer.createMessage(anyString()));
-            Mockito.verify(session, atLeastOnce()).createTextMessage(anyString());
+            messageBusServer.createConsumer("consumer1");
+            messageBusServer.createConsumer("consumer2");
+            messageBusServer.createProducer("producer", receivers);
+            Mockito.verify(connection, times(3)).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            assertEquals(session, messageBusServer.getProducerSession("producer"));
+            messageBusServer.removeProducer("producer");
+            messageBusServer.removeConsumer("consumer1");
+            assertNull(messageBusServer.getProducerSession("producer"));
+            Mockito.verify(session, times(2)).close();
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test consumer is not created when server is not started
+     */
+    @Test (expected = javax.jms.IllegalStateException.class)
+    public void throwsExceptionWhenCreateConsumerBeforeStart() throws Exception {
+        messageBusServer.getConsumer("consumer");
+    }
+}
@@ -19,6 +19,8 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.reset;
 import static org.powermock.api.mockito.PowerMockito.spy;
@@ -121,4 +123,42 @@ public class MessageBusStatusTest {
         messageBusStatus.increasePublishedMessagesPerMicroservice("microservice");
         assertTrue(messageBusStatus.getJsonPublishedMessagesPerMicroservice().contains("id"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test counters are not lost under concurrent publishing
+     */
+    @Test
+    public void testConcurrentIncreasePublishedMessagesPerMicroservice() throws Exception {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            String microservice = "microservice" + (i % 2);
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    messageBusStatus.increasePublishedMessagesPerMicroservice(microservice, 10);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000, messageBusStatus.getProcessedMessages());
+        assertEquals(800000, messageBusStatus.getProcessedBytes());
+        assertEquals(40000, messageBusStatus.getPublishedMessagesPerMicroservice("microservice0"), 0);
+        assertEquals(400000, messageBusStatus.getPublisherCounters("microservice1").getBytes());
+    }
+
+    /**
+     * Test retainPublishedMessagesPerMicroservice removes old and adds new microservices
+     */
+    @Test
+    public void testRetainPublishedMessagesPerMicroservice() {
+        messageBusStatus.increasePublishedMessagesPerMicroservice("removed");
+        messageBusStatus.increasePublishedMessagesPerMicroservice("kept");
+        messageBusStatus.retainPublishedMessagesPerMicroservice(Arrays.asList("kept", "added"));
+        assertEquals(2, messageBusStatus.getPublishedMessagesPerMicroservice().size());
+        assertEquals(1, messageBusStatus.getPublishedMessagesPerMicroservice("kept"), 0);
+        assertEquals(0, messageBusStatus.getPublishedMessagesPerMicroservice("added"), 0);
+        assertNull(messageBusStatus.getPublishedMessagesPerMicroservice("removed"));
+    }
+}
@@ -31,6 +31,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
+import javax.jms.Session;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
@@ -39,6 +40,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -91,7 +93,8 @@ public class MessageBusTest {
         PowerMockito.whenNew(MessageBusServer.class).withNoArguments().thenReturn(messageBusServer);
         PowerMockito.whenNew(MessageReceiver.class).withArguments(anyString(), any(MessageConsumer.class))
                 .thenReturn(messageReceiver);
-        PowerMockito.whenNew(MessagePublisher.class).withArguments(anyString(), any(Route.class), any(MessageProducer.class))
+        PowerMockito.whenNew(MessagePublisher.class).withArguments(anyString(), any(Route.class), any(Session.class),
+                any(MessageProducer.class), any(BooleanSupplier.class))
                 .thenReturn(messagePublisher);
         route = new Route();
         receivers = new ArrayList<>();
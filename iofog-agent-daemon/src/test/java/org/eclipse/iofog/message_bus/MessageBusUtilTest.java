@@ -76,7 +76,7 @@ public class MessageBusUtilTest {
         PowerMockito.when(routes.get(any())).thenReturn(route);
         PowerMockito.when(route.getReceivers()).thenReturn(receivers);
         PowerMockito.when(messageReceiver.getMessages()).thenReturn(messages);
-        PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(messageBusStatus);
+        PowerMockito.when(StatusReporter.getMessageBusStatus()).thenReturn(messageBusStatus);
         PowerMockito.when(receivers.contains(eq("receiver"))).thenReturn(true);
         messageBusUtil = spy(new MessageBusUtil());
     }
@@ -102,7 +102,7 @@ public class MessageBusUtilTest {
             PowerMockito.when(messageBus.getPublisher(message.getPublisher())).thenReturn(null);
             messageBusUtil.publishMessage(message);
             Mockito.verify(messageBus).getPublisher(any());
-            Mockito.verify(messagePublisher, Mockito.never()).publish(any(Message.class));
+            Mockito.verify(messagePublisher, Mockito.never()).publish(any(Message.class), anyLong());
             PowerMockito.verifyStatic(LoggingService.class);
             LoggingService.logDebug(MODULE_NAME, "Start publish message");
             PowerMockito.verifyStatic(LoggingService.class);
@@ -121,7 +121,7 @@ public class MessageBusUtilTest {
             PowerMockito.when(messageBus.getPublisher(message.getPublisher())).thenReturn(messagePublisher);
             messageBusUtil.publishMessage(message);
             Mockito.verify(messageBus).getPublisher(any());
-            Mockito.verify(messagePublisher).publish(any(Message.class));
+            Mockito.verify(messagePublisher).publish(any(Message.class), anyLong());
         } catch (Exception e) {
             fail("This should not happen");
         }
@@ -136,10 +136,10 @@ public class MessageBusUtilTest {
         PowerMockito.when(messageBus.getPublisher(message.getPublisher())).thenReturn(messagePublisher);
         PowerMockito.when(messagePublisher.getName()).thenReturn("MP");
         try {
-            PowerMockito.doThrow(mock(Exception.class)).when(messagePublisher).publish(any());
+            PowerMockito.doThrow(mock(Exception.class)).when(messagePublisher).publish(any(), anyLong());
             messageBusUtil.publishMessage(message);
             Mockito.verify(messageBus).getPublisher(any());
-            Mockito.verify(messagePublisher).publish(any(Message.class));
+            Mockito.verify(messagePublisher).publish(any(Message.class), anyLong());
             PowerMockito.verifyStatic(LoggingService.class);
             LoggingService.logError(eq(MODULE_NAME), eq("Unable to send message : Message Publisher (MP)"), any());
         } catch (Exception e) {
@@ -13,21 +13,31 @@
 package org.eclipse.iofog.message_bus;
 
 import org.eclipse.iofog.microservice.Route;
+import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
+import javax.jms.DeliveryMode;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
+import javax.json.Json;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.eclipse.iofog.message_bus.MessageBus.MODULE_NAME;
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -35,6 +45,7 @@ import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 /**
@@ -44,7 +55,7 @@ import static org.powermock.api.mockito.PowerMockito.*;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({MessagePublisher.class, Route.class, MessageProducer.class, Message.class,
         MessageArchive.class, LoggingService.class, MessageBusServer.class, Session.class,
-        TextMessage.class})
+        TextMessage.class, Configuration.class})
 public class MessagePublisherTest {
     private final List<MessageProducer> messageProducers = new ArrayList<>();
     private MessagePublisher messagePublisher;
@@ -54,9 +65,14 @@ public class MessagePublisherTest {
     private MessageArchive messageArchive;
     private MessageBusServer messageBusServer;
     private TextMessage textMessage;
+    private Session session;
     private byte[] bytes;
     private List<String> receivers;
     private List<Message> messageList;
+    private boolean routerConnected;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
     @Before
     public void setUp() throws Exception {
@@ -65,6 +81,7 @@ public class MessagePublisherTest {
         route = mock(Route.class);
         message = mock(Message.class);
         textMessage = mock(TextMessage.class);
+        session = mock(Session.class);
         messageArchive = mock(MessageArchive.class);
         messageBusServer = mock(MessageBusServer.class);
         receivers = new ArrayList<>();
@@ -72,12 +89,15 @@ public class MessagePublisherTest {
         messageList = mock(ArrayList.class);
         mockStatic(LoggingService.class);
         mockStatic(MessageBusServer.class);
+        mockStatic(Configuration.class);
+        PowerMockito.when(Configuration.getDiskDirectory()).thenReturn(folder.getRoot().getPath() + "/");
+        routerConnected = true;
         PowerMockito.when(message.getBytes()).thenReturn(bytes);
         PowerMockito.when(message.getTimestamp()).thenReturn(System.currentTimeMillis());
-        PowerMockito.when(MessageBusServer.createMessage(anyString())).thenReturn(textMessage);
+        PowerMockito.when(session.createTextMessage(anyString())).thenReturn(textMessage);
         PowerMockito.when(route.getReceivers()).thenReturn(receivers);
         PowerMockito.whenNew(MessageArchive.class).withArguments(anyString()).thenReturn(messageArchive);
-        messagePublisher = spy(new MessagePublisher(name, route, messageProducers));
+        messagePublisher = spy(new MessagePublisher(name, route, session, messageProducers, () -> routerConnected));
         PowerMockito.doNothing().when(messageArchive).save(Mockito.any(byte[].class), anyLong());
         PowerMockito.doNothing().when(messageArchive).close();
         PowerMockito.when(messageArchive.messageQuery(anyLong(), anyLong())).thenReturn(messageList);
@@ -87,6 +107,7 @@ public class MessagePublisherTest {
     public void tearDown() throws Exception {
         reset(messagePublisher);
         reset(route);
+        MessageSpool.retain(Collections.emptyList());
     }
 
     /**
@@ -105,15 +126,121 @@ public class MessagePublisherTest {
         try {
             messagePublisher.publish(message);
             Mockito.verify(messageArchive, atLeastOnce()).save(any(byte[].class), anyLong());
-            verifyStatic(LoggingService.class);
-            LoggingService.logDebug(MODULE_NAME, "Start publish message :name");
-            verifyStatic(LoggingService.class);
-            LoggingService.logDebug(MODULE_NAME, "Finished publish message : name");
+            ArgumentCaptor<Supplier<String>> messageCaptor = ArgumentCaptor.forClass(Supplier.class);
+            verifyStatic(LoggingService.class, times(2));
+            LoggingService.logDebug(eq(MODULE_NAME), messageCaptor.capture());
+            assertEquals("Start publish message :name", messageCaptor.getAllValues().get(0).get());
+            assertEquals("Finished publish message : name", messageCaptor.getAllValues().get(1).get());
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
 
+    /**
+     * Test Publish records archive and send latencies of the publisher
+     */
+    @Test
+    public void testPublishRecordsLatencies() throws Exception {
+        messageProducers.add(mock(MessageProducer.class));
+        PowerMockito.when(message.toJson()).thenReturn(Json.createObjectBuilder().build());
+        long archived = MessageLatencies.archive(name).getCount();
+        long sent = MessageLatencies.send(name).getCount();
+        messagePublisher.publish(message, System.nanoTime());
+        assertEquals(archived + 1, MessageLatencies.archive(name).getCount());
+        assertEquals(sent + 1, MessageLatencies.send(name).getCount());
+    }
+
+    /**
+     * Test message is sent with JMS priority of the message
+     */
+    @Test
+    public void testPublishSendsWithMessagePriority() throws Exception {
+        MessageProducer producer = mock(MessageProducer.class);
+        messageProducers.add(producer);
+        PowerMockito.when(message.toJson()).thenReturn(Json.createObjectBuilder().build());
+        PowerMockito.when(message.getDeliveryPriority()).thenReturn(9);
+        messagePublisher.publish(message, System.nanoTime());
+        Mockito.verify(producer).send(textMessage, DeliveryMode.NON_PERSISTENT, 9, javax.jms.Message.DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Test message is spooled while router is unreachable and replayed in order once it is back
+     */
+    @Test
+    public void testPublishSpoolsWhileRouterIsUnreachable() throws Exception {
+        MessageProducer producer = mock(MessageProducer.class);
+        messageProducers.add(producer);
+        routerConnected = false;
+        messagePublisher.publish(spooledMessage("first"));
+        messagePublisher.publish(spooledMessage("second"));
+        assertEquals(0, messagePublisher.replay(100));
+        Mockito.verify(producer, Mockito.never()).send(any(), anyInt(), anyInt(), anyLong());
+        assertEquals(2, MessageSpool.forPublisher(name).getPendingCount());
+
+        routerConnected = true;
+        assertEquals(2, messagePublisher.replay(100));
+        Mockito.verify(producer, times(2)).send(eq(textMessage), eq(DeliveryMode.NON_PERSISTENT), anyInt(), anyLong());
+        assertTrue(MessageSpool.forPublisher(name).isEmpty());
+    }
+
+    /**
+     * Test message rejected by reachable router is only logged, not spooled
+     */
+    @Test
+    public void testPublishDoesNotSpoolWhenSendFailsWhileRouterIsReachable() throws Exception {
+        MessageProducer producer = mock(MessageProducer.class);
+        messageProducers.add(producer);
+        PowerMockito.when(message.toJson()).thenReturn(Json.createObjectBuilder().build());
+        PowerMockito.doThrow(new javax.jms.JMSException("rejected")).when(producer)
+                .send(any(), anyInt(), anyInt(), anyLong());
+        messagePublisher.publish(message, System.nanoTime());
+        assertTrue(MessageSpool.forPublisher(name).isEmpty());
+        verifyStatic(LoggingService.class);
+        LoggingService.logError(eq(MODULE_NAME), eq("Message Publisher (name) unable to send message"), any());
+    }
+
+    /**
+     * Test replay sends at most given number of messages and drops message router keeps rejecting
+     */
+    @Test
+    public void testReplayDropsMessageRejectedByRouter() throws Exception {
+        MessageProducer producer = mock(MessageProducer.class);
+        messageProducers.add(producer);
+        routerConnected = false;
+        messagePublisher.publish(spooledMessage("poison"));
+        for (int i = 0; i < 150; i++) {
+            messagePublisher.publish(spooledMessage(String.valueOf(i)));
+        }
+        routerConnected = true;
+        PowerMockito.doThrow(new javax.jms.JMSException("rejected")).doNothing().when(producer)
+                .send(any(), anyInt(), anyInt(), anyLong());
+        for (int i = 1; i < MessageSpool.MAXIMUM_SEND_ATTEMPTS; i++) {
+            assertEquals(0, messagePublisher.replay(100));
+            PowerMockito.doThrow(new javax.jms.JMSException("rejected")).doNothing().when(producer)
+                    .send(any(), anyInt(), anyInt(), anyLong());
+        }
+        assertEquals(100, messagePublisher.replay(100));
+        assertEquals(50, messagePublisher.replay(100));
+        assertTrue(MessageSpool.forPublisher(name).isEmpty());
+    }
+
+    /**
+     * Test messages spooled by previous run are picked up as soon as publisher is created
+     */
+    @Test
+    public void testSpoolOfPreviousRunIsLoadedWhenPublisherIsCreated() throws Exception {
+        MessageSpool.forPublisher(name).append(spooledMessage("first").getBytes());
+        Whitebox.<Map<String, MessageSpool>>getInternalState(MessageSpool.class, "SPOOLS").clear();
+        new MessagePublisher(name, route, session, messageProducers, () -> routerConnected);
+        assertEquals(1L, (long) Whitebox.<Long>getInternalState(MessageSpool.forPublisher(name), "pending"));
+    }
+
+    private Message spooledMessage(String id) {
+        Message spooled = new Message(name);
+        spooled.setId(id);
+        return spooled;
+    }
+
     /**
      * Test Publish throws exception when messageArchive save is called
      */
@@ -137,7 +264,7 @@ public class MessagePublisherTest {
     @Test
     public void testUpdateRoute() {
         try {
-            messagePublisher.updateRoute(route, messageProducers);
+            messagePublisher.updateRoute(route, session, messageProducers);
             verifyStatic(LoggingService.class);
             LoggingService.logDebug(MODULE_NAME, "Updating route");
         } catch (Exception e) {
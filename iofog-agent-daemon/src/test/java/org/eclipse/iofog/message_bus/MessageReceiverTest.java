@@ -26,6 +26,9 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.TextMessage;
+import javax.json.JsonObject;
+
+import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -109,6 +112,31 @@ public class MessageReceiverTest {
     }
 
 
+    /**
+     * Test getMessages returns higher priority messages first and keeps order of messages with same priority
+     */
+    @Test
+    public void testGetMessagesOrderedByPriority() throws Exception {
+        Message low = mock(Message.class);
+        Message high = mock(Message.class);
+        Message notSet = mock(Message.class);
+        Message alsoHigh = mock(Message.class);
+        PowerMockito.when(low.getDeliveryPriority()).thenReturn(1);
+        PowerMockito.when(high.getDeliveryPriority()).thenReturn(9);
+        PowerMockito.when(notSet.getDeliveryPriority()).thenReturn(javax.jms.Message.DEFAULT_PRIORITY);
+        PowerMockito.when(alsoHigh.getDeliveryPriority()).thenReturn(9);
+        PowerMockito.whenNew(Message.class).withParameterTypes(JsonObject.class).withArguments(any(JsonObject.class))
+                .thenReturn(low, high, notSet, alsoHigh);
+        PowerMockito.when(messageConsumer.receiveNoWait()).thenReturn(textMessage, textMessage, textMessage, textMessage, null);
+
+        List<Message> messages = messageReceiver.getMessages();
+        assertEquals(4, messages.size());
+        assertSame(high, messages.get(0));
+        assertSame(alsoHigh, messages.get(1));
+        assertSame(notSet, messages.get(2));
+        assertSame(low, messages.get(3));
+    }
+
     /**
      * Test getMessages When Listener is not null
      */
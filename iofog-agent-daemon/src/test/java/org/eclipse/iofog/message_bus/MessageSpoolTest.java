@@ -0,0 +1,167 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.utils.Constants;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Configuration.class, LoggingService.class})
+@PowerMockIgnore({"javax.management.*"})
+public class MessageSpoolTest {
+    private static final String PUBLISHER = "publisher";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(Configuration.class);
+        mockStatic(LoggingService.class);
+        when(Configuration.getDiskDirectory()).thenReturn(folder.getRoot().getPath() + "/");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        MessageSpool.retain(Collections.emptyList());
+    }
+
+    private static byte[] message(String id, int contentSize) {
+        Message message = new Message(PUBLISHER);
+        message.setId(id);
+        message.setContentData(new byte[contentSize]);
+        return message.getBytes();
+    }
+
+    private static MessageSpool newSpool() throws Exception {
+        Whitebox.<Map<String, MessageSpool>>getInternalState(MessageSpool.class, "SPOOLS").clear();
+        return MessageSpool.forPublisher(PUBLISHER);
+    }
+
+    /**
+     * Test messages are returned in the order they were spooled and files are deleted once spool is empty
+     */
+    @Test
+    public void testMessagesAreReplayedInOrder() throws Exception {
+        MessageSpool spool = newSpool();
+        assertTrue(spool.isEmpty());
+        assertNull(spool.peek());
+
+        spool.append(message("first", 10));
+        spool.append(message("second", 10));
+        assertFalse(spool.isEmpty());
+        assertEquals(2, spool.getPendingCount());
+        assertTrue(spool.getSize() > 0);
+
+        assertEquals("first", spool.peek().getId());
+        assertEquals("first", spool.peek().getId());
+        spool.remove();
+        assertEquals("second", spool.peek().getId());
+        spool.remove();
+
+        assertTrue(spool.isEmpty());
+        assertNull(spool.peek());
+        assertEquals(0, spool.getSize());
+        assertEquals(0, new File(folder.getRoot(), "messages/spool").listFiles().length);
+    }
+
+    /**
+     * Test messages spooled before restart are picked up by new spool
+     */
+    @Test
+    public void testSpoolFilesArePickedUpAfterRestart() throws Exception {
+        MessageSpool spool = newSpool();
+        spool.append(message("first", 10));
+        spool.append(message("second", 10));
+        assertEquals("first", spool.peek().getId());
+        spool.remove();
+
+        MessageSpool restarted = newSpool();
+        assertNotSame(spool, restarted);
+        assertFalse(restarted.isEmpty());
+        assertEquals(2, restarted.getPendingCount());
+        assertEquals("first", restarted.peek().getId());
+        restarted.remove();
+        assertEquals("second", restarted.peek().getId());
+        restarted.remove();
+        assertTrue(restarted.isEmpty());
+    }
+
+    /**
+     * Test oldest messages are dropped when spool grows over its size limit
+     */
+    @Test
+    public void testOldestMessagesAreDroppedWhenSpoolIsFull() throws Exception {
+        MessageSpool spool = newSpool();
+        int count = (int) (MessageSpool.MAXIMUM_SPOOL_SIZE / Constants.MiB) + 6;
+        for (int i = 0; i < count; i++) {
+            spool.append(message(String.valueOf(i), Constants.MiB - 100));
+        }
+        assertTrue(spool.getSize() <= MessageSpool.MAXIMUM_SPOOL_SIZE);
+        assertTrue(spool.getPendingCount() < count);
+        long dropped = count - spool.getPendingCount();
+        assertEquals(String.valueOf(dropped), spool.peek().getId());
+    }
+
+    /**
+     * Test message which keeps failing is dropped after maximum send attempts
+     */
+    @Test
+    public void testFailDropsMessageAfterMaximumSendAttempts() throws Exception {
+        MessageSpool spool = newSpool();
+        spool.append(message("poison", 10));
+        spool.append(message("second", 10));
+        assertEquals("poison", spool.peek().getId());
+        for (int i = 1; i < MessageSpool.MAXIMUM_SEND_ATTEMPTS; i++) {
+            assertFalse(spool.fail());
+            assertEquals("poison", spool.peek().getId());
+        }
+        assertTrue(spool.fail());
+        assertEquals(1, spool.getPendingCount());
+        assertEquals("second", spool.peek().getId());
+    }
+
+    /**
+     * Test spools of removed publishers are discarded
+     */
+    @Test
+    public void testRetainDiscardsSpoolsOfRemovedPublishers() throws Exception {
+        MessageSpool spool = newSpool();
+        spool.append(message("first", 10));
+        MessageSpool.retain(Collections.singletonList(PUBLISHER));
+        assertSame(spool, MessageSpool.forPublisher(PUBLISHER));
+
+        MessageSpool.retain(Collections.emptyList());
+        assertTrue(spool.isEmpty());
+        assertNotSame(spool, MessageSpool.forPublisher(PUBLISHER));
+    }
+}
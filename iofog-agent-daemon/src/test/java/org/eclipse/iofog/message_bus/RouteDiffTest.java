@@ -0,0 +1,90 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.microservice.Route;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RouteDiffTest {
+
+    private static Route route(String... receivers) {
+        Route route = new Route();
+        route.setReceivers(new ArrayList<>(Arrays.asList(receivers)));
+        return route;
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    /**
+     * Test nothing is touched when routes and consumers are unchanged
+     */
+    @Test
+    public void testUnchangedRoutes() {
+        Map<String, Route> routes = new HashMap<>();
+        routes.put("pub1", route("rec1", "rec2"));
+        RouteDiff diff = new RouteDiff(routes, set("rec1", "rec2", "consumer"), routes, Collections.singletonList("consumer"));
+        assertTrue(diff.isEmpty());
+    }
+
+    /**
+     * Test added, changed and removed publishers are detected
+     */
+    @Test
+    public void testPublishersDiff() {
+        Map<String, Route> currentRoutes = new HashMap<>();
+        currentRoutes.put("kept", route("rec1"));
+        currentRoutes.put("changed", route("rec1"));
+        currentRoutes.put("removed", route("rec1"));
+        Map<String, Route> newRoutes = new HashMap<>();
+        newRoutes.put("kept", route("rec1"));
+        newRoutes.put("changed", route("rec1", "rec2"));
+        newRoutes.put("added", route("rec1"));
+        newRoutes.put("empty", null);
+
+        RouteDiff diff = new RouteDiff(currentRoutes, set("rec1"), newRoutes, Collections.emptyList());
+        assertEquals(set("added"), diff.getAddedPublishers());
+        assertEquals(set("changed"), diff.getChangedPublishers());
+        assertEquals(set("removed"), diff.getRemovedPublishers());
+        assertEquals(set("rec2"), diff.getAddedReceivers());
+        assertTrue(diff.getRemovedReceivers().isEmpty());
+    }
+
+    /**
+     * Test receivers are kept while they are receivers of any route or consumers
+     */
+    @Test
+    public void testReceiversDiff() {
+        Map<String, Route> currentRoutes = new HashMap<>();
+        currentRoutes.put("pub1", route("rec1", "rec2"));
+        Map<String, Route> newRoutes = new HashMap<>();
+        newRoutes.put("pub1", route("rec1"));
+
+        RouteDiff diff = new RouteDiff(currentRoutes, set("rec1", "rec2", "rec3"), newRoutes, Arrays.asList("rec3", "rec4"));
+        assertEquals(set("pub1"), diff.getChangedPublishers());
+        assertEquals(set("rec4"), diff.getAddedReceivers());
+        assertEquals(set("rec2"), diff.getRemovedReceivers());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class})
+public class MicroserviceManagerTest {
+    private MicroserviceManager microserviceManager;
+
+    @Before
+    public void setUp() throws Exception {
+        PowerMockito.mockStatic(LoggingService.class);
+        microserviceManager = MicroserviceManager.getInstance();
+        microserviceManager.clear();
+    }
+
+    /**
+     * Test latest microservices are found by uuid
+     */
+    @Test
+    public void testFindLatestMicroserviceByUuid() {
+        Microservice first = new Microservice("uuid1", "image1");
+        Microservice second = new Microservice("uuid2", "image2");
+        microserviceManager.setLatestMicroservices(Arrays.asList(first, second));
+        assertSame(second, microserviceManager.findLatestMicroserviceByUuid("uuid2").get());
+        assertFalse(microserviceManager.findLatestMicroserviceByUuid("uuid3").isPresent());
+        assertTrue(microserviceManager.microserviceExists(microserviceManager.getLatestMicroservices(), "uuid1"));
+        assertFalse(microserviceManager.microserviceExists(microserviceManager.getCurrentMicroservices(), "uuid1"));
+        assertTrue(microserviceManager.microserviceExists(Collections.singletonList(first), "uuid1"));
+    }
+
+    /**
+     * Test registries are found by id
+     */
+    @Test
+    public void testGetRegistry() {
+        Registry registry = new Registry.RegistryBuilder().setId(5).setUrl("url").build();
+        microserviceManager.setRegistries(Collections.singletonList(registry));
+        assertSame(registry, microserviceManager.getRegistry(5));
+        assertNull(microserviceManager.getRegistry(1));
+    }
+
+    /**
+     * Test every change increases version and snapshot taken before is not changed
+     */
+    @Test
+    public void testSnapshotIsVersionedAndImmutable() {
+        MicroserviceSnapshot before = microserviceManager.getSnapshot();
+        List<Microservice> microservices = new ArrayList<>(Collections.singletonList(new Microservice("uuid", "image")));
+        microserviceManager.setLatestMicroservices(microservices);
+        microservices.clear();
+
+        MicroserviceSnapshot after = microserviceManager.getSnapshot();
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertTrue(before.getLatestMicroservices().isEmpty());
+        assertEquals(1, after.getLatestMicroservices().size());
+        assertSame(before.getRoutes(), after.getRoutes());
+
+        microserviceManager.clear();
+        assertEquals(after.getVersion() + 1, microserviceManager.getSnapshot().getVersion());
+        assertTrue(microserviceManager.getLatestMicroservices().isEmpty());
+        assertEquals(1, after.getLatestMicroservices().size());
+    }
+
+    /**
+     * Test collections returned are unmodifiable
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLatestMicroservicesAreUnmodifiable() {
+        microserviceManager.setLatestMicroservices(Collections.singletonList(new Microservice("uuid", "image")));
+        microserviceManager.getLatestMicroservices().clear();
+    }
+}
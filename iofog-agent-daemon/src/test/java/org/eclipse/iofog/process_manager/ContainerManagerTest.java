@@ -483,10 +483,9 @@ public class ContainerManagerTest {
      * TasK is UPDATE
      * Microservice is not Empty
      * getRegistries returns registry with url
-     * Docker.pullImage throws Exception
-     * docker.findLocalImage returns true
      * Microservice isRebuild is false
      * withCleanUp is false
+     * new container reaches running state
      */
     @Test
     public void testExecuteWhenContainerTaskUpdate() {
@@ -499,18 +498,28 @@ public class ContainerManagerTest {
             PowerMockito.when(microservice.getRegistryId()).thenReturn(2);
             PowerMockito.when(containerTask.getMicroserviceUuid()).thenReturn("uuid");
             PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
-            PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(optionalContainer);
+            PowerMockito.when(container.getId()).thenReturn("containerID");
+            PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(Optional.empty());
+            PowerMockito.when(dockerUtil.getContainer(eq("uuid"))).thenReturn(optionalContainer);
+            PowerMockito.when(dockerUtil.createContainer(any(), any(), any())).thenReturn("newContainerID");
+            PowerMockito.when(dockerUtil.getContainerStatus(any())).thenReturn(Optional.of("running"));
+            PowerMockito.when(DockerUtil.getIoFogContainerName(eq("uuid"))).thenReturn("iofog_uuid");
             PowerMockito.when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
             PowerMockito.when(registry.getUrl()).thenReturn("url");
             containerManager.execute(containerTask);
             verify(dockerUtil).pullImage(any(), any(), any());
-            verify(dockerUtil).createContainer(any(), any());
+            verify(dockerUtil).createContainer(eq(microservice), any(), eq("iofog_uuid_next"));
+            verify(dockerUtil, never()).createContainer(any(), any());
+            verify(dockerUtil).stopContainer(eq("containerID"));
+            verify(dockerUtil).renameContainer(eq("containerID"), eq("iofog_uuid_previous"));
+            verify(dockerUtil).renameContainer(eq("newContainerID"), eq("iofog_uuid"));
+            verify(microservice).setContainerId(eq("newContainerID"));
             verify(microservice).setRebuild(anyBoolean());
+            verify(microservice).setUpdating(eq(false));
             PowerMockito.verifyPrivate(containerManager).invoke("updateContainer", eq(microservice), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("removeContainerByMicroserviceUuid", eq("uuid"), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("removeContainer", eq(container.getId()), eq(null), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("createContainer", eq(microservice));
+            PowerMockito.verifyPrivate(containerManager).invoke("removeContainer", eq("containerID"), eq(null), eq(false));
             PowerMockito.verifyPrivate(containerManager).invoke("startContainer", eq(microservice));
+            PowerMockito.verifyPrivate(containerManager, never()).invoke("rollbackContainer", any(), any(), any());
         } catch (Exception e) {
             System.out.println(e);
             fail("This should not happen");
@@ -522,43 +531,112 @@ public class ContainerManagerTest {
      * TasK is UPDATE
      * Microservice is not Empty
      * getRegistries returns registry with url
-     * Docker.pullImage throws Exception
-     * docker.findLocalImage returns true
      * Microservice isRebuild is false
      * withCleanUp is false
-     * docker.startContainer throws Exception
+     * docker.startContainer throws Exception and new container exits
+     * old container is restored
      */
     @Test
-    public void throwsNotFoundExceptionWhenStartContainerIsCalledInExecuteWhenContainerTaskUpdate() {
+    public void throwsNotFoundExceptionWhenStartContainerIsCalledInExecuteWhenContainerTaskUpdate() throws Exception {
+        PowerMockito.when(microserviceManager.findLatestMicroserviceByUuid(anyString()))
+                .thenReturn(optionalMicroservice);
+        PowerMockito.when(containerTask.getAction()).thenReturn(ContainerTask.Tasks.UPDATE);
+        PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
+        PowerMockito.when(microservice.isRebuild()).thenReturn(false);
+        PowerMockito.when(microservice.getRegistryId()).thenReturn(2);
+        PowerMockito.when(containerTask.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(container.getId()).thenReturn("containerID");
+        PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(Optional.empty());
+        PowerMockito.when(dockerUtil.getContainer(eq("uuid"))).thenReturn(optionalContainer, Optional.empty());
+        PowerMockito.when(dockerUtil.createContainer(any(), any(), any())).thenReturn("newContainerID");
+        PowerMockito.when(dockerUtil.getContainerStatus(any())).thenReturn(Optional.of("exited"));
+        PowerMockito.when(DockerUtil.getIoFogContainerName(eq("uuid"))).thenReturn("iofog_uuid");
+        PowerMockito.doThrow(mock(NotFoundException.class)).when(dockerUtil).startContainer(any());
+        PowerMockito.when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
+        PowerMockito.when(registry.getUrl()).thenReturn("url");
         try {
-            PowerMockito.when(microserviceManager.findLatestMicroserviceByUuid(anyString()))
-                    .thenReturn(optionalMicroservice);
-            PowerMockito.when(containerTask.getAction()).thenReturn(ContainerTask.Tasks.UPDATE);
-            PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
-            PowerMockito.when(microservice.isRebuild()).thenReturn(false);
-            PowerMockito.when(microservice.getRegistryId()).thenReturn(2);
-            PowerMockito.when(containerTask.getMicroserviceUuid()).thenReturn("uuid");
-            PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
-            PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(optionalContainer);
-            PowerMockito.doThrow(mock(NotFoundException.class)).when(dockerUtil).startContainer(any());
-            PowerMockito.when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
-            PowerMockito.when(registry.getUrl()).thenReturn("url");
             containerManager.execute(containerTask);
-            verify(dockerUtil).pullImage(any(), any(), any());
-            verify(dockerUtil).createContainer(any(), any());
-            verify(microservice).setRebuild(anyBoolean());
-            PowerMockito.verifyPrivate(containerManager).invoke("updateContainer", eq(microservice), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("removeContainerByMicroserviceUuid", eq("uuid"), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("removeContainer", eq(container.getId()), eq(null), eq(false));
-            PowerMockito.verifyPrivate(containerManager).invoke("createContainer", eq(microservice));
-            PowerMockito.verifyPrivate(containerManager).invoke("startContainer", eq(microservice));
-            PowerMockito.verifyStatic(LoggingService.class);
+            fail("This should not happen");
+        } catch (AgentSystemException e) {
+            verify(dockerUtil).renameContainer(eq("newContainerID"), eq("iofog_uuid"));
+            verify(dockerUtil).removeContainer(eq("newContainerID"), eq(false));
+            verify(dockerUtil).renameContainer(eq("containerID"), eq("iofog_uuid"));
+            verify(microservice).setContainerId(eq("containerID"));
+            verify(microservice, never()).setRebuild(anyBoolean());
+            verify(microservice).setUpdating(eq(false));
+            verify(dockerUtil, never()).removeContainer(eq("containerID"), anyBoolean());
+            PowerMockito.verifyPrivate(containerManager).invoke("rollbackContainer", eq(microservice), eq(container), eq("newContainerID"));
+            PowerMockito.verifyPrivate(containerManager, times(2)).invoke("startContainer", eq(microservice));
+            PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
             LoggingService.logError(eq(MODULE_NAME),
                     eq("Container \"microserviceName\" not found"),
                     any());
-        } catch (Exception e) {
-            System.out.println(e);
+        }
+    }
+
+    /**
+     * Test old container is restored when new container can't be removed on rollback
+     */
+    @Test
+    public void testRollbackRestoresOldContainerWhenNewContainerRemovalFails() throws Exception {
+        PowerMockito.when(microserviceManager.findLatestMicroserviceByUuid(anyString()))
+                .thenReturn(optionalMicroservice);
+        PowerMockito.when(containerTask.getAction()).thenReturn(ContainerTask.Tasks.UPDATE);
+        PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
+        PowerMockito.when(microservice.isRebuild()).thenReturn(false);
+        PowerMockito.when(microservice.getRegistryId()).thenReturn(2);
+        PowerMockito.when(containerTask.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(container.getId()).thenReturn("containerID");
+        PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(Optional.empty());
+        PowerMockito.when(dockerUtil.getContainer(eq("uuid"))).thenReturn(optionalContainer, Optional.empty());
+        PowerMockito.when(dockerUtil.createContainer(any(), any(), any())).thenReturn("newContainerID");
+        PowerMockito.when(dockerUtil.getContainerStatus(any())).thenReturn(Optional.of("exited"));
+        PowerMockito.when(DockerUtil.getIoFogContainerName(eq("uuid"))).thenReturn("iofog_uuid");
+        PowerMockito.doThrow(mock(NotFoundException.class)).when(dockerUtil).startContainer(any());
+        PowerMockito.when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
+        PowerMockito.when(registry.getUrl()).thenReturn("url");
+        PowerMockito.doThrow(mock(NotFoundException.class)).when(dockerUtil).removeContainer(eq("newContainerID"), anyBoolean());
+        try {
+            containerManager.execute(containerTask);
+            fail("This should not happen");
+        } catch (AgentSystemException e) {
+            verify(dockerUtil).renameContainer(eq("newContainerID"), eq("iofog_uuid_next"));
+            verify(dockerUtil).renameContainer(eq("containerID"), eq("iofog_uuid"));
+            verify(microservice).setContainerId(eq("containerID"));
+            PowerMockito.verifyPrivate(containerManager, times(2)).invoke("startContainer", eq(microservice));
+        }
+    }
+
+    /**
+     * Test execute when containerTask is not null
+     * TasK is UPDATE
+     * Microservice is not Empty
+     * image can be neither pulled nor found in local cache
+     * old container is kept running
+     */
+    @Test
+    public void testExecuteWhenContainerTaskUpdateAndImagePullFails() throws Exception {
+        PowerMockito.when(microserviceManager.findLatestMicroserviceByUuid(anyString()))
+                .thenReturn(optionalMicroservice);
+        PowerMockito.when(containerTask.getAction()).thenReturn(ContainerTask.Tasks.UPDATE);
+        PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
+        PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(containerTask.getMicroserviceUuid()).thenReturn("uuid");
+        PowerMockito.when(dockerUtil.getContainer(anyString())).thenReturn(optionalContainer);
+        PowerMockito.when(dockerUtil.findLocalImage(anyString())).thenReturn(false);
+        PowerMockito.doThrow(mock(AgentSystemException.class)).when(dockerUtil).pullImage(any(), any(), any());
+        PowerMockito.when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
+        PowerMockito.when(registry.getUrl()).thenReturn("url");
+        try {
+            containerManager.execute(containerTask);
             fail("This should not happen");
+        } catch (NotFoundException e) {
+            verify(dockerUtil, never()).stopContainer(any());
+            verify(dockerUtil, never()).removeContainer(any(), anyBoolean());
+            verify(dockerUtil, never()).createContainer(any(), any(), any());
+            verify(microservice).setUpdating(eq(false));
         }
     }
-}
\ No newline at end of file
+}
@@ -775,6 +775,46 @@ public class DockerUtilTest {
         }
     }
 
+    /**
+     * Test areMicroserviceAndContainerEqual when container cpu set differs from microservice resources
+     *
+     */
+    @Test
+    public void testAreMicroserviceAndContainerEqualWhenCpuSetIsChanged() {
+        try {
+            PowerMockito.when(inspectContainerResponse.getHostConfig()).thenReturn(hostConfig);
+            PowerMockito.when(hostConfig.getExtraHosts()).thenReturn(extraHost);
+            PowerMockito.when(hostConfig.getNetworkMode()).thenReturn("host");
+            PowerMockito.when(hostConfig.getCpusetCpus()).thenReturn("0");
+            PowerMockito.when(microservice.isRootHostAccess()).thenReturn(true);
+            assertFalse(dockerUtil.areMicroserviceAndContainerEqual(containerID, microservice));
+            PowerMockito.verifyPrivate(dockerUtil).invoke("isResourcesEqual", any(), any());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test areMicroserviceAndContainerEqual when container resources are the same as microservice resources
+     *
+     */
+    @Test
+    public void testAreMicroserviceAndContainerEqualWhenResourcesAreEqual() {
+        try {
+            PowerMockito.when(inspectContainerResponse.getHostConfig()).thenReturn(hostConfig);
+            PowerMockito.when(hostConfig.getExtraHosts()).thenReturn(extraHost);
+            PowerMockito.when(hostConfig.getNetworkMode()).thenReturn("host");
+            PowerMockito.when(hostConfig.getCpusetCpus()).thenReturn("1");
+            PowerMockito.when(hostConfig.getCpusetMems()).thenReturn("");
+            PowerMockito.when(hostConfig.getMemory()).thenReturn(1024L);
+            PowerMockito.when(microservice.isRootHostAccess()).thenReturn(true);
+            PowerMockito.when(microservice.getResources()).thenReturn(new ContainerResources("1", null, null, null, 1024L, null));
+            assertTrue(dockerUtil.areMicroserviceAndContainerEqual(containerID, microservice));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
     /**
      * Test areMicroserviceAndContainerEqual when microservice and container are not equal
      * getHostConfig is null
@@ -1078,6 +1118,36 @@ public class DockerUtilTest {
         Mockito.verify(createContainerCmd).withCmd(any(List.class));
     }
 
+    /**
+     * Test createContainer
+     * When microservice.getResources is not set, container is not pinned to any cpu
+     */
+    @Test
+    public void testCreateContainerWhenResourcesAreNotSet() {
+        PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
+        PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
+        assertEquals(containerID, dockerUtil.createContainer(microservice, "host"));
+        Mockito.verify(createContainerCmd).withHostConfig(argThat((HostConfig hostConfig) ->
+            hostConfig.getCpusetCpus() == null && hostConfig.getCpuShares() == null && hostConfig.getMemory() == null));
+    }
+
+    /**
+     * Test createContainer
+     * When microservice.getResources are present
+     */
+    @Test
+    public void testCreateContainerWhenResourcesArePresent() {
+        ContainerResources resources = new ContainerResources("2-3", 512, 50000L, 100000L, 268435456L, null);
+        PowerMockito.when(microservice.getResources()).thenReturn(resources);
+        PowerMockito.when(microservice.getImageName()).thenReturn("microserviceName");
+        PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
+        assertEquals(containerID, dockerUtil.createContainer(microservice, "host"));
+        Mockito.verify(createContainerCmd).withHostConfig(argThat((HostConfig hostConfig) ->
+            "2-3".equals(hostConfig.getCpusetCpus()) && hostConfig.getCpusetMems() == null &&
+                hostConfig.getCpuShares() == 512 && hostConfig.getCpuQuota() == 50000L &&
+                hostConfig.getCpuPeriod() == 100000L && hostConfig.getMemory() == 268435456L));
+    }
+
     /**
      * Test createContainer
      * When microservice.getExtraHosts are present
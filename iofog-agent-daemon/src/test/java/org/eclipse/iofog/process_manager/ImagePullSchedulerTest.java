@@ -0,0 +1,206 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.process_manager;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.microservice.MicroserviceManager;
+import org.eclipse.iofog.microservice.Registry;
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ImagePullScheduler.class, DockerUtil.class, MicroserviceManager.class, StatusReporter.class,
+        ProcessManagerStatus.class, LoggingService.class})
+public class ImagePullSchedulerTest {
+    private static final String IMAGE_NAME = "iofog/image:latest";
+
+    private ImagePullScheduler imagePullScheduler;
+    private DockerUtil dockerUtil;
+    private Registry registry;
+    private ProcessManagerStatus processManagerStatus;
+
+    @Before
+    public void setUp() throws Exception {
+        dockerUtil = mock(DockerUtil.class);
+        registry = mock(Registry.class);
+        processManagerStatus = mock(ProcessManagerStatus.class);
+        MicroserviceManager microserviceManager = mock(MicroserviceManager.class);
+        PowerMockito.mockStatic(DockerUtil.class);
+        PowerMockito.mockStatic(MicroserviceManager.class);
+        PowerMockito.mockStatic(StatusReporter.class);
+        PowerMockito.mockStatic(LoggingService.class);
+        when(DockerUtil.getInstance()).thenReturn(dockerUtil);
+        when(MicroserviceManager.getInstance()).thenReturn(microserviceManager);
+        when(StatusReporter.setProcessManagerStatus()).thenReturn(processManagerStatus);
+        when(microserviceManager.getRegistry(anyInt())).thenReturn(registry);
+        when(registry.getUrl()).thenReturn("registry.hub.docker.com");
+        when(dockerUtil.findLocalImage(anyString())).thenReturn(false);
+        imagePullScheduler = Whitebox.invokeConstructor(ImagePullScheduler.class);
+    }
+
+    private Microservice microservice(String uuid, String imageName) {
+        Microservice microservice = new Microservice(uuid, imageName);
+        microservice.setRegistryId(1);
+        return microservice;
+    }
+
+    /**
+     * Test prefetch pulls missing image and container creation waits for it instead of pulling again
+     */
+    @Test
+    public void testPrefetchPullsMissingImage() throws Exception {
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+    }
+
+    /**
+     * Test prefetch skips image which is already in local cache
+     */
+    @Test
+    public void testPrefetchSkipsLocalImage() throws Exception {
+        when(dockerUtil.findLocalImage(IMAGE_NAME)).thenReturn(true);
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil, never()).pullImageWithProgress(any(), any(), any());
+    }
+
+    /**
+     * Test prefetch pulls local image again when microservice is rebuilt
+     */
+    @Test
+    public void testPrefetchPullsLocalImageWhenRebuild() throws Exception {
+        when(dockerUtil.findLocalImage(IMAGE_NAME)).thenReturn(true);
+        Microservice microservice = microservice("uuid", IMAGE_NAME);
+        microservice.setRebuild(true);
+        imagePullScheduler.prefetch(Collections.singletonList(microservice));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+    }
+
+    /**
+     * Test prefetch skips images of from_cache registry
+     */
+    @Test
+    public void testPrefetchSkipsFromCacheRegistry() throws Exception {
+        when(registry.getUrl()).thenReturn("from_cache");
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil, never()).findLocalImage(any());
+        verify(dockerUtil, never()).pullImageWithProgress(any(), any(), any());
+    }
+
+    /**
+     * Test microservices sharing an image wait on a single pull and all of them get its progress
+     */
+    @Test
+    public void testPrefetchCoalescesSameImage() throws Exception {
+        CountDownLatch prefetched = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            prefetched.await();
+            Consumer<Float> progress = invocation.getArgument(2);
+            progress.accept(50f);
+            return null;
+        }).when(dockerUtil).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+        imagePullScheduler.prefetch(Arrays.asList(microservice("uuid1", IMAGE_NAME), microservice("uuid2", IMAGE_NAME)));
+        prefetched.countDown();
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil, times(1)).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+        verify(processManagerStatus).setMicroservicesStatePercentage("uuid1", 50f);
+        verify(processManagerStatus).setMicroservicesStatePercentage("uuid2", 50f);
+    }
+
+    /**
+     * Test failed prefetch leaves pull to container creation
+     */
+    @Test
+    public void testAwaitPrefetchWhenPullFailed() throws Exception {
+        doThrow(new AgentSystemException("unreachable")).when(dockerUtil).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+    }
+
+    /**
+     * Test container creation stops waiting for a hung prefetch and pulls image itself
+     */
+    @Test
+    public void testAwaitPrefetchTimesOut() throws Exception {
+        CountDownLatch prefetched = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            prefetched.await();
+            return null;
+        }).when(dockerUtil).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME, 50, TimeUnit.MILLISECONDS));
+        prefetched.countDown();
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+    }
+
+    /**
+     * Test next change set drops completed pulls, so image found locally is not taken from previous pull
+     */
+    @Test
+    public void testPrefetchDropsCompletedPullsOfPreviousChangeSet() throws Exception {
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        when(dockerUtil.findLocalImage(IMAGE_NAME)).thenReturn(true);
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertFalse(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil, times(1)).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+    }
+
+    /**
+     * Test rebuild in a later change set pulls image again instead of reusing previous pull
+     */
+    @Test
+    public void testPrefetchPullsAgainWhenRebuildInLaterChangeSet() throws Exception {
+        imagePullScheduler.prefetch(Collections.singletonList(microservice("uuid", IMAGE_NAME)));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        when(dockerUtil.findLocalImage(IMAGE_NAME)).thenReturn(true);
+        Microservice microservice = microservice("uuid", IMAGE_NAME);
+        microservice.setRebuild(true);
+        imagePullScheduler.prefetch(Collections.singletonList(microservice));
+        assertTrue(imagePullScheduler.awaitPrefetch(IMAGE_NAME));
+        verify(dockerUtil, times(2)).pullImageWithProgress(eq(IMAGE_NAME), eq(registry), any());
+    }
+}
@@ -18,6 +18,7 @@ import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.field_agent.FieldAgentStatus;
 import org.eclipse.iofog.microservice.Microservice;
 import org.eclipse.iofog.microservice.MicroserviceManager;
+import org.eclipse.iofog.microservice.MicroserviceSnapshot;
 import org.eclipse.iofog.microservice.MicroserviceState;
 import org.eclipse.iofog.microservice.MicroserviceStatus;
 import org.eclipse.iofog.status_reporter.StatusReporter;
@@ -52,7 +53,7 @@ import static org.powermock.api.mockito.PowerMockito.mock;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({ProcessManager.class, StatusReporter.class, LoggingService.class, ProcessManagerStatus.class, MicroserviceManager.class,
         DockerUtil.class, ContainerManager.class, Microservice.class, Container.class, Thread.class, SupervisorStatus.class, Configuration.class,
-        ContainerTask.class, StraceDiagnosticManager.class, MicroserviceStatus.class, FieldAgentStatus.class})
+        ContainerTask.class, StraceDiagnosticManager.class, MicroserviceStatus.class, FieldAgentStatus.class, MicroserviceSnapshot.class})
 public class ProcessManagerTest {
     private ProcessManager processManager;
     private ProcessManagerStatus processManagerStatus;
@@ -107,6 +108,8 @@ public class ProcessManagerTest {
         PowerMockito.when(StatusReporter.setSupervisorStatus()).thenReturn(supervisorStatus);
         PowerMockito.when(StatusReporter.getFieldAgentStatus()).thenReturn(fieldAgentStatus);
         PowerMockito.when(dockerUtil.getRunningContainers()).thenReturn(containerList);
+        PowerMockito.when(dockerUtil.getContainers()).thenReturn(containerList);
+        PowerMockito.when(container.getState()).thenReturn("running");
         PowerMockito.when(microservice.getMicroserviceUuid()).thenReturn("uuid");
         PowerMockito.when(MicroserviceManager.getInstance()).thenReturn(microserviceManager);
         PowerMockito.when(StraceDiagnosticManager.getInstance()).thenReturn(straceDiagnosticManager);
@@ -284,13 +287,12 @@ public class ProcessManagerTest {
             PowerMockito.when(microservice.isUpdating()).thenReturn(false);
             PowerMockito.when(microservice.isDelete()).thenReturn(false);
             PowerMockito.when(microserviceManager.getLatestMicroservices()).thenReturn(microservicesList);
-            PowerMockito.when(dockerUtil.getContainer(Mockito.any())).thenReturn(Optional.empty());
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices");
+            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, Collections.emptyList()));
             Mockito.verify(microserviceManager).getLatestMicroservices();
-            Mockito.verify(dockerUtil).getContainer(any());
+            Mockito.verify(dockerUtil, never()).getContainer(any());
             Mockito.verify(microservice).isDelete();
             Mockito.verify(microservice).isUpdating();
             PowerMockito.verifyPrivate(processManager).invoke("addMicroservice", Mockito.any());
@@ -314,17 +316,17 @@ public class ProcessManagerTest {
             PowerMockito.when(microservice.isRebuild()).thenReturn(true);
             PowerMockito.when(container.getId()).thenReturn("containerId");
             PowerMockito.when(microserviceManager.getLatestMicroservices()).thenReturn(microservicesList);
-            PowerMockito.when(dockerUtil.getContainer(Mockito.any())).thenReturn(Optional.of(container));
+            PowerMockito.when(dockerUtil.getContainerMicroserviceUuid(Mockito.any())).thenReturn("uuid");
             PowerMockito.when(dockerUtil.getMicroserviceStatus(Mockito.any(), Mockito.any())).thenReturn(microserviceStatus);
             PowerMockito.when(dockerUtil.getContainerIpAddress(Mockito.any())).thenReturn("containerIpAddress");
             PowerMockito.when(dockerUtil.areMicroserviceAndContainerEqual(Mockito.any(), Mockito.any())).thenReturn(true);
             PowerMockito.when(microserviceStatus.getStatus()).thenReturn(MicroserviceState.RUNNING);
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices");
+            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, containerList));
             Mockito.verify(microserviceManager).getLatestMicroservices();
-            Mockito.verify(dockerUtil).getContainer(any());
+            Mockito.verify(dockerUtil, never()).getContainer(any());
             Mockito.verify(microservice, Mockito.times(2)).isDelete();
             Mockito.verify(microservice).isUpdating();
             PowerMockito.verifyPrivate(processManager).invoke("updateMicroservice", Mockito.any(), Mockito.any());
@@ -351,17 +353,17 @@ public class ProcessManagerTest {
             PowerMockito.when(microservice.isDeleteWithCleanup()).thenReturn(true);
             PowerMockito.when(container.getId()).thenReturn("containerId");
             PowerMockito.when(microserviceManager.getLatestMicroservices()).thenReturn(microservicesList);
-            PowerMockito.when(dockerUtil.getContainer(Mockito.any())).thenReturn(Optional.of(container));
+            PowerMockito.when(dockerUtil.getContainerMicroserviceUuid(Mockito.any())).thenReturn("uuid");
             PowerMockito.when(dockerUtil.getMicroserviceStatus(Mockito.any(), Mockito.any())).thenReturn(microserviceStatus);
             PowerMockito.when(dockerUtil.getContainerIpAddress(Mockito.any())).thenReturn("containerIpAddress");
             PowerMockito.when(dockerUtil.areMicroserviceAndContainerEqual(Mockito.any(), Mockito.any())).thenReturn(true);
             PowerMockito.when(microserviceStatus.getStatus()).thenReturn(MicroserviceState.RUNNING);
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices");
+            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, containerList));
             Mockito.verify(microserviceManager).getLatestMicroservices();
-            Mockito.verify(dockerUtil).getContainer(any());
+            Mockito.verify(dockerUtil, never()).getContainer(any());
             Mockito.verify(microservice, Mockito.times(1)).isDelete();
             Mockito.verify(microservice).isUpdating();
             PowerMockito.verifyPrivate(processManager).invoke("deleteMicroservice", Mockito.any());
@@ -389,17 +391,17 @@ public class ProcessManagerTest {
             PowerMockito.when(microservice.isDeleteWithCleanup()).thenReturn(false);
             PowerMockito.when(container.getId()).thenReturn("containerId");
             PowerMockito.when(microserviceManager.getLatestMicroservices()).thenReturn(microservicesList);
-            PowerMockito.when(dockerUtil.getContainer(Mockito.any())).thenReturn(Optional.of(container));
+            PowerMockito.when(dockerUtil.getContainerMicroserviceUuid(Mockito.any())).thenReturn("uuid");
             PowerMockito.when(dockerUtil.getMicroserviceStatus(Mockito.any(), Mockito.any())).thenReturn(microserviceStatus);
             PowerMockito.when(dockerUtil.getContainerIpAddress(Mockito.any())).thenReturn("containerIpAddress");
             PowerMockito.when(dockerUtil.areMicroserviceAndContainerEqual(Mockito.any(), Mockito.any())).thenReturn(true);
             PowerMockito.when(microserviceStatus.getStatus()).thenReturn(MicroserviceState.RUNNING);
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices");
+            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, containerList));
             Mockito.verify(microserviceManager).getLatestMicroservices();
-            Mockito.verify(dockerUtil).getContainer(any());
+            Mockito.verify(dockerUtil, never()).getContainer(any());
             Mockito.verify(microservice, Mockito.times(1)).isDelete();
             Mockito.verify(microservice).isUpdating();
             PowerMockito.verifyPrivate(processManager).invoke("deleteMicroservice", Mockito.any());
@@ -429,17 +431,17 @@ public class ProcessManagerTest {
             PowerMockito.when(microservice.isDeleteWithCleanup()).thenReturn(false);
             PowerMockito.when(container.getId()).thenReturn("containerId");
             PowerMockito.when(microserviceManager.getLatestMicroservices()).thenReturn(microservicesList);
-            PowerMockito.when(dockerUtil.getContainer(Mockito.any())).thenReturn(Optional.of(container));
+            PowerMockito.when(dockerUtil.getContainerMicroserviceUuid(Mockito.any())).thenReturn("uuid");
             PowerMockito.when(dockerUtil.getMicroserviceStatus(Mockito.any(), Mockito.any())).thenReturn(microserviceStatus);
             PowerMockito.doThrow(mock(AgentSystemException.class)).when(dockerUtil).getContainerIpAddress(Mockito.any());
             PowerMockito.when(dockerUtil.areMicroserviceAndContainerEqual(Mockito.any(), Mockito.any())).thenReturn(true);
             PowerMockito.when(microserviceStatus.getStatus()).thenReturn(MicroserviceState.RUNNING);
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices");
+            method = ProcessManager.class.getDeclaredMethod("handleLatestMicroservices", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, containerList));
             Mockito.verify(microserviceManager).getLatestMicroservices();
-            Mockito.verify(dockerUtil).getContainer(any());
+            Mockito.verify(dockerUtil, never()).getContainer(any());
             Mockito.verify(microservice, Mockito.times(2)).isDelete();
             PowerMockito.verifyPrivate(processManager).invoke("updateMicroservice", Mockito.any(), Mockito.any());
             verify(microservice).setContainerIpAddress(any());
@@ -457,16 +459,85 @@ public class ProcessManagerTest {
     public void testPrivateMethodUpdateRunningMicroservicesCount() {
         try {
             initiateMockStart();
-            method = ProcessManager.class.getDeclaredMethod("updateRunningMicroservicesCount");
+            PowerMockito.when(dockerUtil.getContainerName(Mockito.any())).thenReturn("iofog_uuid", "other");
+            containerList.add(container);
+            method = ProcessManager.class.getDeclaredMethod("updateRunningMicroservicesCount", ContainerListing.class);
             method.setAccessible(true);
-            method.invoke(processManager);
+            method.invoke(processManager, new ContainerListing(dockerUtil, containerList));
             PowerMockito.verifyStatic(StatusReporter.class);
             StatusReporter.setProcessManagerStatus();
+            Mockito.verify(processManagerStatus).setRunningMicroservicesCount(1);
+            Mockito.verify(dockerUtil, never()).getRunningIofogContainers();
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
 
+    /**
+     * Helper method to make latest microservice match its running container
+     */
+    private void mockMicroserviceIsUpToDate(MicroserviceSnapshot snapshot) throws Exception {
+        PowerMockito.when(microserviceManager.getSnapshot()).thenReturn(snapshot);
+        PowerMockito.when(snapshot.getVersion()).thenReturn(1L);
+        PowerMockito.when(container.getId()).thenReturn("containerId");
+        PowerMockito.when(dockerUtil.getContainerMicroserviceUuid(Mockito.any())).thenReturn("uuid");
+        PowerMockito.when(dockerUtil.getContainerName(Mockito.any())).thenReturn("iofog_uuid");
+        PowerMockito.when(dockerUtil.getMicroserviceStatus(Mockito.any(), Mockito.any())).thenReturn(microserviceStatus);
+        PowerMockito.when(dockerUtil.areMicroserviceAndContainerEqual(Mockito.any(), Mockito.any())).thenReturn(true);
+        PowerMockito.when(microserviceStatus.getStatus()).thenReturn(MicroserviceState.RUNNING);
+        PowerMockito.when(dockerUtil.getContainerEventsCount()).thenReturn(5L);
+    }
+
+    /**
+     * Test reconcile lists containers once and is skipped while neither microservices nor containers change
+     */
+    @Test
+    public void testReconcileIsSkippedWhenNothingChanged() throws Exception {
+        mockMicroserviceIsUpToDate(mock(MicroserviceSnapshot.class));
+        initiateMockStart();
+        processManager.reconcile();
+        processManager.reconcile();
+        Mockito.verify(dockerUtil, times(1)).getContainers();
+        Mockito.verify(dockerUtil, never()).getContainer(any());
+        Mockito.verify(dockerUtil, never()).getRunningContainers();
+        Mockito.verify(dockerUtil, never()).getRunningIofogContainers();
+        Mockito.verify(processManagerStatus).setRunningMicroservicesCount(1);
+        PowerMockito.verifyPrivate(processManager, never()).invoke("addTask", Mockito.any());
+    }
+
+    /**
+     * Test reconcile runs again when Docker reports container changes or microservices change
+     */
+    @Test
+    public void testReconcileRunsWhenContainersOrMicroservicesChanged() throws Exception {
+        MicroserviceSnapshot snapshot = mock(MicroserviceSnapshot.class);
+        mockMicroserviceIsUpToDate(snapshot);
+        PowerMockito.when(dockerUtil.getContainerEventsCount()).thenReturn(5L, 6L);
+        initiateMockStart();
+        processManager.reconcile();
+        processManager.reconcile();
+        Mockito.verify(dockerUtil, times(2)).getContainers();
+        PowerMockito.when(snapshot.getVersion()).thenReturn(2L);
+        processManager.reconcile();
+        Mockito.verify(dockerUtil, times(3)).getContainers();
+    }
+
+    /**
+     * Test microservices changed during reconcile pass are reconciled on next tick
+     */
+    @Test
+    public void testReconcileRunsWhenMicroservicesChangedDuringPass() throws Exception {
+        MicroserviceSnapshot snapshot = mock(MicroserviceSnapshot.class);
+        mockMicroserviceIsUpToDate(snapshot);
+        PowerMockito.when(snapshot.getVersion()).thenReturn(1L, 2L);
+        initiateMockStart();
+        processManager.reconcile();
+        processManager.reconcile();
+        Mockito.verify(dockerUtil, times(2)).getContainers();
+        processManager.reconcile();
+        Mockito.verify(dockerUtil, times(2)).getContainers();
+    }
+
     /**
      * Test updateCurrentMicroservices
      *
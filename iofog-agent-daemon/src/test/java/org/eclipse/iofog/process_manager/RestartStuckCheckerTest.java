@@ -19,6 +19,8 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.reset;
 import static org.powermock.api.mockito.PowerMockito.spy;
@@ -49,4 +51,51 @@ public class RestartStuckCheckerTest {
         }
        assertTrue(RestartStuckChecker.isStuck("uuid"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test restarts older than the interval are not counted
+     */
+    @Test
+    public void testRestartsOutsideIntervalAreNotCounted() {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 9; i++) {
+            RestartStuckChecker.isStuck("expiring", start);
+        }
+        assertFalse(RestartStuckChecker.isStuck("expiring", start + TimeUnit.MINUTES.toMillis(6)));
+        assertEquals(0.2f, RestartStuckChecker.getRestartRate("expiring", start + TimeUnit.MINUTES.toMillis(6)), 0.001f);
+    }
+
+    /**
+     * Test restart rate and eviction of removed container
+     */
+    @Test
+    public void testRestartRateAndRemove() {
+        long now = System.currentTimeMillis();
+        assertEquals(0f, RestartStuckChecker.getRestartRate("removed", now), 0f);
+        for (int i = 0; i < 50; i++) {
+            RestartStuckChecker.isStuck("removed", now);
+        }
+        assertTrue(RestartStuckChecker.getRestartRate("removed", now) > 2f);
+        RestartStuckChecker.remove("removed");
+        assertEquals(0f, RestartStuckChecker.getRestartRate("removed", now), 0f);
+        assertFalse(RestartStuckChecker.isStuck("removed", now));
+    }
+
+    /**
+     * Test container stuck in restart is recreated with growing backoff
+     */
+    @Test
+    public void testTryRecreateBacksOff() {
+        long now = System.currentTimeMillis();
+        assertTrue(RestartStuckChecker.tryRecreate("backoff", now));
+        for (int i = 0; i < 10; i++) {
+            RestartStuckChecker.isStuck("backoff", now);
+        }
+        assertTrue(RestartStuckChecker.tryRecreate("backoff", now));
+        assertFalse(RestartStuckChecker.tryRecreate("backoff", now + TimeUnit.SECONDS.toMillis(29)));
+        assertTrue(RestartStuckChecker.tryRecreate("backoff", now + TimeUnit.SECONDS.toMillis(30)));
+        assertFalse(RestartStuckChecker.tryRecreate("backoff", now + TimeUnit.SECONDS.toMillis(89)));
+        assertTrue(RestartStuckChecker.tryRecreate("backoff", now + TimeUnit.SECONDS.toMillis(90)));
+        assertTrue(RestartStuckChecker.tryRecreate("backoff", now + TimeUnit.MINUTES.toMillis(6)));
+    }
+}
@@ -107,4 +107,20 @@ public class StatusReporterTest {
 		assertNotNull(statusReporter.getSupervisorStatus());
 	}
 
+	/**
+	 * Test snapshot is reused until it gets older than maximum age
+	 */
+	@Test
+	public void testGetSnapshotIsReusedUntilMaxAge() throws Exception {
+		StatusSnapshot snapshot = StatusReporter.getSnapshot();
+		assertSame(snapshot, StatusReporter.getSnapshot());
+		StatusReporter.setSupervisorStatus().setDaemonStatus(ModulesStatus.RUNNING);
+		Thread.sleep(StatusReporter.SNAPSHOT_MAX_AGE_MILLIS + 10);
+		StatusSnapshot updated = StatusReporter.getSnapshot();
+		assertNotSame(snapshot, updated);
+		assertEquals("RUNNING", updated.getDaemonStatus());
+		StatusReporter.getSupervisorStatus().setDaemonStatus(ModulesStatus.STOPPED);
+		assertEquals("RUNNING", updated.getDaemonStatus());
+	}
+
 }
@@ -15,14 +15,22 @@ package org.eclipse.iofog.tracking;
 import org.eclipse.iofog.utils.logging.LoggingService;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.lang.System.currentTimeMillis;
 import static org.junit.Assert.*;
@@ -33,15 +41,22 @@ import static org.powermock.api.mockito.PowerMockito.spy;
  *
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({TrackingEventsStorage.class})
+@PrepareForTest({TrackingEventsStorage.class, LoggingService.class})
+@PowerMockIgnore({"java.io.*", "java.util.zip.*"})
 public class TrackingEventsStorageTest {
     private TrackingEventsStorage trackingEventsStorage;
     JsonObjectBuilder jsonObjectBuilder = null;
     TrackingEvent newTrackingEvent = null;
+    private File spoolDirectory;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Before
     public void setUp() throws Exception {
-        trackingEventsStorage = spy(new TrackingEventsStorage());
+        PowerMockito.mockStatic(LoggingService.class);
+        spoolDirectory = temporaryFolder.newFolder("tracking");
+        trackingEventsStorage = spy(new TrackingEventsStorage(spoolDirectory, TrackingEventsStorage.SPOOL_LIMIT_BYTES));
         jsonObjectBuilder = Json.createObjectBuilder();
         JsonObject data = jsonObjectBuilder.add("message", "message").build();
         newTrackingEvent = new TrackingEvent("uuid", currentTimeMillis(),
@@ -56,14 +71,94 @@ public class TrackingEventsStorageTest {
     }
 
     /**
-     *
+     * Test pushed event is taken in batch and removed once acknowledged
+     */
+    @Test
+    public void testPushEventAndNextBatch() {
+        assertNull(trackingEventsStorage.nextBatch(1024));
+        trackingEventsStorage.pushEvent(newTrackingEvent);
+        assertEquals(1, trackingEventsStorage.getPendingCount());
+        TrackingEventsStorage.Batch batch = trackingEventsStorage.nextBatch(1024);
+        assertEquals(1, batch.getEvents().size());
+        assertEquals(newTrackingEvent.toJsonObject(), batch.getEvents().get(0));
+        trackingEventsStorage.ack(batch);
+        assertNull(trackingEventsStorage.nextBatch(1024));
+    }
+
+    /**
+     * Test memory batch is limited by serialized size of events
+     */
+    @Test
+    public void testBatchIsLimitedBySize() {
+        for (int i = 0; i < 10; i++) {
+            trackingEventsStorage.pushEvent(newTrackingEvent);
+        }
+        int eventSize = newTrackingEvent.toString().length();
+        assertEquals(3, trackingEventsStorage.nextBatch(eventSize * 3 + 1).getEvents().size());
+        assertEquals(1, trackingEventsStorage.nextBatch(1).getEvents().size());
+        assertEquals(6, trackingEventsStorage.getPendingCount());
+    }
+
+    /**
+     * Test events are spilled to spool when memory is full and spool is sent first
+     */
+    @Test
+    public void testSpillWhenMemoryIsFull() {
+        for (int i = 0; i < TrackingEventsStorage.MEMORY_LIMIT + 5; i++) {
+            trackingEventsStorage.pushEvent(newTrackingEvent);
+        }
+        assertEquals(1, spoolDirectory.listFiles().length);
+        assertEquals(TrackingEventsStorage.MEMORY_LIMIT + 5, trackingEventsStorage.getPendingCount());
+        TrackingEventsStorage.Batch batch = trackingEventsStorage.nextBatch(1024);
+        assertEquals(TrackingEventsStorage.MEMORY_LIMIT, batch.getEvents().size());
+        assertEquals(newTrackingEvent.toJsonObject(), batch.getEvents().get(0));
+        trackingEventsStorage.ack(batch);
+        assertEquals(0, spoolDirectory.listFiles().length);
+        assertEquals(5, trackingEventsStorage.nextBatch(Integer.MAX_VALUE).getEvents().size());
+    }
+
+    /**
+     * Test failed memory batch is spilled and retried
      */
     @Test
-    public void testPushEventAndPopAllEvents() {
-        assertTrue(trackingEventsStorage.popAllEvents().isEmpty());
+    public void testRetrySpillsMemoryBatch() {
+        trackingEventsStorage.pushEvent(newTrackingEvent);
         trackingEventsStorage.pushEvent(newTrackingEvent);
-        assertTrue(trackingEventsStorage.popAllEvents().size() == 1);
-        assertTrue(trackingEventsStorage.popAllEvents().isEmpty());
+        trackingEventsStorage.retry(trackingEventsStorage.nextBatch(Integer.MAX_VALUE));
+        assertEquals(1, spoolDirectory.listFiles().length);
+        TrackingEventsStorage.Batch batch = trackingEventsStorage.nextBatch(Integer.MAX_VALUE);
+        assertEquals(2, batch.getEvents().size());
+        trackingEventsStorage.retry(batch);
+        assertEquals(1, spoolDirectory.listFiles().length);
+        assertEquals(0, trackingEventsStorage.getDroppedCount());
+    }
+
+    /**
+     * Test oldest spool files are dropped and counted when spool is full
+     */
+    @Test
+    public void testSpoolDropsOldestWhenFull() {
+        trackingEventsStorage = new TrackingEventsStorage(spoolDirectory, 1);
+        List<TrackingEventsStorage.Batch> batches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            trackingEventsStorage.pushEvent(newTrackingEvent);
+            batches.add(trackingEventsStorage.nextBatch(Integer.MAX_VALUE));
+        }
+        batches.forEach(trackingEventsStorage::retry);
+        assertEquals(1, spoolDirectory.listFiles().length);
+        assertEquals(2, trackingEventsStorage.getDroppedCount());
+        assertEquals(1, trackingEventsStorage.getPendingCount());
     }
 
-}
\ No newline at end of file
+    /**
+     * Test corrupted spool file is dropped and counted
+     */
+    @Test
+    public void testCorruptedSpoolFileIsDropped() throws Exception {
+        Files.write(new File(spoolDirectory, "1_4.events.gz").toPath(), "corrupted".getBytes());
+        trackingEventsStorage.pushEvent(newTrackingEvent);
+        assertEquals(1, trackingEventsStorage.nextBatch(Integer.MAX_VALUE).getEvents().size());
+        assertEquals(4, trackingEventsStorage.getDroppedCount());
+        assertEquals(0, spoolDirectory.listFiles().length);
+    }
+}
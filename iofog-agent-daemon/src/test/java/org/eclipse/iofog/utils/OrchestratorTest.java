@@ -41,6 +41,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -210,6 +211,7 @@ public class OrchestratorTest {
         PowerMockito.whenNew(StringEntity.class).withParameterTypes(String.class, ContentType.class)
                 .withArguments(Mockito.anyString(), Mockito.eq(ContentType.APPLICATION_JSON))
                 .thenReturn(stringEntity);
+        Orchestrator.resetSharedClient();
         orchestrator = spy(new Orchestrator());
     }
 
@@ -525,6 +527,44 @@ public class OrchestratorTest {
         }
     }
 
+    /**
+     * Test pooled client is reused between requests while certificate is not changed
+     */
+    @Test
+    public void testRequestReusesPooledClient() {
+        try {
+            PowerMockito.when(Configuration.getControllerUrl()).thenReturn("https://controller/");
+            orchestrator = spy(new Orchestrator());
+            Mockito.clearInvocations(httpClientBuilder);
+            orchestrator.request("strace", RequestType.PUT, null, jsonObject);
+            orchestrator.request("strace", RequestType.PUT, null, jsonObject);
+            Mockito.verify(httpClientBuilder, Mockito.never()).build();
+            Mockito.verify(httpClients, Mockito.atLeast(2)).execute(Mockito.any());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test replaced pooled client is closed only after its in-flight request finishes
+     */
+    @Test
+    public void testReplacedClientIsClosedAfterInFlightRequest() throws Exception {
+        CloseableHttpClient replacedClient = mock(CloseableHttpClient.class);
+        CloseableHttpClient newClient = mock(CloseableHttpClient.class);
+        PowerMockito.when(httpClientBuilder.build()).thenReturn(replacedClient, newClient);
+        PowerMockito.when(Configuration.getControllerUrl()).thenReturn("https://controller/");
+        orchestrator = spy(new Orchestrator());
+        PowerMockito.when(replacedClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            Whitebox.invokeMethod(orchestrator, "initialize", false);
+            Mockito.verify(replacedClient, Mockito.never()).close();
+            return response;
+        });
+        orchestrator.request("strace", RequestType.PUT, null, jsonObject);
+        Mockito.verify(replacedClient).close();
+        Mockito.verify(newClient, Mockito.never()).close();
+    }
+
     /**
      * Test provision
      */
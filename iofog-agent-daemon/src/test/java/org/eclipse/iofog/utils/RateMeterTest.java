@@ -0,0 +1,101 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RateMeterTest {
+    private AtomicLong now;
+    private RateMeter rateMeter;
+
+    @Before
+    public void setUp() throws Exception {
+        now = new AtomicLong(1_600_000_000_000L);
+        rateMeter = new RateMeter(now::get);
+    }
+
+    /**
+     * Test current second is not counted until it is complete
+     */
+    @Test
+    public void testCurrentSecondIsNotCounted() {
+        rateMeter.mark(10);
+        assertEquals(0, rateMeter.getRate(RateMeter.ONE_SECOND), 0);
+        now.addAndGet(1000);
+        assertEquals(10, rateMeter.getRate(RateMeter.ONE_SECOND), 0);
+    }
+
+    /**
+     * Test rates over different windows
+     */
+    @Test
+    public void testRatesOverWindows() {
+        for (int i = 0; i < RateMeter.FIVE_MINUTES; i++) {
+            rateMeter.mark(i < RateMeter.FIVE_MINUTES - RateMeter.ONE_MINUTE ? 1 : 6);
+            now.addAndGet(1000);
+        }
+        assertEquals(6, rateMeter.getRate(RateMeter.ONE_SECOND), 0);
+        assertEquals(6, rateMeter.getRate(RateMeter.ONE_MINUTE), 0);
+        assertEquals(2, rateMeter.getRate(RateMeter.FIVE_MINUTES), 0);
+    }
+
+    /**
+     * Test old buckets are not counted after they leave the window
+     */
+    @Test
+    public void testOldBucketsExpire() {
+        rateMeter.mark(60);
+        now.addAndGet(1000);
+        assertEquals(1, rateMeter.getRate(RateMeter.ONE_MINUTE), 0);
+        now.addAndGet(60_000);
+        assertEquals(0, rateMeter.getRate(RateMeter.ONE_MINUTE), 0);
+        now.addAndGet(RateMeter.FIVE_MINUTES * 1000L);
+        rateMeter.mark(3);
+        now.addAndGet(1000);
+        assertEquals(3, rateMeter.getRate(RateMeter.ONE_SECOND), 0);
+    }
+
+    /**
+     * Test concurrent updates are not lost
+     */
+    @Test
+    public void testConcurrentMarks() throws Exception {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    rateMeter.mark(1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        now.addAndGet(1000);
+        assertEquals(80_000, rateMeter.getRate(RateMeter.ONE_SECOND), 0);
+    }
+
+    /**
+     * Test window bigger than five minutes is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        rateMeter.getRate(RateMeter.FIVE_MINUTES + 1);
+    }
+}
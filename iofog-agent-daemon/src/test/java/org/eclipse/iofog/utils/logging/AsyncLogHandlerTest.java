@@ -0,0 +1,130 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.Assert.*;
+
+public class AsyncLogHandlerTest {
+    private RecordingHandler delegate;
+    private AsyncLogHandler asyncLogHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = new RecordingHandler();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delegate.release.countDown();
+        if (asyncLogHandler != null) {
+            asyncLogHandler.close();
+        }
+    }
+
+    /**
+     * Test records are written to delegate in order and delegate is closed on close
+     */
+    @Test
+    public void testRecordsAreWrittenToDelegate() {
+        delegate.release.countDown();
+        asyncLogHandler = new AsyncLogHandler(delegate);
+        for (int i = 0; i < 100; i++) {
+            asyncLogHandler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+        asyncLogHandler.close();
+        assertEquals(100, delegate.records.size());
+        assertEquals("message 0", delegate.records.get(0).getMessage());
+        assertEquals("message 99", delegate.records.get(99).getMessage());
+        assertTrue(delegate.closed);
+        assertEquals(0, asyncLogHandler.getDroppedCount());
+    }
+
+    /**
+     * Test publish doesn't wait for slow delegate and drops records when buffer is full
+     */
+    @Test
+    public void testRecordsAreDroppedWhenBufferIsFull() throws Exception {
+        asyncLogHandler = new AsyncLogHandler(delegate, 4);
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "blocked"));
+        assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            asyncLogHandler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(6, asyncLogHandler.getDroppedCount());
+
+        delegate.release.countDown();
+        asyncLogHandler.close();
+        assertEquals(6, delegate.records.size());
+        assertEquals("6 log records dropped, log buffer is full", delegate.records.get(1).getMessage());
+        assertEquals(Level.WARNING, delegate.records.get(1).getLevel());
+    }
+
+    /**
+     * Test records below handler level are not buffered
+     */
+    @Test
+    public void testRecordsBelowLevelAreSkipped() {
+        delegate.release.countDown();
+        asyncLogHandler = new AsyncLogHandler(delegate);
+        asyncLogHandler.setLevel(Level.INFO);
+        asyncLogHandler.publish(new LogRecord(Level.FINE, "debug"));
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "info"));
+        asyncLogHandler.close();
+        assertEquals(1, delegate.records.size());
+        assertEquals("info", delegate.records.get(0).getMessage());
+    }
+
+    /**
+     * delegate which blocks on first record until released
+     */
+    private static class RecordingHandler extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean closed;
+
+        @Override
+        public void publish(LogRecord record) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -34,10 +36,15 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.UserPrincipalLookupService;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Supplier;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
@@ -117,6 +124,7 @@ public class LoggingServiceTest {
 
     @After
     public void tearDown() throws Exception {
+        LoggingService.retainMicroserviceLoggers(Collections.emptyList());
         MODULE_NAME = null;
         message = null;
         microUuid = null;
@@ -165,6 +173,55 @@ public class LoggingServiceTest {
         }
     }
 
+    /**
+     * Test message supplier is not called when debug level is disabled
+     */
+    @Test
+    public void testLogDebugWithSupplierWhenDebugIsDisabled() {
+        try {
+            LoggingService.setupLogger();
+            Mockito.when(logger.isLoggable(Level.FINE)).thenReturn(false);
+            Supplier<String> messageSupplier = Mockito.mock(Supplier.class);
+            LoggingService.logDebug(MODULE_NAME, messageSupplier);
+            assertFalse(LoggingService.isDebugEnabled());
+            Mockito.verify(messageSupplier, Mockito.never()).get();
+            Mockito.verify(logger, Mockito.never()).logp(eq(Level.FINE), anyString(), anyString(), anyString());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test message supplier is called when debug level is enabled
+     */
+    @Test
+    public void testLogDebugWithSupplierWhenDebugIsEnabled() {
+        try {
+            LoggingService.setupLogger();
+            Mockito.when(logger.isLoggable(Level.FINE)).thenReturn(true);
+            LoggingService.logDebug(MODULE_NAME, () -> message);
+            assertTrue(LoggingService.isDebugEnabled());
+            Mockito.verify(logger).logp(Level.FINE, Thread.currentThread().getName(), MODULE_NAME, message);
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test info message supplier is called when info level is enabled
+     */
+    @Test
+    public void testLogInfoWithSupplier() {
+        try {
+            LoggingService.setupLogger();
+            Mockito.when(logger.isLoggable(Level.INFO)).thenReturn(true);
+            LoggingService.logInfo(MODULE_NAME, () -> message);
+            Mockito.verify(logger).logp(Level.INFO, Thread.currentThread().getName(), MODULE_NAME, message);
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
     /**
      * Test when logger is not null
      */
@@ -189,7 +246,9 @@ public class LoggingServiceTest {
             LoggingService.setupLogger();
             PowerMockito.verifyNew(File.class, Mockito.atLeastOnce()).withArguments(eq(Configuration.getLogDiskDirectory()));
             PowerMockito.verifyNew(FileHandler.class).withArguments(eq(file.getPath()+"/iofog-agent.%g.log"), Mockito.anyInt(), Mockito.anyInt());
-            Mockito.verify(logger).addHandler(fileHandler);
+            ArgumentCaptor<Handler> handlerCaptor = ArgumentCaptor.forClass(Handler.class);
+            Mockito.verify(logger).addHandler(handlerCaptor.capture());
+            assertTrue(handlerCaptor.getValue() instanceof AsyncLogHandler);
             Mockito.verify(logger).setLevel(Level.INFO);
         } catch (Exception e) {
             fail("This should not happen");
@@ -206,13 +265,40 @@ public class LoggingServiceTest {
             LoggingService.setupMicroserviceLogger(microUuid, logSize);
             PowerMockito.verifyStatic(Logger.class);
             Logger.getLogger(microUuid);
-            Mockito.verify(logger).addHandler(fileHandler);
+            ArgumentCaptor<Handler> handlerCaptor = ArgumentCaptor.forClass(Handler.class);
+            Mockito.verify(logger).addHandler(handlerCaptor.capture());
+            assertTrue(handlerCaptor.getValue() instanceof AsyncLogHandler);
             Mockito.verify(logger).setUseParentHandlers(eq(false));
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
 
+    /**
+     * Test setupMicroserviceLogger keeps logger when log size is not changed
+     */
+    @Test
+    public void testSetupMicroserviceLoggerWhenLogSizeIsNotChanged() throws Exception {
+        LoggingService.setupMicroserviceLogger(microUuid, logSize);
+        LoggingService.setupMicroserviceLogger(microUuid, logSize);
+        PowerMockito.verifyNew(FileHandler.class, Mockito.times(1))
+                .withArguments(anyString(), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(logger, Mockito.never()).removeHandler(Mockito.any());
+    }
+
+    /**
+     * Test retainMicroserviceLoggers closes loggers of removed microservices
+     */
+    @Test
+    public void testRetainMicroserviceLoggers() throws Exception {
+        LoggingService.setupMicroserviceLogger(microUuid, logSize);
+        LoggingService.retainMicroserviceLoggers(Collections.singletonList(microUuid));
+        assertTrue(LoggingService.microserviceLogInfo(microUuid, message));
+        LoggingService.retainMicroserviceLoggers(Collections.emptyList());
+        Mockito.verify(logger).removeHandler(Mockito.any());
+        assertFalse(LoggingService.microserviceLogInfo(microUuid, message));
+    }
+
     /**
      * Test when microserviceLogger is null
      */
@@ -238,7 +324,10 @@ public class LoggingServiceTest {
         try {
             LoggingService.setupMicroserviceLogger(microUuid, logSize);
             assertTrue(LoggingService.microserviceLogInfo(microUuid, message));
-            Mockito.verify(logger, Mockito.atLeastOnce()).info(message);
+            ArgumentCaptor<LogRecord> recordCaptor = ArgumentCaptor.forClass(LogRecord.class);
+            Mockito.verify(logger, Mockito.atLeastOnce()).log(recordCaptor.capture());
+            assertEquals(Level.INFO, recordCaptor.getValue().getLevel());
+            assertEquals(message, recordCaptor.getValue().getMessage());
         } catch (Exception e) {
             fail("This should not happen");
         }
@@ -266,7 +355,50 @@ public class LoggingServiceTest {
         try {
             LoggingService.setupMicroserviceLogger(microUuid, logSize);
             assertTrue(LoggingService.microserviceLogWarning(microUuid, message));
-            Mockito.verify(logger, Mockito.atLeastOnce()).warning(message);
+            ArgumentCaptor<LogRecord> recordCaptor = ArgumentCaptor.forClass(LogRecord.class);
+            Mockito.verify(logger, Mockito.atLeastOnce()).log(recordCaptor.capture());
+            assertEquals(Level.WARNING, recordCaptor.getValue().getLevel());
+            assertEquals(message, recordCaptor.getValue().getMessage());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test batch of records is written in order
+     */
+    @Test
+    public void testMicroserviceLogWritesBatch() {
+        try {
+            LoggingService.setupMicroserviceLogger(microUuid, logSize);
+            List<LogRecord> records = Arrays.asList(new LogRecord(Level.INFO, "first"), new LogRecord(Level.WARNING, "second"));
+            assertEquals(2, LoggingService.microserviceLog(microUuid, records));
+            InOrder inOrder = Mockito.inOrder(logger);
+            inOrder.verify(logger).log(records.get(0));
+            inOrder.verify(logger).log(records.get(1));
+            assertEquals(-1, LoggingService.microserviceLog("uuid", records));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test setting up microservice logger with another log size closes previous handler before opening new one
+     */
+    @Test
+    public void testSetupMicroserviceLoggerAgainClosesPreviousHandler() {
+        try {
+            LoggingService.setupMicroserviceLogger(microUuid, logSize);
+            PowerMockito.whenNew(FileHandler.class).withArguments(anyString(), Mockito.anyInt(), Mockito.anyInt())
+                    .thenAnswer(invocation -> {
+                        Mockito.verify(fileHandler).close();
+                        return fileHandler;
+                    });
+            LoggingService.setupMicroserviceLogger(microUuid, logSize + 1);
+            ArgumentCaptor<Handler> handlerCaptor = ArgumentCaptor.forClass(Handler.class);
+            Mockito.verify(logger, Mockito.times(2)).addHandler(handlerCaptor.capture());
+            Mockito.verify(logger).removeHandler(handlerCaptor.getAllValues().get(0));
+            Mockito.verify(fileHandler).close();
         } catch (Exception e) {
             fail("This should not happen");
         }
@@ -0,0 +1,103 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import org.eclipse.iofog.utils.metrics.MetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+
+public class MicroserviceLogTest {
+    private Logger logger;
+    private AsyncLogHandler handler;
+    private AtomicLong clock;
+    private MicroserviceLog microserviceLog;
+
+    @Before
+    public void setUp() throws Exception {
+        logger = Mockito.mock(Logger.class);
+        handler = Mockito.mock(AsyncLogHandler.class);
+        clock = new AtomicLong();
+        microserviceLog = new MicroserviceLog("microserviceUuid", 10, logger, handler, clock::get);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        microserviceLog = null;
+    }
+
+    /**
+     * Test records above burst are dropped
+     */
+    @Test
+    public void testRecordsAboveBurstAreDropped() {
+        int burst = (int) MicroserviceLog.RATE_LIMIT_BURST;
+        assertEquals(burst, microserviceLog.log(records(burst + 10)));
+        Mockito.verify(logger, Mockito.times(burst)).log(any(LogRecord.class));
+        assertEquals(0, microserviceLog.log(records(1)));
+    }
+
+    /**
+     * Test rate limit is refilled with time
+     */
+    @Test
+    public void testRateLimitIsRefilled() {
+        int burst = (int) MicroserviceLog.RATE_LIMIT_BURST;
+        microserviceLog.log(records(burst));
+        clock.addAndGet(100_000_000L);
+        assertEquals((int) (MicroserviceLog.RATE_LIMIT_PER_SECOND / 10), microserviceLog.log(records(burst)));
+        clock.addAndGet(3_600_000_000_000L);
+        assertEquals(burst, microserviceLog.log(records(burst + 1)));
+    }
+
+    /**
+     * Test close detaches and closes handler
+     */
+    @Test
+    public void testClose() {
+        microserviceLog.close();
+        Mockito.verify(logger).removeHandler(handler);
+        Mockito.verify(handler).close();
+    }
+
+    /**
+     * Test remove closes log and removes its metrics
+     */
+    @Test
+    public void testRemove() {
+        microserviceLog.log(records(1));
+        assertTrue(MetricsRegistry.scrape().contains("microservice=\"microserviceUuid\""));
+        microserviceLog.remove();
+        Mockito.verify(handler).close();
+        assertFalse(MetricsRegistry.scrape().contains("microservice=\"microserviceUuid\""));
+    }
+
+    private static List<LogRecord> records(int count) {
+        List<LogRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new LogRecord(Level.INFO, "message " + i));
+        }
+        return records;
+    }
+}
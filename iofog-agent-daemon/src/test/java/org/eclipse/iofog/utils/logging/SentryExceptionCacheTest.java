@@ -0,0 +1,129 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class SentryExceptionCacheTest {
+    private File cacheFile;
+    private AtomicLong clock;
+    private SentryExceptionCache sentryExceptionCache;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        cacheFile = new File(temporaryFolder.getRoot(), "sentry-cache.json");
+        clock = new AtomicLong();
+        sentryExceptionCache = new SentryExceptionCache(cacheFile.getPath(), clock::get);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sentryExceptionCache = null;
+    }
+
+    /**
+     * Test same exception is captured once
+     */
+    @Test
+    public void testSameExceptionIsCapturedOnce() {
+        assertTrue(sentryExceptionCache.shouldCapture(newException(1)));
+        assertFalse(sentryExceptionCache.shouldCapture(newException(1)));
+        assertTrue(sentryExceptionCache.shouldCapture(newException(2)));
+    }
+
+    /**
+     * Test exception without stack trace is not captured
+     */
+    @Test
+    public void testExceptionWithoutStackTraceIsNotCaptured() {
+        Exception exception = new Exception();
+        exception.setStackTrace(new StackTraceElement[0]);
+        assertFalse(sentryExceptionCache.shouldCapture(exception));
+    }
+
+    /**
+     * Test signature is taken from first stack trace element of iofog code ignoring case
+     */
+    @Test
+    public void testGetSignature() {
+        Exception exception = new Exception();
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("io.netty.Channel", "write", "Channel.java", 10),
+                new StackTraceElement("org.eclipse.iofog.Agent", "Run", "Agent.java", 20)});
+        assertEquals("agent.java|org.eclipse.iofog.agent|run|20", SentryExceptionCache.getSignature(exception));
+    }
+
+    /**
+     * Test captures are rate limited and rate limited exceptions are captured later
+     */
+    @Test
+    public void testCapturesAreRateLimited() {
+        for (int i = 0; i < SentryExceptionCache.MAX_CAPTURES_PER_MINUTE; i++) {
+            assertTrue(sentryExceptionCache.shouldCapture(newException(i)));
+        }
+        Exception limited = newException(SentryExceptionCache.MAX_CAPTURES_PER_MINUTE);
+        assertFalse(sentryExceptionCache.shouldCapture(limited));
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        assertTrue(sentryExceptionCache.shouldCapture(limited));
+    }
+
+    /**
+     * Test oldest signatures are evicted when cache is full
+     */
+    @Test
+    public void testOldestSignaturesAreEvicted() {
+        for (int i = 0; i <= SentryExceptionCache.MAX_SIGNATURES; i++) {
+            clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+            assertTrue(sentryExceptionCache.shouldCapture(newException(i)));
+        }
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        assertFalse(sentryExceptionCache.shouldCapture(newException(SentryExceptionCache.MAX_SIGNATURES)));
+        assertTrue(sentryExceptionCache.shouldCapture(newException(0)));
+    }
+
+    /**
+     * Test persisted signatures are loaded
+     */
+    @Test
+    public void testPersistAndLoad() {
+        sentryExceptionCache.shouldCapture(newException(1));
+        sentryExceptionCache.persist();
+        assertTrue(cacheFile.exists());
+        assertFalse(new File(cacheFile.getPath() + ".tmp").exists());
+
+        SentryExceptionCache loaded = new SentryExceptionCache(cacheFile.getPath(), clock::get);
+        loaded.load();
+        assertFalse(loaded.shouldCapture(newException(1)));
+        assertTrue(loaded.shouldCapture(newException(2)));
+    }
+
+    private static Exception newException(int line) {
+        Exception exception = new Exception("exception");
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("org.eclipse.iofog.Module", "method", "Module.java", line)});
+        return exception;
+    }
+}
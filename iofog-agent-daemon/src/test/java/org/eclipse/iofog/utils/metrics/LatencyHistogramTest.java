@@ -0,0 +1,114 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    private AtomicLong now;
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        now = new AtomicLong();
+        histogram = new LatencyHistogram(60, now::get);
+    }
+
+    /**
+     * Test every value falls into a bucket whose highest value is within 1/32 of it
+     */
+    @Test
+    public void testBucketPrecision() {
+        int lastIndex = -1;
+        for (long value = 0; value < 1L << 33; value = value < 64 ? value + 1 : value + value / 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= lastIndex);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 32);
+            lastIndex = index;
+        }
+    }
+
+    /**
+     * Test quantiles of uniformly distributed latencies
+     */
+    @Test
+    public void testQuantiles() {
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000, histogram.getValueAtQuantile(0.5), 5_000 / 32);
+        assertEquals(9_900, histogram.getValueAtQuantile(0.99), 9_900 / 32);
+        assertEquals(10_000, histogram.getValueAtQuantile(1));
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(50.005, histogram.getSum(), 1e-9);
+    }
+
+    /**
+     * Test empty histogram and negative latencies
+     */
+    @Test
+    public void testEmptyAndNegative() {
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+        histogram.recordMicros(-5);
+        assertEquals(0, histogram.getMax());
+        assertEquals(1, histogram.getCount());
+    }
+
+    /**
+     * Test old observations leave quantiles after two windows but stay in count and sum
+     */
+    @Test
+    public void testWindowRotation() {
+        histogram.recordNanos(TimeUnit.SECONDS.toNanos(1));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        histogram.recordMicros(100);
+        assertEquals(1_000_000, histogram.getMax());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(100, histogram.getMax());
+        assertEquals(100, histogram.getValueAtQuantile(0.99));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+        assertEquals(2, histogram.getCount());
+    }
+
+    /**
+     * Test invalid quantile throws IllegalArgumentException
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        histogram.getValueAtQuantile(1.5);
+    }
+
+    /**
+     * Test histogram is rendered as summary
+     */
+    @Test
+    public void testWrite() {
+        histogram.recordMicros(1_000);
+        StringBuilder out = new StringBuilder();
+        histogram.write(out, "test_latency_seconds", "route=\"a\"");
+        String samples = out.toString();
+        assertTrue(samples.contains("test_latency_seconds{route=\"a\",quantile=\"0.99\"} 0.001\n"));
+        assertTrue(samples.contains("test_latency_seconds_count{route=\"a\"} 1\n"));
+        assertTrue(samples.contains("test_latency_seconds_sum{route=\"a\"} 0.001\n"));
+    }
+}
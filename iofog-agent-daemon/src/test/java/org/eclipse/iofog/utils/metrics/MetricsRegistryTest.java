@@ -0,0 +1,144 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @After
+    public void tearDown() throws Exception {
+        MetricsRegistry.clear();
+    }
+
+    /**
+     * Test counter is rendered with _total suffix and labels
+     */
+    @Test
+    public void testCounter() {
+        MetricFamily<Counter> counter = MetricsRegistry.counter("test_requests", "Requests", "route");
+        counter.labels("/v2/status").inc();
+        counter.labels("/v2/status").inc(2);
+        assertEquals(3, counter.labels("/v2/status").get());
+        String scrape = MetricsRegistry.scrape();
+        assertTrue(scrape.contains("# TYPE test_requests counter\n"));
+        assertTrue(scrape.contains("# HELP test_requests Requests\n"));
+        assertTrue(scrape.contains("test_requests_total{route=\"/v2/status\"} 3\n"));
+        assertTrue(scrape.endsWith("# EOF\n"));
+    }
+
+    /**
+     * Test counter can not be decreased
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testCounterThrowsExceptionWhenDecreased() {
+        MetricsRegistry.counter("test_requests", "Requests").labels().inc(-1);
+    }
+
+    /**
+     * Test gauge reads bound source on scrape
+     */
+    @Test
+    public void testGauge() {
+        double[] value = {1.5};
+        MetricsRegistry.gauge("test_value", "Value").labels().bind(() -> value[0]);
+        assertTrue(MetricsRegistry.scrape().contains("test_value 1.5\n"));
+        value[0] = 2;
+        assertTrue(MetricsRegistry.scrape().contains("test_value 2\n"));
+    }
+
+    /**
+     * Test failing gauge source is skipped without breaking the scrape
+     */
+    @Test
+    public void testGaugeSourceThrowsException() {
+        MetricsRegistry.gauge("test_broken", "Broken").labels().bind(() -> {
+            throw new IllegalStateException("not ready");
+        });
+        MetricsRegistry.gauge("test_value", "Value").labels().set(7);
+        String scrape = MetricsRegistry.scrape();
+        assertFalse(scrape.contains("\ntest_broken "));
+        assertTrue(scrape.contains("test_value 7\n"));
+    }
+
+    /**
+     * Test histogram buckets are cumulative and sum is in seconds
+     */
+    @Test
+    public void testHistogram() {
+        Histogram histogram = MetricsRegistry.histogram("test_duration_seconds", "Duration",
+                new double[] {0.01, 0.1}, "route").labels("a");
+        histogram.observeNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.observeNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.observeNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        histogram.observeNanos(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(4, histogram.getCount());
+        assertEquals(1.065, histogram.getSum(), 1e-9);
+        String scrape = MetricsRegistry.scrape();
+        assertTrue(scrape.contains("test_duration_seconds_bucket{route=\"a\",le=\"0.01\"} 2\n"));
+        assertTrue(scrape.contains("test_duration_seconds_bucket{route=\"a\",le=\"0.1\"} 3\n"));
+        assertTrue(scrape.contains("test_duration_seconds_bucket{route=\"a\",le=\"+Inf\"} 4\n"));
+        assertTrue(scrape.contains("test_duration_seconds_count{route=\"a\"} 4\n"));
+        assertTrue(scrape.contains("test_duration_seconds_sum{route=\"a\"} 1.065\n"));
+    }
+
+    /**
+     * Test histogram rejects unordered buckets
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testHistogramThrowsExceptionWhenBucketsAreNotAscending() {
+        new Histogram(new double[] {0.1, 0.01});
+    }
+
+    /**
+     * Test same family is returned on repeated registration
+     */
+    @Test
+    public void testRegisterReturnsExistingFamily() {
+        assertSame(MetricsRegistry.counter("test_requests", "Requests"), MetricsRegistry.counter("test_requests", "Requests"));
+    }
+
+    /**
+     * Test registering name with another type throws IllegalArgumentException
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testRegisterThrowsExceptionWhenTypeDiffers() {
+        MetricsRegistry.counter("test_requests", "Requests");
+        MetricsRegistry.gauge("test_requests", "Requests");
+    }
+
+    /**
+     * Test wrong number of label values throws IllegalArgumentException
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testLabelsThrowsExceptionWhenCountDiffers() {
+        MetricsRegistry.counter("test_requests", "Requests", "route").labels();
+    }
+
+    /**
+     * Test label values are escaped and removed metrics are not rendered
+     */
+    @Test
+    public void testLabelValuesEscapedAndRemoved() {
+        MetricFamily<Gauge> gauge = MetricsRegistry.gauge("test_value", "Value", "name");
+        gauge.labels("a\"b\\c").set(1);
+        assertTrue(MetricsRegistry.scrape().contains("test_value{name=\"a\\\"b\\\\c\"} 1\n"));
+        gauge.remove("a\"b\\c");
+        assertFalse(MetricsRegistry.scrape().contains("test_value{"));
+    }
+}